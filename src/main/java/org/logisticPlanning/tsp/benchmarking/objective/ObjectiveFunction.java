@@ -7,6 +7,7 @@ import java.util.Calendar;
 import java.util.GregorianCalendar;
 
 import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
 import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 import org.logisticPlanning.tsp.solving.utils.SolutionValidator;
 import org.logisticPlanning.utils.NamedObject;
@@ -3831,6 +3832,99 @@ public final class ObjectiveFunction extends DistanceComputer {
     return this.m_dist.distance(i, j);
   }
 
+  /**
+   * <p>
+   * Register that a given number of distance evaluations has been
+   * performed without calling {@link #distance(int, int)}, i.e., by using
+   * a distance computer returned by
+   * {@link #createCountingDistanceComputer()}.
+   * </p>
+   * <p>
+   * Several check points may be passed at once. Since no solution has been
+   * registered during these distance evaluations, the best solution was
+   * the same at each of them. If an improvement has not been logged yet,
+   * it is hence logged right at the first check point passed, with exactly
+   * the number of distance evaluations of this check point, instead of
+   * waiting for the next registered solution.
+   * </p>
+   *
+   * @param des
+   *          the number of distance evaluations that have been performed
+   * @see #createCountingDistanceComputer()
+   */
+  public final void registerDEs(final long des) {
+    final long de;
+    final LogPoint cur;
+    long t;
+
+    if (des <= 0l) {
+      return;
+    }
+
+    cur = this.m_currentLP;
+    de = (cur.m_de + des);
+
+    // did we pass a check point?
+    if (de >= this.m_nextDE) {
+
+      // visit each check point passed
+      do {
+        cur.m_type |= ObjectiveFunction.TYPE_FLAG_DE;
+        if (this.m_fimproved) {
+          // log the pending improvement at the check point
+          cur.m_de = Math.max(cur.m_de, this.m_nextDE);
+          t = System.currentTimeMillis();
+          cur.m_time = ((t - this.m_startTime) + this.m_time_offset);
+          if (t >= this.m_endTime) {
+            this.m_terminate = true;
+          }
+          this.m_shouldLog = false;
+          this.m_fimproved = false;
+          this.m_log[this.m_logSize++]._assign(cur);
+          cur.m_type = 0;
+        } else {
+          this.m_shouldLog = true;
+        }
+
+        if ((--this.m_deIdx) < 0) {// no next check point? quit!
+          this.m_terminate = true;
+          break;
+        }
+        this.m_nextDE = this.m_FEsDEsToLog[this.m_deIdx];
+      } while (de >= this.m_nextDE);
+
+      // the maximum DE limit will always be a check point
+      if (de >= this.m_maxDEs) {
+        this.m_terminate = true;
+      }
+    }
+
+    cur.m_de = de;
+  }
+
+  /**
+   * <p>
+   * Create a distance computer for a worker thread. The objective function
+   * itself is not thread-safe, so an algorithm evaluating distances in
+   * parallel threads gives each thread its own counting distance computer.
+   * The underlying distance computer is never exposed, so all distance
+   * evaluations are counted.
+   * </p>
+   * <p>
+   * The counted distance evaluations must be registered via
+   * {@link #registerDEs(long)} before any other operation is performed on
+   * this objective function, in particular before registering any
+   * candidate solution whose quality was determined with them.
+   * </p>
+   *
+   * @return a new counting distance computer, to be used by a single
+   *         thread
+   * @see #registerDEs(long)
+   */
+  public final CountingDistanceComputer createCountingDistanceComputer() {
+    return new CountingDistanceComputer(this.m_dist);
+  }
+
   /**
    * <p>
    * Evaluate a given candidate solution in <a
@@ -1,7 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
 
-import java.util.Arrays;
 import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
@@ -43,6 +43,22 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * solve larger-scale problem instances. Also, we achieve at least some
  * sort of randomization by creating a permutation of the node list before
  * applying the algorithm.
+ * </p>
+ * <p>
+ * A node of the branch and bound tree only stores the one edge it excludes
+ * in addition to its parent, so the memory per open node does not depend
+ * on {@code n}. The excluded edges of the node currently examined are
+ * materialized in a bit set by walking its chain of ancestors. The
+ * Held-Karp arrays are taken from a pool and the iteration of pi is
+ * warm-started from the pi of the parent node. This also holds for the
+ * nodes taken from the queue: The children of a node which are queued
+ * share one copy of its pi. The tour
+ * constructed from each 1-tree is registered at the objective function,
+ * and nodes are pruned if their lower bound is not better than the best
+ * 1-tree which is a tour itself. A {@link ParallelBAB_HK parallel
+ * version} of this algorithm exists as well, which prunes with the best
+ * tour constructed from any 1-tree.
+ * </p>
  * <h2>References</h2>
  * <ol>
  * <li><div><span id="cite_CI2011OTA" /><a
@@ -146,20 +162,8 @@ public class BAB_HK extends TSPAlgorithm {
   /** the serial version uid */
   private static final long serialVersionUID = 1L;
 
-  /** the best node */
-  private transient _Node m_bestNode;
-
-  /** the n */
-  private int m_n;
-
-  /** the objective function */
-  private transient ObjectiveFunction m_f;
-
-  /** the node entries */
-  private transient _NodeEntry[] m_nodes;
-
-  /** the solution array */
-  private transient int[] m_sol;
+  /** the Held-Karp machinery */
+  private transient _HeldKarp m_hk;
 
   /** instantiate */
   public BAB_HK() {
@@ -171,64 +175,59 @@ public class BAB_HK extends TSPAlgorithm {
   public BAB_HK clone() {
     BAB_HK r;
     r = ((BAB_HK) (super.clone()));
-    r.m_bestNode = null;
-    r.m_nodes = null;
-    r.m_sol = null;
+    r.m_hk = null;
     return r;
   }
 
-  /** {@inheritDoc} */
-  @Override
-  public void beginRun(final ObjectiveFunction f) {
+  /**
+   * Create a random order of the nodes, in which they are indexed by the
+   * Held-Karp machinery
+   *
+   * @param f
+   *          the objective function
+   * @return the order
+   */
+  static final int[] createOrder(final ObjectiveFunction f) {
     final int n;
-    final _NodeEntry[] nodes;
+    final int[] order;
     final Randomizer r;
     int i, j, k;
-    _NodeEntry x;
-
-    super.beginRun(f);
-
-    this.m_f = f;
-    this.m_n = n = f.n();
 
+    n = f.n();
     r = f.getRandom();
 
-    // create nodes array
-    this.m_nodes = nodes = new _NodeEntry[n];
-    for (i = n; i > 0;) {
-      x = new _NodeEntry();
-      x.m_node = i;
-      nodes[--i] = x;
+    order = new int[n];
+    for (i = n; (--i) >= 0;) {
+      order[i] = (i + 1);
     }
 
     // permutate
     for (i = n; (--i) >= 0;) {
       j = r.nextInt(n);
-      k = nodes[i].m_node;
-      nodes[i].m_node = nodes[j].m_node;
-      nodes[j].m_node = k;
+      k = order[i];
+      order[i] = order[j];
+      order[j] = k;
     }
-    // ok, we have the node permutation
-
-    // allocate solution array
-    this.m_sol = new int[n];
+    return order;
+  }
 
-    // allocate best node
-    this.m_bestNode = new _Node();
-    this.m_bestNode.m_lowerBound = Double.POSITIVE_INFINITY;
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    super.beginRun(f);
 
+    this.m_hk = new _HeldKarp(BAB_HK.createOrder(f), f, new AtomicLong(
+        Long.MAX_VALUE), false);
   }
 
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
     try {
-      this.m_f = null;
-      this.m_n = (-1);
-
-      this.m_nodes = null;
-      this.m_sol = null;
-      this.m_bestNode = null;
+      if (this.m_hk != null) {
+        this.m_hk.registerDEs();
+      }
+      this.m_hk = null;
     } finally {
       super.endRun(f);
     }
@@ -237,374 +236,71 @@ public class BAB_HK extends TSPAlgorithm {
   /** {@inheritDoc} */
   @Override
   public void solve(final ObjectiveFunction f) {
+    final _HeldKarp hk;
     _Node currentNode;
     final PriorityQueue<_Node> pq;
     final PriorityQueue<_Node> children;
-    final int n;
+    _Node next;
     int i, j;
 
-    n = f.n();
-
+    hk = this.m_hk;
     currentNode = new _Node();
-    currentNode.m_excluded = new boolean[n][n];
+    hk.allocate(currentNode);
 
-    this.computeHeldKarp(currentNode);
-    if (f.shouldTerminate()) {
+    hk.computeHeldKarp(currentNode);
+    if (hk.shouldTerminate()) {
       return;
     }
 
     pq = new PriorityQueue<>(11, _NodeComparator.INSTANCE);
     children = new PriorityQueue<>(11, _NodeComparator.INSTANCE);
 
-    do {
+    for (;;) {
       do {
-        i = -1;
-        for (j = 0; j < this.m_n; j++) {
-          if ((currentNode.m_degree[j] > 2)
-              && ((i < 0) || (currentNode.m_degree[j] < currentNode.m_degree[i]))) {
-            i = j;
-          }
-        }
+        i = hk.chooseBranchingIndex(currentNode);
         if (i < 0) {
-          if (currentNode.m_lowerBound < this.m_bestNode.m_lowerBound) {
-            this.m_bestNode = currentNode;
-          }
+          hk.onTourNode(currentNode);
           break;
         }
 
         children.clear();
-        children
-            .add(this.exclude(currentNode, i, currentNode.m_parent[i]));
-        for (j = 0; j < this.m_n; j++) {
+        children.add(hk.exclude(currentNode, i, currentNode.m_parent[i]));
+        for (j = 0; j < f.n(); j++) {
           if (currentNode.m_parent[j] == i) {
-            children.add(this.exclude(currentNode, i, j));
-            if (f.shouldTerminate()) {
+            children.add(hk.exclude(currentNode, i, j));
+            if (hk.shouldTerminate()) {
               return;
             }
           }
         }
-        currentNode = children.poll();
-        pq.addAll(children);
-      } while ((currentNode.m_lowerBound < this.m_bestNode.m_lowerBound)
-          && (!(f.shouldTerminate())));
-
-      currentNode = pq.poll();
-    } while ((currentNode != null)
-        && (currentNode.m_lowerBound < this.m_bestNode.m_lowerBound)
-        && (!(f.shouldTerminate())));
-  }
-
-  /**
-   * exclude something
-   *
-   * @param node
-   *          the node
-   * @param i
-   *          the i
-   * @param j
-   *          the j
-   * @return the node with the exclusion
-   */
-  private final _Node exclude(final _Node node, final int i, final int j) {
-    final _Node child;
-
-    child = new _Node();
-    child.m_excluded = node.m_excluded.clone();
-    child.m_excluded[i] = node.m_excluded[i].clone();
-    child.m_excluded[j] = node.m_excluded[j].clone();
-    child.m_excluded[i][j] = true;
-    child.m_excluded[j][i] = true;
-    this.computeHeldKarp(child);
-    return child;
-  }
-
-  /**
-   * compute the held-karp
-   *
-   * @param node
-   *          the node
-   */
-  private final void computeHeldKarp(final _Node node) {
-    double lambda, previousLowerBound, t;
-    int denom, d, i;
-
-    node.m_pi = new double[this.m_n];
-    node.m_lowerBound = Double.NEGATIVE_INFINITY;
-    node.m_degree = new int[this.m_n];
-    node.m_parent = new int[this.m_n];
-
-    lambda = 0.1d;
-    while ((lambda > 1e-06d) && (!(this.m_f.shouldTerminate()))) {
-      previousLowerBound = node.m_lowerBound;
-      this.computeOneTree(node);
-
-      if (node.m_lowerBound >= this.m_bestNode.m_lowerBound) {
-        return;
-      }
-
-      if (node.m_lowerBound >= previousLowerBound) {
-        lambda *= 0.9d;
-      }
-
-      denom = 0;
-      for (i = 1; i < this.m_n; i++) {
-        d = (node.m_degree[i] - 2);
-        denom += (d * d);
-      }
-      if (denom == 0) {
-        return;
-      }
-
-      t = ((lambda * node.m_lowerBound) / denom);
-      for (i = 1; i < this.m_n; i++) {
-        node.m_pi[i] += (t * (node.m_degree[i] - 2));
-      }
-    }
-  }
-
-  /**
-   * Compute the 1-tree
-   *
-   * @param node
-   *          the node with the search information
-   */
-  private final void computeOneTree(final _Node node) {
-    int firstNeighbor, secondNeighbor, i, j, k, curDist, secondDist;
-    double costWithPiFirst, costWithPiSecond, curCostWithPi;
-    final _NodeEntry[] nodes;
-    _NodeEntry cur;
-    final _NodeEntry root;
-    _NodeEntry a;
-    final int n, nodeNull;
-
-    node.m_lowerBound = 0d;
-    Arrays.fill(node.m_degree, 0);
-
-    n = this.m_n;
-    costWithPiFirst = Double.POSITIVE_INFINITY;
-    costWithPiSecond = Double.POSITIVE_INFINITY;
-    nodes = this.m_nodes;
-    firstNeighbor = 1;
-    secondNeighbor = 2;
-    a = nodes[1];
-
-    // find the two cheapest edges departing from node 0
-    root = nodes[0];
-    root.clear();
-    nodeNull = root.m_node;
-
-    for (j = 1; j < n; j++) {
-      cur = nodes[j];
-      cur.clear();
-
-      if (node.m_excluded[0][j]) {
-        curCostWithPi = Double.POSITIVE_INFINITY;
-        // this is set as of "clear" in cur
-      } else {
-        cur.m_dist = this.m_f.distance(nodeNull, cur.m_node);
-        cur.m_costWithPi = curCostWithPi = (cur.m_dist + node.m_pi[0] + node.m_pi[j]);
-      }
-
-      // curCostWithPi = this.costWithPi(0, j, node);
-      if (curCostWithPi < costWithPiSecond) {
-        if (curCostWithPi < costWithPiFirst) {
-          a = cur;
-          secondNeighbor = firstNeighbor;
-          costWithPiSecond = costWithPiFirst;
-          costWithPiFirst = curCostWithPi;
-          firstNeighbor = j;
-        } else {
-          secondNeighbor = j;
-          costWithPiSecond = curCostWithPi;
-        }
-      }
-    }
-    secondDist = nodes[secondNeighbor].m_dist;
-    BAB_HK.addEdge(node, 0, firstNeighbor, costWithPiFirst);
-    a.m_parent = root;
-    root.m_child = a;
-
-    // now create the minimum cost list for the MST creation
-    Arrays.fill(node.m_parent, firstNeighbor);
-    node.m_parent[firstNeighbor] = 0;
-
-    // compute the minimum remaining costs
-    for (i = n; (--i) >= 0;) {
-      if (i != firstNeighbor) {
-        cur = nodes[i];
-        cur.m_parent = a;
-
-        if (node.m_excluded[firstNeighbor][i]) {
-          cur.m_dist = Integer.MAX_VALUE;
-          cur.m_costWithPi = Double.POSITIVE_INFINITY;
-        } else {
-          cur.m_dist = this.m_f.distance(a.m_node, cur.m_node);
-          cur.m_costWithPi = (cur.m_dist + node.m_pi[firstNeighbor] + node.m_pi[i]);
-        }
-      }
-    }
-
-    // compute the minimum spanning tree on nodes 1..n-1
-    for (k = 2; k < n; k++) {
-      for (i = 1; i < n; i++) {
-        if (node.m_degree[i] == 0) {
-          break;
-        }
-      }
-
-      for (j = i + 1; j < this.m_n; j++) {
-        if ((node.m_degree[j] == 0)
-            && (nodes[j].m_costWithPi < nodes[i].m_costWithPi)) {
-          i = j;
-        }
-      }
-
-      // add the edge
-      cur = nodes[i];
-      cur.m_nextChild = cur.m_parent.m_child;
-      cur.m_parent.m_child = cur;
-      a = cur;
-      BAB_HK.addEdge(node, node.m_parent[i], i, cur.m_costWithPi);
-
-      for (j = 1; j < n; j++) {
-        if (node.m_degree[j] == 0) {
-          if (!(node.m_excluded[i][j])) {
-            cur = nodes[j];
-            curDist = this.m_f.distance(a.m_node, cur.m_node);
-            curCostWithPi = (curDist + node.m_pi[i] + node.m_pi[j]);
-            if (curCostWithPi < cur.m_costWithPi) {
-              cur.m_costWithPi = curCostWithPi;
-              cur.m_dist = curDist;
-              node.m_parent[j] = i;
-              cur.m_parent = a;
-            }
-          }
-        }
-      }
-    }
-
-    // add edge to second neighbor
-    curCostWithPi = (secondDist + node.m_pi[0] + node.m_pi[secondNeighbor]);
-    BAB_HK.addEdge(node, 0, secondNeighbor, curCostWithPi);
-    node.m_parent[0] = secondNeighbor;
-
-    // connect root to second neighbor
-    root.m_parent = nodes[secondNeighbor];
-    root.m_dist = secondDist;
-
-    // // we omit this edge in the solution generation, as it will lead to
-    // a
-    // //(useless?) loop
-
-    // cur = nodes[secondNeighbor];
-    // cur.m_dist = secondDist;
-    // cur.m_costWithPi = curCostWithPi;
-    // cur.m_nextChild = root.m_child;
-    // root.m_child = cur;
-
-    node.m_lowerBound = Math.rint(node.m_lowerBound);
-    // ok, we have a new spanning tree and a new lower bound
-
-    // create a solution representing what we've got
-    this.makeSolution();
-  }
-
-  /** make a solution */
-  private final void makeSolution() {
-    final int n;
-    _NodeEntry root, next, cur, last;// , loopFind;
-    final int[] perm;
-    int i, dist;
-    long totalD;
-
-    n = this.m_n;
-    perm = this.m_sol;
-
-    // start at the root
-    i = 0;
-    root = this.m_nodes[0];
-    perm[i++] = root.m_node;
-    totalD = 0l;
-    // loopFind = null;
-
-    // start at the root of the tree at follow it
-    for (last = cur = root; cur != null;) {
-
-      next = cur.m_child;
-
-      // is there such a child?
-      if (next != null) {
-        // loopFind = null;
-        cur.m_child = next.m_nextChild;
-        next.m_nextChild = null;
+        next = children.poll();
 
-        // did we already visit that child?
-        if (next.m_ready) {
-          next.m_ready = false;
-
-          // add it to the permutation
-          perm[i++] = next.m_node;
-
-          // what is the distance to that child?
-          getDistance: {
-            if (next.m_parent == last) {
-              // the parent is the current node: don't need to
-              // re-compute
-              dist = next.m_dist;
-              // is distance valid?
-              if ((dist >= 0) && (dist < Integer.MAX_VALUE)) {
-                break getDistance;
-              }
-            }
-            // otherwise, take shortcut
-            dist = this.m_f.distance(last.m_node, next.m_node);
-          }
-
-          totalD += dist;
-          last = next;
+        // the nodes in the queue only keep their lower bound, the
+        // difference to their parent, and the pi of their parent
+        hk.enqueue(currentNode, children);
+        hk.release(currentNode);
+        currentNode = next;
+        pq.addAll(children);
+      } while ((currentNode.m_lowerBound < hk.getUpperBound())
+          && (!(hk.shouldTerminate())));
+      hk.release(currentNode);
+
+      // take the next node from the queue and restore its Held-Karp data
+      for (;;) {
+        currentNode = pq.poll();
+        if ((currentNode == null)
+            || (currentNode.m_lowerBound >= hk.getUpperBound())
+            || (hk.shouldTerminate())) {
+          return;
         }
 
-        cur = next;
-
-        if (i >= n) {
+        hk.restore(currentNode);
+        if (currentNode.m_lowerBound < hk.getUpperBound()) {
           break;
         }
-        continue;// next iteration
+        hk.release(currentNode);
       }
-
-      // no such child exists? go back one step
-      // if (loopFind == null) {
-      // loopFind = cur;
-      // } else {
-      // if (cur == loopFind) {
-      // throw new RuntimeException(); //hehe, here i should do something
-      // }
-      // }
-
-      cur = cur.m_parent;
     }
-
-    totalD += this.m_f.distance(last.m_node, root.m_node);
-    this.m_f.registerFE(perm, totalD);// register solution
-  }
-
-  /**
-   * add an edge
-   *
-   * @param node
-   *          the node
-   * @param i
-   *          the i
-   * @param j
-   *          the j
-   * @param costWithPi
-   *          the costs with pi
-   */
-  private static final void addEdge(final _Node node, final int i,
-      final int j, final double costWithPi) {
-    node.m_lowerBound += costWithPi;// this.costWithPi(i, j, node);
-    node.m_degree[i]++;
-    node.m_degree[j]++;
   }
 
   /**
@@ -0,0 +1,171 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A parallel version of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK
+ * branch and bound with the Held-Karp relaxation}: The subtrees of the
+ * branch and bound tree are examined by a work-stealing
+ * {@link java.util.concurrent.ForkJoinPool fork-join pool} of
+ * {@link #PARAM_THREADS threads}. Each thread dives depth-first into the
+ * child with the best lower bound and forks the other children as new
+ * subtrees, which it later examines best-first, unless idle threads have
+ * stolen them. Since stealing takes the subtrees closest to the root,
+ * each thread usually works on a large, independent part of the tree.
+ * Per default, the pool has only {@value #DEFAULT_THREADS} thread, which
+ * then examines the whole tree alone: The
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_THREADS
+ * algorithm runner} already uses all processors for parallel runs, so
+ * more threads should only be configured for single runs.
+ * </p>
+ * <p>
+ * The incumbent upper bound, the length of the best tour constructed
+ * from any 1-tree so far, is shared by all threads through an
+ * {@link java.util.concurrent.atomic.AtomicLong}, so a tour found by one
+ * thread immediately prunes the subtrees of all others. Each improvement
+ * is registered at the objective function, which is locked for this
+ * purpose. The threads compute the distances with their own
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#createCountingDistanceComputer()
+ * counting distance computers}.
+ * </p>
+ */
+public class ParallelBAB_HK extends TSPAlgorithm {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the number of threads: {@value} */
+  public static final String PARAM_THREADS = "threads";//$NON-NLS-1$
+
+  /** the default number of threads: {@value} */
+  public static final int DEFAULT_THREADS = 1;
+
+  /** the number of threads */
+  private int m_threads;
+
+  /** the factory of the worker threads */
+  private transient _HKWorkerFactory m_factory;
+
+  /** the fork-join pool */
+  private transient ForkJoinPool m_pool;
+
+  /** instantiate */
+  public ParallelBAB_HK() {
+    super("Parallel Branch-and-Bound with Held-Karp Relaxation"); //$NON-NLS-1$
+    this.m_threads = ParallelBAB_HK.DEFAULT_THREADS;
+  }
+
+  /**
+   * Perform the parallel branch and bound with held-karp
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        ParallelBAB_HK.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ParallelBAB_HK clone() {
+    ParallelBAB_HK r;
+    r = ((ParallelBAB_HK) (super.clone()));
+    r.m_factory = null;
+    r.m_pool = null;
+    return r;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    super.beginRun(f);
+
+    this.m_factory = new _HKWorkerFactory(BAB_HK.createOrder(f), f,
+        new AtomicLong(Long.MAX_VALUE));
+    this.m_pool = new ForkJoinPool(this.m_threads, this.m_factory, null,
+        false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      if (this.m_pool != null) {
+        this.m_pool.shutdown();
+      }
+      this.m_pool = null;
+      this.m_factory = null;
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void solve(final ObjectiveFunction f) {
+    try {
+      this.m_pool.invoke(new _HKSubtree(new _Node()));
+    } finally {
+      this.m_factory.registerDEs();
+    }
+  }
+
+  /**
+   * Set the number of threads
+   *
+   * @param threads
+   *          the number of threads
+   */
+  public final void setThreadCount(final int threads) {
+    this.m_threads = Math.max(1, threads);
+  }
+
+  /**
+   * Get the number of threads
+   *
+   * @return the number of threads
+   */
+  public final int getThreadCount() {
+    return this.m_threads;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setThreadCount(config.getInt(ParallelBAB_HK.PARAM_THREADS, 1,
+        1024, this.m_threads));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(ParallelBAB_HK.PARAM_THREADS, ps);
+    ps.println(this.m_threads);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(ParallelBAB_HK.PARAM_THREADS, ps);
+    ps.println("The number of threads examining the subtrees in parallel."); //$NON-NLS-1$
+  }
+}
@@ -0,0 +1,121 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
+
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * A subtree of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.ParallelBAB_HK
+ * parallel branch and bound}, which must be executed by a
+ * {@link _HKWorkerThread}.
+ * </p>
+ * <p>
+ * The worker examines the subtree in the same way as the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK
+ * serial version}: It dives depth-first into the child with the best
+ * lower bound and keeps the other children in a local priority queue,
+ * from which it continues best-first once the dive is pruned. Whenever
+ * the fork-join pool has no surplus of queued tasks, i.e., when other
+ * threads are or will soon be idle, the best node of the local queue is
+ * forked as a new subtree, which can then be stolen. The forked subtrees
+ * are joined at the end.
+ * </p>
+ */
+final class _HKSubtree extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the root of the subtree */
+  private _Node m_node;
+
+  /**
+   * create
+   *
+   * @param node
+   *          the root of the subtree
+   */
+  _HKSubtree(final _Node node) {
+    super();
+    this.m_node = node;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final _HeldKarp hk;
+    final PriorityQueue<_Node> pq, children;
+    final ArrayList<_HKSubtree> forked;
+    _Node node, next;
+    _HKSubtree task;
+    int i, j, n;
+
+    node = this.m_node;
+    this.m_node = null;
+    hk = ((_HKWorkerThread) (Thread.currentThread())).m_hk;
+
+    if ((node.m_lowerBound >= hk.getUpperBound()) || hk.shouldTerminate()) {
+      return;
+    }
+    hk.restore(node);
+
+    pq = new PriorityQueue<>(11, _NodeComparator.INSTANCE);
+    children = new PriorityQueue<>(11, _NodeComparator.INSTANCE);
+    forked = new ArrayList<>();
+    n = node.m_degree.length;
+
+    outer: for (;;) {
+      while ((node.m_lowerBound < hk.getUpperBound())
+          && (!(hk.shouldTerminate()))) {
+        i = hk.chooseBranchingIndex(node);
+        if (i < 0) {
+          // the 1-tree is a tour, which has already been registered
+          break;
+        }
+
+        children.clear();
+        children.add(hk.exclude(node, i, node.m_parent[i]));
+        for (j = 0; j < n; j++) {
+          if (node.m_parent[j] == i) {
+            children.add(hk.exclude(node, i, j));
+          }
+        }
+        next = children.poll();
+        hk.enqueue(node, children);
+        hk.release(node);
+        node = next;
+        pq.addAll(children);
+
+        // share work with idle threads
+        if ((!(pq.isEmpty()))
+            && (RecursiveAction.getSurplusQueuedTaskCount() <= 0)) {
+          task = new _HKSubtree(pq.poll());
+          task.fork();
+          forked.add(task);
+        }
+      }
+      hk.release(node);
+
+      // take the next node from the queue and restore its Held-Karp data
+      for (;;) {
+        node = pq.poll();
+        if ((node == null) || (node.m_lowerBound >= hk.getUpperBound())
+            || hk.shouldTerminate()) {
+          break outer;
+        }
+        hk.restore(node);
+        if (node.m_lowerBound < hk.getUpperBound()) {
+          break;
+        }
+        hk.release(node);
+      }
+    }
+
+    pq.clear();
+    for (j = forked.size(); (--j) >= 0;) {
+      forked.get(j).join();
+    }
+  }
+}
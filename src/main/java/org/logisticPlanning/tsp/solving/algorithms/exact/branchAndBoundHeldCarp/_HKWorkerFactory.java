@@ -0,0 +1,74 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+
+/**
+ * The factory creating the {@link _HKWorkerThread worker threads} of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.ParallelBAB_HK
+ * parallel branch and bound}. It gives each thread its own Held-Karp
+ * machinery, all of which share the order of the nodes, the upper bound,
+ * and the objective function.
+ */
+final class _HKWorkerFactory implements
+    ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+  /** the order of the nodes */
+  private final int[] m_order;
+
+  /** the objective function */
+  private final ObjectiveFunction m_f;
+
+  /** the shared upper bound */
+  private final AtomicLong m_upperBound;
+
+  /** the Held-Karp machineries created so far */
+  private final ArrayList<_HeldKarp> m_created;
+
+  /**
+   * create
+   *
+   * @param order
+   *          the order of the nodes
+   * @param f
+   *          the objective function
+   * @param upperBound
+   *          the shared upper bound
+   */
+  _HKWorkerFactory(final int[] order, final ObjectiveFunction f,
+      final AtomicLong upperBound) {
+    super();
+    this.m_order = order;
+    this.m_f = f;
+    this.m_upperBound = upperBound;
+    this.m_created = new ArrayList<>();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+    final _HeldKarp hk;
+
+    hk = new _HeldKarp(this.m_order, this.m_f, this.m_upperBound, true);
+    synchronized (this.m_created) {
+      this.m_created.add(hk);
+    }
+    return new _HKWorkerThread(pool, hk);
+  }
+
+  /**
+   * Register the distance evaluations of all threads which have not been
+   * registered yet. This must only be called while no thread is working.
+   */
+  final void registerDEs() {
+    synchronized (this.m_created) {
+      for (final _HeldKarp hk : this.m_created) {
+        hk.registerDEs();
+      }
+    }
+  }
+}
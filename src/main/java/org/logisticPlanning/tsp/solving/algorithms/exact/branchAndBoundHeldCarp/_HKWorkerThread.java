@@ -0,0 +1,29 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * A worker thread of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.ParallelBAB_HK
+ * parallel branch and bound}, which owns the Held-Karp machinery used by
+ * all the {@link _HKSubtree subtrees} it examines.
+ */
+final class _HKWorkerThread extends ForkJoinWorkerThread {
+
+  /** the Held-Karp machinery of this thread */
+  final _HeldKarp m_hk;
+
+  /**
+   * create
+   *
+   * @param pool
+   *          the pool
+   * @param hk
+   *          the Held-Karp machinery of this thread
+   */
+  _HKWorkerThread(final ForkJoinPool pool, final _HeldKarp hk) {
+    super(pool);
+    this.m_hk = hk;
+  }
+}
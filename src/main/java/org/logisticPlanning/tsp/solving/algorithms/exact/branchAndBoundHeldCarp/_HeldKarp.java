@@ -0,0 +1,714 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The Held-Karp machinery of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK
+ * branch and bound}: the 1-trees, the iteration of pi, and the pools and
+ * bit sets needed to examine the nodes of the branch and bound tree. Each
+ * thread working on the tree has its own instance, all instances of a run
+ * share the same order of the nodes, the upper bound, and the objective
+ * function.
+ * </p>
+ * <p>
+ * In the serial mode used by
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK},
+ * the distances are computed by the objective function itself, the tour
+ * constructed from each 1-tree is registered, and the upper bound only
+ * becomes smaller if a 1-tree is a tour itself.
+ * </p>
+ * <p>
+ * In the parallel mode, the upper bound is the length of the best tour
+ * constructed from any 1-tree so far. It is published through an
+ * {@link AtomicLong}, and each improvement is registered at the objective
+ * function, which is locked for that purpose. The distances are computed
+ * with an own
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#createCountingDistanceComputer()
+ * counting distance computer} and the evaluations are registered
+ * whenever the objective function is locked.
+ * </p>
+ */
+final class _HeldKarp {
+
+  /** the n */
+  private final int m_n;
+
+  /** the objective function */
+  private final ObjectiveFunction m_f;
+
+  /** the distance computer */
+  private final DistanceComputer m_dist;
+
+  /**
+   * the counting distance computer of the parallel mode, or {@code null}
+   * in the serial mode
+   */
+  private final CountingDistanceComputer m_counter;
+
+  /** the upper bound, i.e., the length of the best tour found so far */
+  private final AtomicLong m_upperBound;
+
+  /** the node entries */
+  private final _NodeEntry[] m_nodes;
+
+  /** the solution array */
+  private final int[] m_sol;
+
+  /**
+   * the edges excluded in the branch and bound node currently examined:
+   * row {@code i} is a bit set of the indices {@code j} of the excluded
+   * edges {@code (i,j)}
+   */
+  private final long[][] m_excluded;
+
+  /** the pool of the unused pi arrays */
+  private double[][] m_piPool;
+
+  /** the pool of the unused degree arrays */
+  private int[][] m_degreePool;
+
+  /** the pool of the unused parent arrays */
+  private int[][] m_parentPool;
+
+  /** the number of array triples in the pools */
+  private int m_poolSize;
+
+  /**
+   * create
+   *
+   * @param order
+   *          the nodes in the order in which they are indexed
+   * @param f
+   *          the objective function
+   * @param upperBound
+   *          the shared upper bound
+   * @param parallel
+   *          {@code true} for the parallel mode, {@code false} for the
+   *          serial mode
+   */
+  _HeldKarp(final int[] order, final ObjectiveFunction f,
+      final AtomicLong upperBound, final boolean parallel) {
+    super();
+
+    final int n;
+    final _NodeEntry[] nodes;
+    _NodeEntry x;
+    int i;
+
+    this.m_n = n = order.length;
+    this.m_f = f;
+    if (parallel) {
+      this.m_dist = this.m_counter = f.createCountingDistanceComputer();
+    } else {
+      this.m_dist = f;
+      this.m_counter = null;
+    }
+    this.m_upperBound = upperBound;
+
+    this.m_nodes = nodes = new _NodeEntry[n];
+    for (i = n; (--i) >= 0;) {
+      x = new _NodeEntry();
+      x.m_node = order[i];
+      nodes[i] = x;
+    }
+
+    this.m_sol = new int[n];
+    this.m_excluded = new long[n][(n + 63) >>> 6];
+    this.m_piPool = new double[16][];
+    this.m_degreePool = new int[16][];
+    this.m_parentPool = new int[16][];
+  }
+
+  /**
+   * Get the upper bound
+   *
+   * @return the length of the best tour found so far
+   */
+  final long getUpperBound() {
+    return this.m_upperBound.get();
+  }
+
+  /**
+   * Register the distance evaluations performed so far at the objective
+   * function, which must be locked by the caller
+   */
+  private final void __flushDEs() {
+    final CountingDistanceComputer counter;
+
+    counter = this.m_counter;
+    if (counter != null) {
+      this.m_f.registerDEs(counter.getCount());
+      counter.resetCount();
+    }
+  }
+
+  /**
+   * Register the distance evaluations performed so far at the objective
+   * function
+   */
+  final void registerDEs() {
+    synchronized (this.m_f) {
+      this.__flushDEs();
+    }
+  }
+
+  /**
+   * Register the distance evaluations performed so far at the objective
+   * function and check whether the run should be terminated.
+   *
+   * @return {@code true} if the run should be terminated, {@code false}
+   *         otherwise
+   */
+  final boolean shouldTerminate() {
+    final ObjectiveFunction f;
+
+    f = this.m_f;
+    if (this.m_counter == null) {
+      return f.shouldTerminate();
+    }
+    synchronized (f) {
+      this.__flushDEs();
+      return f.shouldTerminate();
+    }
+  }
+
+  /**
+   * Publish a new tour constructed from a 1-tree: In the serial mode, it
+   * is registered at the objective function. In the parallel mode, it is
+   * registered only if it is better than the upper bound, which it then
+   * replaces.
+   *
+   * @param perm
+   *          the tour
+   * @param length
+   *          its length
+   */
+  private final void onSolution(final int[] perm, final long length) {
+    final ObjectiveFunction f;
+    final AtomicLong upperBound;
+    long old;
+
+    if (this.m_counter == null) {
+      this.m_f.registerFE(perm, length);
+      return;
+    }
+
+    upperBound = this.m_upperBound;
+    do {
+      old = upperBound.get();
+      if (length >= old) {
+        return;
+      }
+    } while (!(upperBound.compareAndSet(old, length)));
+
+    f = this.m_f;
+    synchronized (f) {
+      this.__flushDEs();
+      f.registerFE(perm, length);
+    }
+  }
+
+  /**
+   * A node whose 1-tree is a tour has been found: In the serial mode, its
+   * lower bound, i.e., the length of the tour, becomes the new upper bound
+   * if it is smaller. In the parallel mode, the tour has already been
+   * published.
+   *
+   * @param node
+   *          the node
+   */
+  final void onTourNode(final _Node node) {
+    final long length;
+
+    if (this.m_counter == null) {
+      length = ((long) (node.m_lowerBound));
+      if (length < this.m_upperBound.get()) {
+        this.m_upperBound.set(length);
+      }
+    }
+  }
+
+  /**
+   * Choose the index at which to branch: the node with the smallest
+   * degree above two in the 1-tree of a node.
+   *
+   * @param node
+   *          the node
+   * @return the index, or {@code -1} if the 1-tree is a tour
+   */
+  final int chooseBranchingIndex(final _Node node) {
+    final int[] degree;
+    int i, j;
+
+    degree = node.m_degree;
+    i = -1;
+    for (j = 0; j < this.m_n; j++) {
+      if ((degree[j] > 2) && ((i < 0) || (degree[j] < degree[i]))) {
+        i = j;
+      }
+    }
+    return i;
+  }
+
+  /**
+   * Give a node taken from a queue its Held-Karp arrays and compute its
+   * lower bound again, warm-started from the pi of its parent. A node
+   * without stored pi, i.e., the root, starts with {@code pi=0}.
+   *
+   * @param node
+   *          the node
+   */
+  final void restore(final _Node node) {
+    final double[] pi;
+
+    this.allocate(node);
+    pi = node.m_parentPi;
+    if (pi != null) {
+      System.arraycopy(pi, 0, node.m_pi, 0, this.m_n);
+      node.m_parentPi = null;
+    } else {
+      Arrays.fill(node.m_pi, 0d);
+    }
+    this.computeHeldKarp(node);
+  }
+
+  /**
+   * Prepare the children of a node for waiting in a queue: Their
+   * Held-Karp arrays are returned to the pool and they share one copy of
+   * the pi of their parent, from which they are warm-started when they
+   * are {@linkplain #restore(_Node) restored}. This method must be called
+   * before the parent is released.
+   *
+   * @param parent
+   *          the parent node
+   * @param children
+   *          the children which will be queued
+   */
+  final void enqueue(final _Node parent, final Collection<_Node> children) {
+    double[] pi;
+
+    pi = null;
+    for (final _Node child : children) {
+      if (pi == null) {
+        pi = parent.m_pi.clone();
+      }
+      child.m_parentPi = pi;
+      this.release(child);
+    }
+  }
+
+  /**
+   * exclude something
+   *
+   * @param node
+   *          the node
+   * @param i
+   *          the i
+   * @param j
+   *          the j
+   * @return the node with the exclusion
+   */
+  final _Node exclude(final _Node node, final int i, final int j) {
+    final _Node child;
+
+    child = new _Node();
+    child.m_parentNode = node;
+    child.m_excludedI = i;
+    child.m_excludedJ = j;
+    this.allocate(child);
+    // warm-start from the pi of the parent
+    System.arraycopy(node.m_pi, 0, child.m_pi, 0, this.m_n);
+    this.computeHeldKarp(child);
+    return child;
+  }
+
+  /**
+   * Give a node its Held-Karp arrays, taken from the pool if possible.
+   *
+   * @param node
+   *          the node
+   */
+  final void allocate(final _Node node) {
+    final int n;
+    int size;
+
+    size = this.m_poolSize;
+    if (size > 0) {
+      this.m_poolSize = (--size);
+      node.m_pi = this.m_piPool[size];
+      node.m_degree = this.m_degreePool[size];
+      node.m_parent = this.m_parentPool[size];
+      this.m_piPool[size] = null;
+      this.m_degreePool[size] = null;
+      this.m_parentPool[size] = null;
+    } else {
+      n = this.m_n;
+      node.m_pi = new double[n];
+      node.m_degree = new int[n];
+      node.m_parent = new int[n];
+    }
+  }
+
+  /**
+   * Return the Held-Karp arrays of a node to the pool.
+   *
+   * @param node
+   *          the node
+   */
+  final void release(final _Node node) {
+    final int size;
+
+    if (node.m_pi == null) {
+      return;
+    }
+
+    size = this.m_poolSize;
+    if (size >= this.m_piPool.length) {
+      this.m_piPool = Arrays.copyOf(this.m_piPool, (size << 1));
+      this.m_degreePool = Arrays.copyOf(this.m_degreePool, (size << 1));
+      this.m_parentPool = Arrays.copyOf(this.m_parentPool, (size << 1));
+    }
+
+    this.m_piPool[size] = node.m_pi;
+    this.m_degreePool[size] = node.m_degree;
+    this.m_parentPool[size] = node.m_parent;
+    this.m_poolSize = (size + 1);
+    node.m_pi = null;
+    node.m_degree = null;
+    node.m_parent = null;
+  }
+
+  /**
+   * Set or clear the bits of the edges excluded in a node by walking the
+   * chain of its ancestors, each of which excludes one edge more than its
+   * parent.
+   *
+   * @param node
+   *          the node
+   * @param set
+   *          {@code true} to set the bits, {@code false} to clear them
+   */
+  private final void markExcluded(final _Node node, final boolean set) {
+    final long[][] excluded;
+    _Node x;
+    int i, j;
+
+    excluded = this.m_excluded;
+    for (x = node; x.m_parentNode != null; x = x.m_parentNode) {
+      i = x.m_excludedI;
+      j = x.m_excludedJ;
+      if (set) {
+        excluded[i][j >>> 6] |= (1L << j);
+        excluded[j][i >>> 6] |= (1L << i);
+      } else {
+        excluded[i][j >>> 6] &= (~(1L << j));
+        excluded[j][i >>> 6] &= (~(1L << i));
+      }
+    }
+  }
+
+  /**
+   * compute the held-karp
+   *
+   * @param node
+   *          the node
+   */
+  final void computeHeldKarp(final _Node node) {
+    double lambda, previousLowerBound, t;
+    int denom, d, i;
+
+    node.m_lowerBound = Double.NEGATIVE_INFINITY;
+
+    this.markExcluded(node, true);
+    try {
+      lambda = 0.1d;
+      while ((lambda > 1e-06d) && (!(this.shouldTerminate()))) {
+        previousLowerBound = node.m_lowerBound;
+        this.computeOneTree(node);
+
+        if (node.m_lowerBound >= this.m_upperBound.get()) {
+          return;
+        }
+
+        if (node.m_lowerBound >= previousLowerBound) {
+          lambda *= 0.9d;
+        }
+
+        denom = 0;
+        for (i = 1; i < this.m_n; i++) {
+          d = (node.m_degree[i] - 2);
+          denom += (d * d);
+        }
+        if (denom == 0) {
+          return;
+        }
+
+        t = ((lambda * node.m_lowerBound) / denom);
+        for (i = 1; i < this.m_n; i++) {
+          node.m_pi[i] += (t * (node.m_degree[i] - 2));
+        }
+      }
+    } finally {
+      this.markExcluded(node, false);
+    }
+  }
+
+  /**
+   * Compute the 1-tree
+   *
+   * @param node
+   *          the node with the search information
+   */
+  private final void computeOneTree(final _Node node) {
+    int firstNeighbor, secondNeighbor, i, j, k, curDist, secondDist;
+    double costWithPiFirst, costWithPiSecond, curCostWithPi;
+    final _NodeEntry[] nodes;
+    _NodeEntry cur;
+    final _NodeEntry root;
+    _NodeEntry a;
+    final int n, nodeNull;
+    final long[][] excluded;
+
+    node.m_lowerBound = 0d;
+    Arrays.fill(node.m_degree, 0);
+
+    n = this.m_n;
+    excluded = this.m_excluded;
+    costWithPiFirst = Double.POSITIVE_INFINITY;
+    costWithPiSecond = Double.POSITIVE_INFINITY;
+    nodes = this.m_nodes;
+    firstNeighbor = 1;
+    secondNeighbor = 2;
+    a = nodes[1];
+
+    // find the two cheapest edges departing from node 0
+    root = nodes[0];
+    root.clear();
+    nodeNull = root.m_node;
+
+    for (j = 1; j < n; j++) {
+      cur = nodes[j];
+      cur.clear();
+
+      if ((excluded[0][j >>> 6] & (1L << j)) != 0L) {
+        curCostWithPi = Double.POSITIVE_INFINITY;
+        // this is set as of "clear" in cur
+      } else {
+        cur.m_dist = this.m_dist.distance(nodeNull, cur.m_node);
+        cur.m_costWithPi = curCostWithPi = (cur.m_dist + node.m_pi[0] + node.m_pi[j]);
+      }
+
+      // curCostWithPi = this.costWithPi(0, j, node);
+      if (curCostWithPi < costWithPiSecond) {
+        if (curCostWithPi < costWithPiFirst) {
+          a = cur;
+          secondNeighbor = firstNeighbor;
+          costWithPiSecond = costWithPiFirst;
+          costWithPiFirst = curCostWithPi;
+          firstNeighbor = j;
+        } else {
+          secondNeighbor = j;
+          costWithPiSecond = curCostWithPi;
+        }
+      }
+    }
+    secondDist = nodes[secondNeighbor].m_dist;
+    _HeldKarp.addEdge(node, 0, firstNeighbor, costWithPiFirst);
+    a.m_parent = root;
+    root.m_child = a;
+
+    // now create the minimum cost list for the MST creation
+    Arrays.fill(node.m_parent, firstNeighbor);
+    node.m_parent[firstNeighbor] = 0;
+
+    // compute the minimum remaining costs
+    for (i = n; (--i) >= 0;) {
+      if (i != firstNeighbor) {
+        cur = nodes[i];
+        cur.m_parent = a;
+
+        if ((excluded[firstNeighbor][i >>> 6] & (1L << i)) != 0L) {
+          cur.m_dist = Integer.MAX_VALUE;
+          cur.m_costWithPi = Double.POSITIVE_INFINITY;
+        } else {
+          cur.m_dist = this.m_dist.distance(a.m_node, cur.m_node);
+          cur.m_costWithPi = (cur.m_dist + node.m_pi[firstNeighbor] + node.m_pi[i]);
+        }
+      }
+    }
+
+    // compute the minimum spanning tree on nodes 1..n-1
+    for (k = 2; k < n; k++) {
+      for (i = 1; i < n; i++) {
+        if (node.m_degree[i] == 0) {
+          break;
+        }
+      }
+
+      for (j = i + 1; j < this.m_n; j++) {
+        if ((node.m_degree[j] == 0)
+            && (nodes[j].m_costWithPi < nodes[i].m_costWithPi)) {
+          i = j;
+        }
+      }
+
+      // add the edge
+      cur = nodes[i];
+      cur.m_nextChild = cur.m_parent.m_child;
+      cur.m_parent.m_child = cur;
+      a = cur;
+      _HeldKarp.addEdge(node, node.m_parent[i], i, cur.m_costWithPi);
+
+      for (j = 1; j < n; j++) {
+        if (node.m_degree[j] == 0) {
+          if ((excluded[i][j >>> 6] & (1L << j)) == 0L) {
+            cur = nodes[j];
+            curDist = this.m_dist.distance(a.m_node, cur.m_node);
+            curCostWithPi = (curDist + node.m_pi[i] + node.m_pi[j]);
+            if (curCostWithPi < cur.m_costWithPi) {
+              cur.m_costWithPi = curCostWithPi;
+              cur.m_dist = curDist;
+              node.m_parent[j] = i;
+              cur.m_parent = a;
+            }
+          }
+        }
+      }
+    }
+
+    // add edge to second neighbor
+    curCostWithPi = (secondDist + node.m_pi[0] + node.m_pi[secondNeighbor]);
+    _HeldKarp.addEdge(node, 0, secondNeighbor, curCostWithPi);
+    node.m_parent[0] = secondNeighbor;
+
+    // connect root to second neighbor
+    root.m_parent = nodes[secondNeighbor];
+    root.m_dist = secondDist;
+
+    // // we omit this edge in the solution generation, as it will lead to
+    // a
+    // //(useless?) loop
+
+    // cur = nodes[secondNeighbor];
+    // cur.m_dist = secondDist;
+    // cur.m_costWithPi = curCostWithPi;
+    // cur.m_nextChild = root.m_child;
+    // root.m_child = cur;
+
+    node.m_lowerBound = Math.rint(node.m_lowerBound);
+    // ok, we have a new spanning tree and a new lower bound
+
+    // create a solution representing what we've got
+    this.makeSolution();
+  }
+
+  /** make a solution */
+  private final void makeSolution() {
+    final int n;
+    _NodeEntry root, next, cur, last;// , loopFind;
+    final int[] perm;
+    int i, dist;
+    long totalD;
+
+    n = this.m_n;
+    perm = this.m_sol;
+
+    // start at the root
+    i = 0;
+    root = this.m_nodes[0];
+    perm[i++] = root.m_node;
+    totalD = 0l;
+    // loopFind = null;
+
+    // start at the root of the tree at follow it
+    for (last = cur = root; cur != null;) {
+
+      next = cur.m_child;
+
+      // is there such a child?
+      if (next != null) {
+        // loopFind = null;
+        cur.m_child = next.m_nextChild;
+        next.m_nextChild = null;
+
+        // did we already visit that child?
+        if (next.m_ready) {
+          next.m_ready = false;
+
+          // add it to the permutation
+          perm[i++] = next.m_node;
+
+          // what is the distance to that child?
+          getDistance: {
+            if (next.m_parent == last) {
+              // the parent is the current node: don't need to
+              // re-compute
+              dist = next.m_dist;
+              // is distance valid?
+              if ((dist >= 0) && (dist < Integer.MAX_VALUE)) {
+                break getDistance;
+              }
+            }
+            // otherwise, take shortcut
+            dist = this.m_dist.distance(last.m_node, next.m_node);
+          }
+
+          totalD += dist;
+          last = next;
+        }
+
+        cur = next;
+
+        if (i >= n) {
+          break;
+        }
+        continue;// next iteration
+      }
+
+      // no such child exists? go back one step
+      // if (loopFind == null) {
+      // loopFind = cur;
+      // } else {
+      // if (cur == loopFind) {
+      // throw new RuntimeException(); //hehe, here i should do something
+      // }
+      // }
+
+      cur = cur.m_parent;
+    }
+
+    totalD += this.m_dist.distance(last.m_node, root.m_node);
+    this.onSolution(perm, totalD);// register solution
+  }
+
+  /**
+   * add an edge
+   *
+   * @param node
+   *          the node
+   * @param i
+   *          the i
+   * @param j
+   *          the j
+   * @param costWithPi
+   *          the costs with pi
+   */
+  private static final void addEdge(final _Node node, final int i,
+      final int j, final double costWithPi) {
+    node.m_lowerBound += costWithPi;// this.costWithPi(i, j, node);
+    node.m_degree[i]++;
+    node.m_degree[j]++;
+  }
+}
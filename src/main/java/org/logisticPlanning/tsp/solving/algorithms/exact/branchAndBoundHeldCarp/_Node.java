@@ -1,7 +1,13 @@
 package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
 
 /**
- * an internal class to represent nodes
+ * an internal class to represent nodes: a node only stores the edge it
+ * excludes in addition to the edges excluded by its parent, so the set of
+ * excluded edges is a persistent linked list shared with its ancestors.
+ * The Held-Karp arrays are only present while the node is examined and
+ * are returned to a pool while the node waits in the queue. A waiting node
+ * keeps the pi of its parent, which it shares with its siblings, to
+ * warm-start the computation of its lower bound when it is dequeued.
  */
 final class _Node {
 
@@ -10,8 +16,20 @@ final class _Node {
     super();
   }
 
-  /** the excluded stuff */
-  boolean[][] m_excluded;
+  /** the parent node, or {@code null} for the root */
+  _Node m_parentNode;
+
+  /** the first index of the edge excluded relative to the parent */
+  int m_excludedI;
+
+  /** the second index of the edge excluded relative to the parent */
+  int m_excludedJ;
+
+  /**
+   * the pi of the parent node, shared with the siblings, or {@code null}
+   * if the node is not waiting in a queue
+   */
+  double[] m_parentPi;
 
   /** Held-Karp solution: pi */
   double[] m_pi;
@@ -29,11 +29,11 @@ import org.logisticPlanning.tsp.solving.operators.permutation.creation.Permutati
  * <h2>Basic Idea of this Branch and Bound Algorithm</p>
  * <p>
  * The first major idea of this algorithm is to step-by-step divide (
- * {@link #__branch(_Node) branch}) the search space into smaller and
+ * {@link #__branch(int, LogPoint) branch}) the search space into smaller and
  * smaller subsets (here called
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._NodeArena
  * nodes}). For this purpose a
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._NodeArena
  * (sub)set} {@code s} of the search space is taken and a possible edge
  * {@code e} is chosen. The subset {@code s} is then divided into two
  * parts:
@@ -50,7 +50,7 @@ import org.logisticPlanning.tsp.solving.operators.permutation.creation.Permutati
  * <code>{@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#n() n}</code>
  * is the number of cities in the TSP), after
  * <code>{@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#n() n}</code>
- * {@link #__branch(_Node) branches} of the first kind, we will have one
+ * {@link #__branch(int, LogPoint) branches} of the first kind, we will have one
  * valid solution. The continued branching moves that we make during this
  * progress somehow resemble the iterative expansion of a tree, where the
  * current solution subset is a node and its child nodes are the branches
@@ -59,7 +59,7 @@ import org.logisticPlanning.tsp.solving.operators.permutation.creation.Permutati
  * found the optimum.
  * </p>
  * <p>
- * This procedure of repeated {@link #__branch(_Node) branching} until we
+ * This procedure of repeated {@link #__branch(int, LogPoint) branching} until we
  * get tours alone would be equivalent to an
  * {@link org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ExhaustivePermutationIteration
  * exhaustive enumeration} of all possible solutions and, thus, would not
@@ -68,9 +68,9 @@ import org.logisticPlanning.tsp.solving.operators.permutation.creation.Permutati
  * <p>
  * The trick is the second major compound of the algorithm &mdash; the idea
  * of bounding: For each
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._NodeArena
  * (sub)set} {@code s} of the solutions, we can compute a
- * {@link #__computeLowBound(_Node) lower bound} of the tour length. That
+ * {@link #__restore(int) lower bound} of the tour length. That
  * is an approximation of the tour length that of the shortest tour that
  * this subset {@code s} contains. Being a lower bound, it may
  * underestimate this tour length, but it will never over-estimate it.
@@ -102,10 +102,10 @@ import org.logisticPlanning.tsp.solving.operators.permutation.creation.Permutati
  * style="font-weight:bold">1</a>], which mainly concern the questions:
  * </p>
  * <ol>
- * <li>How to choose the subspace to {@link #__branch(_Node) branch} next?</li>
- * <li>How to {@link #__chooseJumpEdge(int[]) choose} the edge to be
+ * <li>How to choose the subspace to {@link #__branch(int, LogPoint) branch} next?</li>
+ * <li>How to {@link #__chooseJumpEdge() choose} the edge to be
  * included/excluded into the new branches?</li>
- * <li>How to compute the {@link #__computeLowBound(_Node) lower bounds}?</li>
+ * <li>How to compute the {@link #__restore(int) lower bounds}?</li>
  * </ol> <h2>Algorithm Details</h2>
  * <p>
  * Any given matrix {@code C}, be it the original distance matrix or the
@@ -134,42 +134,31 @@ import org.logisticPlanning.tsp.solving.operators.permutation.creation.Permutati
  * {@code choosing a jump edge}.
  * </p>
  * <p>
- * Given an original matrix, we have a
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node
- * node} corresponding to it. From this node, we start branching. Each node
- * formed after branching consists of an arrays of edges that is going to
- * be included in the solution and an array of edges that is going to be
- * excluded during the next branching. When given those two arrays, we are
- * able to construct the matrix corresponding to this node. Given any node,
- * we construct the corresponding matrix by crossing out all the rows and
- * columns that have been chosen in the
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node#m_edges}
- * of this node, and then set the distance of edges, which we need not to
- * consider during the upcoming branching, to infinity.
- * {@link #__setInfinityEdges(org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node)
- * setInfinityEdges} method will give all the edges that ought to be set to
- * infinity. Then we will reduce the matrix and choose the jump edge. After
- * the {@code jump edge} is chosen, we create two new nodes based on the
- * branching node, one has the {@code jump edge} along with all the edges
- * in
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node#m_edges}
- * in the branching node added to
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node#m_edges}
- * of this node, the other has the {@code jump edge} along with all the
- * edges in
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node#m_excludedEdges}
- * in the branching node added to
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node#m_excludedEdges}
- * . We add the newly created node with the {@code jump edge} stored in the
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node#m_excludedEdges}
- * into an array of node if the low bound of the node is smaller than the
- * existing minimal low bound, which is kept and updated when a solution is
- * found. The branching process proceed with newly created node that has
- * the {@code jump edge} inside
- * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._Node#m_edges}
- * if the low bound of the node is smaller than the existing low bound. we
- * keep branching until we there is no node stored in the array for us to
- * branch further.
+ * The root node of the search tree corresponds to the original matrix. The
+ * branching from a node proceeds depth-first: After the {@code jump edge}
+ * is chosen, a new node excluding the jump edge is created and put into
+ * the queue if its lower bound, i.e., the lower bound of the current node
+ * plus the {@code theta} value of the jump edge, is smaller than the
+ * length of the best tour found so far. The current node then becomes the
+ * node {@link #__include(int, int) including} the jump edge. Its row and
+ * column are crossed out, the edge which would close the new path to a
+ * sub-tour is set to infinity, and only the rows and columns which may
+ * have lost their last zero are reduced again. The branching continues
+ * until the lower bound of the current node is no longer smaller than the
+ * length of the best tour or until a tour is found. Then, the node with
+ * the smallest lower bound is taken from the queue and the branching
+ * proceeds from there.
+ * </p>
+ * <p>
+ * The nodes of the search tree are kept in a
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963._NodeArena
+ * pooled arena}. Each node only stores the edge it includes or excludes
+ * and its lower bound. When a node is taken from the queue, its matrix is
+ * {@link #__restore(int) restored} by walking the chain of its parents up
+ * to the root and reducing the matrix once. The infinite elements of the
+ * matrix are marked in a bit set, and the reduction is represented by the
+ * values subtracted from each row and column, so the reduced matrix
+ * itself is never stored.
  * </p>
  * <h2>References</h2>
  * <ol>
@@ -247,87 +236,101 @@ public class BABLittle1963 extends TSPAlgorithm {
   private transient ObjectiveFunction m_objectiveFunction;
 
   /**
-   * given a matrix of any node, the array stores the minimal value of each
-   * row corresponding to this matrix.
+   * the value which has been subtracted from each row of the matrix of the
+   * current node, indexed by the row
    */
   private transient long[] m_minOfRows;
 
   /**
-   * given a matrix of any node, the array stores the minimal value of each
-   * column. Note the matrix has changed when we compute the minimal value
-   * of each column. We subtract each element in each row by the minimal
-   * value of that row.
+   * the value which has been subtracted from each column of the matrix of
+   * the current node after the row reduction, indexed by the column
    */
   private transient long[] m_minOfColumns;
 
-  /** rows that should be crossed out during branching */
-  private transient boolean[] m_crossedRows;
-
-  /** columns that should be crossed out during branching */
-  private transient boolean[] m_crossedColumns;
-
   /**
-   * an two dimensional array used to record the m_edges that should not be
-   * considered during the next branch, in other words, distances of those
-   * m_edges are going to be set to m_infinity. Since we going to access
-   * this array randomly, we use a two dimensional array.
+   * the second-smallest reduced value of each row, i.e., the smallest value
+   * which remains if one zero of the row is excluded
    */
-  private transient boolean[][] m_infinity;
+  private transient long[] m_thetaOfRows;
 
   /**
-   * this array will record all the elements that is 0 after the matrix
-   * reduction.
+   * the second-smallest reduced value of each column, i.e., the smallest
+   * value which remains if one zero of the column is excluded
    */
-  private transient int[] m_zeros;
+  private transient long[] m_thetaOfColumns;
 
-  /**
-   * auxiliary array1
-   */
-  private transient int[] m_auxiArray1;
+  /** whether a zero has been found in each row */
+  private transient boolean[] m_zeroInRows;
+
+  /** whether a zero has been found in each column */
+  private transient boolean[] m_zeroInColumns;
+
+  /** rows that have been crossed out, i.e., the sources of included edges */
+  private transient boolean[] m_crossedRows;
 
   /**
-   * auxiliary array2
+   * columns that have been crossed out, i.e., the destinations of included
+   * edges
    */
-  private transient int[] m_auxiArray2;
+  private transient boolean[] m_crossedColumns;
 
   /**
-   * this array will store all the nodes whose low bound is less than the
-   * existing known smallest low bound. This array is going to be very huge
-   * in size.
+   * the bit set marking the edges whose distance is set to infinity, i.e.,
+   * the excluded edges and the edges which would close a sub-tour: edge
+   * {@code (i,j)} is represented by bit {@code (i-1)*n+(j-1)}
    */
-  private transient _Node[] m_nodeBuffer;
+  private transient long[] m_infinity;
+
+  /** the successors of the nodes in the included edges, or {@code 0} */
+  private transient int[] m_successors;
+
+  /** the predecessors of the nodes in the included edges, or {@code 0} */
+  private transient int[] m_predecessors;
 
   /**
-   * this is used to indicate how many node are there in the
-   * {@link #m_nodeBuffer}
+   * for the start node of each path formed by the included edges: the end
+   * of the path
    */
-  private transient int m_nodeBufferSize;
+  private transient int[] m_pathEnds;
 
   /**
-   * this is the array used to represent the jump edge we have chosen
+   * for the end node of each path formed by the included edges: the start
+   * of the path
    */
-  private transient int[] m_jumpEdge;
+  private transient int[] m_pathStarts;
+
+  /** the number of included edges of the current node */
+  private transient int m_included;
+
+  /** the lower bound of the current node */
+  private transient long m_bound;
 
   /**
-   * this is the adjacency representation of the solution.
+   * this array will record all the elements that is 0 after the matrix
+   * reduction, as pairs of row and column.
    */
-  private transient int[] m_answer;
+  private transient int[] m_zeros;
+
+  /** the rows which need to be reduced again after including an edge */
+  private transient int[] m_auxiArray1;
 
   /**
-   * this is the array during the branching, to avoid allocating memory
-   * every time we create a new node
+   * the columns which need to be reduced again after including an edge
    */
-  private transient int[] m_branchingEdges;
+  private transient int[] m_auxiArray2;
+
+  /** the nodes of the search tree and the queue of nodes to examine */
+  private transient _NodeArena m_arena;
 
   /**
-   * this is the pool trying used to avoid constantly allocating new _Node
+   * this is the array used to represent the jump edge we have chosen
    */
-  private transient _Node[] m_nodeReferencePool;
+  private transient int[] m_jumpEdge;
 
   /**
-   * this is the size of the of {@link #m_nodeReferencePool}
+   * this is the adjacency representation of the solution.
    */
-  private transient int m_poolSize;
+  private transient int[] m_answer;
 
   /**
    * create
@@ -357,27 +360,34 @@ public class BABLittle1963 extends TSPAlgorithm {
   /** {@inheritDoc} */
   @Override
   public void beginRun(final ObjectiveFunction f) {
+    final int n;
+
     super.beginRun(f);
 
     this.m_objectiveFunction = f;
-    this.m_n = f.n();
-    this.m_minOfColumns = new long[this.m_n];
-    this.m_minOfRows = new long[this.m_n];
-
-    this.m_crossedColumns = new boolean[this.m_n];
-    this.m_crossedRows = new boolean[this.m_n];
-
-    this.m_auxiArray1 = new int[this.m_n + 1];
-    this.m_auxiArray2 = new int[this.m_n + 1];
-
-    this.m_zeros = new int[this.m_n * this.m_n];
-    this.m_infinity = new boolean[this.m_n][this.m_n];
-
-    this.m_answer = new int[this.m_n];
-    this.m_nodeBuffer = new _Node[2 * this.m_n];
-    this.m_nodeReferencePool = new _Node[2 * this.m_n];
-
-    this.m_branchingEdges = new int[2 * this.m_n];
+    this.m_n = n = f.n();
+    this.m_minOfColumns = new long[n + 1];
+    this.m_minOfRows = new long[n + 1];
+    this.m_thetaOfColumns = new long[n + 1];
+    this.m_thetaOfRows = new long[n + 1];
+
+    this.m_zeroInColumns = new boolean[n + 1];
+    this.m_zeroInRows = new boolean[n + 1];
+    this.m_crossedColumns = new boolean[n + 1];
+    this.m_crossedRows = new boolean[n + 1];
+    this.m_infinity = new long[(int) ((((((long) n) * n) + 63L) >>> 6))];
+
+    this.m_successors = new int[n + 1];
+    this.m_predecessors = new int[n + 1];
+    this.m_pathEnds = new int[n + 1];
+    this.m_pathStarts = new int[n + 1];
+
+    this.m_auxiArray1 = new int[n + 1];
+    this.m_auxiArray2 = new int[n + 1];
+    this.m_zeros = new int[n << 2];
+
+    this.m_answer = new int[n];
+    this.m_arena = new _NodeArena(n << 2);
   }
 
   /** {@inheritDoc} */
@@ -388,21 +398,26 @@ public class BABLittle1963 extends TSPAlgorithm {
     this.m_n = -1;
     this.m_minOfColumns = null;
     this.m_minOfRows = null;
+    this.m_thetaOfColumns = null;
+    this.m_thetaOfRows = null;
 
+    this.m_zeroInColumns = null;
+    this.m_zeroInRows = null;
     this.m_crossedColumns = null;
     this.m_crossedRows = null;
+    this.m_infinity = null;
+
+    this.m_successors = null;
+    this.m_predecessors = null;
+    this.m_pathEnds = null;
+    this.m_pathStarts = null;
 
     this.m_auxiArray1 = null;
     this.m_auxiArray2 = null;
-
     this.m_zeros = null;
-    this.m_infinity = null;
 
     this.m_answer = null;
-    this.m_nodeBuffer = null;
-
-    this.m_branchingEdges = null;
-    this.m_nodeReferencePool = null;
+    this.m_arena = null;
     super.endRun(f);
   }
 
@@ -413,6 +428,8 @@ public class BABLittle1963 extends TSPAlgorithm {
   public void solve(final ObjectiveFunction f) {
     final int[] sol;
     final LogPoint p;
+    final _NodeArena arena;
+    int node;
     long bestF;
 
     p = f.getCurrentLogPoint();
@@ -430,184 +447,88 @@ public class BABLittle1963 extends TSPAlgorithm {
       return;
     }
 
-    _Node toBranch = null;
-    this.m_nodeBufferSize = 0;
-    this.m_poolSize = 0;
-    toBranch = new _Node();
-    this.m_nodeBuffer[this.m_nodeBufferSize++] = toBranch;
-    toBranch.m_edges = new int[0];
-    toBranch.m_nodeLowBound = this.__computeLowBound(toBranch);
+    arena = this.m_arena;
+    arena._clear();
+    arena._push(arena._create(-1, 0, 0, 0L));
 
-    while (this.m_nodeBufferSize > 0) {
+    while (!(arena._isEmpty())) {
       if (f.shouldTerminate()) {
         return;
       }
 
-      bestF = p.getBestF();
-      toBranch = null;
-
-      _Node z;
-      findBranchAndPruneList: for (int i = this.m_nodeBufferSize; (--i) >= 0;) {
-        z = this.m_nodeBuffer[i];
-
-        if (z.m_nodeLowBound >= bestF) {
-          this.__addNodeToPool(z);
-        } else {
-          if (toBranch != null) {
-            if (z.m_nodeLowBound < toBranch.m_nodeLowBound) {
-              this.m_nodeBuffer[i] = toBranch;// z is removed from
-              // list
-              toBranch = z;
-            }
-            continue findBranchAndPruneList;
-          }
-          // first node with viable lower bound, must be removed from
-          // list
-          // TODO: Is this right?
-          toBranch = z;
-        }
-
-        // if we get here, we should remove the node at index i
-        this.m_nodeBuffer[i] = this.m_nodeBuffer[--this.m_nodeBufferSize];
-        this.m_nodeBuffer[this.m_nodeBufferSize] = null;
-      }
-
-      if (toBranch == null) {
-        return;
-      }
-
-      for (;;) {
-        if (f.shouldTerminate()) {
+      // take the node with the smallest lower bound and branch from it
+      node = arena._pop();
+      if (arena._bound(node) < p.getBestF()) {
+        this.__restore(node);
+        node = this.__branch(node, p);
+        if (node < 0) {
           return;
         }
-
-        final _Node result = this.__branch(toBranch);
-
-        // TODO: check
-        if ((result == null) || (toBranch._isSolution(this.m_n))) {
-          break;
-        }
-
-        if (result.m_nodeLowBound < p.getBestF()) {
-          this.__addNodeToBuffer(result);
-        }
-
-        if (toBranch.m_nodeLowBound >= p.getBestF()) {
-          break;
-        }
       }
-
-      Arrays.fill(this.m_branchingEdges, 0);
+      arena._release(node);
     }
   }
 
   /**
-   * this method is used to branch from the given node. After each
-   * branching process, we may have two nodes, one contains the jump edge
-   * and the other not.
+   * Branch from the current node until its lower bound is no longer
+   * smaller than the length of the best tour or a tour has been found.
+   * In each step, the {@link #__chooseJumpEdge() jump edge} is chosen. The
+   * node excluding the jump edge is put into the queue, and the current
+   * node becomes the node {@link #__include(int, int) including} it.
    *
-   * @param node
-   *          the node
-   * @return the new node
-   */
-  private final _Node __branch(final _Node node) {
-    long tourLength;
-
-    if (node.m_edges.length < (2 * this.m_n)) {
-      System.arraycopy(node.m_edges, 0, this.m_branchingEdges, 0,
-          node.m_edges.length);
-      node.m_edges = this.m_branchingEdges;
-    }
-
-    _Node nextC = null;
-    this.__reset();
-
-    if (node.m_edges[(2 * this.m_n) - 5] > 0) {
-      this.__setCrossedRowsAndColumns(node);
-      this.__setInfinityEdges(node);
-      this.__setMinOfRows();
-      this.__setMinOfColumns();
-      this.__findZeroEdges();
-      this.__chooseJumpEdge(this.m_zeros);
-
-      if (this.m_jumpEdge[0] == 0) {
-        return null;
+   * @param start
+   *          the node to branch from, which has been
+   *          {@link #__restore(int) restored}
+   * @param p
+   *          the current log point
+   * @return the last node of the branch, which must be released, or
+   *         {@code -1} if the algorithm should terminate
+   */
+  private final int __branch(final int start, final LogPoint p) {
+    final _NodeArena arena;
+    final ObjectiveFunction f;
+    final int nm1;
+    int node, child, in, out;
+    long theta, tourLength;
+
+    arena = this.m_arena;
+    f = this.m_objectiveFunction;
+    nm1 = (this.m_n - 1);
+
+    for (node = start; this.m_bound < p.getBestF();) {
+      if (f.shouldTerminate()) {
+        return (-1);
       }
 
-      node.m_edges[(2 * this.m_n) - 4] = this.m_jumpEdge[0];
-      node.m_edges[(2 * this.m_n) - 3] = this.m_jumpEdge[1];
-
-      for (int i = 1; i <= this.m_n; i++) {
-        if (!this.m_crossedRows[i - 1] && (i != this.m_jumpEdge[0])) {
-          node.m_edges[(2 * this.m_n) - 2] = i;
-        }
-
-        if (!this.m_crossedColumns[i - 1] && (i != this.m_jumpEdge[1])) {
-          node.m_edges[(2 * this.m_n) - 1] = i;
-        }
+      if (this.m_included >= nm1) {
+        // only the edge closing the tour is left
+        this.__formatSolution();
+        tourLength = f.evaluateAdj(this.m_answer);
+        this.onSolutionAdjacency(this.m_answer, tourLength, f);
+        break;
       }
 
-      long sum = 0;
-
-      for (int i = 0; i < (2 * this.m_n); i += 2) {
-        sum = sum
-            + this.m_objectiveFunction.distance(node.m_edges[i],
-                node.m_edges[i + 1]);
+      theta = this.__chooseJumpEdge();
+      in = this.m_jumpEdge[0];
+      if (in <= 0) {
+        break;
       }
+      out = this.m_jumpEdge[1];
 
-      this.__formatSolution(node.m_edges);
-      tourLength = this.m_objectiveFunction.evaluateAdj(this.m_answer);
-      if (this.m_objectiveFunction.shouldTerminate()) {
-        return null; // TODO: check
+      if ((theta < Long.MAX_VALUE)
+          && ((this.m_bound + theta) < p.getBestF())) {
+        arena._push(arena._create(node, in, -out, this.m_bound + theta));
       }
 
-      this.onSolutionAdjacency(this.m_answer, //
-          tourLength,//
-          this.m_objectiveFunction);
-
-      // TODO: check
-      return null;
-    }
-
-    this.__setCrossedRowsAndColumns(node);
-    this.__setInfinityEdges(node);
-    this.__setMinOfRows();
-    this.__setMinOfColumns();
-    this.__findZeroEdges();
-    this.__chooseJumpEdge(this.m_zeros);
-    if (this.m_jumpEdge[0] == 0) {
-      return null;
-    }
-
-    if (this.m_poolSize > 0) {
-      nextC = this.m_nodeReferencePool[--this.m_poolSize];
-    } else {
-      nextC = new _Node();
-    }
-
-    int i = 0;
-    for (; node.m_edges[i] > 0; i += 2) {
-      /* */
-    }
-    node.m_edges[i] = this.m_jumpEdge[0];
-    node.m_edges[i + 1] = this.m_jumpEdge[1];
-    nextC.m_edges = Arrays.copyOfRange(node.m_edges, 0, i);
-    if (node.m_excludedEdges != null) {
-      nextC.m_excludedEdges = new int[node.m_excludedEdges.length + 2];
-      for (int j = 0; j < node.m_excludedEdges.length; j++) {
-        nextC.m_excludedEdges[j] = node.m_excludedEdges[j];
+      child = arena._create(node, in, out, this.m_bound);
+      arena._release(node);
+      node = child;
+      if (!(this.__include(in, out))) {
+        break;
       }
-    } else {
-      nextC.m_excludedEdges = new int[2];
     }
 
-    nextC.m_excludedEdges[nextC.m_excludedEdges.length - 2] = this.m_jumpEdge[0];
-    nextC.m_excludedEdges[nextC.m_excludedEdges.length - 1] = this.m_jumpEdge[1];
-
-    nextC.m_nodeLowBound = this.__computeLowBound(nextC);
-    node.m_nodeLowBound = this.__computeLowBound(node);
-
-    return nextC;
+    return node;
   }
 
   /**
@@ -661,366 +582,393 @@ public class BABLittle1963 extends TSPAlgorithm {
   }
 
   /**
-   * format the answer so it can be registered.
-   *
-   * @param edges
-   *          the edges
+   * format the answer so it can be registered: the included edges plus the
+   * edge closing the tour, which leads from the end of the single
+   * remaining path to its start.
    */
-  private final void __formatSolution(final int[] edges) {
-    for (int i = 0; i < edges.length; i += 2) {
-      this.m_answer[edges[i] - 1] = edges[i + 1];
+  private final void __formatSolution() {
+    final int[] answer, successors;
+    int i, start;
+
+    answer = this.m_answer;
+    successors = this.m_successors;
+    start = 0;
+    for (i = this.m_n; i > 0; i--) {
+      answer[i - 1] = successors[i];
+      if (this.m_predecessors[i] <= 0) {
+        start = i;
+      }
     }
+    answer[this.m_pathEnds[start] - 1] = start;
   }
 
   /**
-   * this method compute the low bound of the given node.
+   * Is the distance of an edge set to infinity?
    *
-   * @param node
-   *          the node
-   * @return the lower bound
+   * @param in
+   *          the starting point of the edge
+   * @param out
+   *          the ending point of the edge
+   * @return {@code true} if the edge is excluded, {@code false} otherwise
    */
-  private final long __computeLowBound(final _Node node) {
-    long lowBound = 0;
-    final int n = this.m_n;
-
-    this.__reset();
-
-    if (node._isSolution(this.m_n)) {
-      for (int i = 0; i < node.m_edges.length; i += 2) {
-        lowBound += this.m_objectiveFunction.distance(node.m_edges[i],
-            node.m_edges[i + 1]);
-      }
-      return lowBound;
-    }
-
-    if (node.m_edges.length != 0) {
-      for (int i = 0; (i < node.m_edges.length) && (node.m_edges[i] > 0); i += 2) {
-        lowBound += this.m_objectiveFunction.distance(node.m_edges[i],
-            node.m_edges[i + 1]);
-        this.m_crossedRows[node.m_edges[i] - 1] = true;
-        this.m_crossedColumns[node.m_edges[i + 1] - 1] = true;
-      }
-    }
+  private final boolean __isInfinity(final int in, final int out) {
+    final long bit;
 
-    this.__setInfinityEdges(node);
-    this.__setMinOfRows();
-    this.__setMinOfColumns();
-    for (int i = 1; i <= n; i++) {
-      lowBound += this.m_minOfRows[i - 1] + this.m_minOfColumns[i - 1];
-    }
-    return lowBound;
+    bit = ((((long) (in - 1)) * this.m_n) + (out - 1));
+    return ((this.m_infinity[(int) (bit >>> 6)] & (1L << bit)) != 0L);
   }
 
   /**
-   * Given the node, set the global variable {@link #m_crossedColumns} and
-   * {@link #m_crossedRows}.
+   * Set the distance of an edge to infinity
    *
-   * @param node
-   *          the node
+   * @param in
+   *          the starting point of the edge
+   * @param out
+   *          the ending point of the edge
    */
-  private final void __setCrossedRowsAndColumns(final _Node node) {
-    for (int i = 0; (i < node.m_edges.length) && (node.m_edges[i] > 0); i += 2) {
-      this.m_crossedColumns[node.m_edges[i + 1] - 1] = true;
-      this.m_crossedRows[node.m_edges[i] - 1] = true;
-    }
+  private final void __setInfinity(final int in, final int out) {
+    final long bit;
+
+    bit = ((((long) (in - 1)) * this.m_n) + (out - 1));
+    this.m_infinity[(int) (bit >>> 6)] |= (1L << bit);
   }
 
   /**
-   * Based on the {@link _Node#m_edges} variable in a node, we compute out
-   * the potential m_edges that may form a sub circle with the selected
-   * m_edges, which is not a solution, and register those m_edges in
-   * {@link #m_infinity} variable.
+   * Restore the matrix of a node: The included and excluded edges are
+   * collected by walking from the node up to the root of the tree, the
+   * edges closing sub-tours are set to infinity, and the matrix is
+   * reduced. This is the only place where the whole matrix is reduced,
+   * all other reductions only concern single rows and columns.
    *
    * @param node
    *          the node
    */
-  private final void __setInfinityEdges(final _Node node) {
+  private final void __restore(final int node) {
+    final _NodeArena arena;
+    final ObjectiveFunction f;
+    final int n;
+    final int[] successors, predecessors, pathEnds, pathStarts;
+    int cur, in, out, i, j;
+
+    arena = this.m_arena;
+    f = this.m_objectiveFunction;
+    n = this.m_n;
+    successors = this.m_successors;
+    predecessors = this.m_predecessors;
+    pathEnds = this.m_pathEnds;
+    pathStarts = this.m_pathStarts;
 
-    for (int i = 0; (i < node.m_edges.length) && (node.m_edges[i] > 0); i += 2) {
-      this.m_auxiArray1[node.m_edges[i + 1]] = node.m_edges[i];
-      this.m_auxiArray2[node.m_edges[i]] = node.m_edges[i + 1];
+    Arrays.fill(this.m_crossedRows, false);
+    Arrays.fill(this.m_crossedColumns, false);
+    Arrays.fill(this.m_infinity, 0L);
+    Arrays.fill(successors, 0);
+    Arrays.fill(predecessors, 0);
+    Arrays.fill(this.m_minOfRows, 0L);
+    Arrays.fill(this.m_minOfColumns, 0L);
+    this.m_included = 0;
+    this.m_bound = 0L;
+
+    for (cur = node; arena._parent(cur) >= 0; cur = arena._parent(cur)) {
+      in = arena._from(cur);
+      out = arena._to(cur);
+      if (out < 0) {
+        this.__setInfinity(in, -out);
+      } else {
+        successors[in] = out;
+        predecessors[out] = in;
+        this.m_crossedRows[in] = true;
+        this.m_crossedColumns[out] = true;
+        this.m_included++;
+        this.m_bound += f.distance(in, out);
+      }
     }
 
-    for (int i = 0; i < (this.m_n + 1); i++) {
-
-      if ((this.m_auxiArray1[i] == 0) && (this.m_auxiArray2[i] == 0)) {
-        continue;
+    // find the paths formed by the included edges and forbid the edges
+    // which would close them to sub-tours
+    for (i = n; i > 0; i--) {
+      pathEnds[i] = pathStarts[i] = i;
+    }
+    for (i = n; i > 0; i--) {
+      if ((predecessors[i] <= 0) && (successors[i] > 0)) {
+        for (j = i; successors[j] > 0; j = successors[j]) {
+          //
+        }
+        pathEnds[i] = j;
+        pathStarts[j] = i;
+        if (this.m_included < (n - 1)) {
+          this.__setInfinity(j, i);
+        }
       }
+    }
 
-      int j, k, temp;
-      j = this.m_auxiArray2[i] == 0 ? i : this.m_auxiArray2[i];
-      k = this.m_auxiArray1[i] == 0 ? i : this.m_auxiArray1[i];
-
-      while (this.m_auxiArray2[j] != 0) {
-        temp = this.m_auxiArray2[j];
-        this.m_auxiArray1[j] = this.m_auxiArray2[j] = 0;
-        j = temp;
+    for (i = n; i > 0; i--) {
+      if (!(this.m_crossedRows[i] || this.__reduceRow(i))) {
+        return;
+      }
+    }
+    for (i = n; i > 0; i--) {
+      if (!(this.m_crossedColumns[i] || this.__reduceColumn(i))) {
+        return;
       }
-      this.m_auxiArray1[j] = 0;
+    }
+  }
 
-      while (this.m_auxiArray1[k] != 0) {
-        temp = this.m_auxiArray1[k];
-        this.m_auxiArray1[k] = this.m_auxiArray2[k] = 0;
-        k = temp;
+  /**
+   * Include an edge into the current node: Its row and column are crossed
+   * out, the edge closing the new path to a sub-tour is set to infinity,
+   * and only the rows and columns which may have lost their last zero are
+   * reduced again, i.e., the rows with a zero in the crossed column, the
+   * columns with a zero in the crossed row, and the row and column of the
+   * forbidden edge.
+   *
+   * @param in
+   *          the starting point of the edge
+   * @param out
+   *          the ending point of the edge
+   * @return {@code true} if the node may still contain a tour,
+   *         {@code false} otherwise
+   */
+  private final boolean __include(final int in, final int out) {
+    final ObjectiveFunction f;
+    final int n;
+    final int[] rows, columns;
+    final long[] minOfRows, minOfColumns;
+    int i, rowCount, columnCount, start, end;
+
+    f = this.m_objectiveFunction;
+    n = this.m_n;
+    rows = this.m_auxiArray1;
+    columns = this.m_auxiArray2;
+    minOfRows = this.m_minOfRows;
+    minOfColumns = this.m_minOfColumns;
+
+    rowCount = columnCount = 0;
+    for (i = n; i > 0; i--) {
+      if ((i != in) && (i != out) && (!(this.m_crossedRows[i]))
+          && (!(this.__isInfinity(i, out)))
+          && ((f.distance(i, out) - minOfRows[i] - minOfColumns[out]) == 0L)) {
+        rows[rowCount++] = i;
+      }
+      if ((i != in) && (i != out) && (!(this.m_crossedColumns[i]))
+          && (!(this.__isInfinity(in, i)))
+          && ((f.distance(in, i) - minOfRows[in] - minOfColumns[i]) == 0L)) {
+        columns[columnCount++] = i;
       }
-      this.m_auxiArray2[k] = 0;
+    }
 
-      this.m_auxiArray1[i] = this.m_auxiArray2[i] = 0;
-      this.m_infinity[j - 1][k - 1] = true;
+    this.m_bound += (f.distance(in, out) - minOfRows[in] - minOfColumns[out]);
+    this.m_crossedRows[in] = true;
+    this.m_crossedColumns[out] = true;
+    this.m_successors[in] = out;
+    this.m_predecessors[out] = in;
+    this.m_included++;
+
+    start = this.m_pathStarts[in];
+    end = this.m_pathEnds[out];
+    this.m_pathEnds[start] = end;
+    this.m_pathStarts[end] = start;
+    if (this.m_included < (n - 1)) {
+      if (!(this.__isInfinity(end, start))) {
+        this.__setInfinity(end, start);
+        rows[rowCount++] = end;
+        columns[columnCount++] = start;
+      }
     }
 
-    if (node.m_excludedEdges != null) {
-      for (int i = 0; i < node.m_excludedEdges.length; i += 2) {
-        this.m_infinity[node.m_excludedEdges[i] - 1][node.m_excludedEdges[i + 1] - 1] = true;
+    for (i = rowCount; (--i) >= 0;) {
+      if (!(this.__reduceRow(rows[i]))) {
+        return false;
+      }
+    }
+    for (i = columnCount; (--i) >= 0;) {
+      if (!(this.__reduceColumn(columns[i]))) {
+        return false;
       }
     }
+    return true;
   }
 
   /**
-   * this method is used to find the minimal value of the given row.
+   * Reduce a row of the matrix of the current node by its smallest value
+   * and add this value to the lower bound.
    *
    * @param row
-   *          the row that needs to find out the minimal value
-   */
-  private final void __setMinOfRow(final int row) {
-    int d;
-    long min = Long.MAX_VALUE;
-
-    for (int i = 1; i <= this.m_n; i++) {
-      if (!this.m_crossedColumns[i - 1]
-          && !this.m_infinity[row - 1][i - 1] && (i != row)) {
-        d = this.m_objectiveFunction.distance(row, i);
+   *          the row
+   * @return {@code true} if the row contains at least one edge whose
+   *         distance is not infinite, {@code false} otherwise
+   */
+  private final boolean __reduceRow(final int row) {
+    final ObjectiveFunction f;
+    final long[] minOfColumns;
+    final long base;
+    long d, min;
+    int i;
+
+    f = this.m_objectiveFunction;
+    minOfColumns = this.m_minOfColumns;
+    base = this.m_minOfRows[row];
+    min = Long.MAX_VALUE;
+
+    for (i = this.m_n; i > 0; i--) {
+      if ((i != row) && (!(this.m_crossedColumns[i]))
+          && (!(this.__isInfinity(row, i)))) {
+        d = (f.distance(row, i) - base - minOfColumns[i]);
         if (d < min) {
           min = d;
         }
       }
     }
 
-    this.m_minOfRows[row - 1] = min;
-  }
-
-  /** set the minimum of rows */
-  private final void __setMinOfRows() {
-    for (int i = 1; i <= this.m_n; i++) {
-      if (!this.m_crossedRows[i - 1]) {
-        this.__setMinOfRow(i);
-      }
-    }
-  }
-
-  /** set the minimum of columns */
-  private final void __setMinOfColumns() {
-    for (int i = 1; i <= this.m_n; i++) {
-      if (!this.m_crossedColumns[i - 1]) {
-        this.__setMinOfColumn(i);
-      }
+    if (min >= Long.MAX_VALUE) {
+      this.m_bound = Long.MAX_VALUE;
+      return false;
     }
+    this.m_minOfRows[row] = (base + min);
+    this.m_bound += min;
+    return true;
   }
 
   /**
-   * this method is used to find the minimal value of the specified column.
-   * note that the value of this column is the original value subtracting
-   * the minimal value of the row in which the original value is.
+   * Reduce a column of the matrix of the current node by its smallest
+   * value and add this value to the lower bound.
    *
    * @param column
    *          the column
-   */
-  private final void __setMinOfColumn(final int column) {
-    long d;
-    long min = Long.MAX_VALUE;
-
-    for (int i = 1; i <= this.m_n; i++) {
-      if (!this.m_crossedRows[i - 1]
-          && !this.m_infinity[i - 1][column - 1] && (i != column)) {
-        d = (this.m_objectiveFunction.distance(i, column) - this.m_minOfRows[i - 1]);
+   * @return {@code true} if the column contains at least one edge whose
+   *         distance is not infinite, {@code false} otherwise
+   */
+  private final boolean __reduceColumn(final int column) {
+    final ObjectiveFunction f;
+    final long[] minOfRows;
+    final long base;
+    long d, min;
+    int i;
+
+    f = this.m_objectiveFunction;
+    minOfRows = this.m_minOfRows;
+    base = this.m_minOfColumns[column];
+    min = Long.MAX_VALUE;
+
+    for (i = this.m_n; i > 0; i--) {
+      if ((i != column) && (!(this.m_crossedRows[i]))
+          && (!(this.__isInfinity(i, column)))) {
+        d = (f.distance(i, column) - minOfRows[i] - base);
         if (d < min) {
           min = d;
         }
       }
     }
-    this.m_minOfColumns[column - 1] = min;
-  }
 
-  /**
-   * this method is used to find all m_edges whose values are zero after
-   * subtracting the minimal value of the row the column it is in.
-   */
-  private final void __findZeroEdges() {
-    int k = 0;
-    for (int i = 1; i <= this.m_n; i++) {
-      if (!this.m_crossedRows[i - 1]) {
-        for (int j = 1; j <= this.m_n; j++) {
-          if (!this.m_crossedColumns[j - 1]
-              && !this.m_infinity[i - 1][j - 1] && (i != j)) {
-            if ((this.m_objectiveFunction.distance(i, j)
-                - this.m_minOfRows[i - 1] - this.m_minOfColumns[j - 1]) == 0) {
-              this.m_zeros[k++] = i;
-              this.m_zeros[k++] = j;
-            }
-          }
-        }
-      }
+    if (min >= Long.MAX_VALUE) {
+      this.m_bound = Long.MAX_VALUE;
+      return false;
     }
+    this.m_minOfColumns[column] = (base + min);
+    this.m_bound += min;
+    return true;
   }
 
   /**
-   * this method computes the {@code theta} function, which is the key
-   * function in selecting the edge to branch. The {@code theta} function
-   * is computed as follows:
-   * <ol>
-   * <li>For any edge whose value is {@code 0} after the matrix reduction,
-   * we use {@code R} to denote the row this value is in and {@code C} to
-   * denote the column this value is in.</li>
-   * <li>For row {@code R}, we find the minimal value except the value in
-   * row <em>in</em> and column <em>out</em>. we denote it by {@code MR}.</li>
-   * <li>For column {@code C}, we find the minimal value except the value
-   * in row <em>in</em> and column <em>out</em>. we denote it by {@code MC}
-   * .</li>
-   * <li>We add {@code MR} and {@code M}C together, and the resulting value
-   * is the value of the {@code theta} function of an edge with the
-   * starting point in and ending point out.</li>
-   * </ol>
+   * This method iterates once through the reduced matrix of the current
+   * node, collects all zero elements, and computes the second-smallest
+   * value of each row and column. The {@code theta} function of a zero
+   * element {@code (k,l)} is the sum of the smallest element in row
+   * {@code k} and the smallest element in column {@code l}, both omitting
+   * the element itself, i.e., the sum of the second-smallest values of the
+   * row and the column, which are zero if the row or column contains
+   * another zero. We choose the zero element with the biggest
+   * {@code theta} value as the jump edge and store it in
+   * {@link #m_jumpEdge}. If there is no zero element, the jump edge is
+   * {@code (0,0)}.
    *
-   * @param in
-   *          the starting point of an edge
-   * @param out
-   *          the ending point of an edge
-   * @return the value of the {@code theta} function of a specified edge.
-   */
-  private final long __computeThetaFunction(final int in, final int out) {
-    long secondMinOfRow = Long.MAX_VALUE;
-    long secondMinOfColumn = Long.MAX_VALUE;
-    long d;
-
-    for (int i = 1; i <= this.m_n; i++) {
-      if ((i != in) && (i != out)) {
-        if (!this.m_crossedColumns[i - 1]
-            && !this.m_infinity[in - 1][i - 1]) {
-          d = (this.m_objectiveFunction.distance(in, i)
-              - this.m_minOfRows[in - 1] - this.m_minOfColumns[i - 1]);
-          if (d < secondMinOfRow) {
-            secondMinOfRow = d;
+   * @return the {@code theta} value of the jump edge, which is the
+   *         increase of the lower bound if the jump edge is excluded, or
+   *         {@link java.lang.Long#MAX_VALUE} if it cannot be excluded
+   */
+  private final long __chooseJumpEdge() {
+    final ObjectiveFunction f;
+    final int n;
+    final long[] minOfRows, minOfColumns, thetaOfRows, thetaOfColumns;
+    final boolean[] crossedRows, crossedColumns, zeroInRows, zeroInColumns;
+    int[] zeros;
+    int i, j, count;
+    long d, theta, best;
+
+    f = this.m_objectiveFunction;
+    n = this.m_n;
+    minOfRows = this.m_minOfRows;
+    minOfColumns = this.m_minOfColumns;
+    thetaOfRows = this.m_thetaOfRows;
+    thetaOfColumns = this.m_thetaOfColumns;
+    crossedRows = this.m_crossedRows;
+    crossedColumns = this.m_crossedColumns;
+    zeroInRows = this.m_zeroInRows;
+    zeroInColumns = this.m_zeroInColumns;
+    zeros = this.m_zeros;
+
+    // the smallest value of each row and column is zero, so only the
+    // second-smallest values need to be found: a second zero makes them
+    // zero as well
+    Arrays.fill(thetaOfRows, Long.MAX_VALUE);
+    Arrays.fill(thetaOfColumns, Long.MAX_VALUE);
+    Arrays.fill(zeroInRows, false);
+    Arrays.fill(zeroInColumns, false);
+    count = 0;
+    for (i = n; i > 0; i--) {
+      if (crossedRows[i]) {
+        continue;
+      }
+      for (j = n; j > 0; j--) {
+        if ((j == i) || crossedColumns[j] || this.__isInfinity(i, j)) {
+          continue;
+        }
+        d = (f.distance(i, j) - minOfRows[i] - minOfColumns[j]);
+        if (d == 0L) {
+          if (count >= zeros.length) {
+            this.m_zeros = zeros = Arrays.copyOf(zeros, zeros.length << 1);
           }
+          zeros[count++] = i;
+          zeros[count++] = j;
         }
-
-        if (!this.m_crossedRows[i - 1] && !this.m_infinity[i - 1][out - 1]) {
-          d = (this.m_objectiveFunction.distance(i, out)
-              - this.m_minOfRows[i - 1] - this.m_minOfColumns[out - 1]);
-          if (d < secondMinOfColumn) {
-            secondMinOfColumn = d;
+        if (d > 0L) {
+          if (d < thetaOfRows[i]) {
+            thetaOfRows[i] = d;
+          }
+          if (d < thetaOfColumns[j]) {
+            thetaOfColumns[j] = d;
+          }
+        } else {
+          if (zeroInRows[i]) {
+            thetaOfRows[i] = 0L;
+          } else {
+            zeroInRows[i] = true;
+          }
+          if (zeroInColumns[j]) {
+            thetaOfColumns[j] = 0L;
+          } else {
+            zeroInColumns[j] = true;
           }
         }
       }
     }
 
-    if (secondMinOfColumn == Long.MAX_VALUE) {
-      secondMinOfColumn = 0;
-    }
-    if (secondMinOfRow == Long.MAX_VALUE) {
-      secondMinOfRow = 0;
-    }
-    return secondMinOfRow + secondMinOfColumn;
-
-  }
-
-  /**
-   * This method takes an array that representing m_edges as parameter, and
-   * then iterates through all the m_edges and then computes the
-   * {@code theta} value of each edge. we choose the biggest {@code theta}
-   * value and then choose the corresponding edge as the jump edge.
-   *
-   * @param zeros
-   *          an array representing m_edges whose value is zero after the
-   *          reduction
-   * @return an array that represents an edge.
-   */
-  private final int[] __chooseJumpEdge(final int[] zeros) {
-    Arrays.fill(this.m_jumpEdge, 0);
-    long theta = 0;
-    for (int i = 0; zeros[i] > 0; i += 2) {
-      if (this.__computeThetaFunction(zeros[i], zeros[i + 1]) >= theta) {
-        theta = this.__computeThetaFunction(zeros[i], zeros[i + 1]);
+    this.m_jumpEdge[0] = this.m_jumpEdge[1] = 0;
+    best = (-1L);
+    for (i = 0; i < count; i += 2) {
+      theta = thetaOfRows[zeros[i]];
+      d = thetaOfColumns[zeros[i + 1]];
+      theta = (((theta >= Long.MAX_VALUE) || (d >= Long.MAX_VALUE)) ? Long.MAX_VALUE
+          : (theta + d));
+      if (theta >= best) {
+        best = theta;
         this.m_jumpEdge[0] = zeros[i];
         this.m_jumpEdge[1] = zeros[i + 1];
+        if (theta >= Long.MAX_VALUE) {
+          break;
+        }
       }
     }
-    return this.m_jumpEdge;
-  }
-
-  /**
-   * reset a two dimensional boolean array to its default value
-   *
-   * @param a
-   *          the array to be reset
-   */
-  private static final void __resetTwoDimensionalBooleanArray(
-      final boolean[][] a) {
-    for (final boolean[] b : a) {
-      Arrays.fill(b, false);
-    }
-  }
-
-  /**
-   * reset almost all the variable of this class, including
-   * {@link #m_minOfColumns}, {@link #m_minOfRows},
-   * {@link #m_crossedColumns}, {@link #m_crossedRows}, {@link #m_zeros},
-   * {@link #m_infinity}.
-   */
-  private final void __reset() {
-    Arrays.fill(this.m_minOfColumns, 0l);
-    Arrays.fill(this.m_minOfRows, 0l);
-    Arrays.fill(this.m_jumpEdge, 0);
-    Arrays.fill(this.m_crossedColumns, false);
-    Arrays.fill(this.m_crossedRows, false);
-    Arrays.fill(this.m_zeros, 0);
-    Arrays.fill(this.m_auxiArray1, 0);
-    Arrays.fill(this.m_auxiArray2, 0);
-    BABLittle1963.__resetTwoDimensionalBooleanArray(this.m_infinity);
-  }
-
-  /**
-   * add the node to {@link #m_nodeBuffer}
-   *
-   * @param node
-   *          the node to add
-   */
-  private final void __addNodeToBuffer(final _Node node) {
-    if (this.m_nodeBufferSize >= this.m_nodeBuffer.length) {
-      this.m_nodeBuffer = BABLittle1963.__extendArray(this.m_nodeBuffer);
-    }
-    this.m_nodeBuffer[this.m_nodeBufferSize++] = node;
-  }
-
-  /**
-   * add the {@code node} to the pool
-   *
-   * @param node
-   *          the node to add
-   */
-  private final void __addNodeToPool(final _Node node) {
-    if (this.m_poolSize >= this.m_nodeReferencePool.length) {
-      this.m_nodeReferencePool = BABLittle1963
-          .__extendArray(this.m_nodeReferencePool);
-    }
-    this.m_nodeReferencePool[this.m_poolSize++] = node;
-  }
-
-  /**
-   * this method allocates a new array if the old one is running out of
-   * space and copies all the elements in the old one to the new one.
-   *
-   * @param oldA
-   *          the old array
-   * @return the extended array
-   */
-  private static final _Node[] __extendArray(final _Node[] oldA) {
-    final _Node[] newA;
-    final int k;
-
-    k = oldA.length << 1;
-    newA = new _Node[k < oldA.length ? Integer.MAX_VALUE : k];
-    System.arraycopy(oldA, 0, newA, 0, oldA.length);
-    return newA;
+    return best;
   }
 
   /**
@@ -0,0 +1,278 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963;
+
+/**
+ * <p>
+ * A pooled arena of the nodes of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963.BABLittle1963
+ * Branch and Bound algorithm by Little et al.}, together with the
+ * priority queue of the nodes which still need to be examined. A node is
+ * an index into flat arrays and only stores the decision which created it
+ * from its parent: the edge {@code (from,to)} which is either included in
+ * or excluded from all tours of the node, and the lower bound of the node.
+ * All other information, i.e., the included and excluded edges, is
+ * obtained by walking the chain of parents up to the root.
+ * </p>
+ * <p>
+ * Each node counts the references to it, i.e., the number of its children
+ * plus one for its creator, who either puts it into the queue or
+ * branches from it. When the count reaches zero, the node is put into a
+ * free list and its parent is released, too. The arrays of the arena
+ * grow, but are never shrunk, so that no objects are created during the
+ * search.
+ * </p>
+ */
+final class _NodeArena {
+
+  /** the parents of the nodes, {@code -1} for the root */
+  private int[] m_parent;
+
+  /** the start nodes of the edges of the nodes */
+  private int[] m_from;
+
+  /**
+   * the end nodes of the edges of the nodes, negated if the edge is
+   * excluded
+   */
+  private int[] m_to;
+
+  /** the reference counts, or the next free node for free nodes */
+  private int[] m_refs;
+
+  /** the lower bounds of the nodes */
+  private long[] m_bound;
+
+  /** the number of nodes which have been used so far */
+  private int m_used;
+
+  /** the first free node, or {@code -1} if there is none */
+  private int m_free;
+
+  /** the binary min-heap of the queued nodes, ordered by the bounds */
+  private int[] m_heap;
+
+  /** the number of queued nodes */
+  private int m_heapSize;
+
+  /**
+   * create
+   *
+   * @param capacity
+   *          the initial capacity
+   */
+  _NodeArena(final int capacity) {
+    super();
+    final int c;
+
+    c = Math.max(16, capacity);
+    this.m_parent = new int[c];
+    this.m_from = new int[c];
+    this.m_to = new int[c];
+    this.m_refs = new int[c];
+    this.m_bound = new long[c];
+    this.m_heap = new int[c];
+    this._clear();
+  }
+
+  /** release all nodes */
+  final void _clear() {
+    this.m_used = 0;
+    this.m_free = (-1);
+    this.m_heapSize = 0;
+  }
+
+  /**
+   * Create a new node which holds one reference to itself and adds a
+   * reference to its parent.
+   *
+   * @param parent
+   *          the parent node, or {@code -1} for the root
+   * @param from
+   *          the start node of the edge
+   * @param to
+   *          the end node of the edge, negated if the edge is excluded
+   * @param bound
+   *          the lower bound
+   * @return the node
+   */
+  final int _create(final int parent, final int from, final int to,
+      final long bound) {
+    long[] bounds;
+    int node, capacity;
+
+    node = this.m_free;
+    if (node >= 0) {
+      this.m_free = this.m_refs[node];
+    } else {
+      if (this.m_used >= this.m_parent.length) {
+        capacity = (this.m_used << 1);
+        this.m_parent = _NodeArena.__grow(this.m_parent, capacity);
+        this.m_from = _NodeArena.__grow(this.m_from, capacity);
+        this.m_to = _NodeArena.__grow(this.m_to, capacity);
+        this.m_refs = _NodeArena.__grow(this.m_refs, capacity);
+        bounds = new long[capacity];
+        System.arraycopy(this.m_bound, 0, bounds, 0, this.m_used);
+        this.m_bound = bounds;
+      }
+      this.m_used = ((node = this.m_used) + 1);
+    }
+
+    this.m_parent[node] = parent;
+    this.m_from[node] = from;
+    this.m_to[node] = to;
+    this.m_bound[node] = bound;
+    this.m_refs[node] = 1;
+    if (parent >= 0) {
+      this.m_refs[parent]++;
+    }
+    return node;
+  }
+
+  /**
+   * Drop one reference to a node. If no reference remains, the node is
+   * freed and its parent is released as well.
+   *
+   * @param node
+   *          the node
+   */
+  final void _release(final int node) {
+    int cur;
+
+    for (cur = node; (cur >= 0) && ((--this.m_refs[cur]) <= 0);) {
+      this.m_refs[cur] = this.m_free;
+      this.m_free = cur;
+      cur = this.m_parent[cur];
+    }
+  }
+
+  /**
+   * Get the parent of a node
+   *
+   * @param node
+   *          the node
+   * @return the parent, or {@code -1} for the root
+   */
+  final int _parent(final int node) {
+    return this.m_parent[node];
+  }
+
+  /**
+   * Get the start node of the edge of a node
+   *
+   * @param node
+   *          the node
+   * @return the start node of the edge
+   */
+  final int _from(final int node) {
+    return this.m_from[node];
+  }
+
+  /**
+   * Get the end node of the edge of a node
+   *
+   * @param node
+   *          the node
+   * @return the end node of the edge, negated if the edge is excluded
+   */
+  final int _to(final int node) {
+    return this.m_to[node];
+  }
+
+  /**
+   * Get the lower bound of a node
+   *
+   * @param node
+   *          the node
+   * @return the lower bound
+   */
+  final long _bound(final int node) {
+    return this.m_bound[node];
+  }
+
+  /**
+   * Is the queue empty?
+   *
+   * @return {@code true} if no node is queued, {@code false} otherwise
+   */
+  final boolean _isEmpty() {
+    return (this.m_heapSize <= 0);
+  }
+
+  /**
+   * Put a node into the queue, which takes over the reference of the
+   * caller.
+   *
+   * @param node
+   *          the node
+   */
+  final void _push(final int node) {
+    final long bound;
+    int[] heap;
+    int i, p;
+
+    heap = this.m_heap;
+    if (this.m_heapSize >= heap.length) {
+      this.m_heap = heap = _NodeArena.__grow(heap, heap.length << 1);
+    }
+
+    bound = this.m_bound[node];
+    for (i = this.m_heapSize++; i > 0; i = p) {
+      p = ((i - 1) >>> 1);
+      if (this.m_bound[heap[p]] <= bound) {
+        break;
+      }
+      heap[i] = heap[p];
+    }
+    heap[i] = node;
+  }
+
+  /**
+   * Remove the node with the smallest lower bound from the queue, whose
+   * reference is passed on to the caller.
+   *
+   * @return the node
+   */
+  final int _pop() {
+    final int[] heap;
+    final long[] bounds;
+    final int result, last, size;
+    final long bound;
+    int i, c;
+
+    heap = this.m_heap;
+    bounds = this.m_bound;
+    result = heap[0];
+    size = (--this.m_heapSize);
+    last = heap[size];
+    bound = bounds[last];
+
+    for (i = 0; (c = ((i << 1) + 1)) < size; i = c) {
+      if (((c + 1) < size) && (bounds[heap[c + 1]] < bounds[heap[c]])) {
+        c++;
+      }
+      if (bounds[heap[c]] >= bound) {
+        break;
+      }
+      heap[i] = heap[c];
+    }
+    heap[i] = last;
+
+    return result;
+  }
+
+  /**
+   * grow an array
+   *
+   * @param array
+   *          the array
+   * @param capacity
+   *          the new capacity
+   * @return the new array
+   */
+  private static final int[] __grow(final int[] array, final int capacity) {
+    final int[] res;
+
+    res = new int[capacity];
+    System.arraycopy(array, 0, res, 0, array.length);
+    return res;
+  }
+}
@@ -0,0 +1,470 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming;
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK;
+import org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963.BABLittle1963;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * The dynamic programming algorithm for the TSP by Bellman&nbsp;[<a
+ * href="#cite_B1962DPTOTTSP" style="font-weight:bold">1</a>] and by Held
+ * and Karp&nbsp;[<a href="#cite_HK1962ADPATSP"
+ * style="font-weight:bold">2</a>], which finds the optimal tour in
+ * {@code O(n^2*2^n)} steps. For each subset {@code S} of the nodes
+ * {@code 2..n} and each node {@code j} in {@code S}, it computes the
+ * length {@code C(S,j)} of the shortest path which starts at node
+ * {@code 1}, visits all nodes of {@code S}, and ends at {@code j}:
+ * {@code C({j},j)=d(1,j)} and
+ * {@code C(S,j)=min(C(S\{j},i)+d(i,j) | i in S\{j})}. The length of the
+ * optimal tour is {@code min(C({2..n},j)+d(j,1))}, and the tour itself is
+ * reconstructed by going backwards through the table. Since the distances
+ * are used in their direction of travel, the algorithm also solves
+ * asymmetric instances.
+ * </p>
+ * <p>
+ * The table is a flat {@code int} array indexed by the bit mask of the
+ * subset and the last node. The entries of the subsets with {@code k}
+ * nodes only depend on those with {@code k-1} nodes, so each such layer
+ * can be computed in parallel by {@link #PARAM_THREADS several threads}.
+ * The default is {@value #DEFAULT_THREADS} thread, since the
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_THREADS
+ * runner} already executes independent runs on the other processors. All
+ * distances are read into a matrix before, so the algorithm only needs
+ * {@code n*(n-1)} distance evaluations.
+ * </p>
+ * <p>
+ * The table has {@code (n-1)*2^(n-1)} {@code int} entries, which limits
+ * the algorithm to small instances with at most {@link #PARAM_MAX_N maxN}
+ * nodes. By default, this is {@value #DEFAULT_MAX_N} nodes, which need
+ * 1.6&nbsp;GB of memory, and {@code maxN} cannot be larger than
+ * {@value #MAX_MAX_N}, since the table of 27 nodes already has almost
+ * {@code 2^31} entries. The table is only allocated if it takes at most
+ * three quarters of the memory which is still available to the virtual
+ * machine, so the effective limit depends on the heap size, e.g., on a
+ * heap of 1.5&nbsp;GB it is 24 nodes. Larger instances, instances whose
+ * table cannot be allocated, and instances whose distances are so large
+ * that the path lengths in the table may overflow are solved by an exact
+ * branch and bound algorithm instead, namely by the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK
+ * branch and bound with Held-Karp relaxation} for symmetric instances and
+ * by the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963.BABLittle1963
+ * branch and bound algorithm of Little et al.} for asymmetric ones. The
+ * algorithm checks whether it should terminate between the layers.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_B1962DPTOTTSP" /><a
+ * href="http://en.wikipedia.org/wiki/Richard_E._Bellman">Richard Ernest
+ * Bellman</a>: <span style="font-weight:bold">&ldquo;Dynamic Programming
+ * Treatment of the Travelling Salesman Problem,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of the ACM
+ * (JACM)</span> 9(1):61&ndash;63, January&nbsp;1962; published by New
+ * York, NY, USA: ACM Press. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1145/321105.321111"
+ * >10.1145/321105.321111</a></div></li>
+ * <li><div><span id="cite_HK1962ADPATSP" />Michael Held and&nbsp;<a
+ * href="https://en.wikipedia.org/wiki/Richard_M._Karp">Richard Manning
+ * Karp</a>: <span style="font-weight:bold">&ldquo;A Dynamic Programming
+ * Approach to Sequencing Problems,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of the Society
+ * for Industrial and Applied Mathematics</span> 10(1):196&ndash;210,
+ * March&nbsp;1962; published by Philadelphia, PA, USA: Society for
+ * Industrial and Applied Mathematics (SIAM). doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1137/0110015">10.1137/0110015</a></div></li>
+ * </ol>
+ */
+public class HeldKarpDP extends TSPAlgorithm {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the parameter for the maximum number of nodes for which the table is
+   * built: {@value}
+   */
+  public static final String PARAM_MAX_N = "maxN";//$NON-NLS-1$
+
+  /** the parameter for the number of threads: {@value} */
+  public static final String PARAM_THREADS = "threads";//$NON-NLS-1$
+
+  /** the default number of threads: {@value} */
+  public static final int DEFAULT_THREADS = 1;
+
+  /** the default maximum number of nodes: {@value} */
+  public static final int DEFAULT_MAX_N = 25;
+
+  /** the largest possible number of nodes: {@value} */
+  public static final int MAX_MAX_N = 27;
+
+  /** the maximum number of nodes */
+  private int m_maxN;
+
+  /** the number of threads */
+  private int m_threads;
+
+  /** the exact algorithm for larger symmetric instances */
+  private BAB_HK m_symmetricFallback;
+
+  /** the exact algorithm for larger asymmetric instances */
+  private BABLittle1963 m_asymmetricFallback;
+
+  /** the table, or {@code null} if the instance is too large */
+  private transient int[] m_table;
+
+  /** the distance matrix */
+  private transient int[] m_dist;
+
+  /** the tour */
+  private transient int[] m_tour;
+
+  /** the workers computing the layers */
+  private transient _DPLayer[] m_workers;
+
+  /** the fork-join pool, or {@code null} if only one thread is used */
+  private transient ForkJoinPool m_pool;
+
+  /** instantiate */
+  public HeldKarpDP() {
+    super("Held-Karp Dynamic Programming"); //$NON-NLS-1$
+    this.m_maxN = HeldKarpDP.DEFAULT_MAX_N;
+    this.m_threads = HeldKarpDP.DEFAULT_THREADS;
+    this.m_symmetricFallback = new BAB_HK();
+    this.m_asymmetricFallback = new BABLittle1963();
+  }
+
+  /**
+   * Perform the Held-Karp dynamic programming algorithm
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(//
+        Instance.ALL_INSTANCES,//
+        HeldKarpDP.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void solve(final ObjectiveFunction f) {
+    final int n, m, full;
+    final int[] table, dist, tour;
+    int i, j, size, mask, prev, cur, base, best;
+    long length, bound;
+
+    table = this.m_table;
+    if (table == null) {
+      this.__fallback(f);
+      return;
+    }
+
+    n = f.n();
+    dist = this.m_dist;
+    tour = this.m_tour;
+
+    // load the distance matrix and start with the canonical tour
+    bound = length = 0L;
+    for (i = n; (--i) >= 0;) {
+      best = 0;
+      for (j = n; (--j) >= 0;) {
+        if (i != j) {
+          dist[(i * n) + j] = cur = f.distance(i + 1, j + 1);
+          if (cur > best) {
+            best = cur;
+          }
+        }
+      }
+      bound += best;
+      length += dist[(i * n) + ((i + 1) % n)];
+    }
+    PermutationCreateCanonical.makeCanonical(tour, n);
+    f.registerFE(tour, length);
+
+    // with at most two nodes, the canonical tour is the only tour
+    if ((n <= 2) || f.shouldTerminate()) {
+      return;
+    }
+
+    // the paths in the table cannot be longer than the sum of the
+    // longest edges leaving each node, which must fit into an int
+    if (bound >= Integer.MAX_VALUE) {
+      this.__fallback(f);
+      return;
+    }
+
+    m = (n - 1);
+    for (j = m; (--j) >= 0;) {
+      table[((1 << j) * m) + j] = dist[j + 1];
+    }
+
+    for (size = 2; size <= m; size++) {
+      this.__computeLayer(size);
+      if (f.shouldTerminate()) {
+        return;
+      }
+    }
+
+    // find the end of the optimal tour
+    full = ((1 << m) - 1);
+    base = (full * m);
+    cur = (-1);
+    length = Long.MAX_VALUE;
+    for (j = m; (--j) >= 0;) {
+      best = (table[base + j] + dist[(j + 1) * n]);
+      if (best < length) {
+        length = best;
+        cur = j;
+      }
+    }
+
+    // go backwards through the table to reconstruct the tour
+    tour[0] = 1;
+    mask = full;
+    for (i = m; i > 0; i--) {
+      tour[i] = (cur + 2);
+      prev = (mask ^ (1 << cur));
+      best = table[(mask * m) + cur];
+      base = (prev * m);
+      for (j = m; (--j) >= 0;) {
+        if (((prev & (1 << j)) != 0)
+            && ((table[base + j] + dist[((j + 1) * n) + cur + 1]) == best)) {
+          break;
+        }
+      }
+      mask = prev;
+      cur = j;
+    }
+
+    f.registerFE(tour, length);
+  }
+
+  /**
+   * Solve an instance which cannot be solved with the table by an exact
+   * branch and bound algorithm
+   *
+   * @param f
+   *          the objective function
+   */
+  private final void __fallback(final ObjectiveFunction f) {
+    final TSPAlgorithm algo;
+
+    algo = (f.symmetric() ? this.m_symmetricFallback
+        : this.m_asymmetricFallback);
+    algo.beginRun(f);
+    try {
+      algo.solve(f);
+    } finally {
+      algo.endRun(f);
+    }
+  }
+
+  /**
+   * Compute one layer of the table
+   *
+   * @param size
+   *          the cardinality of the subsets of the layer
+   */
+  private final void __computeLayer(final int size) {
+    final _DPLayer[] workers;
+    final ForkJoinPool pool;
+    final AtomicInteger next;
+    int i;
+
+    workers = this.m_workers;
+    pool = this.m_pool;
+    next = new AtomicInteger();
+    for (i = workers.length; (--i) >= 0;) {
+      workers[i].setup(this.m_table, this.m_dist, this.m_tour.length,
+          size, next);
+    }
+
+    if (pool == null) {
+      workers[0].invoke();
+    } else {
+      for (i = 1; i < workers.length; i++) {
+        pool.execute(workers[i]);
+      }
+      workers[0].invoke();
+      for (i = 1; i < workers.length; i++) {
+        workers[i].join();
+      }
+    }
+
+    for (i = workers.length; (--i) >= 0;) {
+      workers[i].release();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final _DPLayer[] workers;
+    final int n, threads;
+    final long entries;
+    final Runtime rt;
+    int i;
+
+    super.beginRun(f);
+
+    n = f.n();
+    if (n > Math.min(this.m_maxN, HeldKarpDP.MAX_MAX_N)) {
+      return;
+    }
+
+    // only allocate the table if it leaves enough memory to the rest of
+    // the run, otherwise the fallback algorithm is used
+    entries = (((long) (n - 1)) << (n - 1));
+    rt = Runtime.getRuntime();
+    if ((entries << 2) > //
+    (((rt.maxMemory() - (rt.totalMemory() - rt.freeMemory())) >>> 2) * 3L)) {
+      return;
+    }
+    try {
+      this.m_table = new int[(int) entries];
+    } catch (final OutOfMemoryError oome) {
+      return;
+    }
+    this.m_dist = new int[n * n];
+    this.m_tour = new int[n];
+
+    threads = this.m_threads;
+    this.m_workers = workers = new _DPLayer[threads];
+    for (i = threads; (--i) >= 0;) {
+      workers[i] = new _DPLayer();
+    }
+    if (threads > 1) {
+      this.m_pool = new ForkJoinPool(threads);
+    }
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_table = null;
+    this.m_dist = null;
+    this.m_tour = null;
+    this.m_workers = null;
+    this.m_pool = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      if (this.m_pool != null) {
+        this.m_pool.shutdown();
+      }
+      this.__clear();
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public HeldKarpDP clone() {
+    final HeldKarpDP res;
+
+    res = ((HeldKarpDP) (super.clone()));
+    res.m_symmetricFallback = res.m_symmetricFallback.clone();
+    res.m_asymmetricFallback = res.m_asymmetricFallback.clone();
+    res.__clear();
+    return res;
+  }
+
+  /**
+   * Set the maximum number of nodes for which the table is built
+   *
+   * @param maxN
+   *          the maximum number of nodes
+   */
+  public final void setMaxN(final int maxN) {
+    this.m_maxN = Math.max(3, Math.min(HeldKarpDP.MAX_MAX_N, maxN));
+  }
+
+  /**
+   * Get the maximum number of nodes for which the table is built
+   *
+   * @return the maximum number of nodes
+   */
+  public final int getMaxN() {
+    return this.m_maxN;
+  }
+
+  /**
+   * Set the number of threads
+   *
+   * @param threads
+   *          the number of threads
+   */
+  public final void setThreadCount(final int threads) {
+    this.m_threads = Math.max(1, threads);
+  }
+
+  /**
+   * Get the number of threads
+   *
+   * @return the number of threads
+   */
+  public final int getThreadCount() {
+    return this.m_threads;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setMaxN(config.getInt(HeldKarpDP.PARAM_MAX_N, 3,
+        HeldKarpDP.MAX_MAX_N, this.m_maxN));
+    this.setThreadCount(config.getInt(HeldKarpDP.PARAM_THREADS, 1, 1024,
+        this.m_threads));
+
+    this.m_symmetricFallback.configure(config);
+    this.m_asymmetricFallback.configure(config);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(HeldKarpDP.PARAM_MAX_N, ps);
+    ps.println(this.m_maxN);
+
+    Configurable.printKey(HeldKarpDP.PARAM_THREADS, ps);
+    ps.println(this.m_threads);
+
+    Configurable.printKey("symmetricFallback", ps); //$NON-NLS-1$
+    Configurable.printlnObject(this.m_symmetricFallback, ps);
+
+    Configurable.printKey("asymmetricFallback", ps); //$NON-NLS-1$
+    Configurable.printlnObject(this.m_asymmetricFallback, ps);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(HeldKarpDP.PARAM_MAX_N, ps);
+    ps.println("The maximum number of nodes for which the table is built."); //$NON-NLS-1$
+
+    Configurable.printKey(HeldKarpDP.PARAM_THREADS, ps);
+    ps.println("The number of threads computing the layers of the table in parallel."); //$NON-NLS-1$
+
+    this.m_symmetricFallback.printParameters(ps);
+    this.m_asymmetricFallback.printParameters(ps);
+  }
+}
@@ -0,0 +1,125 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A worker of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming.HeldKarpDP
+ * dynamic programming}: It computes the table entries of all subsets of a
+ * given cardinality, i.e., of one layer. The range of subset bit masks is
+ * divided into blocks of {@code 2^}{@value #BLOCK_BITS} masks, and the
+ * workers repeatedly take the next unprocessed block until all blocks
+ * have been processed. Since the entries of one layer only depend on the
+ * entries of the previous layer, several workers can fill the same table
+ * in parallel.
+ */
+final class _DPLayer extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the number of bits of the masks per block */
+  static final int BLOCK_BITS = 12;
+
+  /** the table */
+  private int[] m_table;
+
+  /** the distance matrix */
+  private int[] m_dist;
+
+  /** the number of nodes */
+  private int m_n;
+
+  /** the cardinality of the subsets of the layer */
+  private int m_size;
+
+  /** the number of blocks */
+  private int m_blocks;
+
+  /** the index of the next block to process, shared by all workers */
+  private AtomicInteger m_next;
+
+  /** create */
+  _DPLayer() {
+    super();
+  }
+
+  /**
+   * Prepare the worker for processing a layer
+   *
+   * @param table
+   *          the table
+   * @param dist
+   *          the distance matrix
+   * @param n
+   *          the number of nodes
+   * @param size
+   *          the cardinality of the subsets of the layer
+   * @param next
+   *          the index of the next block to process, shared by all
+   *          workers
+   */
+  final void setup(final int[] table, final int[] dist, final int n,
+      final int size, final AtomicInteger next) {
+    this.reinitialize();
+    this.m_table = table;
+    this.m_dist = dist;
+    this.m_n = n;
+    this.m_size = size;
+    this.m_blocks = (((1 << (n - 1)) + ((1 << _DPLayer.BLOCK_BITS) - 1))//
+    >>> _DPLayer.BLOCK_BITS);
+    this.m_next = next;
+  }
+
+  /** release the references to the data of the run */
+  final void release() {
+    this.m_table = null;
+    this.m_dist = null;
+    this.m_next = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final int[] table, dist;
+    final int n, m, size, blocks, end;
+    final AtomicInteger next;
+    int block, mask, last, rest, restPrev, prev, base, i, j, best, v;
+
+    table = this.m_table;
+    dist = this.m_dist;
+    n = this.m_n;
+    m = (n - 1);
+    size = this.m_size;
+    blocks = this.m_blocks;
+    next = this.m_next;
+    end = (1 << m);
+
+    while ((block = next.getAndIncrement()) < blocks) {
+      last = Math.min(end, ((block + 1) << _DPLayer.BLOCK_BITS));
+      for (mask = (block << _DPLayer.BLOCK_BITS); mask < last; mask++) {
+        if (Integer.bitCount(mask) != size) {
+          continue;
+        }
+
+        // the shortest path from node 0 over the nodes in mask which ends
+        // at node j+1 enters j+1 from a node i+1 of mask without j+1
+        for (rest = mask; rest != 0; rest &= (rest - 1)) {
+          j = Integer.numberOfTrailingZeros(rest);
+          prev = (mask ^ (1 << j));
+          base = (prev * m);
+          best = Integer.MAX_VALUE;
+          for (restPrev = prev; restPrev != 0; restPrev &= (restPrev - 1)) {
+            i = Integer.numberOfTrailingZeros(restPrev);
+            v = (table[base + i] + dist[((i + 1) * n) + j + 1]);
+            if (v < best) {
+              best = v;
+            }
+          }
+          table[(mask * m) + j] = best;
+        }
+      }
+    }
+  }
+}
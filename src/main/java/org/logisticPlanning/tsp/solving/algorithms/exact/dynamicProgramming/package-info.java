@@ -0,0 +1,6 @@
+/**
+ * In this package, we provide the dynamic programming algorithm by Bellman
+ * and by Held and Karp, which solves small TSP instances exactly.
+ */
+package org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming;
+
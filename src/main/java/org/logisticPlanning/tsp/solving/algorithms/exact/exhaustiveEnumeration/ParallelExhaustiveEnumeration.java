@@ -0,0 +1,278 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration;
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.LogPoint;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A parallel variant of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ExhaustivePermutationIteration
+ * exhaustive permutation enumeration}, which is meant as brute-force
+ * reference solver for small instances with up to about 14 nodes. All
+ * tours start at node {@code 1}. The search space is split into the
+ * {@code (n-1)(n-2)} sets of tours beginning with a fixed prefix
+ * {@code (1,a,b)}, which can be processed by {@link #PARAM_THREADS
+ * several threads}. Since the
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_THREADS
+ * runner} performs runs in parallel anyway, {@value #DEFAULT_THREADS}
+ * thread is used unless more are configured.
+ * </p>
+ * <p>
+ * Each thread extends the prefix depth-first. A prefix is pruned if its
+ * length plus the shortest outgoing edges of its last node and of all
+ * unvisited nodes, which is a lower bound for the length of all tours
+ * beginning with it, is not shorter than the best tour found by any
+ * thread so far. The best tour length is shared via an atomic variable,
+ * so that an improvement found by one thread immediately tightens the
+ * pruning of all others. The permutations of the last few nodes are
+ * enumerated with Heap's algorithm&nbsp;[<a href="#cite_H1963PBI"
+ * style="font-weight:bold">1</a>, <a href="#cite_S1977PGM"
+ * style="font-weight:bold">2</a>], which gets each permutation from the
+ * previous one by a single swap. The change of the tour length caused by
+ * the swap is computed with at most eight distance evaluations.
+ * </p>
+ * <p>
+ * The search begins with a random tour, or with the best tour found so
+ * far if the algorithm is used in a hybrid. Since it either finds the
+ * optimum or is terminated, it is exact on asymmetric instances as well.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_H1963PBI" />B. R. Heap: <span
+ * style="font-weight:bold">&ldquo;Permutations by Interchanges,&rdquo;</span>
+ * in <span style="font-style:italic;font-family:cursive;">The Computer
+ * Journal</span> 6(3):293&ndash;294, 1963; published by Oxford, UK: Oxford
+ * University Press. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1093/comjnl/6.3.293"
+ * >10.1093/comjnl/6.3.293</a></div></li>
+ * <li><div><span id="cite_S1977PGM" /><a
+ * href="http://www.cs.princeton.edu/~rs/">Robert Sedgewick</a>: <span
+ * style="font-weight:bold">&ldquo;Permutation Generation
+ * Methods,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">ACM Computing Surveys
+ * (CSUR)</span> 9(2):137&ndash;164, June&nbsp;1977; published by New York,
+ * NY, USA: ACM Press. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1145/356689.356692"
+ * >10.1145/356689.356692</a>; ISSN:&nbsp;<a
+ * href="https://www.worldcat.org/issn/03600300">0360-0300</a></div></li>
+ * </ol>
+ */
+public class ParallelExhaustiveEnumeration extends TSPAlgorithm {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the number of threads: {@value} */
+  public static final String PARAM_THREADS = "threads";//$NON-NLS-1$
+
+  /** the default number of threads: {@value} */
+  public static final int DEFAULT_THREADS = 1;
+
+  /** the number of threads */
+  private int m_threads;
+
+  /** the workers */
+  private transient _EnumerationWorker[] m_workers;
+
+  /** the fork-join pool, or {@code null} if only one thread is used */
+  private transient ForkJoinPool m_pool;
+
+  /** the initial tour */
+  private transient int[] m_tour;
+
+  /** instantiate */
+  public ParallelExhaustiveEnumeration() {
+    super("Parallel Exhaustive Enumeration"); //$NON-NLS-1$
+    this.m_threads = ParallelExhaustiveEnumeration.DEFAULT_THREADS;
+  }
+
+  /**
+   * Perform the parallel exhaustive enumeration
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(//
+        Instance.ALL_INSTANCES,//
+        ParallelExhaustiveEnumeration.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void solve(final ObjectiveFunction f) {
+    final _EnumerationWorker[] workers;
+    final ForkJoinPool pool;
+    final AtomicInteger next;
+    final AtomicLong shared;
+    final LogPoint p;
+    final int[] tour, minOut;
+    final int n;
+    int i, j, d, min;
+    long best, sum;
+
+    n = f.n();
+    tour = this.m_tour;
+
+    p = f.getCurrentLogPoint();
+    if (p.getConsumedFEs() <= 0) {
+      PermutationCreateCanonical.makeCanonical(tour);
+      f.getRandom().shuffle(tour);
+      best = f.evaluate(tour);
+    } else {
+      best = p.getBestF();
+    }
+
+    // the shortest outgoing edges of all nodes
+    minOut = new int[n + 1];
+    sum = 0L;
+    for (i = n; i > 0; i--) {
+      if (f.shouldTerminate()) {
+        return;
+      }
+      min = Integer.MAX_VALUE;
+      for (j = n; j > 0; j--) {
+        if ((i != j) && ((d = f.distance(i, j)) < min)) {
+          min = d;
+        }
+      }
+      minOut[i] = min;
+      sum += min;
+    }
+
+    workers = this.m_workers;
+    pool = this.m_pool;
+    next = new AtomicInteger();
+    shared = new AtomicLong(best);
+    for (i = workers.length; (--i) >= 0;) {
+      workers[i].setup(f, shared, next, minOut, sum);
+    }
+
+    try {
+      if (pool == null) {
+        workers[0].invoke();
+      } else {
+        for (i = 1; i < workers.length; i++) {
+          pool.execute(workers[i]);
+        }
+        workers[0].invoke();
+        for (i = 1; i < workers.length; i++) {
+          workers[i].join();
+        }
+      }
+    } finally {
+      for (i = workers.length; (--i) >= 0;) {
+        workers[i].release();
+      }
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final _EnumerationWorker[] workers;
+    final int threads;
+    int i;
+
+    super.beginRun(f);
+
+    this.m_tour = new int[f.n()];
+    threads = this.m_threads;
+    this.m_workers = workers = new _EnumerationWorker[threads];
+    for (i = threads; (--i) >= 0;) {
+      workers[i] = new _EnumerationWorker(f.createCountingDistanceComputer());
+    }
+    if (threads > 1) {
+      this.m_pool = new ForkJoinPool(threads);
+    }
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_workers = null;
+    this.m_pool = null;
+    this.m_tour = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      if (this.m_pool != null) {
+        this.m_pool.shutdown();
+      }
+      this.__clear();
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ParallelExhaustiveEnumeration clone() {
+    final ParallelExhaustiveEnumeration res;
+
+    res = ((ParallelExhaustiveEnumeration) (super.clone()));
+    res.__clear();
+    return res;
+  }
+
+  /**
+   * Set the number of threads
+   *
+   * @param threads
+   *          the number of threads
+   */
+  public final void setThreadCount(final int threads) {
+    this.m_threads = Math.max(1, threads);
+  }
+
+  /**
+   * Get the number of threads
+   *
+   * @return the number of threads
+   */
+  public final int getThreadCount() {
+    return this.m_threads;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setThreadCount(config.getInt(
+        ParallelExhaustiveEnumeration.PARAM_THREADS, 1, 1024,
+        this.m_threads));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(ParallelExhaustiveEnumeration.PARAM_THREADS, ps);
+    ps.println(this.m_threads);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(ParallelExhaustiveEnumeration.PARAM_THREADS, ps);
+    ps.println("The number of threads enumerating the tours in parallel."); //$NON-NLS-1$
+  }
+}
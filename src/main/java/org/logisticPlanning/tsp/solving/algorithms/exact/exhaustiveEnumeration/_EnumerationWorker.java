@@ -0,0 +1,385 @@
+package org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
+
+/**
+ * A worker of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ParallelExhaustiveEnumeration
+ * parallel exhaustive enumeration}: It repeatedly takes the next
+ * unprocessed prefix {@code (1,a,b)} and enumerates all tours starting
+ * with it, until all prefixes have been processed. The prefix is extended
+ * depth-first, and each extension is pruned if its length plus the
+ * shortest outgoing edges of its last node and of all unvisited nodes is
+ * not shorter than the best tour found by any worker. The last
+ * {@value #SUFFIX} nodes are permuted with Heap's algorithm, where each
+ * permutation differs from the previous one by a single swap whose change
+ * of the tour length is computed in constant time.
+ */
+final class _EnumerationWorker extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the number of nodes permuted with Heap's algorithm: {@value} */
+  static final int SUFFIX = 3;
+
+  /**
+   * the number of steps, i.e., of function evaluations or prefix
+   * extensions, between two checks for termination: {@value}
+   */
+  private static final long CHECK = 0x10000L;
+
+  /** the counting distance computer */
+  private final CountingDistanceComputer m_dist;
+
+  /** the objective function */
+  private ObjectiveFunction m_f;
+
+  /** the length of the best tour, shared by all workers */
+  private AtomicLong m_best;
+
+  /** the index of the next prefix to process, shared by all workers */
+  private AtomicInteger m_next;
+
+  /** the shortest outgoing edge of each node */
+  private int[] m_minOut;
+
+  /** the sum of the shortest outgoing edges of all nodes */
+  private long m_minOutSum;
+
+  /** the current tour */
+  private int[] m_path;
+
+  /** the visited nodes */
+  private boolean[] m_visited;
+
+  /** the counters of Heap's algorithm */
+  private int[] m_counters;
+
+  /** the function evaluations which have not been registered yet */
+  private long m_fes;
+
+  /** the steps left until the next check */
+  private long m_untilCheck;
+
+  /** should we terminate? */
+  private boolean m_terminate;
+
+  /**
+   * create
+   *
+   * @param dist
+   *          the counting distance computer of the worker
+   */
+  _EnumerationWorker(final CountingDistanceComputer dist) {
+    super();
+    this.m_dist = dist;
+  }
+
+  /**
+   * Prepare the worker for enumerating the tours
+   *
+   * @param f
+   *          the objective function
+   * @param best
+   *          the length of the best tour, shared by all workers
+   * @param next
+   *          the index of the next prefix to process, shared by all
+   *          workers
+   * @param minOut
+   *          the shortest outgoing edge of each node
+   * @param minOutSum
+   *          the sum of the shortest outgoing edges of all nodes
+   */
+  final void setup(final ObjectiveFunction f, final AtomicLong best,
+      final AtomicInteger next, final int[] minOut, final long minOutSum) {
+    final int n;
+
+    this.reinitialize();
+    n = f.n();
+    this.m_f = f;
+    this.m_best = best;
+    this.m_next = next;
+    this.m_minOut = minOut;
+    this.m_minOutSum = minOutSum;
+    this.m_path = new int[n];
+    this.m_visited = new boolean[n + 1];
+    this.m_counters = new int[_EnumerationWorker.SUFFIX];
+    this.m_fes = 0L;
+    this.m_untilCheck = _EnumerationWorker.CHECK;
+    this.m_terminate = false;
+    this.m_dist.resetCount();
+  }
+
+  /** release the references to the data of the run */
+  final void release() {
+    this.m_f = null;
+    this.m_best = null;
+    this.m_next = null;
+    this.m_minOut = null;
+    this.m_path = null;
+    this.m_visited = null;
+    this.m_counters = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final CountingDistanceComputer dist;
+    final int[] path, minOut;
+    final boolean[] visited;
+    final int n, prefixes;
+    int index, second, third;
+
+    dist = this.m_dist;
+    path = this.m_path;
+    minOut = this.m_minOut;
+    visited = this.m_visited;
+    n = path.length;
+    prefixes = ((n - 1) * (n - 2));
+
+    path[0] = 1;
+    visited[1] = true;
+    while ((!(this.m_terminate))
+        && ((index = this.m_next.getAndIncrement()) < prefixes)) {
+      second = (2 + (index / (n - 2)));
+      third = (2 + (index % (n - 2)));
+      if (third >= second) {
+        third++;
+      }
+
+      path[1] = second;
+      path[2] = third;
+      visited[second] = visited[third] = true;
+      this.__extend(3, (dist.distance(1, second) + dist.distance(second,
+          third)), (this.m_minOutSum - minOut[1] - minOut[second]));
+      visited[second] = visited[third] = false;
+
+      this.__check();
+    }
+    this.__flush();
+  }
+
+  /**
+   * Extend the prefix of the current tour depth-first
+   *
+   * @param depth
+   *          the length of the prefix
+   * @param length
+   *          the length of the path formed by the prefix
+   * @param rest
+   *          the sum of the shortest outgoing edges of all nodes which
+   *          are not in the prefix, except the first one, plus the one of
+   *          the last node of the prefix
+   */
+  private final void __extend(final int depth, final long length,
+      final long rest) {
+    final CountingDistanceComputer dist;
+    final int[] path, minOut;
+    final boolean[] visited;
+    final int n, last;
+    int node, i;
+
+    if ((length + rest) >= this.m_best.get()) {
+      return;
+    }
+    if ((--this.m_untilCheck) <= 0L) {
+      this.__check();
+      if (this.m_terminate) {
+        return;
+      }
+    }
+
+    path = this.m_path;
+    visited = this.m_visited;
+    n = path.length;
+
+    if ((n - depth) <= _EnumerationWorker.SUFFIX) {
+      i = depth;
+      for (node = n; node > 0; node--) {
+        if (!(visited[node])) {
+          path[i++] = node;
+        }
+      }
+      this.__permute(depth, length);
+      return;
+    }
+
+    dist = this.m_dist;
+    minOut = this.m_minOut;
+    last = path[depth - 1];
+    for (node = n; node > 1; node--) {
+      if (visited[node]) {
+        continue;
+      }
+      visited[node] = true;
+      path[depth] = node;
+      this.__extend(depth + 1, (length + dist.distance(last, node)),
+          (rest - minOut[last]));
+      visited[node] = false;
+      if (this.m_terminate) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Enumerate all permutations of the nodes behind the prefix with Heap's
+   * algorithm
+   *
+   * @param start
+   *          the index of the first node behind the prefix
+   * @param prefixLength
+   *          the length of the path formed by the prefix
+   */
+  private final void __permute(final int start, final long prefixLength) {
+    final CountingDistanceComputer dist;
+    final int[] path, counters;
+    final int n, size;
+    long length;
+    int i, j;
+
+    dist = this.m_dist;
+    path = this.m_path;
+    counters = this.m_counters;
+    n = path.length;
+    size = (n - start);
+
+    length = (prefixLength + dist.distance(path[n - 1], path[0]));
+    for (i = (n - 1); (--i) >= (start - 1);) {
+      length += dist.distance(path[i], path[i + 1]);
+    }
+    this.__register(length);
+
+    for (i = size; (--i) >= 0;) {
+      counters[i] = 0;
+    }
+    for (i = 1; i < size;) {
+      if (counters[i] < i) {
+        j = (((i & 1) == 0) ? 0 : counters[i]);
+        length += this.__swap(start + j, start + i);
+        if (this.__register(length)) {
+          return;
+        }
+        counters[i]++;
+        i = 1;
+      } else {
+        counters[i] = 0;
+        i++;
+      }
+    }
+  }
+
+  /**
+   * Swap two nodes of the tour behind the prefix
+   *
+   * @param i
+   *          the smaller index
+   * @param j
+   *          the larger index
+   * @return the change of the tour length
+   */
+  private final long __swap(final int i, final int j) {
+    final CountingDistanceComputer dist;
+    final int[] path;
+    final int n, a, b, before, after;
+    long delta;
+
+    dist = this.m_dist;
+    path = this.m_path;
+    n = path.length;
+    a = path[i];
+    b = path[j];
+    before = path[i - 1];
+    after = path[(j + 1) % n];
+
+    if (j == (i + 1)) {
+      delta = ((((long) (dist.distance(before, b))) + dist.distance(b, a) + dist
+          .distance(a, after)) - dist.distance(before, a)
+          - dist.distance(a, b) - dist.distance(b, after));
+    } else {
+      delta = ((((long) (dist.distance(before, b))) + dist.distance(b,
+          path[i + 1]) + dist.distance(path[j - 1], a) + dist.distance(a,
+          after)) - dist.distance(before, a) - dist.distance(a, path[i + 1])
+          - dist.distance(path[j - 1], b) - dist.distance(b, after));
+    }
+
+    path[i] = b;
+    path[j] = a;
+    return delta;
+  }
+
+  /**
+   * Register the current tour: If it is better than the best tour of all
+   * workers, it is registered at the objective function immediately.
+   * Otherwise, it is only counted.
+   *
+   * @param length
+   *          the length of the current tour
+   * @return {@code true} if the enumeration should be terminated,
+   *         {@code false} otherwise
+   */
+  private final boolean __register(final long length) {
+    final AtomicLong best;
+    final ObjectiveFunction f;
+    long old;
+
+    this.m_fes++;
+
+    best = this.m_best;
+    for (;;) {
+      old = best.get();
+      if (length >= old) {
+        break;
+      }
+      if (best.compareAndSet(old, length)) {
+        f = this.m_f;
+        synchronized (f) {
+          f.registerDEs(this.m_dist.getCount());
+          this.m_dist.resetCount();
+          f.registerFEs(this.m_fes, this.m_path, length);
+          this.m_fes = 0L;
+          this.m_terminate = f.shouldTerminate();
+        }
+        break;
+      }
+    }
+
+    if ((--this.m_untilCheck) <= 0L) {
+      this.__check();
+    }
+    return this.m_terminate;
+  }
+
+  /** register the counted evaluations and check for termination */
+  private final void __check() {
+    final ObjectiveFunction f;
+
+    this.m_untilCheck = _EnumerationWorker.CHECK;
+    f = this.m_f;
+    synchronized (f) {
+      this.__flush();
+      this.m_terminate = f.shouldTerminate();
+    }
+  }
+
+  /** register the counted evaluations */
+  private final void __flush() {
+    final ObjectiveFunction f;
+
+    f = this.m_f;
+    synchronized (f) {
+      f.registerDEs(this.m_dist.getCount());
+      this.m_dist.resetCount();
+      if (this.m_fes > 0L) {
+        f.registerFEs(this.m_fes, null, Long.MAX_VALUE);
+        this.m_fes = 0L;
+      }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 /**
- * Here we provide an algorithm that simply iterates over all possible
- * permutations in an efficient way.
+ * Here we provide algorithms that simply iterate over all possible
+ * permutations in an efficient way, either one by one or in parallel with
+ * pruning of hopeless prefixes.
  */
 package org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration;
 
@@ -23,7 +23,11 @@
  * "http://en.wikipedia.org/wiki/Steinhaus-Johnson-Trotter_algorithm"
  * >Steinhaus-Johnson-Trotter Algorithm</a>&nbsp;[<a
  * href="#cite_J1963GOPBAT" style="font-weight:bold">2</a>, <a
- * href="#cite_S1977PGM" style="font-weight:bold">3</a>].</li>
+ * href="#cite_S1977PGM" style="font-weight:bold">3</a>]. Its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ParallelExhaustiveEnumeration
+ * parallel variant} splits the permutations by their prefixes among
+ * several threads and prunes prefixes which cannot lead to a better
+ * tour.</li>
  * <li>In package
  * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundLittle1963
  * branchAndBoundLittle1963}, we implement the
@@ -36,6 +40,11 @@
  * Branch-and-Bound algorithm} using Held-Karp boundaries that we found in
  * the internet&nbsp;[<a href="#cite_CI2011OTA"
  * style="font-weight:bold">5</a>]&hellip;</li>
+ * <li>The
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming.HeldKarpDP
+ * dynamic programming} algorithm by Bellman and by Held and Karp solves
+ * small instances with up to about 25 nodes in {@code O(n^2*2^n)}
+ * steps.</li>
  * </ol>
  * <h2>References</h2>
  * <ol>
@@ -0,0 +1,215 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor;
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * This class applies the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.CandidateDoubleEndedNearestNeighborHeuristic
+ * candidate list double-ended nearest neighbor heuristic} again and again
+ * with different depots, until either all depots have been tested or the
+ * runtime is up. The depots are processed in random order and can be
+ * spread over several {@link #PARAM_THREADS threads}, which share the
+ * neighbor lists and take the next depot from a common counter. Each
+ * tour is registered at the objective function and the best one is
+ * returned. More than one thread is only worth it when the
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_THREADS
+ * runner} performs fewer runs in parallel than there are processors,
+ * hence the default is one thread.
+ */
+public class IteratedCandidateDoubleEndedNearestNeighborHeuristic extends
+    CandidateDoubleEndedNearestNeighborHeuristic {
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the number of threads: {@value} */
+  public static final String PARAM_THREADS = "threads";//$NON-NLS-1$
+
+  /** the default number of threads: {@value} */
+  public static final int DEFAULT_THREADS = 1;
+
+  /** the number of threads */
+  private int m_threads;
+
+  /** the fork-join pool, or {@code null} if only one thread is used */
+  private transient ForkJoinPool m_pool;
+
+  /** instantiate */
+  public IteratedCandidateDoubleEndedNearestNeighborHeuristic() {
+    super("Iterated "); //$NON-NLS-1$
+    this.m_threads = //
+    IteratedCandidateDoubleEndedNearestNeighborHeuristic.DEFAULT_THREADS;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void solve(final ObjectiveFunction f, final Individual<int[]> dest) {
+    final _CandidateDoubleEndedNearestNeighborWorker[] workers;
+    final ForkJoinPool pool;
+    final int[] starts;
+    final AtomicInteger next;
+    _CandidateDoubleEndedNearestNeighborWorker best;
+    int i;
+
+    if (dest != null) {
+      dest.clearEvaluation();
+    }
+
+    this.computeLists(f);
+    if (f.shouldTerminate()) {
+      return;
+    }
+
+    starts = new int[f.n()];
+    PermutationCreateCanonical.makeCanonical(starts);
+    f.getRandom().shuffle(starts);
+
+    workers = this.m_workers;
+    pool = this.m_pool;
+    next = new AtomicInteger();
+    for (i = workers.length; (--i) >= 0;) {
+      workers[i].setup(f, starts, next);
+    }
+
+    try {
+      if (pool == null) {
+        workers[0].invoke();
+      } else {
+        for (i = 1; i < workers.length; i++) {
+          pool.execute(workers[i]);
+        }
+        workers[0].invoke();
+        for (i = 1; i < workers.length; i++) {
+          workers[i].join();
+        }
+      }
+    } finally {
+      for (i = workers.length; (--i) >= 0;) {
+        workers[i].release();
+      }
+    }
+
+    if (dest != null) { // return the best result
+      best = workers[0];
+      for (i = workers.length; (--i) > 0;) {
+        if (workers[i].m_bestLength < best.m_bestLength) {
+          best = workers[i];
+        }
+      }
+      if (best.m_bestLength < Long.MAX_VALUE) {
+        CandidateDoubleEndedNearestNeighborHeuristic.copy(best.m_best,
+            best.m_bestLength, dest, this);
+      }
+    }
+  }
+
+  /**
+   * Set the number of threads
+   *
+   * @param threads
+   *          the number of threads
+   */
+  public final void setThreadCount(final int threads) {
+    this.m_threads = Math.max(1, threads);
+  }
+
+  /**
+   * Get the number of threads
+   *
+   * @return the number of threads
+   */
+  public final int getThreadCount() {
+    return this.m_threads;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final int getWorkerCount() {
+    return this.m_threads;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setThreadCount(config.getInt(
+        IteratedCandidateDoubleEndedNearestNeighborHeuristic.PARAM_THREADS,
+        1, 1024, this.m_threads));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(
+        IteratedCandidateDoubleEndedNearestNeighborHeuristic.PARAM_THREADS, ps);
+    ps.println(this.m_threads);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(
+        IteratedCandidateDoubleEndedNearestNeighborHeuristic.PARAM_THREADS, ps);
+    ps.println("The number of threads building tours from different depots in parallel."); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    super.beginRun(f);
+    if (this.m_threads > 1) {
+      this.m_pool = new ForkJoinPool(this.m_threads);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      if (this.m_pool != null) {
+        this.m_pool.shutdown();
+      }
+      this.m_pool = null;
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public IteratedCandidateDoubleEndedNearestNeighborHeuristic clone() {
+    final IteratedCandidateDoubleEndedNearestNeighborHeuristic res;
+
+    res = ((IteratedCandidateDoubleEndedNearestNeighborHeuristic) (super
+        .clone()));
+    res.m_pool = null;
+    return res;
+  }
+
+  /**
+   * Execute the iterated candidate list double-ended nearest neighbor
+   * heuristic
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        IteratedCandidateDoubleEndedNearestNeighborHeuristic.class,//
+        args);
+  }
+}
@@ -0,0 +1,237 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.candidates.UnvisitedNodes;
+
+/**
+ * A worker of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.CandidateDoubleEndedNearestNeighborHeuristic
+ * candidate list double-ended nearest neighbor heuristic}. It owns the
+ * tour, the set of unvisited nodes, and a distance computer counting the
+ * distance evaluations, so that several workers can build tours from
+ * different start nodes in parallel while sharing the read-only neighbor
+ * lists.
+ */
+final class _CandidateDoubleEndedNearestNeighborWorker extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the counting distance computer */
+  final CountingDistanceComputer m_dist;
+
+  /** the tour */
+  final int[] m_tour;
+
+  /** the best tour built by this worker */
+  final int[] m_best;
+
+  /** the length of the best tour built by this worker */
+  long m_bestLength;
+
+  /** the unvisited nodes */
+  private UnvisitedNodes m_unvisited;
+
+  /** the neighbor lists */
+  private int[] m_neighbors;
+
+  /** the distances of the nodes to their neighbors */
+  private int[] m_distances;
+
+  /** the number of neighbors per node */
+  private int m_m;
+
+  /** the objective function */
+  private ObjectiveFunction m_f;
+
+  /** the start nodes */
+  private int[] m_starts;
+
+  /** the index of the next start node */
+  private AtomicInteger m_next;
+
+  /**
+   * create the worker
+   *
+   * @param dist
+   *          the counting distance computer of the worker
+   */
+  _CandidateDoubleEndedNearestNeighborWorker(final CountingDistanceComputer dist) {
+    super();
+
+    final int n;
+
+    n = dist.n();
+    this.m_dist = dist;
+    this.m_tour = new int[n];
+    this.m_best = new int[n];
+  }
+
+  /**
+   * Set the neighbor lists
+   *
+   * @param neighbors
+   *          the neighbor lists
+   * @param distances
+   *          the distances of the nodes to their neighbors
+   * @param m
+   *          the number of neighbors per node
+   * @param unvisited
+   *          the set of unvisited nodes whose pivot distances are shared
+   */
+  final void setLists(final int[] neighbors, final int[] distances,
+      final int m, final UnvisitedNodes unvisited) {
+    this.m_neighbors = neighbors;
+    this.m_distances = distances;
+    this.m_m = m;
+    this.m_unvisited = new UnvisitedNodes(unvisited);
+  }
+
+  /**
+   * Prepare the worker for building tours from the given start nodes
+   *
+   * @param f
+   *          the objective function
+   * @param starts
+   *          the start nodes
+   * @param next
+   *          the index of the next start node, shared by all workers
+   */
+  final void setup(final ObjectiveFunction f, final int[] starts,
+      final AtomicInteger next) {
+    this.reinitialize();
+    this.m_f = f;
+    this.m_starts = starts;
+    this.m_next = next;
+    this.m_bestLength = Long.MAX_VALUE;
+  }
+
+  /** release the references to the shared data of the run */
+  final void release() {
+    this.m_f = null;
+    this.m_starts = null;
+    this.m_next = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final ObjectiveFunction f;
+    final int[] starts;
+    final AtomicInteger next;
+    int i;
+    long length;
+
+    f = this.m_f;
+    starts = this.m_starts;
+    next = this.m_next;
+
+    while ((i = next.getAndIncrement()) < starts.length) {
+      length = this.build(starts[i]);
+      if (length < this.m_bestLength) {
+        this.m_bestLength = length;
+        System.arraycopy(this.m_tour, 0, this.m_best, 0, this.m_tour.length);
+      }
+
+      synchronized (f) {
+        f.registerDEs(this.m_dist.getCount());
+        this.m_dist.resetCount();
+        f.registerFE(this.m_tour, length);
+        if (f.shouldTerminate()) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Build a tour into {@link #m_tour}. The tour grows from index {@code 0}
+   * upwards at end A and from index {@code n-1} downwards at end B.
+   *
+   * @param depot
+   *          the start node
+   * @return the tour length
+   */
+  final long build(final int depot) {
+    final int n;
+    final int[] tour;
+    final UnvisitedNodes unvisited;
+    int aIdx, bIdx, lastA, lastB, bestA, bestB, lenA, lenB;
+    long length, key;
+
+    tour = this.m_tour;
+    unvisited = this.m_unvisited;
+    n = tour.length;
+
+    unvisited.reset();
+    unvisited.remove(depot);
+    tour[0] = lastA = lastB = depot;
+    aIdx = 0;
+    bIdx = n;
+    bestA = bestB = (-1);
+    lenA = lenB = Integer.MAX_VALUE;
+    length = 0L;
+
+    while ((aIdx + 1) < bIdx) {
+      // update the nearest nodes of the ends if they have been visited
+      if ((bestA < 0) || (!(unvisited.contains(bestA)))) {
+        key = this.__nearest(lastA);
+        bestA = ((int) key);
+        lenA = ((int) (key >>> 32));
+      }
+      if (lastB != lastA) {// both ends are the same in the first round
+        if ((bestB < 0) || (!(unvisited.contains(bestB)))) {
+          key = this.__nearest(lastB);
+          bestB = ((int) key);
+          lenB = ((int) (key >>> 32));
+        }
+      }
+
+      // ok, which end offers the better extension?
+      if (lenA <= lenB) {
+        tour[++aIdx] = lastA = bestA;
+        length += lenA;
+        unvisited.remove(bestA);
+        bestA = (-1);
+      } else {
+        tour[--bIdx] = lastB = bestB;
+        length += lenB;
+        unvisited.remove(bestB);
+        bestB = (-1);
+      }
+    }
+
+    // add distance of edge connecting both tour ends
+    return (length + this.m_dist.distance(lastA, lastB));
+  }
+
+  /**
+   * Find the nearest unvisited node of a tour end: the first unvisited
+   * node in its neighbor list or, if there is none, the result of a search
+   * in the set of unvisited nodes
+   *
+   * @param node
+   *          the tour end
+   * @return the distance in the upper and the nearest node in the lower 32
+   *         bits
+   */
+  private final long __nearest(final int node) {
+    final int[] neighbors;
+    final UnvisitedNodes unvisited;
+    int j, end;
+
+    neighbors = this.m_neighbors;
+    unvisited = this.m_unvisited;
+    for (j = ((node - 1) * this.m_m), end = (j + this.m_m); j < end; j++) {
+      if (unvisited.contains(neighbors[j])) {
+        return ((((long) (this.m_distances[j])) << 32) | neighbors[j]);
+      }
+    }
+
+    return unvisited.nearest(this.m_dist, node);
+  }
+}
@@ -1,7 +1,9 @@
 /**
  * An implementation of the
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.DoubleEndedNearestNeighborHeuristic
- * double-ended nearest neighbor heuristic}.
+ * double-ended nearest neighbor heuristic} and of a
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.CandidateDoubleEndedNearestNeighborHeuristic
+ * variant} which finds the nearest unvisited nodes with neighbor lists.
  */
 package org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor;
 
@@ -0,0 +1,522 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.TSPHeuristic;
+import org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors;
+import org.logisticPlanning.tsp.solving.utils.candidates.ProjectedGrid;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A variant of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy.EdgeGreedyHeuristic
+ * edge-greedy heuristic} (greedy matching) for large instances, which only
+ * considers the edges between each node and its {@link #PARAM_NEIGHBORS
+ * k nearest neighbors}. The
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors
+ * neighbor lists} are computed with {@code O(nk)} distance evaluations
+ * and need {@code O(nk)} memory.
+ * </p>
+ * <p>
+ * Each candidate edge is stored as a packed {@code long} holding its
+ * length in the upper and its index in the neighbor lists in the lower 32
+ * bits, so that the edges are sorted by their length with a primitive
+ * array sort without creating any objects. The edges are then added in
+ * this order if both of their nodes have a degree less than two and they
+ * do not close a cycle, which is checked with a union-find structure.
+ * </p>
+ * <p>
+ * The resulting path fragments are then chained: Starting at the end of
+ * one fragment, we repeatedly connect the current end to the nearest end
+ * of a remaining fragment. This end is first searched among the neighbors
+ * of the current end. If none of them is an end of a remaining fragment,
+ * the {@value org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors#PROJECTED_FACTOR}
+ * remaining ends closest to the current end in the plane are taken from
+ * a {@link org.logisticPlanning.tsp.solving.utils.candidates.ProjectedGrid
+ * projected grid} built on first use and the nearest of them by the real
+ * distance is chosen, so that each step costs a constant number of
+ * distance evaluations. Finally, the two ends of the single remaining
+ * path are connected to close the tour.
+ * </p>
+ */
+public class CandidateEdgeGreedyHeuristic extends TSPHeuristic {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the number of neighbors per node: {@value} */
+  public static final String PARAM_NEIGHBORS = "candidateEdgeGreedyNeighbors";//$NON-NLS-1$
+
+  /** the default number of neighbors per node: {@value} */
+  public static final int DEFAULT_NEIGHBORS = 10;
+
+  /** the number of neighbors per node */
+  private int m_neighbors;
+
+  /** the number of neighbors per node in the current run */
+  private transient int m_m;
+
+  /** the neighbor lists */
+  private transient int[] m_neighborLists;
+
+  /** the distances to the neighbors */
+  private transient int[] m_distances;
+
+  /**
+   * the number of candidate edges, or {@code -1} if they have not been
+   * computed yet
+   */
+  private transient int m_edgeCount;
+
+  /** the packed candidate edges, sorted by their length */
+  private transient long[] m_edges;
+
+  /**
+   * the two neighbors of each node in the path, {@code 0} if there is
+   * none: the neighbors of node {@code i} are at indices {@code 2i} and
+   * {@code 2i+1}
+   */
+  private transient int[] m_links;
+
+  /** the parents in the union-find structure */
+  private transient int[] m_parents;
+
+  /** the sizes of the sets in the union-find structure */
+  private transient int[] m_sizes;
+
+  /** the ends of the remaining fragments */
+  private transient int[] m_ends;
+
+  /** the positions of the nodes in {@link #m_ends}, or {@code -1} */
+  private transient int[] m_positions;
+
+  /**
+   * the groups for the grid queries: {@code 1} for the ends of the
+   * remaining fragments, {@code 0} for all other nodes
+   */
+  private transient int[] m_free;
+
+  /** the projected grid, or {@code null} if it has not been built yet */
+  private transient ProjectedGrid m_grid;
+
+  /** the remaining ends nearest to the current end in the projection */
+  private transient int[] m_nearest;
+
+  /** the squared distances of these ends in the projection */
+  private transient double[] m_nearestDist;
+
+  /** instantiate */
+  public CandidateEdgeGreedyHeuristic() {
+    super("Candidate Edge-Greedy Heuristic"); //$NON-NLS-1$
+    this.m_neighbors = CandidateEdgeGreedyHeuristic.DEFAULT_NEIGHBORS;
+  }
+
+  /**
+   * Perform the candidate edge-greedy heuristic.
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        CandidateEdgeGreedyHeuristic.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void solve(final ObjectiveFunction f,
+      final Individual<int[]> dest) {
+    final int n, m;
+    final int[] neighbors, distances, links, parents, sizes, ends, positions, free, nearest;
+    final double[] nearestDist;
+    final long[] edges;
+    int[] res;
+    int i, j, e, k, d, base, count, needed, start, cur, best, bestDist;
+    long length;
+
+    n = f.n();
+
+    allocateRes: {
+      if (dest != null) {
+        res = dest.solution;
+        dest.clearEvaluation();
+        if ((res != null) && (res.length == n)) {
+          break allocateRes;
+        }
+      }
+      res = new int[n];
+    }
+
+    m = this.m_m;
+    neighbors = this.m_neighborLists;
+    distances = this.m_distances;
+    edges = this.m_edges;
+    links = this.m_links;
+    parents = this.m_parents;
+    sizes = this.m_sizes;
+    ends = this.m_ends;
+    positions = this.m_positions;
+    free = this.m_free;
+    nearest = this.m_nearest;
+    nearestDist = this.m_nearestDist;
+
+    // compute the neighbor lists and sort the candidate edges only once
+    // per run, each undirected edge is only used once
+    count = this.m_edgeCount;
+    if (count < 0) {
+      NearestNeighbors.compute(f, m, neighbors, distances);
+      count = 0;
+      for (e = (n * m); (--e) >= 0;) {
+        i = ((e / m) + 1);
+        j = neighbors[e];
+        if (j < i) {
+          base = ((j - 1) * m);
+          for (k = (base + m); (--k) >= base;) {
+            if (neighbors[k] == i) {
+              break;
+            }
+          }
+          if (k >= base) {
+            continue;
+          }
+        }
+        edges[count++] = ((((long) (distances[e])) << 32) | e);
+      }
+      Arrays.sort(edges, 0, count);
+      this.m_edgeCount = count;
+    }
+
+    for (i = n; i > 0; i--) {
+      links[i << 1] = links[(i << 1) + 1] = 0;
+      parents[i] = i;
+      sizes[i] = 1;
+    }
+
+    // add the shortest edges which do not violate the degree constraint
+    // and do not create cycles
+    length = 0L;
+    needed = (n - 1);
+    for (k = 0; (k < count) && (needed > 0); k++) {
+      e = ((int) (edges[k]));
+      i = ((e / m) + 1);
+      j = neighbors[e];
+      if ((links[(i << 1) + 1] != 0) || (links[(j << 1) + 1] != 0)) {
+        continue;
+      }
+      if (!(CandidateEdgeGreedyHeuristic.__union(parents, sizes, i, j))) {
+        continue;
+      }
+      CandidateEdgeGreedyHeuristic.__link(links, i, j);
+      length += distances[e];
+      needed--;
+    }
+
+    // collect the ends of the fragments
+    count = 0;
+    for (i = n; i > 0; i--) {
+      if (links[(i << 1) + 1] == 0) {
+        positions[i] = count;
+        ends[count++] = i;
+        free[i] = 1;
+      } else {
+        positions[i] = (-1);
+        free[i] = 0;
+      }
+    }
+
+    // chain the fragments, starting with an arbitrary one
+    start = ends[0];
+    cur = CandidateEdgeGreedyHeuristic.__otherEnd(links, start);
+    count = CandidateEdgeGreedyHeuristic.__remove(ends, positions, free,
+        count, start);
+    count = CandidateEdgeGreedyHeuristic.__remove(ends, positions, free,
+        count, cur);
+    for (; needed > 0; needed--) {
+      best = (-1);
+      bestDist = Integer.MAX_VALUE;
+
+      base = ((cur - 1) * m);
+      for (k = base; k < (base + m); k++) {
+        if (positions[neighbors[k]] >= 0) {
+          best = neighbors[k];
+          bestDist = distances[k];
+          break;
+        }
+      }
+
+      if (best < 0) {
+        // only the remaining ends are in another group than the current
+        // end, so the grid returns the ones nearest in the projection
+        if (this.m_grid == null) {
+          this.m_grid = new ProjectedGrid(f);
+        }
+        k = this.m_grid.nearest(cur, free, nearest, nearestDist);
+        while ((--k) >= 0) {
+          j = nearest[k];
+          d = f.distance(cur, j);
+          if (d < bestDist) {
+            bestDist = d;
+            best = j;
+          }
+        }
+      }
+
+      j = CandidateEdgeGreedyHeuristic.__otherEnd(links, best);
+      CandidateEdgeGreedyHeuristic.__link(links, cur, best);
+      length += bestDist;
+      count = CandidateEdgeGreedyHeuristic.__remove(ends, positions, free,
+          count, best);
+      count = CandidateEdgeGreedyHeuristic.__remove(ends, positions, free,
+          count, j);
+      cur = j;
+    }
+
+    // close the tour and write it into the result
+    length += f.distance(start, cur);
+    k = 0;
+    j = 0;
+    for (i = start; i != 0;) {
+      res[k++] = i;
+      e = ((links[i << 1] == j) ? links[(i << 1) + 1] : links[i << 1]);
+      j = i;
+      i = e;
+    }
+
+    f.registerFE(res, length);
+
+    if (dest != null) {
+      dest.solution = res;
+      dest.tourLength = length;
+      dest.producer = this;
+    }
+  }
+
+  /**
+   * Merge the sets of two nodes in the union-find structure
+   *
+   * @param parents
+   *          the parents
+   * @param sizes
+   *          the sizes of the sets
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   * @return {@code true} if the nodes were in different sets, which have
+   *         been merged, {@code false} if they already were in the same
+   *         set
+   */
+  private static final boolean __union(final int[] parents,
+      final int[] sizes, final int a, final int b) {
+    int x, y, t;
+
+    x = a;
+    while (parents[x] != x) {
+      x = parents[x] = parents[parents[x]];
+    }
+    y = b;
+    while (parents[y] != y) {
+      y = parents[y] = parents[parents[y]];
+    }
+    if (x == y) {
+      return false;
+    }
+
+    if (sizes[x] < sizes[y]) {
+      t = x;
+      x = y;
+      y = t;
+    }
+    parents[y] = x;
+    sizes[x] += sizes[y];
+    return true;
+  }
+
+  /**
+   * Connect two nodes
+   *
+   * @param links
+   *          the links of the nodes
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   */
+  private static final void __link(final int[] links, final int a,
+      final int b) {
+    links[(links[a << 1] == 0) ? (a << 1) : ((a << 1) + 1)] = b;
+    links[(links[b << 1] == 0) ? (b << 1) : ((b << 1) + 1)] = a;
+  }
+
+  /**
+   * Find the other end of the fragment beginning at a given node
+   *
+   * @param links
+   *          the links of the nodes
+   * @param end
+   *          the end of the fragment
+   * @return the other end of the fragment
+   */
+  private static final int __otherEnd(final int[] links, final int end) {
+    int prev, cur, next;
+
+    prev = end;
+    cur = links[end << 1];
+    if (cur == 0) {
+      return end;
+    }
+    for (;;) {
+      next = ((links[cur << 1] == prev) ? links[(cur << 1) + 1]
+          : links[cur << 1]);
+      if (next == 0) {
+        return cur;
+      }
+      prev = cur;
+      cur = next;
+    }
+  }
+
+  /**
+   * Remove a node from the list of fragment ends, if it is contained in it
+   *
+   * @param ends
+   *          the fragment ends
+   * @param positions
+   *          the positions of the nodes in {@code ends}
+   * @param free
+   *          the groups of the nodes, {@code 1} for the fragment ends
+   * @param size
+   *          the number of fragment ends
+   * @param node
+   *          the node to remove
+   * @return the new number of fragment ends
+   */
+  private static final int __remove(final int[] ends,
+      final int[] positions, final int[] free, final int size,
+      final int node) {
+    final int pos, last;
+
+    pos = positions[node];
+    if (pos < 0) {
+      return size;
+    }
+    last = ends[size - 1];
+    ends[pos] = last;
+    positions[last] = pos;
+    positions[node] = (-1);
+    free[node] = 0;
+    return (size - 1);
+  }
+
+  /**
+   * Set the number of neighbors per node
+   *
+   * @param neighbors
+   *          the number of neighbors per node
+   */
+  public final void setNeighborCount(final int neighbors) {
+    this.m_neighbors = Math.max(1, neighbors);
+  }
+
+  /**
+   * Get the number of neighbors per node
+   *
+   * @return the number of neighbors per node
+   */
+  public final int getNeighborCount() {
+    return this.m_neighbors;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setNeighborCount(config.getInt(
+        CandidateEdgeGreedyHeuristic.PARAM_NEIGHBORS, 1,
+        Integer.MAX_VALUE, this.m_neighbors));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(CandidateEdgeGreedyHeuristic.PARAM_NEIGHBORS, ps);
+    ps.println(this.m_neighbors);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(CandidateEdgeGreedyHeuristic.PARAM_NEIGHBORS, ps);
+    ps.println("the number of nearest neighbors per node whose edges are considered"); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final int n, m;
+
+    super.beginRun(f);
+
+    n = f.n();
+    this.m_m = m = Math.max(1, Math.min(this.m_neighbors, (n - 1)));
+    this.m_neighborLists = new int[n * m];
+    this.m_distances = new int[n * m];
+    this.m_edges = new long[n * m];
+    this.m_edgeCount = (-1);
+    this.m_links = new int[(n + 1) << 1];
+    this.m_parents = new int[n + 1];
+    this.m_sizes = new int[n + 1];
+    this.m_ends = new int[n];
+    this.m_positions = new int[n + 1];
+    this.m_free = new int[n + 1];
+    this.m_nearest = new int[NearestNeighbors.PROJECTED_FACTOR];
+    this.m_nearestDist = new double[NearestNeighbors.PROJECTED_FACTOR];
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_neighborLists = null;
+    this.m_distances = null;
+    this.m_edges = null;
+    this.m_edgeCount = (-1);
+    this.m_links = null;
+    this.m_parents = null;
+    this.m_sizes = null;
+    this.m_ends = null;
+    this.m_positions = null;
+    this.m_free = null;
+    this.m_grid = null;
+    this.m_nearest = null;
+    this.m_nearestDist = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    this.__clear();
+    super.endRun(f);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public CandidateEdgeGreedyHeuristic clone() {
+    final CandidateEdgeGreedyHeuristic h;
+
+    h = ((CandidateEdgeGreedyHeuristic) (super.clone()));
+    h.__clear();
+    return h;
+  }
+}
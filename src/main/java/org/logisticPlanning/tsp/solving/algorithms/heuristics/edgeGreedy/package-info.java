@@ -1,7 +1,9 @@
 /**
  * An implementation of the
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy.EdgeGreedyHeuristic
- * edge greedy heuristic}.
+ * edge greedy heuristic} and of its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy.CandidateEdgeGreedyHeuristic
+ * candidate set variant} for large instances.
  */
 package org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy;
 
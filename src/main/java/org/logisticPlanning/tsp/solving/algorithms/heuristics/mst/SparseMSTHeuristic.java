@@ -0,0 +1,535 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.mst;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.TSPHeuristic;
+import org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors;
+import org.logisticPlanning.tsp.solving.utils.candidates.ProjectedGrid;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A variant of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.MSTHeuristic
+ * minimum spanning tree heuristic} which works on flat arrays instead of
+ * one object per node. By default, it builds the tree on the sparse graph
+ * connecting each node with its {@link #PARAM_NEIGHBORS nearest
+ * neighbors} instead of the complete graph. If the number of neighbors is
+ * {@code 0}, Prim's algorithm is applied to the complete graph instead.
+ * </p>
+ * <p>
+ * On the sparse graph, the
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors
+ * neighbor lists} are computed first. The edges are packed into
+ * {@code long}s holding the edge length in the upper and the index in the
+ * neighbor lists in the lower 32 bits, sorted with a primitive array sort,
+ * and then processed with Kruskal's algorithm, using a union-find
+ * structure to detect cycles. If the sparse graph is not connected, the
+ * resulting components are joined in rounds of Bor&#367;vka's algorithm:
+ * In each round, the nodes nearest to each node among the nodes of the
+ * other components are looked up in the
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.ProjectedGrid
+ * projected grid}, and the shortest of the resulting edges leaving each
+ * component is added. Since this at least halves the number of
+ * components, at most {@code log<sub>2</sub>(n)} rounds with {@code O(n)}
+ * distance evaluations each are needed.
+ * </p>
+ * <p>
+ * The neighbor lists and the candidate edges between components are
+ * found in a projection of the nodes into the plane. For matrices
+ * without geometric structure, e.g., {@code EXPLICIT} or {@code GEO}
+ * instances, the resulting tree is hence not necessarily a minimum
+ * spanning tree, and the tour is not guaranteed to be at most twice as
+ * long as the optimum. The complete graph, which needs all
+ * {@code n(n-1)/2} distance evaluations, is the safe choice for such
+ * instances.
+ * </p>
+ * <p>
+ * Finally, the tree is traversed in pre-order, starting at node
+ * {@code 1}, to obtain the tour.
+ * </p>
+ */
+public class SparseMSTHeuristic extends TSPHeuristic {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the parameter for the number of neighbors per node, {@code 0} for the
+   * complete graph: {@value}
+   */
+  public static final String PARAM_NEIGHBORS = "sparseMSTNeighbors";//$NON-NLS-1$
+
+  /** the default number of neighbors per node: {@value} */
+  public static final int DEFAULT_NEIGHBORS = 10;
+
+  /** the number of neighbors per node */
+  private int m_neighbors;
+
+  /** the start nodes of the tree edges */
+  private transient int[] m_from;
+
+  /** the end nodes of the tree edges */
+  private transient int[] m_to;
+
+  /** the sizes of the components in the union-find structure */
+  private transient int[] m_sizes;
+
+  /** the parents of the union-find structure */
+  private transient int[] m_parents;
+
+  /** the component of each node in the current round of joining */
+  private transient int[] m_groups;
+
+  /** the start node of the shortest edge leaving each component */
+  private transient int[] m_bestFrom;
+
+  /** the end node of the shortest edge leaving each component */
+  private transient int[] m_bestTo;
+
+  /** the length of the shortest edge leaving each component */
+  private transient int[] m_bestLength;
+
+  /** the adjacency lists of the tree */
+  private transient int[] m_adjacency;
+
+  /** the start indices of the adjacency lists of the nodes */
+  private transient int[] m_starts;
+
+  /** instantiate */
+  public SparseMSTHeuristic() {
+    super("Sparse Minimum-Spanning-Tree Heuristic"); //$NON-NLS-1$
+    this.m_neighbors = SparseMSTHeuristic.DEFAULT_NEIGHBORS;
+  }
+
+  /**
+   * Perform the sparse MST heuristic
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(//
+        Instance.SYMMETRIC_INSTANCES,//
+        SparseMSTHeuristic.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void solve(final ObjectiveFunction f,
+      final Individual<int[]> dest) {
+    final int n, m;
+    final int[] adjacency, starts;
+    int[] perm;
+    int i, j, k, count, node;
+    long length;
+
+    n = f.n();
+    perm = null;
+    if (dest != null) {
+      perm = dest.solution;
+      dest.clearEvaluation();
+      if ((perm != null) && (perm.length != n)) {
+        perm = null;
+      }
+    }
+    if (perm == null) {
+      perm = new int[n];
+    }
+
+    m = Math.min(this.m_neighbors, (n - 1));
+    if (m > 0) {
+      count = this.__kruskal(f, m);
+      if (count < (n - 1)) {
+        this.__join(f, count);
+      }
+    } else {
+      this.__prim(f);
+    }
+
+    // build the adjacency lists of the tree
+    adjacency = this.m_adjacency;
+    starts = this.m_starts;
+    Arrays.fill(starts, 0);
+    for (i = (n - 1); (--i) >= 0;) {
+      starts[this.m_from[i]]++;
+      starts[this.m_to[i]]++;
+    }
+    for (i = 1; i <= (n + 1); i++) {
+      starts[i] += starts[i - 1];
+    }
+    for (i = (n - 1); (--i) >= 0;) {
+      adjacency[--starts[this.m_from[i]]] = this.m_to[i];
+      adjacency[--starts[this.m_to[i]]] = this.m_from[i];
+    }
+
+    // traverse the tree in pre-order, using perm as stack from its end
+    count = 0;
+    k = n;
+    perm[--k] = 1;
+    this.m_parents[1] = 0;
+    while (k < n) {
+      node = perm[k++];
+      perm[count++] = node;
+      for (j = starts[node + 1]; (--j) >= starts[node];) {
+        i = adjacency[j];
+        if (i != this.m_parents[node]) {
+          this.m_parents[i] = node;
+          perm[--k] = i;
+        }
+      }
+    }
+
+    length = f.distance(perm[n - 1], perm[0]);
+    for (i = (n - 1); (--i) >= 0;) {
+      length += f.distance(perm[i], perm[i + 1]);
+    }
+    f.registerFE(perm, length);
+
+    if (dest != null) {
+      dest.solution = perm;
+      dest.tourLength = length;
+      dest.producer = this;
+    }
+  }
+
+  /**
+   * Apply Kruskal's algorithm to the graph of the nearest neighbors. The
+   * union-find structure is left in {@link #m_parents} and
+   * {@link #m_sizes}.
+   *
+   * @param f
+   *          the objective function
+   * @param m
+   *          the number of neighbors per node
+   * @return the number of tree edges found
+   */
+  private final int __kruskal(final ObjectiveFunction f, final int m) {
+    final int n;
+    final int[] neighbors, distances, parents, sizes;
+    final long[] edges;
+    int i, j, e, k, base, count;
+
+    n = f.n();
+    neighbors = new int[n * m];
+    distances = new int[n * m];
+    NearestNeighbors.compute(f, m, neighbors, distances);
+
+    // collect each undirected edge once
+    edges = new long[n * m];
+    count = 0;
+    for (e = (n * m); (--e) >= 0;) {
+      i = ((e / m) + 1);
+      j = neighbors[e];
+      if (j < i) {
+        base = ((j - 1) * m);
+        for (k = (base + m); (--k) >= base;) {
+          if (neighbors[k] == i) {
+            break;
+          }
+        }
+        if (k >= base) {
+          continue;
+        }
+      }
+      edges[count++] = ((((long) (distances[e])) << 32) | e);
+    }
+    Arrays.sort(edges, 0, count);
+
+    parents = this.m_parents;
+    sizes = this.m_sizes;
+    for (i = n; i > 0; i--) {
+      parents[i] = i;
+      sizes[i] = 1;
+    }
+
+    j = 0;
+    for (k = 0; (k < count) && (j < (n - 1)); k++) {
+      e = ((int) (edges[k]));
+      if (!(SparseMSTHeuristic.__union(parents, sizes, ((e / m) + 1),
+          neighbors[e]))) {
+        continue;
+      }
+      this.m_from[j] = ((e / m) + 1);
+      this.m_to[j] = neighbors[e];
+      j++;
+    }
+
+    return j;
+  }
+
+  /**
+   * Apply Prim's algorithm to the complete graph, which evaluates each of
+   * the {@code n(n-1)/2} distances once
+   *
+   * @param f
+   *          the objective function
+   */
+  private final void __prim(final ObjectiveFunction f) {
+    final int n;
+    final int[] keys, dad, remaining;
+    int j, k, count, cur, best, bestKey, d;
+
+    n = f.n();
+    // the arrays of the joining phase are not needed on the complete
+    // graph: the remaining nodes, their keys, and their nearest tree nodes
+    // are stored at the same positions
+    keys = this.m_bestLength;
+    dad = this.m_bestFrom;
+    remaining = this.m_groups;
+
+    count = 0;
+    for (k = n; k > 1; k--) {
+      keys[count] = Integer.MAX_VALUE;
+      remaining[count++] = k;
+    }
+
+    cur = 1;
+    for (j = 0; count > 0; j++) {
+      // update the keys with the node added last and find the nearest
+      // remaining node
+      best = (-1);
+      bestKey = Integer.MAX_VALUE;
+      for (k = count; (--k) >= 0;) {
+        d = f.distance(cur, remaining[k]);
+        if (d < keys[k]) {
+          keys[k] = d;
+          dad[k] = cur;
+        } else {
+          d = keys[k];
+        }
+        if (d <= bestKey) {
+          bestKey = d;
+          best = k;
+        }
+      }
+
+      this.m_from[j] = dad[best];
+      this.m_to[j] = cur = remaining[best];
+      remaining[best] = remaining[--count];
+      keys[best] = keys[count];
+      dad[best] = dad[count];
+    }
+  }
+
+  /**
+   * Join the components of the tree found by
+   * {@link #__kruskal(ObjectiveFunction, int)} with Bor&#367;vka's
+   * algorithm, using the nodes nearest in the projection as candidates for
+   * the edges between components.
+   *
+   * @param f
+   *          the objective function
+   * @param edges
+   *          the number of tree edges found so far
+   */
+  private final void __join(final ObjectiveFunction f, final int edges) {
+    final int n;
+    final ProjectedGrid grid;
+    final int[] parents, sizes, groups, bestFrom, bestTo, bestLength, nearest;
+    final double[] distances;
+    int i, j, p, d, g, count;
+
+    n = f.n();
+    parents = this.m_parents;
+    sizes = this.m_sizes;
+    groups = this.m_groups;
+    bestFrom = this.m_bestFrom;
+    bestTo = this.m_bestTo;
+    bestLength = this.m_bestLength;
+    grid = new ProjectedGrid(f);
+    nearest = new int[NearestNeighbors.PROJECTED_FACTOR];
+    distances = new double[nearest.length];
+
+    count = edges;
+    while (count < (n - 1)) {
+      for (i = n; i > 0; i--) {
+        groups[i] = SparseMSTHeuristic.__find(parents, i);
+        bestFrom[i] = 0;
+      }
+
+      // find the shortest candidate edge leaving each component
+      for (i = n; i > 0; i--) {
+        g = groups[i];
+        for (p = grid.nearest(i, groups, nearest, distances); (--p) >= 0;) {
+          j = nearest[p];
+          d = f.distance(i, j);
+          if ((bestFrom[g] == 0) || (d < bestLength[g])) {
+            bestLength[g] = d;
+            bestFrom[g] = i;
+            bestTo[g] = j;
+          }
+        }
+      }
+
+      // add these edges, unless they close a cycle
+      for (g = n; g > 0; g--) {
+        if ((groups[g] == g) && (bestFrom[g] != 0)
+            && SparseMSTHeuristic.__union(parents, sizes, bestFrom[g],
+                bestTo[g])) {
+          this.m_from[count] = bestFrom[g];
+          this.m_to[count] = bestTo[g];
+          count++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Merge the components of two nodes in the union-find structure
+   *
+   * @param parents
+   *          the parents
+   * @param sizes
+   *          the sizes of the components
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   * @return {@code true} if the nodes were in different components,
+   *         {@code false} otherwise
+   */
+  private static final boolean __union(final int[] parents,
+      final int[] sizes, final int a, final int b) {
+    final int x, y;
+
+    x = SparseMSTHeuristic.__find(parents, a);
+    y = SparseMSTHeuristic.__find(parents, b);
+    if (x == y) {
+      return false;
+    }
+    if (sizes[x] < sizes[y]) {
+      parents[x] = y;
+      sizes[y] += sizes[x];
+    } else {
+      parents[y] = x;
+      sizes[x] += sizes[y];
+    }
+    return true;
+  }
+
+  /**
+   * Find the representative of a node in the union-find structure
+   *
+   * @param parents
+   *          the parents
+   * @param node
+   *          the node
+   * @return the representative
+   */
+  private static final int __find(final int[] parents, final int node) {
+    int x;
+
+    x = node;
+    while (parents[x] != x) {
+      x = parents[x] = parents[parents[x]];
+    }
+    return x;
+  }
+
+  /**
+   * Set the number of neighbors per node
+   *
+   * @param neighbors
+   *          the number of neighbors per node, {@code 0} for the complete
+   *          graph
+   */
+  public final void setNeighborCount(final int neighbors) {
+    this.m_neighbors = Math.max(0, neighbors);
+  }
+
+  /**
+   * Get the number of neighbors per node
+   *
+   * @return the number of neighbors per node, {@code 0} for the complete
+   *         graph
+   */
+  public final int getNeighborCount() {
+    return this.m_neighbors;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setNeighborCount(config.getInt(SparseMSTHeuristic.PARAM_NEIGHBORS,
+        0, Integer.MAX_VALUE, this.m_neighbors));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(SparseMSTHeuristic.PARAM_NEIGHBORS, ps);
+    ps.println(this.m_neighbors);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(SparseMSTHeuristic.PARAM_NEIGHBORS, ps);
+    ps.println("the number of nearest neighbors per node whose edges are considered, 0 for the complete graph"); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final int n;
+
+    super.beginRun(f);
+
+    n = f.n();
+    this.m_from = new int[n];
+    this.m_to = new int[n];
+    this.m_sizes = new int[n + 1];
+    this.m_parents = new int[n + 1];
+    this.m_groups = new int[n + 1];
+    this.m_bestFrom = new int[n + 1];
+    this.m_bestTo = new int[n + 1];
+    this.m_bestLength = new int[n + 1];
+    this.m_adjacency = new int[n << 1];
+    this.m_starts = new int[n + 2];
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_from = null;
+    this.m_to = null;
+    this.m_sizes = null;
+    this.m_parents = null;
+    this.m_groups = null;
+    this.m_bestFrom = null;
+    this.m_bestTo = null;
+    this.m_bestLength = null;
+    this.m_adjacency = null;
+    this.m_starts = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    this.__clear();
+    super.endRun(f);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public SparseMSTHeuristic clone() {
+    final SparseMSTHeuristic h;
+
+    h = ((SparseMSTHeuristic) (super.clone()));
+    h.__clear();
+    return h;
+  }
+}
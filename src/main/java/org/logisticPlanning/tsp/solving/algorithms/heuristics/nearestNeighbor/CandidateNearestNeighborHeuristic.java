@@ -0,0 +1,265 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.TSPHeuristicWithStartNode;
+import org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors;
+import org.logisticPlanning.tsp.solving.utils.candidates.UnvisitedNodes;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A variant of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.NearestNeighborHeuristic
+ * nearest neighbor heuristic} which answers the question for the nearest
+ * unvisited node from the
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors
+ * neighbor lists} of the nodes: Since these lists are sorted by distance,
+ * the first unvisited node in the list of the current node is the nearest
+ * one. Only if all {@link #PARAM_NEIGHBORS neighbors} of the current node
+ * have already been visited, the nearest node is obtained from the
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.UnvisitedNodes
+ * pivot-based index of unvisited nodes}, which only evaluates the
+ * distances to nodes not excluded by the triangle inequality.
+ * </p>
+ * <p>
+ * The neighbor lists are computed once per run from the nodes which are
+ * close in a projection into the plane, so the number of distance
+ * evaluations grows only linearly with {@code n} and the number of
+ * neighbors. Afterwards, each tour is built in (almost) linear time,
+ * which makes the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.IteratedCandidateNearestNeighborHeuristic
+ * iterated version} feasible for large instances.
+ * </p>
+ */
+public class CandidateNearestNeighborHeuristic extends
+    TSPHeuristicWithStartNode {
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the number of neighbors per node: {@value} */
+  public static final String PARAM_NEIGHBORS = "candidateNearestNeighborNeighbors";//$NON-NLS-1$
+
+  /** the default number of neighbors per node: {@value} */
+  public static final int DEFAULT_NEIGHBORS = 10;
+
+  /** the number of neighbors per node */
+  private int m_neighborCount;
+
+  /** the neighbor lists, or {@code null} if not yet computed */
+  private transient int[] m_neighbors;
+
+  /** the workers */
+  transient _CandidateNearestNeighborWorker[] m_workers;
+
+  /**
+   * instantiate
+   *
+   * @param name
+   *          the name prefix
+   */
+  CandidateNearestNeighborHeuristic(final String name) {
+    super(name + "Candidate Nearest Neighbor Heuristic"); //$NON-NLS-1$
+    this.m_neighborCount = CandidateNearestNeighborHeuristic.DEFAULT_NEIGHBORS;
+  }
+
+  /** instantiate */
+  public CandidateNearestNeighborHeuristic() {
+    this(""); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void solve(final ObjectiveFunction f,
+      final Individual<int[]> dest, final int depot) {
+    final _CandidateNearestNeighborWorker worker;
+    final long length;
+
+    if (dest != null) {
+      dest.clearEvaluation();
+    }
+
+    this.computeLists(f);
+    worker = this.m_workers[0];
+    length = worker.build(depot);
+    f.registerDEs(worker.m_dist.getCount());
+    worker.m_dist.resetCount();
+    f.registerFE(worker.m_tour, length);
+
+    if (dest != null) { // return the result
+      CandidateNearestNeighborHeuristic.copy(worker.m_tour, length, dest,
+          this);
+    }
+  }
+
+  /**
+   * Copy a tour to the destination individual
+   *
+   * @param tour
+   *          the tour
+   * @param length
+   *          the tour length
+   * @param dest
+   *          the destination individual
+   * @param producer
+   *          the producer of the tour
+   */
+  static final void copy(final int[] tour, final long length,
+      final Individual<int[]> dest, final NamedObject producer) {
+    int[] res;
+
+    res = dest.solution;
+    if ((res == null) || (res.length != tour.length)) {
+      dest.solution = res = new int[tour.length];
+    }
+    System.arraycopy(tour, 0, res, 0, tour.length);
+    dest.tourLength = length;
+    dest.producer = producer;
+  }
+
+  /**
+   * Compute the neighbor lists and hand them to the workers, if this has
+   * not yet been done in the current run
+   *
+   * @param f
+   *          the objective function
+   */
+  final void computeLists(final ObjectiveFunction f) {
+    final int n, m;
+    final int[] distances;
+    final UnvisitedNodes unvisited;
+    int i;
+
+    if (this.m_neighbors != null) {
+      return;
+    }
+
+    n = f.n();
+    m = Math.max(1, Math.min(this.m_neighborCount, (n - 1)));
+    this.m_neighbors = new int[n * m];
+    distances = new int[n * m];
+    if (n > 1) {
+      NearestNeighbors.compute(f, m, this.m_neighbors, distances);
+    }
+    unvisited = new UnvisitedNodes(f, UnvisitedNodes.DEFAULT_PIVOTS);
+    for (i = this.m_workers.length; (--i) >= 0;) {
+      this.m_workers[i].setLists(this.m_neighbors, distances, m, unvisited);
+    }
+  }
+
+  /**
+   * Set the number of neighbors per node
+   *
+   * @param neighbors
+   *          the number of neighbors per node
+   */
+  public final void setNeighborCount(final int neighbors) {
+    this.m_neighborCount = Math.max(1, neighbors);
+  }
+
+  /**
+   * Get the number of neighbors per node
+   *
+   * @return the number of neighbors per node
+   */
+  public final int getNeighborCount() {
+    return this.m_neighborCount;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setNeighborCount(config.getInt(
+        CandidateNearestNeighborHeuristic.PARAM_NEIGHBORS, 1,
+        Integer.MAX_VALUE, this.m_neighborCount));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(CandidateNearestNeighborHeuristic.PARAM_NEIGHBORS,
+        ps);
+    ps.println(this.m_neighborCount);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(CandidateNearestNeighborHeuristic.PARAM_NEIGHBORS,
+        ps);
+    ps.println("the number of nearest neighbors per node which are checked before searching the index of unvisited nodes"); //$NON-NLS-1$
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_neighbors = null;
+    this.m_workers = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public CandidateNearestNeighborHeuristic clone() {
+    CandidateNearestNeighborHeuristic h;
+
+    h = ((CandidateNearestNeighborHeuristic) (super.clone()));
+    h.__clear();
+
+    return h;
+  }
+
+  /**
+   * Perform the candidate list nearest-neighbor heuristic.
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        CandidateNearestNeighborHeuristic.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    int i;
+
+    super.beginRun(f);
+    this.m_neighbors = null;
+    this.m_workers = new _CandidateNearestNeighborWorker[this
+        .getWorkerCount()];
+    for (i = this.m_workers.length; (--i) >= 0;) {
+      this.m_workers[i] = new _CandidateNearestNeighborWorker(
+          f.createCountingDistanceComputer());
+    }
+  }
+
+  /**
+   * Get the number of workers to create in
+   * {@link #beginRun(ObjectiveFunction)}
+   *
+   * @return the number of workers
+   */
+  int getWorkerCount() {
+    return 1;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    this.__clear();
+    super.endRun(f);
+  }
+}
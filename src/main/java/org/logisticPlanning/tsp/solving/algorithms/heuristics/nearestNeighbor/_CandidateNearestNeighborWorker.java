@@ -0,0 +1,209 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.candidates.UnvisitedNodes;
+
+/**
+ * A worker of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.CandidateNearestNeighborHeuristic
+ * candidate list nearest neighbor heuristic}. It owns the tour, the list
+ * of unvisited nodes, and a distance computer counting the distance
+ * evaluations, so that several workers can build tours from different
+ * start nodes in parallel while sharing the read-only neighbor lists.
+ */
+final class _CandidateNearestNeighborWorker extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the counting distance computer */
+  final CountingDistanceComputer m_dist;
+
+  /** the tour */
+  final int[] m_tour;
+
+  /** the best tour built by this worker */
+  final int[] m_best;
+
+  /** the length of the best tour built by this worker */
+  long m_bestLength;
+
+  /** the unvisited nodes */
+  private UnvisitedNodes m_unvisited;
+
+  /** the neighbor lists */
+  private int[] m_neighbors;
+
+  /** the distances of the nodes to their neighbors */
+  private int[] m_distances;
+
+  /** the number of neighbors per node */
+  private int m_m;
+
+  /** the objective function */
+  private ObjectiveFunction m_f;
+
+  /** the start nodes */
+  private int[] m_starts;
+
+  /** the index of the next start node */
+  private AtomicInteger m_next;
+
+  /**
+   * create the worker
+   *
+   * @param dist
+   *          the counting distance computer of the worker
+   */
+  _CandidateNearestNeighborWorker(final CountingDistanceComputer dist) {
+    super();
+
+    final int n;
+
+    n = dist.n();
+    this.m_dist = dist;
+    this.m_tour = new int[n];
+    this.m_best = new int[n];
+  }
+
+  /**
+   * Set the neighbor lists
+   *
+   * @param neighbors
+   *          the neighbor lists
+   * @param distances
+   *          the distances of the nodes to their neighbors
+   * @param m
+   *          the number of neighbors per node
+   * @param unvisited
+   *          the set of unvisited nodes whose pivot distances are shared
+   */
+  final void setLists(final int[] neighbors, final int[] distances,
+      final int m, final UnvisitedNodes unvisited) {
+    this.m_neighbors = neighbors;
+    this.m_distances = distances;
+    this.m_m = m;
+    this.m_unvisited = new UnvisitedNodes(unvisited);
+  }
+
+  /**
+   * Prepare the worker for building tours from the given start nodes
+   *
+   * @param f
+   *          the objective function
+   * @param starts
+   *          the start nodes
+   * @param next
+   *          the index of the next start node, shared by all workers
+   */
+  final void setup(final ObjectiveFunction f, final int[] starts,
+      final AtomicInteger next) {
+    this.reinitialize();
+    this.m_f = f;
+    this.m_starts = starts;
+    this.m_next = next;
+    this.m_bestLength = Long.MAX_VALUE;
+  }
+
+  /** release the references to the shared data of the run */
+  final void release() {
+    this.m_f = null;
+    this.m_starts = null;
+    this.m_next = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final ObjectiveFunction f;
+    final int[] starts;
+    final AtomicInteger next;
+    int i;
+    long length;
+
+    f = this.m_f;
+    starts = this.m_starts;
+    next = this.m_next;
+
+    while ((i = next.getAndIncrement()) < starts.length) {
+      length = this.build(starts[i]);
+      if (length < this.m_bestLength) {
+        this.m_bestLength = length;
+        System.arraycopy(this.m_tour, 0, this.m_best, 0, this.m_tour.length);
+      }
+
+      synchronized (f) {
+        f.registerDEs(this.m_dist.getCount());
+        this.m_dist.resetCount();
+        f.registerFE(this.m_tour, length);
+        if (f.shouldTerminate()) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Build a tour into {@link #m_tour}. The nearest unvisited node is the
+   * first unvisited node in the neighbor list of the current node. Only
+   * if all of its neighbors have been visited, the
+   * {@link org.logisticPlanning.tsp.solving.utils.candidates.UnvisitedNodes
+   * set of unvisited nodes} is searched.
+   *
+   * @param depot
+   *          the start node
+   * @return the tour length
+   */
+  final long build(final int depot) {
+    final int n, m;
+    final int[] tour, neighbors, distances;
+    final UnvisitedNodes unvisited;
+    final CountingDistanceComputer dist;
+    int i, j, end, cur, best, bestLen;
+    long length, key;
+
+    tour = this.m_tour;
+    neighbors = this.m_neighbors;
+    distances = this.m_distances;
+    unvisited = this.m_unvisited;
+    m = this.m_m;
+    dist = this.m_dist;
+    n = tour.length;
+
+    unvisited.reset();
+    cur = depot;
+    length = 0L;
+    for (i = 0;;) {
+      tour[i] = cur;
+      unvisited.remove(cur);
+      if ((++i) >= n) {
+        break;
+      }
+
+      best = (-1);
+      bestLen = 0;
+      for (j = ((cur - 1) * m), end = (j + m); j < end; j++) {
+        if (unvisited.contains(neighbors[j])) {
+          best = neighbors[j];
+          bestLen = distances[j];
+          break;
+        }
+      }
+
+      if (best < 0) {
+        key = unvisited.nearest(dist, cur);
+        best = ((int) key);
+        bestLen = ((int) (key >>> 32));
+      }
+
+      length += bestLen;
+      cur = best;
+    }
+
+    return (length + dist.distance(cur, depot));
+  }
+}
@@ -1,7 +1,9 @@
 /**
  * An implementation of the
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.NearestNeighborHeuristic
- * nearest neighbor heuristic}.
+ * nearest neighbor heuristic} and of a
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.CandidateNearestNeighborHeuristic
+ * variant} which finds the nearest unvisited node with neighbor lists.
  */
 package org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor;
 
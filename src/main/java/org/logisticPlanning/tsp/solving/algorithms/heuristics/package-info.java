@@ -16,7 +16,10 @@
  * style="font-weight:bold">2</a>, <a href="#cite_JMB1997TTSPACSILO"
  * style="font-weight:bold">3</a>, <a href="#cite_JMG2004EAOHFTS"
  * style="font-weight:bold">4</a>] starts at a given node and builds a tour
- * by iteratively adding the nearest node to it.</li>
+ * by iteratively adding the nearest node to it. Its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.CandidateNearestNeighborHeuristic
+ * candidate list variant} finds the nearest node in the neighbor lists
+ * of the nodes.</li>
  * <li>The
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.DoubleEndedNearestNeighborHeuristic
  * Double-Ended Nearest-Neighbor Heuristic}&nbsp;[<a
@@ -24,13 +27,18 @@
  * href="#cite_JMG2004EAOHFTS" style="font-weight:bold">4</a>] starts a
  * given node and then iteratively builds a tour by adding the nearest
  * nodes to it. Different from the nearest-neighbor heuristic, it checks
- * both ends of the current tour for nearest neighbors.</li>
+ * both ends of the current tour for nearest neighbors. Its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.CandidateDoubleEndedNearestNeighborHeuristic
+ * candidate list variant} finds these nodes in the neighbor lists.</li>
  * <li>The
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy.EdgeGreedyHeuristic
  * Edge-Greedy Heuristic}&nbsp;[<a href="#cite_JMB1997TTSPACSILO"
  * style="font-weight:bold">3</a>, <a href="#cite_JMG2004EAOHFTS"
  * style="font-weight:bold">4</a>] constructs a tour by adding the cheapest
- * edge (that does not violate any validity constraint).</li>
+ * edge (that does not violate any validity constraint). Its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy.CandidateEdgeGreedyHeuristic
+ * candidate set variant} only considers the edges to the nearest
+ * neighbors of each node.</li>
  * <li>The
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.MSTHeuristic
  * (Double) Minimum Spanning Tree Heuristic}&nbsp;[<a
@@ -39,7 +47,11 @@
  * a <a href="https://en.wikipedia.org/wiki/Minimum_spanning_tree">minimum
  * spanning tree</a> (MST)&nbsp;[<a href="#cite_J2004MSTSPT"
  * style="font-weight:bold">7</a>] and then traces it from the root note to
- * form a tour by skipping any already visited nodes.</li>
+ * form a tour by skipping any already visited nodes. Its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.SparseMSTHeuristic
+ * sparse variant} works on flat arrays and builds the tree on the graph
+ * of the nearest neighbors of each node with Kruskal's algorithm or,
+ * optionally, on the complete graph with Prim's algorithm.</li>
  * <li>The
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.SavingsHeuristic
  * Savings Heuristic}&nbsp;[<a href="#cite_CW1964SOVFACDTANODP"
@@ -49,7 +61,20 @@
  * the remaining {@code n-1} nodes, a tour from the depot to the node and
  * directly back is assumed. Iteratively, the cheapest way to combine tours
  * is sought and applied, until only one tour &ndash; the solution to the
- * TSP &dash; remains.</li>
+ * TSP &dash; remains. Its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.NeighborListSavingsHeuristic
+ * neighbor list variant} only considers the edges to the nearest
+ * neighbors of each node and is therefore suitable for large
+ * instances.</li>
+ * <li>The
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve.SpaceFillingCurveHeuristic
+ * Space-Filling Curve Heuristic}&nbsp;[<a href="#cite_PB1989SCATPTSP"
+ * style="font-weight:bold">9</a>] visits the nodes in the order of a
+ * Hilbert curve through the plane. Since only distances are available,
+ * the coordinates of the nodes are first approximated with the FastMap
+ * projection&nbsp;[<a href="#cite_FL1995FAFAFIDMAVOTAMD"
+ * style="font-weight:bold">10</a>]. The heuristic needs only
+ * {@code O(n)} distance evaluations and {@code O(n log n)} time.</li>
  * </ol>
  * <h2>References</h2>
  * <ol>
@@ -188,6 +213,24 @@
  * >OPREAI</a>. <div>link: [<a href=
  * "http://read.pudn.com/downloads160/doc/fileformat/721736/Scheduling%20of%20vehicles%20from%20a%20central%20depot%20to%20a%20number%20of%20delivery%20points.pdf"
  * >1</a>]</div></div></li>
+ * <li><div><span id="cite_PB1989SCATPTSP" />Loren K. Platzman
+ * and&nbsp;John J. Bartholdi III: <span
+ * style="font-weight:bold">&ldquo;Spacefilling Curves and the Planar
+ * Travelling Salesman Problem,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of the ACM
+ * (JACM)</span> 36(4):719&ndash;737, October&nbsp;1989; published by New
+ * York, NY, USA: ACM Press. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1145/76359.76361"
+ * >10.1145/76359.76361</a></div></li>
+ * <li><div><span id="cite_FL1995FAFAFIDMAVOTAMD" />Christos Faloutsos
+ * and&nbsp;King-Ip Lin: <span style="font-weight:bold">&ldquo;FastMap: A
+ * Fast Algorithm for Indexing, Data-Mining and Visualization of
+ * Traditional and Multimedia Datasets,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Proceedings of the 1995
+ * ACM SIGMOD International Conference on Management of Data
+ * (SIGMOD'95)</span>, pages 163&ndash;174, 1995, New York, NY, USA: ACM
+ * Press. doi:&nbsp;<a href="http://dx.doi.org/10.1145/223784.223812"
+ * >10.1145/223784.223812</a></div></li>
  * </ol>
  */
 package org.logisticPlanning.tsp.solving.algorithms.heuristics;
@@ -0,0 +1,514 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.savings;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.TSPHeuristicWithStartNode;
+import org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors;
+import org.logisticPlanning.tsp.solving.utils.candidates.ProjectedGrid;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A variant of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.SavingsHeuristic
+ * savings heuristic} for large instances. The
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.SavingsHeuristic
+ * original implementation} keeps a neighbor list of edge objects for each
+ * node, fills it by checking in all {@code O(n^2)} edges, and, if the
+ * chosen edges do not form a single path, searches the whole edge set
+ * again for each missing edge. Here, only the edges between each node and
+ * its {@link #PARAM_NEIGHBORS nearest neighbors} are considered. The
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors
+ * neighbor lists} are computed once per run and re-used for every depot.
+ * </p>
+ * <p>
+ * The candidate edges are identified by their index in the neighbor
+ * lists. They are kept in a primitive binary heap ordered by the savings
+ * value {@code h(i,j)=dist(i,j)-dist(i,depot)-dist(j,depot)}, i.e., the
+ * edge with the largest saving is on top. The heap is built in linear
+ * time and only as many edges are removed as needed. Each chosen edge
+ * connects two path fragments. For each end of a fragment, we store the
+ * other end, so whether an edge would close a cycle is checked in
+ * constant time.
+ * </p>
+ * <p>
+ * If the candidate edges do not suffice to connect all fragments, the
+ * fragments are chained: Starting at the end of one fragment, we
+ * repeatedly add the edge with the largest saving to an end of a
+ * remaining fragment. This end is first searched among the neighbors of
+ * the current end. Only if none of them is an end of a remaining
+ * fragment, the remaining ends nearest to the current end in the plane
+ * are looked up in a
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.ProjectedGrid
+ * projected grid}, which is built once per run when it is first needed,
+ * and the real distances to these few ends are computed. Chaining
+ * {@code F} fragments hence needs {@code O(F)} instead of
+ * {@code O(F<sup>2</sup>)} distance evaluations. Finally, both ends of
+ * the single path are connected to the depot.
+ * </p>
+ */
+public class NeighborListSavingsHeuristic extends TSPHeuristicWithStartNode {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the number of neighbors per node: {@value} */
+  public static final String PARAM_NEIGHBORS = "neighborListSavingsNeighbors";//$NON-NLS-1$
+
+  /** the default number of neighbors per node: {@value} */
+  public static final int DEFAULT_NEIGHBORS = 10;
+
+  /** the number of neighbors per node */
+  private int m_neighbors;
+
+  /** the number of neighbors per node in the current run */
+  private transient int m_m;
+
+  /** the neighbor lists, or {@code null} if not computed yet */
+  private transient int[] m_neighborLists;
+
+  /** the distances to the neighbors */
+  private transient int[] m_distances;
+
+  /** the distances to the depot */
+  private transient int[] m_rootDist;
+
+  /**
+   * the two neighbors of each node in the path, {@code 0} if there is
+   * none: the neighbors of node {@code i} are at indices {@code 2i} and
+   * {@code 2i+1}
+   */
+  private transient int[] m_links;
+
+  /** the other end of the fragment for each end of a fragment */
+  private transient int[] m_otherEnd;
+
+  /** the savings values of the candidate edges */
+  private transient long[] m_keys;
+
+  /** the heap of candidate edges */
+  private transient int[] m_heap;
+
+  /** the ends of the remaining fragments */
+  private transient int[] m_ends;
+
+  /** the positions of the nodes in {@link #m_ends}, or {@code -1} */
+  private transient int[] m_positions;
+
+  /**
+   * {@code 1} for the ends of the remaining fragments, {@code 0} for all
+   * other nodes
+   */
+  private transient int[] m_free;
+
+  /**
+   * the projected grid for finding the nearest remaining ends, or
+   * {@code null} if not built yet
+   */
+  private transient ProjectedGrid m_grid;
+
+  /** the remaining ends nearest in the projection */
+  private transient int[] m_nearest;
+
+  /** the squared projected distances of the nearest remaining ends */
+  private transient double[] m_nearestDist;
+
+  /** instantiate */
+  public NeighborListSavingsHeuristic() {
+    super("Neighbor List Savings Heuristic"); //$NON-NLS-1$
+    this.m_neighbors = NeighborListSavingsHeuristic.DEFAULT_NEIGHBORS;
+  }
+
+  /**
+   * Perform the neighbor list savings heuristic.
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        NeighborListSavingsHeuristic.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void solve(final ObjectiveFunction f,
+      final Individual<int[]> dest, final int depot) {
+    final int n, m;
+    final int[] neighbors, distances, rootDist, links, otherEnd, heap, ends, positions, free, nearest;
+    final double[] nearestDist;
+    final long[] keys;
+    int[] res;
+    int i, j, e, d, k, size, needed, start, cur, best, bestDist, base;
+    long length, h, bestH;
+
+    n = f.n();
+
+    allocateRes: {
+      if (dest != null) {
+        res = dest.solution;
+        dest.clearEvaluation();
+        if ((res != null) && (res.length == n)) {
+          break allocateRes;
+        }
+      }
+      res = new int[n];
+    }
+
+    m = this.m_m;
+    if (this.m_neighborLists == null) {
+      this.m_neighborLists = new int[n * m];
+      this.m_distances = new int[n * m];
+      NearestNeighbors.compute(f, m, this.m_neighborLists,
+          this.m_distances);
+    }
+    neighbors = this.m_neighborLists;
+    distances = this.m_distances;
+    rootDist = this.m_rootDist;
+    links = this.m_links;
+    otherEnd = this.m_otherEnd;
+    keys = this.m_keys;
+    heap = this.m_heap;
+    ends = this.m_ends;
+    positions = this.m_positions;
+    free = this.m_free;
+    nearest = this.m_nearest;
+    nearestDist = this.m_nearestDist;
+
+    for (i = n; i > 0; i--) {
+      if (i != depot) {
+        rootDist[i] = f.distance(depot, i);
+      }
+      links[i << 1] = links[(i << 1) + 1] = 0;
+      otherEnd[i] = i;
+    }
+
+    // collect the candidate edges, each undirected edge only once
+    size = 0;
+    for (e = (n * m); (--e) >= 0;) {
+      i = ((e / m) + 1);
+      j = neighbors[e];
+      if ((i == depot) || (j == depot)) {
+        continue;
+      }
+      if (j < i) {
+        base = ((j - 1) * m);
+        for (k = (base + m); (--k) >= base;) {
+          if (neighbors[k] == i) {
+            break;
+          }
+        }
+        if (k >= base) {
+          continue;
+        }
+      }
+      keys[e] = (((long) (distances[e])) - rootDist[i] - rootDist[j]);
+      heap[size++] = e;
+    }
+    for (k = ((size >>> 1) - 1); k >= 0; k--) {
+      NeighborListSavingsHeuristic.__siftDown(heap, keys, size, k);
+    }
+
+    // add the edges with the largest savings which do not create cycles
+    length = 0L;
+    needed = (n - 2);
+    while ((needed > 0) && (size > 0)) {
+      e = heap[0];
+      heap[0] = heap[--size];
+      NeighborListSavingsHeuristic.__siftDown(heap, keys, size, 0);
+
+      i = ((e / m) + 1);
+      j = neighbors[e];
+      if ((links[(i << 1) + 1] != 0) || (links[(j << 1) + 1] != 0)
+          || (otherEnd[i] == j)) {
+        continue;
+      }
+      NeighborListSavingsHeuristic.__link(links, otherEnd, i, j);
+      length += distances[e];
+      needed--;
+    }
+
+    // collect the ends of the fragments
+    size = 0;
+    for (i = n; i > 0; i--) {
+      if ((i != depot) && (links[(i << 1) + 1] == 0)) {
+        positions[i] = size;
+        ends[size++] = i;
+        free[i] = 1;
+      } else {
+        positions[i] = (-1);
+        free[i] = 0;
+      }
+    }
+
+    // chain the fragments, starting with an arbitrary one
+    start = ends[0];
+    cur = otherEnd[start];
+    size = NeighborListSavingsHeuristic.__remove(ends, positions, free,
+        size, start);
+    size = NeighborListSavingsHeuristic.__remove(ends, positions, free,
+        size, cur);
+    for (; needed > 0; needed--) {
+      best = (-1);
+      bestDist = 0;
+      bestH = Long.MAX_VALUE;
+
+      base = ((cur - 1) * m);
+      for (k = (base + m); (--k) >= base;) {
+        j = neighbors[k];
+        if (positions[j] >= 0) {
+          h = (((long) (distances[k])) - rootDist[j]);
+          if (h < bestH) {
+            bestH = h;
+            bestDist = distances[k];
+            best = j;
+          }
+        }
+      }
+
+      if (best < 0) {
+        // none of the neighbors is a remaining end: look up the remaining
+        // ends nearest in the projection, the current end is not free
+        if (this.m_grid == null) {
+          this.m_grid = new ProjectedGrid(f);
+        }
+        k = this.m_grid.nearest(cur, free, nearest, nearestDist);
+        while ((--k) >= 0) {
+          j = nearest[k];
+          d = f.distance(cur, j);
+          h = (((long) d) - rootDist[j]);
+          if (h < bestH) {
+            bestH = h;
+            bestDist = d;
+            best = j;
+          }
+        }
+      }
+
+      j = otherEnd[best];
+      NeighborListSavingsHeuristic.__link(links, otherEnd, cur, best);
+      length += bestDist;
+      size = NeighborListSavingsHeuristic.__remove(ends, positions, free,
+          size, best);
+      size = NeighborListSavingsHeuristic.__remove(ends, positions, free,
+          size, j);
+      cur = j;
+    }
+
+    // connect the path to the depot and write it into the tour
+    length += (((long) (rootDist[start])) + rootDist[cur]);
+    res[0] = depot;
+    k = 1;
+    j = 0;
+    for (i = start; i != 0;) {
+      res[k++] = i;
+      e = ((links[i << 1] == j) ? links[(i << 1) + 1] : links[i << 1]);
+      j = i;
+      i = e;
+    }
+
+    f.registerFE(res, length);
+
+    if (dest != null) {
+      dest.solution = res;
+      dest.tourLength = length;
+      dest.producer = this;
+    }
+  }
+
+  /**
+   * Connect the ends of two different fragments
+   *
+   * @param links
+   *          the links of the nodes
+   * @param otherEnd
+   *          the other ends of the fragments
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   */
+  private static final void __link(final int[] links, final int[] otherEnd,
+      final int a, final int b) {
+    final int endA, endB;
+
+    endA = otherEnd[a];
+    endB = otherEnd[b];
+    otherEnd[endA] = endB;
+    otherEnd[endB] = endA;
+    links[(links[a << 1] == 0) ? (a << 1) : ((a << 1) + 1)] = b;
+    links[(links[b << 1] == 0) ? (b << 1) : ((b << 1) + 1)] = a;
+  }
+
+  /**
+   * Remove a node from the list of fragment ends, if it is contained in it
+   *
+   * @param ends
+   *          the fragment ends
+   * @param positions
+   *          the positions of the nodes in {@code ends}
+   * @param free
+   *          {@code 1} for the fragment ends, {@code 0} for all other nodes
+   * @param size
+   *          the number of fragment ends
+   * @param node
+   *          the node to remove
+   * @return the new number of fragment ends
+   */
+  private static final int __remove(final int[] ends,
+      final int[] positions, final int[] free, final int size,
+      final int node) {
+    final int pos, last;
+
+    pos = positions[node];
+    if (pos < 0) {
+      return size;
+    }
+    last = ends[size - 1];
+    ends[pos] = last;
+    positions[last] = pos;
+    positions[node] = (-1);
+    free[node] = 0;
+    return (size - 1);
+  }
+
+  /**
+   * Move an edge down in the heap until the heap property holds again
+   *
+   * @param heap
+   *          the heap
+   * @param keys
+   *          the savings values of the edges
+   * @param size
+   *          the size of the heap
+   * @param index
+   *          the index of the edge in the heap
+   */
+  private static final void __siftDown(final int[] heap, final long[] keys,
+      final int size, final int index) {
+    final int e;
+    final long key;
+    int i, c;
+
+    e = heap[index];
+    key = keys[e];
+    for (i = index; (c = ((i << 1) + 1)) < size; i = c) {
+      if (((c + 1) < size) && (keys[heap[c + 1]] < keys[heap[c]])) {
+        c++;
+      }
+      if (keys[heap[c]] >= key) {
+        break;
+      }
+      heap[i] = heap[c];
+    }
+    heap[i] = e;
+  }
+
+  /**
+   * Set the number of neighbors per node
+   *
+   * @param neighbors
+   *          the number of neighbors per node
+   */
+  public final void setNeighborCount(final int neighbors) {
+    this.m_neighbors = Math.max(1, neighbors);
+  }
+
+  /**
+   * Get the number of neighbors per node
+   *
+   * @return the number of neighbors per node
+   */
+  public final int getNeighborCount() {
+    return this.m_neighbors;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setNeighborCount(config.getInt(
+        NeighborListSavingsHeuristic.PARAM_NEIGHBORS, 1,
+        Integer.MAX_VALUE, this.m_neighbors));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(NeighborListSavingsHeuristic.PARAM_NEIGHBORS, ps);
+    ps.println(this.m_neighbors);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(NeighborListSavingsHeuristic.PARAM_NEIGHBORS, ps);
+    ps.println("the number of nearest neighbors per node whose edges are considered"); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final int n;
+
+    super.beginRun(f);
+
+    n = f.n();
+    this.m_m = Math.max(1, Math.min(this.m_neighbors, (n - 1)));
+    this.m_rootDist = new int[n + 1];
+    this.m_links = new int[(n + 1) << 1];
+    this.m_otherEnd = new int[n + 1];
+    this.m_keys = new long[n * this.m_m];
+    this.m_heap = new int[n * this.m_m];
+    this.m_ends = new int[n];
+    this.m_positions = new int[n + 1];
+    this.m_free = new int[n + 1];
+    this.m_nearest = new int[NearestNeighbors.PROJECTED_FACTOR];
+    this.m_nearestDist = new double[NearestNeighbors.PROJECTED_FACTOR];
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_neighborLists = null;
+    this.m_distances = null;
+    this.m_rootDist = null;
+    this.m_links = null;
+    this.m_otherEnd = null;
+    this.m_keys = null;
+    this.m_heap = null;
+    this.m_ends = null;
+    this.m_positions = null;
+    this.m_free = null;
+    this.m_grid = null;
+    this.m_nearest = null;
+    this.m_nearestDist = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    this.__clear();
+    super.endRun(f);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public NeighborListSavingsHeuristic clone() {
+    final NeighborListSavingsHeuristic h;
+
+    h = ((NeighborListSavingsHeuristic) (super.clone()));
+    h.__clear();
+    return h;
+  }
+}
@@ -1,7 +1,9 @@
 /**
  * An implementation of the
  * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.SavingsHeuristic
- * savings heuristic}.
+ * savings heuristic} and of its
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.NeighborListSavingsHeuristic
+ * neighbor list variant} for large instances.
  */
 package org.logisticPlanning.tsp.solving.algorithms.heuristics.savings;
 
@@ -0,0 +1,391 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.TSPHeuristic;
+import org.logisticPlanning.tsp.solving.utils.FastMap;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * The space-filling curve heuristic&nbsp;[<a href="#cite_PB1989SCATPTSP"
+ * style="font-weight:bold">1</a>] visits the nodes in the order in which
+ * a <a href="https://en.wikipedia.org/wiki/Hilbert_curve">Hilbert
+ * curve</a> passes through the plane they lie in. Nodes which are close
+ * on the curve are close in the plane, so the resulting tour is
+ * reasonable, while it is obtained in {@code O(n log n)} time.
+ * </p>
+ * <p>
+ * The coordinates of the nodes are obtained with the
+ * {@link org.logisticPlanning.tsp.solving.utils.FastMap FastMap}
+ * projection&nbsp;[<a href="#cite_FL1995FAFAFIDMAVOTAMD"
+ * style="font-weight:bold">2</a>] of their distances, which needs only
+ * {@code 5(n-1)} distance evaluations. For non-Euclidean instances, they
+ * are only an approximation, but the result is still a valid tour.
+ * </p>
+ * <p>
+ * The coordinates are scaled to a grid of {@code 2<sup>15</sup>} cells
+ * per axis, the Hilbert index of each node is packed together with the
+ * node into a {@code long} and the keys are sorted with a primitive
+ * array sort.
+ * </p>
+ * <p>
+ * Optionally, a greedy insertion refinement is applied: Each node is
+ * removed from the tour and re-inserted at the cheapest position within
+ * {@link #PARAM_WINDOW window} positions before or after it, if this
+ * makes the tour shorter. Since the nodes close to a node in the plane
+ * are usually also close to it on the curve, this removes many of the
+ * detours the curve makes when leaving and re-entering a region. A single
+ * pass needs about {@code (4window+5)n} further distance evaluations.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_PB1989SCATPTSP" />Loren K. Platzman
+ * and&nbsp;John J. Bartholdi III: <span
+ * style="font-weight:bold">&ldquo;Spacefilling Curves and the Planar
+ * Travelling Salesman Problem,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of the ACM
+ * (JACM)</span> 36(4):719&ndash;737, October&nbsp;1989; published by New
+ * York, NY, USA: ACM Press. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1145/76359.76361"
+ * >10.1145/76359.76361</a></div></li>
+ * <li><div><span id="cite_FL1995FAFAFIDMAVOTAMD" />Christos Faloutsos
+ * and&nbsp;King-Ip Lin: <span style="font-weight:bold">&ldquo;FastMap: A
+ * Fast Algorithm for Indexing, Data-Mining and Visualization of
+ * Traditional and Multimedia Datasets,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Proceedings of the 1995
+ * ACM SIGMOD International Conference on Management of Data
+ * (SIGMOD'95)</span>, pages 163&ndash;174, 1995, New York, NY, USA: ACM
+ * Press. doi:&nbsp;<a href="http://dx.doi.org/10.1145/223784.223812"
+ * >10.1145/223784.223812</a></div></li>
+ * </ol>
+ */
+public class SpaceFillingCurveHeuristic extends TSPHeuristic {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the parameter for the number of positions before and after a node
+   * at which it may be re-inserted, {@code 0} to disable the greedy
+   * insertion: {@value}
+   */
+  public static final String PARAM_WINDOW = "spaceFillingCurveInsertionWindow";//$NON-NLS-1$
+
+  /** the default insertion window: {@value} */
+  public static final int DEFAULT_WINDOW = 8;
+
+  /** the number of grid cells per axis of the Hilbert curve */
+  private static final int SIDE = (1 << 15);
+
+  /** the insertion window, {@code 0} if no insertion is performed */
+  private int m_window;
+
+  /** the first coordinates */
+  private transient double[] m_x;
+
+  /** the second coordinates */
+  private transient double[] m_y;
+
+  /** the packed keys of the nodes */
+  private transient long[] m_keys;
+
+  /** instantiate */
+  public SpaceFillingCurveHeuristic() {
+    super("Space-Filling Curve Heuristic"); //$NON-NLS-1$
+    this.m_window = SpaceFillingCurveHeuristic.DEFAULT_WINDOW;
+  }
+
+  /**
+   * Perform the space-filling curve heuristic
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(//
+        Instance.SYMMETRIC_INSTANCES,//
+        SpaceFillingCurveHeuristic.class,//
+        args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void solve(final ObjectiveFunction f,
+      final Individual<int[]> dest) {
+    final int n;
+    int[] perm;
+    int i;
+    long length;
+
+    n = f.n();
+    perm = null;
+    if (dest != null) {
+      perm = dest.solution;
+      dest.clearEvaluation();
+      if ((perm != null) && (perm.length != n)) {
+        perm = null;
+      }
+    }
+    if (perm == null) {
+      perm = new int[n];
+    }
+
+    FastMap.embed(f, this.m_x, this.m_y);
+    this.__order(n, perm);
+
+    if ((this.m_window > 0) && (n > 3)) {
+      this.__refine(f, perm);
+    }
+
+    length = f.distance(perm[n - 1], perm[0]);
+    for (i = (n - 1); (--i) >= 0;) {
+      length += f.distance(perm[i], perm[i + 1]);
+    }
+    f.registerFE(perm, length);
+
+    if (dest != null) {
+      dest.solution = perm;
+      dest.tourLength = length;
+      dest.producer = this;
+    }
+  }
+
+  /**
+   * Sort the nodes by their index on the Hilbert curve
+   *
+   * @param n
+   *          the number of nodes
+   * @param perm
+   *          the destination permutation
+   */
+  private final void __order(final int n, final int[] perm) {
+    final double[] x, y;
+    final long[] keys;
+    double minX, maxX, minY, maxY, scale;
+    int i;
+
+    x = this.m_x;
+    y = this.m_y;
+    keys = this.m_keys;
+
+    minX = minY = Double.POSITIVE_INFINITY;
+    maxX = maxY = Double.NEGATIVE_INFINITY;
+    for (i = n; i > 0; i--) {
+      minX = Math.min(minX, x[i]);
+      maxX = Math.max(maxX, x[i]);
+      minY = Math.min(minY, y[i]);
+      maxY = Math.max(maxY, y[i]);
+    }
+
+    // use the same scale for both axes to keep the shape of the instance
+    scale = Math.max((maxX - minX), (maxY - minY));
+    if (scale > 0d) {
+      scale = ((SpaceFillingCurveHeuristic.SIDE - 1) / scale);
+    } else {
+      scale = 0d;
+    }
+
+    for (i = n; i > 0; i--) {
+      keys[i - 1] = ((((long) (SpaceFillingCurveHeuristic.__hilbert(
+          ((int) ((x[i] - minX) * scale)),//
+          ((int) ((y[i] - minY) * scale))))) << 32) | i);
+    }
+    Arrays.sort(keys, 0, n);
+
+    for (i = n; (--i) >= 0;) {
+      perm[i] = ((int) (keys[i]));
+    }
+  }
+
+  /**
+   * Compute the index of a grid cell on the Hilbert curve
+   *
+   * @param x
+   *          the first coordinate, in {@code 0..SIDE-1}
+   * @param y
+   *          the second coordinate, in {@code 0..SIDE-1}
+   * @return the index on the curve, in {@code 0..SIDE<sup>2</sup>-1}
+   */
+  private static final int __hilbert(final int x, final int y) {
+    int s, rx, ry, cx, cy, t, d;
+
+    cx = x;
+    cy = y;
+    d = 0;
+    for (s = (SpaceFillingCurveHeuristic.SIDE >>> 1); s > 0; s >>>= 1) {
+      rx = (((cx & s) != 0) ? 1 : 0);
+      ry = (((cy & s) != 0) ? 1 : 0);
+      d += (s * s * ((3 * rx) ^ ry));
+      // rotate the quadrant
+      if (ry == 0) {
+        if (rx == 1) {
+          cx = ((SpaceFillingCurveHeuristic.SIDE - 1) - cx);
+          cy = ((SpaceFillingCurveHeuristic.SIDE - 1) - cy);
+        }
+        t = cx;
+        cx = cy;
+        cy = t;
+      }
+    }
+
+    return d;
+  }
+
+  /**
+   * Refine the tour by removing each node and greedily re-inserting it at
+   * the cheapest position within {@link #m_window} positions before or
+   * after it, if this makes the tour shorter.
+   *
+   * @param f
+   *          the objective function
+   * @param perm
+   *          the tour
+   */
+  private final void __refine(final ObjectiveFunction f, final int[] perm) {
+    final int n, window;
+    int i, j, v, b, lo, hi, best;
+    long gain, cost, da, db;
+
+    n = perm.length;
+    window = this.m_window;
+    for (i = 0; i < n; i++) {
+      v = perm[i];
+      b = perm[(i + 1) % n];
+      j = perm[((i + n) - 1) % n];
+      gain = (((((long) (f.distance(j, v))) + f.distance(v, b)) - f
+          .distance(j, b)));
+      if (gain <= 0L) {
+        continue;
+      }
+
+      // position j means inserting between perm[j-1] and perm[j]; the
+      // distance from v to perm[j-1] is carried over from the last step
+      best = (-1);
+      lo = Math.max(1, (i - window));
+      hi = Math.min((n - 1), (i + window + 1));
+      da = ((lo > i) ? 0L : f.distance(perm[lo - 1], v));
+      for (j = lo; j <= hi; j++) {
+        b = perm[j];
+        if (j == i) {
+          db = 0L;
+        } else {
+          db = f.distance(v, b);
+          if (j != (i + 1)) {
+            cost = ((da + db) - f.distance(perm[j - 1], b));
+            if (cost < gain) {
+              gain = cost;
+              best = j;
+            }
+          }
+        }
+        da = db;
+      }
+
+      if (best < 0) {
+        continue;
+      }
+      if (best < i) {
+        System.arraycopy(perm, best, perm, (best + 1), (i - best));
+        perm[best] = v;
+      } else {
+        System.arraycopy(perm, (i + 1), perm, i, ((best - 1) - i));
+        perm[best - 1] = v;
+      }
+    }
+  }
+
+  /**
+   * Set the insertion window
+   *
+   * @param window
+   *          the number of positions before and after a node at which it
+   *          may be re-inserted, {@code 0} to disable the greedy
+   *          insertion
+   */
+  public final void setInsertionWindow(final int window) {
+    this.m_window = Math.max(0, window);
+  }
+
+  /**
+   * Get the insertion window
+   *
+   * @return the number of positions before and after a node at which it
+   *         may be re-inserted, {@code 0} if the greedy insertion is
+   *         disabled
+   */
+  public final int getInsertionWindow() {
+    return this.m_window;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setInsertionWindow(config.getInt(
+        SpaceFillingCurveHeuristic.PARAM_WINDOW, 0, Integer.MAX_VALUE,
+        this.m_window));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(SpaceFillingCurveHeuristic.PARAM_WINDOW, ps);
+    ps.println(this.m_window);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(SpaceFillingCurveHeuristic.PARAM_WINDOW, ps);
+    ps.println("the number of positions before and after a node at which it may be re-inserted (0 for no insertion)"); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final int n;
+
+    super.beginRun(f);
+
+    n = f.n();
+    this.m_x = new double[n + 1];
+    this.m_y = new double[n + 1];
+    this.m_keys = new long[n];
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_x = null;
+    this.m_y = null;
+    this.m_keys = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    this.__clear();
+    super.endRun(f);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public SpaceFillingCurveHeuristic clone() {
+    final SpaceFillingCurveHeuristic h;
+
+    h = ((SpaceFillingCurveHeuristic) (super.clone()));
+    h.__clear();
+    return h;
+  }
+}
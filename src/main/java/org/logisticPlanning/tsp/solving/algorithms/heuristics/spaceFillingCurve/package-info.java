@@ -0,0 +1,7 @@
+/**
+ * An implementation of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve.SpaceFillingCurveHeuristic
+ * space-filling curve heuristic}, which sorts the nodes along a Hilbert
+ * curve and is therefore suitable for very large instances.
+ */
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve;
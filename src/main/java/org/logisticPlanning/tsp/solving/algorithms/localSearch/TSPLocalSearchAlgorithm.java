@@ -9,6 +9,7 @@ import org.logisticPlanning.tsp.solving.algorithms.localSearch.acceptance.Accept
 import org.logisticPlanning.tsp.solving.operators.PerturbationOperator;
 import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
 import org.logisticPlanning.tsp.solving.operators.permutation.perturbation.PathShufflePerturbation;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 import org.logisticPlanning.utils.text.TextUtils;
@@ -292,6 +293,38 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
   public abstract void localSearch(final Individual<P> srcdst,
       final ObjectiveFunction f);
 
+  /**
+   * <p>
+   * This method is called to perform the local search on a candidate
+   * solution which was a local optimum of this local search before it was
+   * perturbed. Only the edges of the {@code dirty} nodes may have changed
+   * since then, so the local search may start looking for improvements
+   * around these nodes instead of scanning the whole tour. The dirty nodes
+   * are provided by
+   * {@link org.logisticPlanning.tsp.solving.operators.PerturbationOperator#getDirtyNodes(Individual, int[])}
+   * .
+   * </p>
+   * <p>
+   * By default, this method just performs the normal
+   * {@link #localSearch(Individual, ObjectiveFunction) local search}.
+   * Local searches which can make use of the dirty nodes should override
+   * it.
+   * </p>
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   * @param dirty
+   *          the dirty nodes
+   * @param dirtyCount
+   *          the number of dirty nodes
+   */
+  public void localSearch(final Individual<P> srcdst,
+      final ObjectiveFunction f, final int[] dirty, final int dirtyCount) {
+    this.localSearch(srcdst, f);
+  }
+
   /**
    * This method is called to perform the local search. It receives a
    * candidate solution as input.
@@ -305,9 +338,16 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
       final ObjectiveFunction f) {
     final long originalTourLength;
     final boolean checkIterationLimit;
-    int iterations;
+    int iterations, dirtyCount;
+    int[] dirty;
+    long bestLocalOptimum, localOptimumHash, bestLocalOptimumHash, hash;
+    boolean isLocalOptimum;
 
     originalTourLength = srcdst.tourLength;
+    dirty = null;
+    dirtyCount = (-1);
+    bestLocalOptimum = Long.MAX_VALUE;
+    bestLocalOptimumHash = 0L;
     this.accept(srcdst, f);
 
     // If the solution has been produced by this algorithm, we should
@@ -328,8 +368,13 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
       if (f.shouldTerminate()) {
         break looper;
       }
-      // Apply the local search
-      this.localSearch(srcdst, f);
+      // Apply the local search: If we know which nodes have been changed
+      // by the perturbation, it may start there.
+      if (dirtyCount >= 0) {
+        this.localSearch(srcdst, f, dirty, dirtyCount);
+      } else {
+        this.localSearch(srcdst, f);
+      }
 
       if (f.shouldTerminate()) {
         break looper;
@@ -347,22 +392,64 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
         break looper;
       }
 
+      if (srcdst.tourLength < bestLocalOptimum) {
+        bestLocalOptimum = srcdst.tourLength;
+        bestLocalOptimumHash = this.tourHash(srcdst);
+      }
+
       // Will we accept the new solution?
       if (this.m_acceptance.shouldAccept(srcdst, f)) {
         this.accept(srcdst, f); // ok, we accept (probably do nothing)
+        isLocalOptimum = true;
       } else {
         // reject: overwrite solution with something else
+        localOptimumHash = this.tourHash(srcdst);
         this.reject(srcdst, f);
+        // Tours of equal length may still be different, so we identify
+        // the loaded tour by its edges.
+        hash = this.tourHash(srcdst);
+        isLocalOptimum = ((hash == localOptimumHash) || //
+        (hash == bestLocalOptimumHash));
       }
 
       // Perturb: change the solution in order to escape the local optimum
       this.m_perturbation.pertube(srcdst, f);
+
+      // If the perturbed solution was the result of the local search (or
+      // the best such result, which is usually loaded when rejecting),
+      // only the nodes changed by the perturbation need to be investigated
+      // again.
+      dirtyCount = (-1);
+      if (isLocalOptimum) {
+        if (dirty == null) {
+          dirty = new int[f.n()];
+        }
+        dirtyCount = this.m_perturbation.getDirtyNodes(srcdst, dirty);
+      }
     }
 
     // Make sure that we are marked as the producer of this solution
     srcdst.producer = this;
   }
 
+  /**
+   * Compute a hash of the tour of an individual record which does not
+   * depend on the start node or direction of the tour. Two tours with the
+   * same hash are the same with very high probability, which is used to
+   * find out whether a solution loaded in
+   * {@link #reject(Individual, ObjectiveFunction)} is a local optimum of
+   * this local search. The default implementation computes the
+   * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#pathEdgeHash(int[])
+   * edge hash} of the path representation.
+   *
+   * @param ind
+   *          the individual record
+   * @return the hash of its tour
+   */
+  protected long tourHash(final Individual<P> ind) {
+    return RepresentationUtils.pathEdgeHash((int[]) ((Object) (ind.solution)));
+  }
+
   /**
    * The newly generated solution has been accepted. The individual record
    * {@code srcdst} should not be modified, but may be copied into some
@@ -7,8 +7,10 @@ import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
 import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
-import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.ExhaustivelyEnumeratingLocal7Optimizer;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.ParallelMoveEvaluator;
+import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.DynamicProgrammingLocalOptimizer;
 import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.LocalOptimizer;
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 import org.logisticPlanning.utils.math.random.Randomizer;
@@ -32,9 +34,18 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
   /** the move order: {@value} */
   public static final String PARAM_MOVE_ORDER = "moveOrder";//$NON-NLS-1$
 
+  /** the number of threads used for filling the move queue: {@value} */
+  public static final String PARAM_FILL_THREADS = "moveQueueFillThreads";//$NON-NLS-1$
+
   /** the default maximum number of moves: {@value} */
   private static final int DEFAULT_MAX_ALLOCATIONS = 1048576;
 
+  /**
+   * the default number of threads used for filling the move queue:
+   * {@value}
+   */
+  private static final int DEFAULT_FILL_THREADS = 1;
+
   /** the default move comparator */
   private static final EMoveComparator DEFAULT_MOVE_COMPARATOR = EMoveComparator.BEST_MOVE_FIRST;
 
@@ -58,11 +69,17 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
   private EMoveComparator m_cmp;
 
   /**
-   * The distances between the nodes and their successors in the current
-   * permutations. The contract is:
-   * {@code m_distances[i]=this.m_f.dist(this.m_solution[i], this.m_solution[(i+1)%n])}
+   * the number of threads used for filling the move queue
+   *
+   * @serial serializable field
    */
-  private transient int[] m_distances;
+  private int m_fillThreads;
+
+  /**
+   * the current solution together with the distances between the nodes
+   * and their successors
+   */
+  private transient TourWithEdgeCache m_tour;
 
   /** the objective function to use */
   private transient ObjectiveFunction m_f;
@@ -76,6 +93,12 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
   /** the number of allocated moves */
   private transient int m_moveAllocations;
 
+  /**
+   * the parallel move evaluator, or {@code null} if the move queue is
+   * filled sequentially
+   */
+  private transient ParallelMoveEvaluator m_evaluator;
+
   /** should we use overlaps? */
   private boolean m_randomOverlap;
 
@@ -94,7 +117,8 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
     super("Multiple-Neighborhood Search with Local N-Opt");//$NON-NLS-1$
     this.m_cmp = ChainedMNSLocalNOpt.DEFAULT_MOVE_COMPARATOR;
     this.m_maxMoveAllocations = ChainedMNSLocalNOpt.DEFAULT_MAX_ALLOCATIONS;
-    this.m_opt = new ExhaustivelyEnumeratingLocal7Optimizer();
+    this.m_fillThreads = ChainedMNSLocalNOpt.DEFAULT_FILL_THREADS;
+    this.m_opt = new DynamicProgrammingLocalOptimizer();
     this.m_randomOverlap = true;
   }
 
@@ -136,6 +160,7 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
       final ObjectiveFunction f) {
     final int n;
     final int[] dist;
+    final TourWithEdgeCache tour;
     final EMoveComparator cmp;
     boolean lastWasIncomplete;
     int changed_range_i, changed_range_j;
@@ -147,18 +172,17 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
     this.disposeQueue();
 
     // compute the distances and initialize the internal distance list
-    srcdst.tourLength = ChainedMNSLocalNOpt.distanceAndLengthInit(f, n,
-        srcdst.solution, this.m_distances);
+    tour = this.m_tour;
+    srcdst.tourLength = tour.init(srcdst.solution, f);
 
     // initialize local variables
     changed_range_i = 0;
     changed_range_j = n;
-    dist = this.m_distances;
+    dist = tour.getEdgeLengths();
     cmp = this.m_cmp;
 
     // fill the move queue, remember if this hit the allocation limit
-    lastWasIncomplete = this.fillMoveQueue(0, n, srcdst.solution,
-        this.m_distances);
+    lastWasIncomplete = this.fillMoveQueue(0, n, srcdst.solution, dist);
 
     outer: for (;;) {
       move = this.m_queue;// move=best and first move in queue
@@ -213,7 +237,7 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
         }
 
         // apply the move: change the solution and distance list
-        move.apply(n, srcdst.solution, dist);
+        move.apply(tour);
         srcdst.tourLength += move.m_delta; // modify the total tour
         // length
         // accordingly
@@ -485,36 +509,24 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
   }
 
   /**
-   * compute the total length of the solution and initialize the distance
-   * array
+   * Set the number of threads used for filling the move queue. If this is
+   * larger than {@code 1}, the moves are evaluated in parallel by a
+   * {@link ParallelMoveEvaluator}.
    *
-   * @param f
-   *          the objective function
-   * @param n
-   *          the number of nodes
-   * @param sol
-   *          the solution array
-   * @param dist
-   *          the distance array
-   * @return the length of the tour
+   * @param threads
+   *          the number of threads used for filling the move queue
    */
-  private static final long distanceAndLengthInit(
-      final ObjectiveFunction f, final int n, final int[] sol,
-      final int[] dist) {
-    int curP, oldP;
-    long total;
-    int i, j;
-
-    curP = sol[0];
-    total = 0l;
-    for (i = n; (--i) >= 0;) {
-      oldP = curP;
-      curP = sol[i];
-      dist[i] = j = f.distance(curP, oldP);
-      total += j;
-    }
+  public final void setMoveQueueFillThreads(final int threads) {
+    this.m_fillThreads = Math.max(1, threads);
+  }
 
-    return total;
+  /**
+   * Get the number of threads used for filling the move queue
+   *
+   * @return the number of threads used for filling the move queue
+   */
+  public final int getMoveQueueFillThreads() {
+    return this.m_fillThreads;
   }
 
   /**
@@ -600,10 +612,10 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
    * </p>
    * <ol>
    * <li>The array {@code sol} contains the current candidate solution.</li>
-   * <li>The {@code i}<sup>th</sup> element of the array
-   * {@link #m_distances} contains the distance between the {@code i}
-   * <sup>th</sup> element of {@code sol} and the {@code (i+1)%n}
-   * <sup>th</sup> element. In other words, the element at index
+   * <li>The {@code i}<sup>th</sup> element of the array {@code dists}
+   * contains the distance between the {@code i}<sup>th</sup> element of
+   * {@code sol} and the {@code (i+1)%n}<sup>th</sup> element, see
+   * {@link TourWithEdgeCache}. In other words, the element at index
    * {@code n-1} holds the distance of detour from the last node back to
    * the start.</li>
    * <li>The parameters {@code lastChangeStart} and {@code lastChangeEnd}
@@ -652,10 +664,15 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
     int D_im1_i, D_i_ip1, D_jm1_j, D_j_jp1, D_im1_j, D_i_jp1, D_im1_ip1, D_i_j, D_jm1_jp1, D_ip1_j, D_i_jm1;
     _Move move;
 
+    nopt = this.m_opt.getSubPathLength();
+    if (this.m_evaluator != null) {
+      return this.__fillMoveQueueParallel(lastChangeStart, lastChangeEnd,
+          sol, dists, nopt);
+    }
+
     f = this.m_f;
     n = f.n();
     nm1 = (n - 1);
-    nopt = this.m_opt.getSubPathLength();
 
     // Any move intersecting with the range [begin,end] is interesting.
     // The -1/+1 stem from the fact that when changing range [2,3], also
@@ -809,6 +826,71 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
     return false;
   }
 
+  /**
+   * Fill the queue of search moves in parallel by using the
+   * {@link #m_evaluator parallel move evaluator}. This method has the same
+   * semantics as
+   * {@link #fillMoveQueue(int, int, int[], int[])}.
+   *
+   * @param lastChangeStart
+   *          the first index of the interesting range
+   * @param lastChangeEnd
+   *          the last index of the interesting range
+   * @param sol
+   *          the solution array
+   * @param dists
+   *          the distance array
+   * @param nopt
+   *          the sub-path length of the local optimizer: shorter moves
+   *          need not be considered
+   * @return {@code true} if not all possible moves could be checked due to
+   *         the memory allocation limit {@link #m_maxMoveAllocations},
+   *         {@code false} if all possible moves were checked
+   */
+  private final boolean __fillMoveQueueParallel(final int lastChangeStart,
+      final int lastChangeEnd, final int[] sol, final int[] dists,
+      final int nopt) {
+    final ParallelMoveEvaluator eval;
+    final boolean incomplete;
+    _Move move;
+
+    eval = this.m_evaluator;
+    incomplete = eval.evaluate(this.m_f, sol, dists, lastChangeStart,
+        lastChangeEnd, nopt, this.m_maxMoveAllocations);
+
+    while (eval.next()) {
+      move = this.allocate(); // allocate the move
+      if (move == null) {
+        return true;// we hit the allocation limit, force exit
+      }
+
+      switch (eval.getType()) {
+        case ParallelMoveEvaluator.TYPE_REVERSE: {
+          move.init_reverse(eval.getI(), eval.getJ(), eval.getDelta(),
+              eval.getA(), eval.getB());
+          break;
+        }
+        case ParallelMoveEvaluator.TYPE_ROT_LEFT: {
+          move.init_rotate_left(eval.getI(), eval.getJ(), eval.getDelta(),
+              eval.getA(), eval.getB(), eval.getC());
+          break;
+        }
+        case ParallelMoveEvaluator.TYPE_ROT_RIGHT: {
+          move.init_rotate_right(eval.getI(), eval.getJ(),
+              eval.getDelta(), eval.getA(), eval.getB(), eval.getC());
+          break;
+        }
+        default: {
+          move.init_swap(eval.getI(), eval.getJ(), eval.getDelta(),
+              eval.getA(), eval.getB(), eval.getC(), eval.getD());
+        }
+      }
+      this.enqueue(move);
+    }
+
+    return incomplete;
+  }
+
   /** {@inheritDoc} */
   @Override
   public final ChainedMNSLocalNOpt clone() {
@@ -823,11 +905,12 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
 
   /** clear this manager */
   private final void __clear() {
-    this.m_distances = null;
+    this.m_tour = null;
     this.m_f = null;
     this.m_old = null;
     this.m_queue = null;
     this.m_moveAllocations = 0;
+    this.m_evaluator = null;
     this.m_currentAllowed = null;
     this.m_nextAllowed = null;
     this.m_nextAllowedBits = null;
@@ -845,6 +928,9 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
     Configurable.printKey(ChainedMNSLocalNOpt.PARAM_MAX_ALLOCATIONS, ps);
     ps.println(this.m_maxMoveAllocations);
 
+    Configurable.printKey(ChainedMNSLocalNOpt.PARAM_FILL_THREADS, ps);
+    ps.println(this.m_fillThreads);
+
     Configurable.printKey(ChainedMNSLocalNOpt.PARAM_N_OPT, ps);
     Configurable.printlnObject(this.m_opt, ps);
 
@@ -865,6 +951,10 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
     ps.println(//
     "the maximum move queue length (to prevent out-of-memory errors)"); //$NON-NLS-1$
 
+    Configurable.printKey(ChainedMNSLocalNOpt.PARAM_FILL_THREADS, ps);
+    ps.println(//
+    "the number of threads used for filling the move queue"); //$NON-NLS-1$
+
     Configurable.printKey(ChainedMNSLocalNOpt.PARAM_N_OPT, ps);
     ps.println("The local n-optimizer to use."); //$NON-NLS-1$
 
@@ -884,9 +974,13 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
         ChainedMNSLocalNOpt.PARAM_MAX_ALLOCATIONS, 1, Integer.MAX_VALUE,
         this.m_maxMoveAllocations);
 
+    this.m_fillThreads = config.getInt(
+        ChainedMNSLocalNOpt.PARAM_FILL_THREADS, 1, 1024,
+        this.m_fillThreads);
+
     this.setLocalOptimizer(config.getInstance(
         ChainedMNSLocalNOpt.PARAM_N_OPT, LocalOptimizer.class,
-        ExhaustivelyEnumeratingLocal7Optimizer.class, this.m_opt));
+        DynamicProgrammingLocalOptimizer.class, this.m_opt));
     this.setRandomOverlap(config.getBoolean(
         ChainedMNSLocalNOpt.PARAM_RANDOM_OVERLAP, this.m_randomOverlap));
   }
@@ -900,16 +994,22 @@ public class ChainedMNSLocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
 
     this.m_f = f;
     n = f.n();
-    this.m_currentAllowed = this.m_distances = new int[n];
-    // this.m_currentAllowed = new int[n];
+    this.m_tour = new TourWithEdgeCache(n);
+    this.m_currentAllowed = new int[n];
     this.m_nextAllowed = new int[n];
     this.m_nextAllowedBits = new boolean[n];
+    if (this.m_fillThreads > 1) {
+      this.m_evaluator = new ParallelMoveEvaluator(this.m_fillThreads);
+    }
   }
 
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
     try {
+      if (this.m_evaluator != null) {
+        this.m_evaluator.shutdown();
+      }
       this.__clear();
     } finally {
       super.endRun(f);
@@ -1,5 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.chainedMNSLocalOpt;
 
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
+
 /**
  * <p>
  * The internal move class holds all information necessary for describing
@@ -191,7 +193,7 @@ final class _Move {
    * <p>
    * This method has one &quot;external&quot; and one &quot;internal&quot;
    * purpose. For the outside, it applies this move and updates the
-   * candidate solution and distance list.
+   * candidate solution and its edge cache.
    * </p>
    * <p>
    * Internally, it changes the meaning of the member variables
@@ -206,21 +208,17 @@ final class _Move {
    * enqeued moves.
    * </p>
    *
-   * @param n
-   *          the number of nodes in the tsp instance
-   * @param sol
-   *          the solution array
-   * @param dist
-   *          the distance array
+   * @param tour
+   *          the tour with the edge cache
    */
-  final void apply(final int n, final int[] sol, final int[] dist) {
-    final int i, j, im1;
-    int t, m, ii, jj;
+  final void apply(final TourWithEdgeCache tour) {
+    final int i, j, n, im1;
 
     // perform the move
 
     i = this.m_i;
     j = this.m_j;
+    n = tour.getPath().length;
     im1 = (((i + n) - 1) % n);
 
     // Depending on the type of our move, we have different things to do
@@ -228,23 +226,8 @@ final class _Move {
 
       case TYPE_REVERSE: {
         // In a reverse move, we turn around the tour segment in between
-        // (and
-        // including) indices i and j.
-        for (ii = i, jj = j; ii < jj; ii++, jj--) {
-          t = sol[ii];
-          sol[ii] = sol[jj];
-          sol[jj] = t;
-        }
-
-        for (ii = i, jj = (j - 1); ii < jj; ii++, jj--) {
-          t = dist[ii];
-          dist[ii] = dist[jj];
-          dist[jj] = t;
-        }
-
-        dist[im1] = this.m_b;
-        dist[j] = this.m_a;
-
+        // (and including) indices i and j.
+        tour.reverse(i, j, this.m_b, this.m_a);
         break;
       }
 
@@ -252,19 +235,9 @@ final class _Move {
         // In a rotate left move, we rotate the segment in between (and
         // including) i and j one step to the left. The element at index i
         // would be shifted outside of the range, but since we do a
-        // _rotate_
-        // it
-        // re-appears on index j. The element at index j has moved to j-1.
-        t = sol[i];
-        m = (j - i);
-        System.arraycopy(sol, i + 1, sol, i, m);
-        sol[j] = t;
-
-        System.arraycopy(dist, i + 1, dist, i, m - 1);
-
-        dist[im1] = this.m_a;
-        dist[j - 1] = this.m_b;
-        dist[j] = this.m_c;
+        // _rotate_ it re-appears on index j. The element at index j has
+        // moved to j-1.
+        tour.rotateLeft(i, j, this.m_a, this.m_b, this.m_c);
 
         this.m_c = (i + 1); // The rotate left move has one more forbidden
         // coordinate: i+1
@@ -275,19 +248,9 @@ final class _Move {
         // In a rotate right move, we rotate the segment in between (and
         // including) i and j one step to the right. The element at index j
         // would be shifted outside of the range, but since we do a
-        // _rotate_
-        // it
-        // re-appears on index i. The element at index i has moved to i+1.
-        t = sol[j];
-        m = (j - i);
-        System.arraycopy(sol, i, sol, i + 1, m);
-        sol[i] = t;
-
-        System.arraycopy(dist, i, dist, i + 1, m - 1);
-
-        dist[im1] = this.m_c;
-        dist[i] = this.m_b;
-        dist[j] = this.m_a;
+        // _rotate_ it re-appears on index i. The element at index i has
+        // moved to i+1.
+        tour.rotateRight(i, j, this.m_c, this.m_b, this.m_a);
 
         this.m_c = (j - 1);// The rotate left move has one more forbidden
         // coordinate: j-1
@@ -296,19 +259,9 @@ final class _Move {
 
       default: {// TYPE_SWAP
         // In a swap move, we swap the elements at indices i and j.
+        tour.swap(i, j, this.m_c, this.m_d, this.m_a, this.m_b);
 
-        t = sol[i];
-        sol[i] = sol[j];
-        sol[j] = t;
-
-        dist[im1] = this.m_c;
-        dist[i] = this.m_d;
-
-        t = (j - 1);
-        dist[t] = this.m_a;
-        dist[j] = this.m_b;
-
-        this.m_c = t; // the swap move does not allow touching the
+        this.m_c = (j - 1); // the swap move does not allow touching the
         this.m_d = (i + 1); // coordinates j-1 and i+1
       }
     }
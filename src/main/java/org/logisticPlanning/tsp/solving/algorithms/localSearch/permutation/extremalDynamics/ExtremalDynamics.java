@@ -9,11 +9,26 @@ import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
 import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 
 /**
+ * <p>
  * The Extremal Dynamics algorithm.
+ * </p>
+ * <p>
+ * The potential energy of each city, i.e., the length of the edge to its
+ * next city minus the distance to its nearest city, is kept in an indexed
+ * order statistics tree, so the city of a given rank is found in
+ * {@code O(log n)} and only the energies of the cities whose next city has
+ * changed are updated after a move. By default, all cities are ranked as
+ * candidates for the second city of a move, as in the original
+ * algorithm. If the {@link #PARAM_CANDIDATE_COUNT candidate count} is set
+ * to a positive value, the second city is ranked among the nearest
+ * neighbors of the first one only, which makes a step independent of the
+ * number of cities besides the reversal of the tour segment.
+ * </p>
  */
 public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   /** the serial version uid */
@@ -29,6 +44,23 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   /** the parameter of the alpha */
   public static final String PARAM_B = "B";//$NON-NLS-1$
 
+  /**
+   * the parameter for the number of nearest neighbors among which the
+   * second city of a move is chosen: {@value}, a value {@code <=0} means
+   * that all cities are candidates
+   *
+   * @see #DEFAULT_CANDIDATE_COUNT
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "candidateCount";//$NON-NLS-1$
+
+  /**
+   * the default number of candidates for the second city: {@value} means
+   * that all cities are candidates
+   *
+   * @see #PARAM_CANDIDATE_COUNT
+   */
+  public static final int DEFAULT_CANDIDATE_COUNT = 0;
+
   /**
    * An example for a possible parameter
    */
@@ -41,6 +73,8 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   private int m_A;
   /** the parameter of the alpha */
   private int m_B;
+  /** the number of candidates for the second city */
+  private int m_candidateCount;
 
   /** the instance variable of Random */
   private Random m_r;
@@ -48,6 +82,8 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   private int[] m_nearestCity;
   /** the index of next city connected to current city */
   private int[] m_nextCity;
+  /** the candidates for the second city */
+  private CandidateSet m_candidates;
 
   /** the probability of power law distribution */
   private double[] m_Nprobability;
@@ -58,24 +94,45 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   /** the sum of the probability */
   private double m_sum2;
 
-  /** the potential Energy of each city */
-  private int[] m_cityPotentialEnergy;
-  /** the copy of potential Energy of each city */
-  private int[] m_cityPotentialEnergy_copy;
+  /** the potential Energy of each city, ordered by rank */
+  private _EnergyTree m_cityPotentialEnergy;
 
   /** the index of each city in srcdst */
   private int[] m_cityIndex;
 
   /** the changed Energy of the city */
   private int[] m_cityChangedEnergy;
-  /** the copy of changed Energy of the city */
-  private int[] m_cityChangedEnergy_copy;
+  /** the candidate cities, partially ordered by their changed energy */
+  private int[] m_cityChangedEnergyOrder;
 
   /** instantiate */
   public ExtremalDynamics() {
     super("Extremal Dynamics");//$NON-NLS-1$
     this.m_alpha = 1;
     this.m_beta = 1;// some initial value
+    this.m_candidateCount = ExtremalDynamics.DEFAULT_CANDIDATE_COUNT;
+  }
+
+  /**
+   * Set the number of nearest neighbors among which the second city of a
+   * move is chosen. A value {@code <=0} makes all cities candidates.
+   *
+   * @param count
+   *          the number of candidates
+   */
+  public final void setCandidateCount(final int count) {
+    this.m_candidateCount = ((count > 0) ? count : 0);
+  }
+
+  /**
+   * Get the number of nearest neighbors among which the second city of a
+   * move is chosen
+   *
+   * @return the number of candidates, {@code 0} if all cities are
+   *         candidates
+   */
+  public final int getCandidateCount() {
+    return this.m_candidateCount;
   }
 
   /**
@@ -102,56 +159,62 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   }
 
   /**
-   * @param nums
-   *          the array
+   * Find the city with the {@code k}th lowest energy via quick select.
+   * Cities with the same energy are ordered by their id.
+   *
+   * @param cities
+   *          the array with the cities, which will be partially ordered
+   *          afterwards
+   * @param count
+   *          the number of cities in the array
+   * @param energy
+   *          the energy of each city
    * @param k
-   *          the kth value
-   * @param start
-   *          the start index you want in the array
-   * @param end
-   *          the end index you want in the array
-   * @param tag
-   *          if tag is true, return the kth min value, is tag is false,
-   *          return the kth max value.
-   * @return the kth max/min value in the array start from @start end to @end
+   *          the rank, starting at {@code 1}
+   * @param r
+   *          the random number generator used to pick the pivots
+   * @return the city with the {@code k}th lowest energy
    */
-  private static final int __kthValue(final int[] nums, final int k,
-      final int start, final int end, final boolean tag) {
-
-    final int sentry = nums[end];
-    int i = start - 1;
-    int j;
-    int temp;
-    for (j = start; j < end; j++) {
-      if (tag) {
-        if (nums[j] <= sentry) {
-          i++;
-          temp = nums[j];
-          nums[j] = nums[i];
-          nums[i] = temp;
-        }
-      } else {
-        if (nums[j] >= sentry) {
+  private static final int __kthLowestCity(final int[] cities,
+      final int count, final int[] energy, final int k, final Random r) {
+    final int target;
+    int start, end, i, j, pivot, pivotEnergy, city, temp;
+
+    target = (k - 1);
+    start = 0;
+    end = (count - 1);
+    while (start < end) {
+      // move a random pivot to the end and partition the range
+      i = (start + r.nextInt((end - start) + 1));
+      pivot = cities[i];
+      cities[i] = cities[end];
+      cities[end] = pivot;
+      pivotEnergy = energy[pivot];
+
+      i = start;
+      for (j = start; j < end; j++) {
+        city = cities[j];
+        if ((energy[city] < pivotEnergy)
+            || ((energy[city] == pivotEnergy) && (city < pivot))) {
+          temp = cities[i];
+          cities[i] = city;
+          cities[j] = temp;
           i++;
-          temp = nums[j];
-          nums[j] = nums[i];
-          nums[i] = temp;
         }
       }
-    }
-    temp = nums[j];
-    nums[j] = nums[i + 1];
-    nums[i + 1] = temp;
-
-    if (((i + 2) - start) == k) {
-      return nums[i + 1];
-    } else
-      if (((i + 2) - start) > k) {
-        return ExtremalDynamics.__kthValue(nums, k, start, i, tag);
+      cities[end] = cities[i];
+      cities[i] = pivot;
+
+      if (i == target) {
+        return pivot;
+      }
+      if (i < target) {
+        start = (i + 1);
       } else {
-        return ExtremalDynamics.__kthValue(nums, k - ((i + 2) - start),
-            i + 2, end, tag);
+        end = (i - 1);
       }
+    }
+    return cities[target];
   }
 
   /**
@@ -180,14 +243,14 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   }
 
   /**
-   * return potential Energy of each city, the index is 1-base
+   * update the potential Energy of the cities in a range of the path
    *
    * @param srcdst
    *          the object that store the current solution
    * @param f
    *          the ObjectiveFunction that store the city information
    * @param energy
-   *          the array store each city potential energy
+   *          the tree storing the potential energy of each city
    * @param xstart
    *          the start place in the path we need to change the potential
    *          energy
@@ -196,8 +259,8 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
    *          potential energy
    */
   private final void __potentialEnergy(final Individual<int[]> srcdst,
-      final ObjectiveFunction f, final int[] energy, final int xstart,
-      final int end) {
+      final ObjectiveFunction f, final _EnergyTree energy,
+      final int xstart, final int end) {
     final int n;
     int i, curCity, nextCity, nearestCity, start;
 
@@ -208,16 +271,16 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
       curCity = srcdst.solution[f.n() - 1];
       nextCity = srcdst.solution[0];
       nearestCity = this.m_nearestCity[curCity];
-      energy[curCity] = f.distance(curCity, nextCity)
-          - f.distance(curCity, nearestCity);
+      energy.set(curCity, f.distance(curCity, nextCity)
+          - f.distance(curCity, nearestCity));
       start++;
     }
     for (i = start; i <= end; i++) {
       curCity = srcdst.solution[i];
       nextCity = srcdst.solution[(i + 1) % n];
       nearestCity = this.m_nearestCity[curCity];
-      energy[curCity] = f.distance(curCity, nextCity)
-          - f.distance(curCity, nearestCity);
+      energy.set(curCity, f.distance(curCity, nextCity)
+          - f.distance(curCity, nearestCity));
     }
   }
 
@@ -249,6 +312,10 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
   }
 
   /**
+   * Compute the changed energy, i.e., the change of the tour length, of
+   * the 2-opt moves connecting the chosen city with each of its
+   * candidates
+   *
    * @param srcdst
    *          current solution object
    * @param f
@@ -258,39 +325,40 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
    * @param deltaEnergy
    *          the array that store the changed energy according to the
    *          chosen city
+   * @param cities
+   *          the array receiving the candidate cities
    */
   private final void __changedEnergy(final Individual<int[]> srcdst,
       final ObjectiveFunction f, final int firstCity,
-      final int[] deltaEnergy) {
-    int i;
+      final int[] deltaEnergy, final int[] cities) {
+    final CandidateSet candidates;
+    int i, city;
 
     /*
      * int t_disab,t_discd,t_disac,t_disbd; int t_length;
      */
 
-    for (i = 1; i <= f.n(); i++) {
-      if (i != firstCity) {
-        if ((i != this.m_nextCity[firstCity])
-            && (this.m_nextCity[i] != firstCity)
-            && (this.m_nextCity[i] != this.m_nextCity[firstCity])) {
-
-          /*
-           * t_disab = f.distance(firstCity, this.m_nextCity[firstCity]);
-           * t_discd = f.distance(i, this.m_nextCity[i]); t_disac =
-           * f.distance(firstCity,i); t_disbd =
-           * f.distance(this.m_nextCity[firstCity],this.m_nextCity[i]);
-           * t_length = t_disac+t_disbd-t_disab-t_discd;
-           */
-
-          deltaEnergy[i] = (f.distance(firstCity, i) + f.distance(
-              this.m_nextCity[firstCity], this.m_nextCity[i]))
-              - f.distance(firstCity, this.m_nextCity[firstCity])
-              - f.distance(i, this.m_nextCity[i]);
-        } else {
-          deltaEnergy[i] = 0;
-        }
+    candidates = this.m_candidates;
+    for (i = candidates.m(); i > 0; i--) {
+      cities[i - 1] = city = candidates.getCandidate(firstCity, i);
+      if ((city != this.m_nextCity[firstCity])
+          && (this.m_nextCity[city] != firstCity)
+          && (this.m_nextCity[city] != this.m_nextCity[firstCity])) {
+
+        /*
+         * t_disab = f.distance(firstCity, this.m_nextCity[firstCity]);
+         * t_discd = f.distance(i, this.m_nextCity[i]); t_disac =
+         * f.distance(firstCity,i); t_disbd =
+         * f.distance(this.m_nextCity[firstCity],this.m_nextCity[i]);
+         * t_length = t_disac+t_disbd-t_disab-t_discd;
+         */
+
+        deltaEnergy[city] = (f.distance(firstCity, city) + f.distance(
+            this.m_nextCity[firstCity], this.m_nextCity[city]))
+            - f.distance(firstCity, this.m_nextCity[firstCity])
+            - f.distance(city, this.m_nextCity[city]);
       } else {
-        deltaEnergy[i] = Integer.MIN_VALUE;
+        deltaEnergy[city] = 0;
       }
     }
   }
@@ -332,8 +400,6 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
     int index1_copy = index1, index2_copy = index2;
     int temp;
     int kthHigh, uthLow;
-    int kthHighValue, uthLowValue;
-    int i;
 
     // long t_length;
 
@@ -348,6 +414,7 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
     System.arraycopy(srcdst.solution, 0, bestSolution, 0, f.n());
     srcdst.tourLength = f.evaluate(srcdst.solution);
     bestLength = srcdst.tourLength;
+    this.m_cityPotentialEnergy.clear();
 
     for (;;) {
 
@@ -361,36 +428,24 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
           (index1_copy - 1), index2_copy);
       // this.potentialEnergy(srcdst, f, this.m_cityPotentialEnergy, 0,
       // f.n()-1);
+      // nothing needs to be updated unless the tour changes
+      index1_copy = 1;
+      index2_copy = -1;
 
-      // choose the first city
+      // choose the first city: only the energies of the cities whose
+      // next city has changed were updated, the selection takes O(log n)
       kthHigh = this.__powerLawDistribution(this.m_Nprobability,
           this.m_sum1);
-      System.arraycopy(this.m_cityPotentialEnergy, 0,
-          this.m_cityPotentialEnergy_copy, 0, f.n() + 1);
-      kthHighValue = ExtremalDynamics.__kthValue(
-          this.m_cityPotentialEnergy_copy, kthHigh, 1, f.n(), false);
-      for (i = 1; i <= f.n(); i++) {
-        if (this.m_cityPotentialEnergy[i] == kthHighValue) {
-          firstChosenCity = i;
-          break;
-        }
-      }
+      firstChosenCity = this.m_cityPotentialEnergy.select(kthHigh);
 
-      // choose the 2-opt method exchange city
+      // choose the 2-opt method exchange city among the candidates
       this.__changedEnergy(srcdst, f, firstChosenCity,
-          this.m_cityChangedEnergy);
+          this.m_cityChangedEnergy, this.m_cityChangedEnergyOrder);
       uthLow = this.__powerLawDistribution(this.m_N1probability,
           this.m_sum2);
-      System.arraycopy(this.m_cityChangedEnergy, 0,
-          this.m_cityChangedEnergy_copy, 0, f.n() + 1);
-      uthLowValue = ExtremalDynamics.__kthValue(
-          this.m_cityChangedEnergy_copy, uthLow + 1, 1, f.n(), true);
-      for (i = 1; i <= f.n(); i++) {
-        if (this.m_cityChangedEnergy[i] == uthLowValue) {
-          secondChosenCity = i;
-          break;
-        }
-      }
+      secondChosenCity = ExtremalDynamics.__kthLowestCity(
+          this.m_cityChangedEnergyOrder, this.m_candidates.m(),
+          this.m_cityChangedEnergy, uthLow, this.m_r);
 
       /*
        * srcdst.solution[cityIndex[firstChosenCity]] = secondChosenCity;
@@ -443,8 +498,8 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
           System.arraycopy(bestSolution, 0, srcdst.solution, 0, f.n());
           srcdst.tourLength = bestLength;
           f.registerFE(srcdst.solution, srcdst.tourLength);
-          return;
         }
+        return;
       }
     }
   }
@@ -456,10 +511,10 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
 
     m = ((ExtremalDynamics) (super.clone()));
     m.m_cityPotentialEnergy = null;
-    m.m_cityPotentialEnergy_copy = null;
+    m.m_candidates = null;
     m.m_cityIndex = null;
     m.m_cityChangedEnergy = null;
-    m.m_cityChangedEnergy_copy = null;
+    m.m_cityChangedEnergyOrder = null;
     return m;
   }
 
@@ -477,6 +532,8 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
     ps.println(this.m_A);
     Configurable.printKey(ExtremalDynamics.PARAM_B, ps);
     ps.println(this.m_B);
+    Configurable.printKey(ExtremalDynamics.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
   }
 
   /** {@inheritDoc} */
@@ -496,6 +553,9 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
     Configurable.printKey(ExtremalDynamics.PARAM_B, ps);
     ps.println(//
     "the B of the alpha");//$NON-NLS-1$
+    Configurable.printKey(ExtremalDynamics.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(//
+    "the number of nearest neighbors among which the second city of a move is chosen, 0 for all cities");//$NON-NLS-1$
   }
 
   /** {@inheritDoc} */
@@ -510,6 +570,9 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
         Integer.MAX_VALUE, this.m_beta);
     this.m_A = config.getInt(ExtremalDynamics.PARAM_A, 0, 10, this.m_A);
     this.m_B = config.getInt(ExtremalDynamics.PARAM_A, 0, 10, this.m_B);
+    this.m_candidateCount = config.getInt(
+        ExtremalDynamics.PARAM_CANDIDATE_COUNT, 0, Integer.MAX_VALUE,
+        this.m_candidateCount);
   }
 
   /** {@inheritDoc} */
@@ -520,12 +583,19 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
     this.m_alpha = this.m_A + (this.m_B / Math.abs(Math.log(f.n())));
 
     this.m_r = f.getRandom();
+    this.m_candidates = CandidateSet.allocate(f, this.m_candidateCount,
+        null);
     this.m_nearestCity = new int[f.n() + 1];
     for (int i = 1; i <= f.n(); i++) {
-      this.m_nearestCity[i] = ExtremalDynamics.__nearestCityIndex(f, i);
+      // the candidates are sorted by distance only if they are not all
+      // cities
+      this.m_nearestCity[i] = ((this.m_candidates.m() < (f.n() - 1)) ? //
+      this.m_candidates.getCandidate(i, 1)
+          : ExtremalDynamics.__nearestCityIndex(f, i));
     }
 
     this.m_Nprobability = new double[f.n()];
+    this.m_sum1 = 0d;
     for (int i = 0; i < f.n(); i++) {
       // sum +=
       // (-alpha+1)/(Math.pow((double)n,(-alpha+1))-1)*Math.pow((double)i,-alpha);
@@ -533,20 +603,20 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
       this.m_Nprobability[i] = this.m_sum1;
     }
 
-    this.m_N1probability = new double[f.n() - 1];
-    for (int i = 0; i < (f.n() - 1); i++) {
+    this.m_N1probability = new double[this.m_candidates.m()];
+    this.m_sum2 = 0d;
+    for (int i = 0; i < this.m_candidates.m(); i++) {
       // sum +=
       // (-alpha+1)/(Math.pow((double)n,(-alpha+1))-1)*Math.pow((double)i,-alpha);
       this.m_sum2 += Math.pow((i + 1), -this.m_beta);
       this.m_N1probability[i] = this.m_sum2;
     }
 
-    this.m_cityPotentialEnergy = new int[f.n() + 1];
-    this.m_cityPotentialEnergy_copy = new int[f.n() + 1];
+    this.m_cityPotentialEnergy = new _EnergyTree(f.n(), this.m_r);
 
     this.m_nextCity = new int[f.n() + 1];
     this.m_cityChangedEnergy = new int[f.n() + 1];
-    this.m_cityChangedEnergy_copy = new int[f.n() + 1];
+    this.m_cityChangedEnergyOrder = new int[this.m_candidates.m()];
 
     this.m_cityIndex = new int[f.n() + 1];
 
@@ -562,10 +632,10 @@ public final class ExtremalDynamics extends TSPLocalSearchAlgorithm<int[]> {
       this.m_N1probability = null;
       this.m_Nprobability = null;
       this.m_cityPotentialEnergy = null;
-      this.m_cityPotentialEnergy_copy = null;
       this.m_nextCity = null;
+      this.m_candidates = null;
       this.m_cityChangedEnergy = null;
-      this.m_cityChangedEnergy_copy = null;
+      this.m_cityChangedEnergyOrder = null;
       this.m_cityIndex = null;
     } finally {
       super.endRun(f);
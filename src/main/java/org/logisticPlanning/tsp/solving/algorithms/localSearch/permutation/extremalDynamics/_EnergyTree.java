@@ -0,0 +1,272 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.extremalDynamics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * An indexed order statistics tree over the potential energies of the
+ * cities used by
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.extremalDynamics.ExtremalDynamics}
+ * . The tree is a treap whose nodes are the cities themselves, i.e., all
+ * information is stored in arrays indexed by the city ids. The cities are
+ * ordered by decreasing energy (and increasing id for cities with the same
+ * energy). Changing the energy of a city as well as finding the city of a
+ * given rank take {@code O(log n)} steps on average, so we never need to
+ * sort or scan all the energies.
+ */
+final class _EnergyTree {
+
+  /** the energies of the cities */
+  private final int[] m_energy;
+
+  /** the left children */
+  private final int[] m_left;
+
+  /** the right children */
+  private final int[] m_right;
+
+  /** the sizes of the sub-trees, {@code 0} for cities not in the tree */
+  private final int[] m_size;
+
+  /** the heap priorities */
+  private final int[] m_priority;
+
+  /** the root of the tree, or {@code 0} if the tree is empty */
+  private int m_root;
+
+  /** the left result of the last split */
+  private int m_splitLeft;
+
+  /** the right result of the last split */
+  private int m_splitRight;
+
+  /**
+   * create
+   *
+   * @param n
+   *          the number of cities
+   * @param r
+   *          the random number generator to create the priorities with
+   */
+  _EnergyTree(final int n, final Random r) {
+    super();
+
+    int i;
+
+    this.m_energy = new int[n + 1];
+    this.m_left = new int[n + 1];
+    this.m_right = new int[n + 1];
+    this.m_size = new int[n + 1];
+    this.m_priority = new int[n + 1];
+    for (i = n; i > 0; i--) {
+      this.m_priority[i] = r.nextInt();
+    }
+  }
+
+  /** remove all cities from the tree */
+  final void clear() {
+    Arrays.fill(this.m_size, 0);
+    this.m_root = 0;
+  }
+
+  /**
+   * Get the energy of a city
+   *
+   * @param city
+   *          the city
+   * @return the energy of the city
+   */
+  final int get(final int city) {
+    return this.m_energy[city];
+  }
+
+  /**
+   * Set the energy of a city and insert it into the tree or move it to its
+   * new rank
+   *
+   * @param city
+   *          the city
+   * @param energy
+   *          the new energy of the city
+   */
+  final void set(final int city, final int energy) {
+    if (this.m_size[city] > 0) {
+      if (this.m_energy[city] == energy) {
+        return;
+      }
+      this.m_root = this.__remove(this.m_root, city);
+    }
+
+    this.m_energy[city] = energy;
+    this.m_left[city] = this.m_right[city] = 0;
+    this.m_size[city] = 1;
+    this.m_root = this.__insert(this.m_root, city);
+  }
+
+  /**
+   * Get the city with the given rank, i.e., the city with the
+   * {@code k}-highest energy.
+   *
+   * @param k
+   *          the rank, from {@code 1} to the number of cities in the tree
+   * @return the city
+   */
+  final int select(final int k) {
+    final int[] left, size;
+    int t, s, rank;
+
+    left = this.m_left;
+    size = this.m_size;
+    rank = k;
+    t = this.m_root;
+    for (;;) {
+      s = size[left[t]];
+      if (rank <= s) {
+        t = left[t];
+      } else {
+        if (rank == (s + 1)) {
+          return t;
+        }
+        rank -= (s + 1);
+        t = this.m_right[t];
+      }
+    }
+  }
+
+  /**
+   * Does city {@code a} come before city {@code b} in the tree?
+   *
+   * @param a
+   *          the first city
+   * @param b
+   *          the second city
+   * @return {@code true} if {@code a} has a higher energy or the same
+   *         energy and a lower id than {@code b}
+   */
+  private final boolean __before(final int a, final int b) {
+    final int ea, eb;
+
+    ea = this.m_energy[a];
+    eb = this.m_energy[b];
+    return ((ea > eb) || ((ea == eb) && (a < b)));
+  }
+
+  /**
+   * update the size of a sub-tree
+   *
+   * @param t
+   *          the root of the sub-tree
+   */
+  private final void __update(final int t) {
+    this.m_size[t] = (1 + this.m_size[this.m_left[t]] + this.m_size[this.m_right[t]]);
+  }
+
+  /**
+   * Split a sub-tree into the cities before a city (stored in
+   * {@link #m_splitLeft}) and the others (stored in {@link #m_splitRight})
+   *
+   * @param t
+   *          the root of the sub-tree
+   * @param city
+   *          the city
+   */
+  private final void __split(final int t, final int city) {
+    if (t == 0) {
+      this.m_splitLeft = this.m_splitRight = 0;
+      return;
+    }
+    if (this.__before(t, city)) {
+      this.__split(this.m_right[t], city);
+      this.m_right[t] = this.m_splitLeft;
+      this.__update(t);
+      this.m_splitLeft = t;
+    } else {
+      this.__split(this.m_left[t], city);
+      this.m_left[t] = this.m_splitRight;
+      this.__update(t);
+      this.m_splitRight = t;
+    }
+  }
+
+  /**
+   * Merge two sub-trees, where all cities in the first one come before
+   * the cities in the second one
+   *
+   * @param a
+   *          the first sub-tree
+   * @param b
+   *          the second sub-tree
+   * @return the root of the merged tree
+   */
+  private final int __merge(final int a, final int b) {
+    if (a == 0) {
+      return b;
+    }
+    if (b == 0) {
+      return a;
+    }
+    if (this.m_priority[a] > this.m_priority[b]) {
+      this.m_right[a] = this.__merge(this.m_right[a], b);
+      this.__update(a);
+      return a;
+    }
+    this.m_left[b] = this.__merge(a, this.m_left[b]);
+    this.__update(b);
+    return b;
+  }
+
+  /**
+   * Insert a city into a sub-tree
+   *
+   * @param t
+   *          the root of the sub-tree
+   * @param city
+   *          the city
+   * @return the new root of the sub-tree
+   */
+  private final int __insert(final int t, final int city) {
+    if (t == 0) {
+      return city;
+    }
+    if (this.m_priority[city] > this.m_priority[t]) {
+      this.__split(t, city);
+      this.m_left[city] = this.m_splitLeft;
+      this.m_right[city] = this.m_splitRight;
+      this.__update(city);
+      return city;
+    }
+    if (this.__before(city, t)) {
+      this.m_left[t] = this.__insert(this.m_left[t], city);
+    } else {
+      this.m_right[t] = this.__insert(this.m_right[t], city);
+    }
+    this.__update(t);
+    return t;
+  }
+
+  /**
+   * Remove a city from a sub-tree
+   *
+   * @param t
+   *          the root of the sub-tree
+   * @param city
+   *          the city, which must be in the sub-tree
+   * @return the new root of the sub-tree
+   */
+  private final int __remove(final int t, final int city) {
+    final int res;
+
+    if (t == city) {
+      res = this.__merge(this.m_left[t], this.m_right[t]);
+      this.m_size[t] = 0;
+      return res;
+    }
+    if (this.__before(city, t)) {
+      this.m_left[t] = this.__remove(this.m_left[t], city);
+    } else {
+      this.m_right[t] = this.__remove(this.m_right[t], city);
+    }
+    this.__update(t);
+    return t;
+  }
+}
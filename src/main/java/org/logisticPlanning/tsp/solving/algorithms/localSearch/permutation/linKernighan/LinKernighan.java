@@ -1,5 +1,6 @@
 package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan;
 
+import java.io.PrintStream;
 import java.util.Arrays;
 
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
@@ -8,17 +9,90 @@ import org.logisticPlanning.tsp.solving.Individual;
 import org.logisticPlanning.tsp.solving.TSPAlgorithm;
 import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.utils.DontLookBits;
+import org.logisticPlanning.tsp.solving.utils.TwoLevelDoublyLinkedList;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
 
 /**
+ * <p>
  * The Lin-Kernighan heuristic. XXX: Write a description how this algorithm
  * works. You can describe it similarly to the paper, but do not just copy
  * from there.
+ * </p>
+ * <p>
+ * If the {@link #PARAM_CANDIDATE_COUNT candidate count} is set to a
+ * positive value, a different search procedure is used: The partners
+ * {@code t3} of the added edges {@code y} are then only drawn from a
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet
+ * candidate set} of the nearest neighbors of {@code t2}. Each step of the
+ * move is performed as a 2-opt move (a segment reversal) on the tour, so
+ * the tour is always feasible and the closing edge {@code (t1, t4)} is
+ * implicit. The tour is held in a
+ * {@link org.logisticPlanning.tsp.solving.utils.TwoLevelDoublyLinkedList
+ * two-level doubly linked list}, so each step and its undoing cost only
+ * <code>O(&radic;n)</code> instead of {@code O(n)}. The start nodes {@code t1} are taken from a
+ * {@link org.logisticPlanning.tsp.solving.utils.DontLookBits queue of
+ * active nodes}: a node is only tried again after one of its incident
+ * edges has been changed by an improving move. The added and removed
+ * edges of the current move are kept in structures allowing for
+ * {@code O(1)} checks. Like in the original algorithm, we backtrack over
+ * all alternatives on the first two levels and follow only the best
+ * alternative (in terms of the gain after removing the next edge) on the
+ * deeper levels.
+ * </p>
  */
 public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
 
   /** serialVersionUID */
   private static final long serialVersionUID = 1L;
 
+  /**
+   * the default number of candidates: {@value} means that the classical
+   * search without candidate sets is used
+   *
+   * @see #PARAM_CANDIDATE_COUNT
+   */
+  public static final int DEFAULT_CANDIDATE_COUNT = 0;
+
+  /**
+   * the parameter governing the number of nearest neighbors in the
+   * candidate list per node: {@value}, a value {@code <=0} means that the
+   * classical search without candidate sets and don't-look bits is used
+   *
+   * @see #DEFAULT_CANDIDATE_COUNT
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "lkCandidateCount"; //$NON-NLS-1$
+
+  /**
+   * the default maximum number of steps of a move in the candidate-based
+   * search
+   *
+   * @see #PARAM_MAX_DEPTH
+   */
+  public static final int DEFAULT_MAX_DEPTH = 50;
+
+  /**
+   * the parameter governing the maximum number of edges exchanged by a
+   * single move in the candidate-based search: {@value}
+   *
+   * @see #DEFAULT_MAX_DEPTH
+   */
+  public static final String PARAM_MAX_DEPTH = "lkMaxDepth"; //$NON-NLS-1$
+
+  /**
+   * the number of levels on which we backtrack over all alternatives in
+   * the candidate-based search
+   */
+  private static final int BREADTH_LEVELS = 2;
+
+  /** the number of candidates, {@code <=0} for the classical search */
+  private int m_candidateCount;
+
+  /** the maximum number of steps of a move in the candidate search */
+  private int m_maxDepth;
+
   /** for choose xi XXX: add description */
   private int[] m_tempX;
 
@@ -57,9 +131,68 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
         LinKernighan.class, args);
   }
 
+  /** the candidate set */
+  private transient CandidateSet m_candidates;
+
+  /** the number of candidates per node */
+  private transient int m_m;
+
+  /** the active nodes and don't-look bits */
+  private transient DontLookBits m_active;
+
+  /** the edges added by the current move */
+  private transient _EdgeMarks m_added;
+
+  /** the edges removed by the current move */
+  private transient _EdgeMarks m_removed;
+
+  /** the tour of the candidate-based search */
+  private transient TwoLevelDoublyLinkedList m_list;
+
+  /** the tour in path representation, for registering new best tours */
+  private transient int[] m_tour;
+
+  /**
+   * is the orientation of the search opposite to the orientation of
+   * {@link #m_list}?
+   */
+  private transient boolean m_reversed;
+
+  /** the node {@code t2i} from which the edge {@code y} was added */
+  private transient int[] m_stepT2;
+
+  /** the node {@code t2i+1} to which the edge {@code y} was added */
+  private transient int[] m_stepT3;
+
+  /** the node {@code t2i+2} of the removed edge {@code x} */
+  private transient int[] m_stepT4;
+
+  /** the number of steps currently applied */
+  private transient int m_steps;
+
+  /** the start node {@code t1} of the current move */
+  private transient int m_t1;
+
+  /** the best gain found during the current move */
+  private transient long m_bestGain;
+
+  /** the number of steps leading to the best gain */
+  private transient int m_bestSteps;
+
+  /** the alternative nodes {@code t3} on the breadth levels */
+  private transient int[][] m_altT3;
+
+  /** the gains of the alternatives on the breadth levels */
+  private transient long[][] m_altGain;
+
+  /** the objective function */
+  private transient ObjectiveFunction m_f;
+
   /** create */
   public LinKernighan() {
     super("LinKernighan"); //$NON-NLS-1$
+    this.m_candidateCount = LinKernighan.DEFAULT_CANDIDATE_COUNT;
+    this.m_maxDepth = LinKernighan.DEFAULT_MAX_DEPTH;
   }
 
   /** {@inheritDoc} */
@@ -77,9 +210,27 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
     x.m_edgeAdded = null;
     x.m_edgeDeleted = null;
     x.m_tempTour = null;
+    x.__clearCandidateSearch();
     return x;
   }
 
+  /** clear the data of the candidate-based search */
+  private final void __clearCandidateSearch() {
+    this.m_candidates = null;
+    this.m_m = 0;
+    this.m_active = null;
+    this.m_added = null;
+    this.m_removed = null;
+    this.m_list = null;
+    this.m_tour = null;
+    this.m_stepT2 = null;
+    this.m_stepT3 = null;
+    this.m_stepT4 = null;
+    this.m_altT3 = null;
+    this.m_altGain = null;
+    this.m_f = null;
+  }
+
   /** {@inheritDoc} */
   @Override
   public void beginRun(final ObjectiveFunction f) {
@@ -89,6 +240,11 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
 
     n = f.n();
 
+    if (this.m_candidateCount > 0) {
+      this.__beginCandidateSearch(f, n);
+      return;
+    }
+
     this.m_t = new int[(2 * n) + n];
     this.m_tempX = new int[8];
     this.m_tempY = new int[8];
@@ -101,6 +257,35 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
 
   }
 
+  /**
+   * allocate the data structures of the candidate-based search
+   *
+   * @param f
+   *          the objective function
+   * @param n
+   *          the number of nodes
+   */
+  private final void __beginCandidateSearch(final ObjectiveFunction f,
+      final int n) {
+    final int depth;
+
+    this.m_candidates = CandidateSet.allocate(f, this.m_candidateCount,
+        null);
+    this.m_m = this.m_candidates.m();
+    this.m_active = new DontLookBits();
+    this.m_added = new _EdgeMarks(n);
+    this.m_removed = new _EdgeMarks(n);
+    this.m_list = new TwoLevelDoublyLinkedList(n);
+    this.m_tour = new int[n];
+
+    depth = Math.max(1, Math.min(this.m_maxDepth, n));
+    this.m_stepT2 = new int[depth];
+    this.m_stepT3 = new int[depth];
+    this.m_stepT4 = new int[depth];
+    this.m_altT3 = new int[LinKernighan.BREADTH_LEVELS][this.m_m];
+    this.m_altGain = new long[LinKernighan.BREADTH_LEVELS][this.m_m];
+  }
+
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
@@ -112,6 +297,8 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
     this.m_edgeSet = null;
     this.m_edgeAdded = null;
     this.m_edgeDeleted = null;
+    this.m_tempTour = null;
+    this.__clearCandidateSearch();
     super.endRun(f);
   }
 
@@ -134,6 +321,11 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
   public void localSearch(final Individual<int[]> srcdst,
       final ObjectiveFunction f) {
 
+    if (this.m_candidateCount > 0) {
+      this.__candidateSearch(srcdst, f);
+      return;
+    }
+
     // local variables -----------------------
 
     final int n = f.n(); // the number number of nodes
@@ -534,6 +726,274 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
 
   }
 
+  /**
+   * The candidate-based search: start nodes are taken from the queue of
+   * active nodes until it is empty, i.e., until no improving move can be
+   * found anymore.
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   */
+  private final void __candidateSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final TwoLevelDoublyLinkedList list;
+    final DontLookBits active;
+    int i, t1, t2, direction;
+
+    this.m_f = f;
+    list = this.m_list;
+    active = this.m_active;
+
+    list.fromPath(srcdst.solution);
+    active.init(srcdst.solution.length);
+    active.activateAll(srcdst.solution);
+    this.m_steps = 0;
+
+    mainLoop: while (!(active.isEmpty())) {
+      if (f.shouldTerminate()) {
+        break mainLoop;
+      }
+
+      t1 = active.next();
+      for (direction = 0; direction < 2; direction++) {
+        this.m_reversed = (direction != 0);
+        this.m_t1 = t1;
+        this.m_bestGain = 0l;
+        this.m_bestSteps = 0;
+        this.m_added.clear();
+        this.m_removed.clear();
+
+        t2 = this.__succ(t1);
+        this.m_removed.add(t1, t2);
+
+        if (this.__step(0, t2, f.distance(t1, t2))) {
+          // keep only the steps leading to the best tour
+          while (this.m_steps > this.m_bestSteps) {
+            this.__undoStep();
+          }
+
+          active.activate(t1);
+          for (i = this.m_steps; (--i) >= 0;) {
+            active.activate(this.m_stepT2[i]);
+            active.activate(this.m_stepT3[i]);
+            active.activate(this.m_stepT4[i]);
+          }
+          this.m_steps = 0;
+
+          srcdst.tourLength -= this.m_bestGain;
+          // the tour only needs to be materialized if it is a new best
+          // one, since otherwise it will not be copied anyway
+          if (srcdst.tourLength < f.getCurrentLogPoint().getBestF()) {
+            list.toPath(this.m_tour);
+            f.registerFE(this.m_tour, srcdst.tourLength);
+          } else {
+            f.registerFE(null, srcdst.tourLength);
+          }
+          continue mainLoop;
+        }
+
+        if (f.shouldTerminate()) {
+          break mainLoop;
+        }
+      }
+    }
+
+    // undo the steps of an interrupted move
+    while (this.m_steps > 0) {
+      this.__undoStep();
+    }
+
+    list.toPath(srcdst.solution);
+    this.m_f = null;
+  }
+
+  /**
+   * Perform one step of the Lin-Kernighan move: add an edge
+   * {@code y=(t2, t3)} where {@code t3} is a candidate of {@code t2},
+   * remove the edge {@code x=(t3, t4)} and close the tour with
+   * {@code (t4, t1)}.
+   *
+   * @param level
+   *          the current level, i.e., the number of steps performed so far
+   * @param t2
+   *          the node {@code t2i}, i.e., the successor of {@code t1}
+   * @param gain
+   *          the total gain of the removed minus the added edges, without
+   *          the closing edge
+   * @return {@code true} if an improving move has been found,
+   *         {@code false} otherwise
+   */
+  private final boolean __step(final int level, final int t2,
+      final long gain) {
+    final ObjectiveFunction f;
+    final CandidateSet candidates;
+    final int t1, breadth;
+    final int[] altT3;
+    final long[] altGain;
+    int id, t3, t4, count, bestT3, i, j;
+    long g, best;
+
+    f = this.m_f;
+    candidates = this.m_candidates;
+    t1 = this.m_t1;
+
+    if (level < LinKernighan.BREADTH_LEVELS) {
+      altT3 = this.m_altT3[level];
+      altGain = this.m_altGain[level];
+      breadth = this.m_m;
+    } else {
+      altT3 = null;
+      altGain = null;
+      breadth = 1;
+    }
+
+    // collect the alternatives, sorted by the gain after removing x
+    count = 0;
+    bestT3 = 0;
+    best = Long.MIN_VALUE;
+    for (id = this.m_m; id > 0; id--) {
+      t3 = candidates.getCandidate(t2, id);
+      if ((t3 == t1) || (t3 == this.__succ(t2))
+          || this.m_removed.contains(t2, t3)) {
+        continue;
+      }
+
+      g = (gain - f.distance(t2, t3));
+      if (g <= 0l) {
+        continue; // gain criterion
+      }
+
+      t4 = this.__pred(t3);
+      if (this.m_added.contains(t3, t4)) {
+        continue;
+      }
+      g += f.distance(t3, t4);
+
+      if (altT3 != null) {
+        for (i = count++; (i > 0) && (altGain[i - 1] < g); i--) {
+          altT3[i] = altT3[i - 1];
+          altGain[i] = altGain[i - 1];
+        }
+        altT3[i] = t3;
+        altGain[i] = g;
+      } else {
+        if (g > best) {
+          best = g;
+          bestT3 = t3;
+          count = 1;
+        }
+      }
+    }
+
+    count = Math.min(count, breadth);
+    for (j = 0; j < count; j++) {
+      if (altT3 != null) {
+        t3 = altT3[j];
+        g = altGain[j];
+      } else {
+        t3 = bestT3;
+        g = best;
+      }
+
+      t4 = this.__pred(t3);
+      this.__doStep(t2, t3, t4);
+
+      best = (g - f.distance(t4, t1));
+      if (best > this.m_bestGain) {
+        this.m_bestGain = best;
+        this.m_bestSteps = this.m_steps;
+      }
+
+      if ((this.m_steps < this.m_stepT2.length) && (!(f.shouldTerminate()))) {
+        this.__step((level + 1), t4, g);
+      }
+
+      if (this.m_bestGain > 0l) {
+        return true;
+      }
+
+      this.__undoStep();
+      if (f.shouldTerminate()) {
+        return false;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Apply a step: reverse the path from {@code t2} to {@code t4} in the
+   * current orientation, which adds the edges {@code (t2, t3)} and
+   * {@code (t1, t4)} and removes {@code (t1, t2)} and {@code (t4, t3)}.
+   *
+   * @param t2
+   *          the node {@code t2i}
+   * @param t3
+   *          the node {@code t2i+1}
+   * @param t4
+   *          the node {@code t2i+2}
+   */
+  private final void __doStep(final int t2, final int t3, final int t4) {
+    final int step;
+
+    if (this.m_reversed) {
+      this.m_list.reverse(t4, t2);
+    } else {
+      this.m_list.reverse(t2, t4);
+    }
+
+    step = (this.m_steps++);
+    this.m_stepT2[step] = t2;
+    this.m_stepT3[step] = t3;
+    this.m_stepT4[step] = t4;
+
+    this.m_added.add(t2, t3);
+    this.m_removed.add(t3, t4);
+  }
+
+  /** undo the last step */
+  private final void __undoStep() {
+    final int step, t2, t4;
+
+    step = (--this.m_steps);
+    t2 = this.m_stepT2[step];
+    t4 = this.m_stepT4[step];
+    // the path from t2 to t4 now runs from t4 to t2
+    if (this.m_reversed) {
+      this.m_list.reverse(t2, t4);
+    } else {
+      this.m_list.reverse(t4, t2);
+    }
+    this.m_added.remove(t2, this.m_stepT3[step]);
+    this.m_removed.remove(this.m_stepT3[step], t4);
+  }
+
+  /**
+   * Get the successor of a node in the current orientation
+   *
+   * @param node
+   *          the node
+   * @return the successor
+   */
+  private final int __succ(final int node) {
+    return (this.m_reversed ? this.m_list.prev(node) : this.m_list
+        .next(node));
+  }
+
+  /**
+   * Get the predecessor of a node in the current orientation
+   *
+   * @param node
+   *          the node
+   * @return the predecessor
+   */
+  private final int __pred(final int node) {
+    return (this.m_reversed ? this.m_list.next(node) : this.m_list
+        .prev(node));
+  }
+
   // functions-----------------------------------------------------------------------------------------------------------
 
   /**
@@ -691,4 +1151,72 @@ public class LinKernighan extends TSPLocalSearchAlgorithm<int[]> {
     }
   }
 
+  /**
+   * Set the number of candidates per node. A value {@code <=0} selects
+   * the classical search without candidate sets.
+   *
+   * @param count
+   *          the number of candidates
+   */
+  public final void setCandidateCount(final int count) {
+    this.m_candidateCount = ((count > 0) ? count : 0);
+  }
+
+  /**
+   * Get the number of candidates per node
+   *
+   * @return the number of candidates per node, {@code 0} if the classical
+   *         search is used
+   */
+  public final int getCandidateCount() {
+    return this.m_candidateCount;
+  }
+
+  /**
+   * Set the maximum number of steps of a move in the candidate-based
+   * search
+   *
+   * @param depth
+   *          the maximum number of steps, {@code <=0} for the default
+   */
+  public final void setMaxDepth(final int depth) {
+    this.m_maxDepth = ((depth > 0) ? depth
+        : LinKernighan.DEFAULT_MAX_DEPTH);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.m_candidateCount = config.getInt(
+        LinKernighan.PARAM_CANDIDATE_COUNT, 0, 1000000,
+        this.m_candidateCount);
+    this.m_maxDepth = config.getInt(LinKernighan.PARAM_MAX_DEPTH, 1,
+        100000, this.m_maxDepth);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(LinKernighan.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+
+    Configurable.printKey(LinKernighan.PARAM_MAX_DEPTH, ps);
+    ps.println(this.m_maxDepth);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(LinKernighan.PARAM_CANDIDATE_COUNT, ps);
+    ps.println("the number of nearest neighbors in the candidate sets per node, 0 for the classical search"); //$NON-NLS-1$
+
+    Configurable.printKey(LinKernighan.PARAM_MAX_DEPTH, ps);
+    ps.println("the maximum number of steps of a move in the candidate-based search"); //$NON-NLS-1$
+  }
 }
@@ -0,0 +1,140 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan;
+
+import java.util.Arrays;
+
+/**
+ * A set of undirected edges where each node may be incident to at most two
+ * edges. This is the case for the sets of edges added and removed during
+ * one Lin-Kernighan move: a removed edge is always an edge of the original
+ * tour and an added edge may never be removed again. Adding, removing and
+ * checking an edge take {@code O(1)}. Clearing the set is {@code O(1)} as
+ * well, since entries are only valid if their stamp equals the current
+ * stamp.
+ */
+final class _EdgeMarks {
+
+  /** the first partner of each node */
+  private final int[] m_first;
+
+  /** the second partner of each node */
+  private final int[] m_second;
+
+  /** the stamps of the entries */
+  private final int[] m_stamps;
+
+  /** the current stamp */
+  private int m_stamp;
+
+  /**
+   * Create the edge marks
+   *
+   * @param n
+   *          the number of nodes
+   */
+  _EdgeMarks(final int n) {
+    super();
+    this.m_first = new int[n];
+    this.m_second = new int[n];
+    this.m_stamps = new int[n];
+    this.m_stamp = 1;
+  }
+
+  /** clear the set of edges */
+  final void clear() {
+    if ((++this.m_stamp) >= Integer.MAX_VALUE) {
+      Arrays.fill(this.m_stamps, 0);
+      this.m_stamp = 1;
+    }
+  }
+
+  /**
+   * add one direction of an edge
+   *
+   * @param a
+   *          the node
+   * @param b
+   *          the partner node
+   */
+  private final void __add(final int a, final int b) {
+    final int idx;
+
+    idx = (a - 1);
+    if (this.m_stamps[idx] != this.m_stamp) {
+      this.m_stamps[idx] = this.m_stamp;
+      this.m_first[idx] = b;
+      this.m_second[idx] = 0;
+    } else {
+      if (this.m_first[idx] == 0) {
+        this.m_first[idx] = b;
+      } else {
+        this.m_second[idx] = b;
+      }
+    }
+  }
+
+  /**
+   * Add an edge
+   *
+   * @param a
+   *          the first node of the edge
+   * @param b
+   *          the second node of the edge
+   */
+  final void add(final int a, final int b) {
+    this.__add(a, b);
+    this.__add(b, a);
+  }
+
+  /**
+   * remove one direction of an edge
+   *
+   * @param a
+   *          the node
+   * @param b
+   *          the partner node
+   */
+  private final void __remove(final int a, final int b) {
+    final int idx;
+
+    idx = (a - 1);
+    if (this.m_stamps[idx] == this.m_stamp) {
+      if (this.m_first[idx] == b) {
+        this.m_first[idx] = 0;
+      } else {
+        if (this.m_second[idx] == b) {
+          this.m_second[idx] = 0;
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove an edge
+   *
+   * @param a
+   *          the first node of the edge
+   * @param b
+   *          the second node of the edge
+   */
+  final void remove(final int a, final int b) {
+    this.__remove(a, b);
+    this.__remove(b, a);
+  }
+
+  /**
+   * Check if a given edge exists in the set
+   *
+   * @param a
+   *          the first node of the edge
+   * @param b
+   *          the second node of the edge
+   * @return {@code true} if and only if the edge exists
+   */
+  final boolean contains(final int a, final int b) {
+    final int idx;
+
+    idx = (a - 1);
+    return ((this.m_stamps[idx] == this.m_stamp) && //
+    ((this.m_first[idx] == b) || (this.m_second[idx] == b)));
+  }
+}
@@ -0,0 +1,801 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.lkh;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.utils.DontLookBits;
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A local search based on the basic move of Helsgaun's
+ * Lin-Kernighan-Helsgaun (LKH) heuristic&nbsp;[<a
+ * href="#cite_H1998AEIOTLKTSH" style="font-weight:bold">1</a>, <a
+ * href="#cite_H2009GKOSFTLKTH" style="font-weight:bold">2</a>]: the
+ * sequential {@link #PARAM_MOVE_TYPE 5-opt} move. Starting at an active
+ * node {@code t1}, one of its tour edges {@code (t1,t2)} is removed. Then,
+ * alternately, an edge {@code (t2i,t2i+1)} to one of the
+ * {@link #PARAM_CANDIDATE_COUNT candidates} of {@code t2i} is added and
+ * one of the tour edges {@code (t2i+1,t2i+2)} is removed, as long as the
+ * gain criterion holds, i.e., the sum of the lengths of the removed edges
+ * minus the sum of the lengths of the added edges stays positive. At
+ * every level, closing the move with the edge {@code (t2i+2,t1)} is
+ * tried. The first closed move which yields a tour (and not several
+ * sub-tours) and reduces the tour length is applied. Unlike in
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan.LinKernighan
+ * Lin-Kernighan}, the intermediate steps need not correspond to tours, so
+ * many more moves are reachable.
+ * </p>
+ * <p>
+ * The candidates of a node are its nearest neighbors according to the
+ * alpha-nearness&nbsp;[<a href="#cite_H1998AEIOTLKTSH"
+ * style="font-weight:bold">1</a>], which is computed from a minimum
+ * spanning tree in {@code O(n^2)} once per run. Different from LKH, the
+ * tree is not improved with subgradient optimization before.
+ * </p>
+ * <p>
+ * Whether a closed move yields a tour is decided based on the positions
+ * of the nodes only: The removed edges are sorted by their positions,
+ * which cuts the tour into {@code k} segments, and the segments are
+ * traversed by following the added edges. The move is feasible if all
+ * segments are visited before the traversal returns to its start. This
+ * costs {@code O(k^2)} and does not touch the tour. A feasible move is
+ * applied by writing all segments except the longest one in their new
+ * order and orientation into the tour, whose
+ * {@link org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache edge
+ * cache} provides the lengths of all tour edges, so only the closing
+ * edges of the moves need to be computed.
+ * </p>
+ * <p>
+ * The nodes to start from are taken from a
+ * {@link org.logisticPlanning.tsp.solving.utils.DontLookBits queue of
+ * active nodes}: after an improving move, the end nodes of all changed
+ * edges are activated again.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_H1998AEIOTLKTSH" /><a
+ * href="http://www.akira.ruc.dk/~keld/">Keld Helsgaun</a>: <span
+ * style="font-weight:bold">&ldquo;An Effective Implementation of the
+ * Lin-Kernighan Traveling Salesman Heuristic,&rdquo;</span> <span
+ * style="font-style:italic;font-family:cursive;">Technical Report</span>
+ * Number&nbsp;81, 1998; published by Roskilde, Denmark: Roskilde
+ * University, Department of Computer Science. Google Book ID:&nbsp;<a
+ * href="http://books.google.com/books?id=YxSiHAAACAAJ">YxSiHAAACAAJ</a>.
+ * <div>link: [<a
+ * href="www.akira.ruc.dk/~keld/research/LKH/LKH-2.0/DOC/LKH_REPORT.pdf"
+ * >1</a>]; CiteSeer<sup>x</sup><sub
+ * style="font-style:italic">&#946;</sub>:&nbsp;<a
+ * href="http://citeseerx.ist.psu.edu/viewdoc/summary?doi=10.1.1.25.4908"
+ * >10.1.1.25.4908</a></div></div></li>
+ * <li><div><span id="cite_H2009GKOSFTLKTH" /><a
+ * href="http://www.akira.ruc.dk/~keld/">Keld Helsgaun</a>: <span
+ * style="font-weight:bold">&ldquo;General k-opt Submoves for the
+ * Lin&#8211;Kernighan TSP Heuristic,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Mathematical Programming
+ * Computation</span> 1(2-3):119&ndash;163, October&nbsp;2009; published by
+ * Berlin, Germany: Springer-Verlag GmbH and&nbsp;Philadelphia, PA, USA:
+ * Mathematical Optimization Society (MOS). doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1007/s12532-009-0004-6"
+ * >10.1007/s12532-009-0004-6</a>; ISSN:&nbsp;<a
+ * href="https://www.worldcat.org/issn/18672949">1867-2949</a> and&nbsp;<a
+ * href="https://www.worldcat.org/issn/18672957">1867-2957</a></div></li>
+ * </ol>
+ */
+public class LKH5Opt extends TSPLocalSearchAlgorithm<int[]> {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the default number of alpha-nearness candidates per node: {@value}
+   *
+   * @see #PARAM_CANDIDATE_COUNT
+   */
+  public static final int DEFAULT_CANDIDATE_COUNT = 5;
+
+  /**
+   * the parameter for the number of alpha-nearness candidates per node:
+   * {@value}
+   *
+   * @see #DEFAULT_CANDIDATE_COUNT
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "lkhCandidateCount"; //$NON-NLS-1$
+
+  /**
+   * the maximum number of edges exchanged by a move: {@value}
+   *
+   * @see #PARAM_MOVE_TYPE
+   */
+  public static final int MAX_MOVE_TYPE = 5;
+
+  /**
+   * the parameter for the maximum number {@code k} of edges exchanged by
+   * a move, i.e., the type of the sequential {@code k}-opt moves, between
+   * {@code 2} and {@link #MAX_MOVE_TYPE}: {@value}
+   *
+   * @see #MAX_MOVE_TYPE
+   */
+  public static final String PARAM_MOVE_TYPE = "lkhMoveType"; //$NON-NLS-1$
+
+  /** the number of candidates per node */
+  private int m_candidateCount;
+
+  /** the maximum number of edges exchanged by a move */
+  private int m_moveType;
+
+  /**
+   * the candidates: the candidates of node {@code i} are stored at
+   * indices {@code (i-1)*m} to {@code i*m-1}
+   */
+  private transient int[] m_candidates;
+
+  /** the distances of the nodes to their candidates */
+  private transient int[] m_candidateDistances;
+
+  /** the number of candidates per node in this run */
+  private transient int m_m;
+
+  /** the tour with its edge lengths */
+  private transient TourWithEdgeCache m_tour;
+
+  /** the active nodes and don't-look bits */
+  private transient DontLookBits m_active;
+
+  /** the nodes of the rearranged segments of a move */
+  private transient int[] m_nodes;
+
+  /** the edge lengths of the rearranged segments of a move */
+  private transient int[] m_lengths;
+
+  /**
+   * the nodes {@code t1} to {@code t2k} of the current move, at indices
+   * {@code 1} to {@code 2k}
+   */
+  private transient int[] m_t;
+
+  /**
+   * the lengths of the added edges: the edge {@code (t2i,t2i+1)} at index
+   * {@code i}, the closing edge {@code (t2k,t1)} at index {@code k}
+   */
+  private transient int[] m_added;
+
+  /** the positions of the removed edges */
+  private transient int[] m_x;
+
+  /** the {@code t}-indices of the tail nodes of the removed edges */
+  private transient int[] m_tail;
+
+  /** the {@code t}-indices of the head nodes of the removed edges */
+  private transient int[] m_head;
+
+  /** the removed edges sorted by their positions */
+  private transient int[] m_order;
+
+  /** the ranks of the removed edges in the sorted order */
+  private transient int[] m_rank;
+
+  /** the number of edges exchanged by the move found last */
+  private transient int m_k;
+
+  /** has the last local search been completed? */
+  private transient boolean m_complete;
+
+  /** create */
+  public LKH5Opt() {
+    super("LKH-style 5-opt"); //$NON-NLS-1$
+    this.m_candidateCount = LKH5Opt.DEFAULT_CANDIDATE_COUNT;
+    this.m_moveType = LKH5Opt.MAX_MOVE_TYPE;
+  }
+
+  /**
+   * the main routine
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        LKH5Opt.class, args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public TSPAlgorithm clone() {
+    final LKH5Opt x;
+
+    x = ((LKH5Opt) (super.clone()));
+    x.__clear();
+    return x;
+  }
+
+  /** clear the internal data structures */
+  private final void __clear() {
+    this.m_candidates = null;
+    this.m_candidateDistances = null;
+    this.m_m = 0;
+    this.m_tour = null;
+    this.m_active = null;
+    this.m_nodes = null;
+    this.m_lengths = null;
+    this.m_t = null;
+    this.m_added = null;
+    this.m_x = null;
+    this.m_tail = null;
+    this.m_head = null;
+    this.m_order = null;
+    this.m_rank = null;
+    this.m_k = 0;
+    this.m_complete = false;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final int n, m;
+
+    super.beginRun(f);
+
+    n = f.n();
+    m = Math.max(0, Math.min(this.m_candidateCount, (n - 1)));
+    this.m_m = m;
+    this.m_candidates = new int[n * m];
+    this.m_candidateDistances = new int[n * m];
+    if (m > 0) {
+      _AlphaNearness.compute(f, m, this.m_candidates,
+          this.m_candidateDistances);
+    }
+
+    this.m_tour = new TourWithEdgeCache(n);
+    this.m_active = new DontLookBits();
+    this.m_nodes = new int[n];
+    this.m_lengths = new int[n];
+    this.m_t = new int[(LKH5Opt.MAX_MOVE_TYPE << 1) + 1];
+    this.m_added = new int[LKH5Opt.MAX_MOVE_TYPE + 1];
+    this.m_x = new int[LKH5Opt.MAX_MOVE_TYPE];
+    this.m_tail = new int[LKH5Opt.MAX_MOVE_TYPE];
+    this.m_head = new int[LKH5Opt.MAX_MOVE_TYPE];
+    this.m_order = new int[LKH5Opt.MAX_MOVE_TYPE];
+    this.m_rank = new int[LKH5Opt.MAX_MOVE_TYPE];
+    this.m_complete = false;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      this.__clear();
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final int[] solution;
+
+    solution = srcdst.solution;
+    this.m_active.init(solution.length);
+    this.m_active.activateAll(solution);
+    this.__localSearch(srcdst, f);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If the last local search was completed, all nodes not touched by the
+   * perturbation still have their don't-look bits set, so only the dirty
+   * nodes are activated.
+   * </p>
+   */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f, final int[] dirty, final int dirtyCount) {
+    final DontLookBits active;
+    int i;
+
+    if ((!(this.m_complete)) || (dirtyCount < 0)) {
+      this.localSearch(srcdst, f);
+      return;
+    }
+
+    active = this.m_active;
+    active.init(srcdst.solution.length);
+    for (i = 0; i < dirtyCount; i++) {
+      active.activate(dirty[i]);
+    }
+    this.__localSearch(srcdst, f);
+  }
+
+  /**
+   * Perform the local search starting at the active nodes
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   */
+  private final void __localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final TourWithEdgeCache tour;
+    final DontLookBits active;
+    final int[] path, edges, t;
+    final int n, maxK;
+    int t1, p1, side, i;
+    long gain;
+
+    path = srcdst.solution;
+    n = path.length;
+    active = this.m_active;
+    t = this.m_t;
+    this.m_complete = false;
+
+    maxK = Math.min(this.m_moveType, (n >>> 1));
+    if ((maxK < 2) || (this.m_m <= 0)) {
+      this.m_complete = true;
+      return;
+    }
+
+    tour = this.m_tour;
+    tour.init(path, f);
+    edges = tour.getEdgeLengths();
+
+    try {
+      mainLoop: while ((t1 = active.next()) > 0) {
+        if (f.shouldTerminate()) {
+          return;
+        }
+
+        t[1] = t1;
+        p1 = tour.getPosition(t1);
+        for (side = 0; side < 2; side++) {
+          if (side == 0) {
+            t[2] = path[(p1 + 1) % n];
+            gain = this.__step(f, 1, edges[p1], maxK);
+          } else {
+            i = (((p1 + n) - 1) % n);
+            t[2] = path[i];
+            gain = this.__step(f, 1, edges[i], maxK);
+          }
+
+          if (gain > 0L) {
+            for (i = (this.m_k << 1); i > 0; i--) {
+              active.activate(t[i]);
+            }
+            this.__apply(this.m_k);
+            srcdst.tourLength -= gain;
+            f.registerFE(path, srcdst.tourLength);
+            continue mainLoop;
+          }
+        }
+      }
+
+      this.m_complete = true;
+    } finally {
+      tour.clear();
+    }
+  }
+
+  /**
+   * Extend the current move, of which the nodes {@code t1} to {@code t2i}
+   * have been chosen, by adding an edge from {@code t2i} to one of its
+   * candidates {@code t2i+1} and removing an edge {@code (t2i+1,t2i+2)}.
+   *
+   * @param f
+   *          the objective function
+   * @param i
+   *          the number of edges removed so far
+   * @param G
+   *          the total length of the removed edges minus the total length
+   *          of the added edges so far
+   * @param maxK
+   *          the maximum number of edges to exchange
+   * @return the gain of the improving move found, or {@code 0} if none
+   *         was found
+   */
+  private final long __step(final ObjectiveFunction f, final int i,
+      final long G, final int maxK) {
+    final TourWithEdgeCache tour;
+    final int[] t, path, edges, candidates, distances, added;
+    final int n, m, t2i, k, succ, pred;
+    int c, end, t3, t4, p, side, dc;
+    long g, gg, gain;
+
+    t = this.m_t;
+    tour = this.m_tour;
+    path = tour.getPath();
+    edges = tour.getEdgeLengths();
+    n = path.length;
+    candidates = this.m_candidates;
+    distances = this.m_candidateDistances;
+    added = this.m_added;
+    m = this.m_m;
+    k = (i + 1);
+
+    t2i = t[i << 1];
+    p = tour.getPosition(t2i);
+    succ = path[(p + 1) % n];
+    pred = path[((p + n) - 1) % n];
+
+    c = ((t2i - 1) * m);
+    for (end = (c + m); c < end; c++) {
+      t3 = candidates[c];
+      if ((t3 == succ) || (t3 == pred)) {
+        continue; // the edge is already in the tour
+      }
+      g = (G - distances[c]);
+      if (g <= 0L) {
+        continue; // the gain criterion
+      }
+      if (this.__isAdded(t2i, t3, (i - 1))) {
+        continue;
+      }
+      t[(i << 1) + 1] = t3;
+      added[i] = distances[c];
+
+      p = tour.getPosition(t3);
+      for (side = 0; side < 2; side++) {
+        if (side == 0) {
+          t4 = path[(p + 1) % n];
+          gg = (g + edges[p]);
+        } else {
+          t4 = path[((p + n) - 1) % n];
+          gg = (g + edges[((p + n) - 1) % n]);
+        }
+        if (this.__isRemoved(t3, t4, i)) {
+          continue;
+        }
+        t[k << 1] = t4;
+
+        // try to close the move
+        if ((t4 != t[1]) && this.__isFeasible(k)) {
+          dc = f.distance(t4, t[1]);
+          gain = (gg - dc);
+          if (gain > 0L) {
+            added[k] = dc;
+            this.m_k = k;
+            return gain;
+          }
+        }
+
+        if (k < maxK) {
+          gain = this.__step(f, k, gg, maxK);
+          if (gain > 0L) {
+            return gain;
+          }
+        }
+      }
+    }
+
+    return 0L;
+  }
+
+  /**
+   * Check whether the edge {@code (a,b)} is among the first {@code count}
+   * added edges of the current move
+   *
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   * @param count
+   *          the number of added edges to check
+   * @return {@code true} if the edge has already been added,
+   *         {@code false} otherwise
+   */
+  private final boolean __isAdded(final int a, final int b,
+      final int count) {
+    final int[] t;
+    int j, x, y;
+
+    t = this.m_t;
+    for (j = count; j > 0; j--) {
+      x = t[j << 1];
+      y = t[(j << 1) + 1];
+      if (((x == a) && (y == b)) || ((x == b) && (y == a))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check whether the edge {@code (a,b)} is among the first {@code count}
+   * removed edges of the current move
+   *
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   * @param count
+   *          the number of removed edges to check
+   * @return {@code true} if the edge has already been removed,
+   *         {@code false} otherwise
+   */
+  private final boolean __isRemoved(final int a, final int b,
+      final int count) {
+    final int[] t;
+    int j, x, y;
+
+    t = this.m_t;
+    for (j = count; j > 0; j--) {
+      x = t[(j << 1) - 1];
+      y = t[j << 1];
+      if (((x == a) && (y == b)) || ((x == b) && (y == a))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the {@code t}-index of the node connected to node
+   * {@code t[index]} by an added edge of a {@code k}-opt move
+   *
+   * @param index
+   *          the {@code t}-index
+   * @param k
+   *          the number of exchanged edges
+   * @return the {@code t}-index of the other end of the added edge
+   */
+  private static final int __partner(final int index, final int k) {
+    if (index == 1) {
+      return (k << 1);
+    }
+    if (index == (k << 1)) {
+      return 1;
+    }
+    return (((index & 1) == 0) ? (index + 1) : (index - 1));
+  }
+
+  /**
+   * Check whether the current {@code k}-opt move, which removes the
+   * edges {@code (t2i-1,t2i)} and adds the edges {@code (t2i,t2i+1)} and
+   * {@code (t2k,t1)}, yields a tour: The removed edges are sorted by
+   * their positions, cutting the tour into {@code k} segments. The
+   * segments are then traversed by following the added edges, starting
+   * at the first segment. The move is feasible if all segments are
+   * visited before the traversal returns to the first segment.
+   *
+   * @param k
+   *          the number of exchanged edges
+   * @return {@code true} if the move yields a tour, {@code false} if it
+   *         yields several sub-tours
+   */
+  private final boolean __isFeasible(final int k) {
+    final TourWithEdgeCache tour;
+    final int[] t, path, x, tail, head, order, rank;
+    final int n;
+    int e, a, b, pa, p, seg, count, index;
+    boolean forward;
+
+    t = this.m_t;
+    tour = this.m_tour;
+    path = tour.getPath();
+    n = path.length;
+    x = this.m_x;
+    tail = this.m_tail;
+    head = this.m_head;
+    order = this.m_order;
+    rank = this.m_rank;
+
+    for (e = 0; e < k; e++) {
+      a = t[(e << 1) + 1];
+      b = t[(e << 1) + 2];
+      pa = tour.getPosition(a);
+      if (path[(pa + 1) % n] == b) {
+        x[e] = pa;
+        tail[e] = ((e << 1) + 1);
+        head[e] = ((e << 1) + 2);
+      } else {
+        x[e] = tour.getPosition(b);
+        tail[e] = ((e << 1) + 2);
+        head[e] = ((e << 1) + 1);
+      }
+
+      for (p = e; (p > 0) && (x[order[p - 1]] > x[e]); p--) {
+        order[p] = order[p - 1];
+      }
+      order[p] = e;
+    }
+    for (p = k; (--p) >= 0;) {
+      rank[order[p]] = p;
+    }
+
+    // segment s starts at the head of edge order[s] and ends at the tail
+    // of edge order[(s+1)%k]
+    seg = 0;
+    forward = true;
+    count = 0;
+    do {
+      if ((++count) > k) {
+        return false;
+      }
+      index = LKH5Opt.__partner((forward ? tail[order[(seg + 1) % k]]
+          : head[order[seg]]), k);
+      e = ((index - 1) >>> 1);
+      if (head[e] == index) {
+        seg = rank[e];
+        forward = true;
+      } else {
+        seg = (((rank[e] + k) - 1) % k);
+        forward = false;
+      }
+    } while ((seg != 0) || (!forward));
+
+    return (count == k);
+  }
+
+  /**
+   * Apply the feasible {@code k}-opt move checked last by
+   * {@link #__isFeasible(int)}: The longest segment stays in place and
+   * the other segments are written after it in the order and orientation
+   * in which the traversal visits them.
+   *
+   * @param k
+   *          the number of exchanged edges
+   */
+  private final void __apply(final int k) {
+    final TourWithEdgeCache tour;
+    final int[] path, edges, x, tail, head, order, rank, added, nodes, lengths;
+    final int n;
+    int seg, anchor, length, maxLength, index, e, w, start, end, p, prev;
+    boolean forward;
+
+    tour = this.m_tour;
+    path = tour.getPath();
+    edges = tour.getEdgeLengths();
+    n = path.length;
+    x = this.m_x;
+    tail = this.m_tail;
+    head = this.m_head;
+    order = this.m_order;
+    rank = this.m_rank;
+    added = this.m_added;
+    nodes = this.m_nodes;
+    lengths = this.m_lengths;
+
+    anchor = 0;
+    maxLength = (-1);
+    for (seg = k; (--seg) >= 0;) {
+      length = (((x[order[(seg + 1) % k]] - x[order[seg]]) + n) % n);
+      if (length > maxLength) {
+        maxLength = length;
+        anchor = seg;
+      }
+    }
+
+    seg = anchor;
+    forward = true;
+    w = 0;
+    prev = 0;
+    for (;;) {
+      index = (forward ? tail[order[(seg + 1) % k]] : head[order[seg]]);
+      p = added[(index == 1) ? k : (index >>> 1)];
+      if (w <= 0) {
+        prev = p;
+      } else {
+        lengths[w - 1] = p;
+      }
+
+      index = LKH5Opt.__partner(index, k);
+      e = ((index - 1) >>> 1);
+      if (head[e] == index) {
+        seg = rank[e];
+        forward = true;
+      } else {
+        seg = (((rank[e] + k) - 1) % k);
+        forward = false;
+      }
+      if (seg == anchor) {
+        break;
+      }
+
+      start = ((x[order[seg]] + 1) % n);
+      end = x[order[(seg + 1) % k]];
+      if (forward) {
+        for (p = start;; p = ((p + 1) % n)) {
+          nodes[w] = path[p];
+          lengths[w++] = edges[p];
+          if (p == end) {
+            break;
+          }
+        }
+      } else {
+        for (p = end;; p = (((p + n) - 1) % n)) {
+          nodes[w] = path[p];
+          lengths[w++] = edges[((p + n) - 1) % n];
+          if (p == start) {
+            break;
+          }
+        }
+      }
+    }
+
+    tour.replace(((x[order[(anchor + 1) % k]] + 1) % n), w, nodes,
+        lengths, prev);
+  }
+
+  /**
+   * Set the number of alpha-nearness candidates per node
+   *
+   * @param count
+   *          the number of candidates
+   */
+  public final void setCandidateCount(final int count) {
+    this.m_candidateCount = Math.max(1, count);
+  }
+
+  /**
+   * Get the number of alpha-nearness candidates per node
+   *
+   * @return the number of candidates per node
+   */
+  public final int getCandidateCount() {
+    return this.m_candidateCount;
+  }
+
+  /**
+   * Set the maximum number of edges exchanged by a move
+   *
+   * @param type
+   *          the maximum number of exchanged edges, between {@code 2} and
+   *          {@link #MAX_MOVE_TYPE}
+   */
+  public final void setMoveType(final int type) {
+    this.m_moveType = Math.max(2, Math.min(LKH5Opt.MAX_MOVE_TYPE, type));
+  }
+
+  /**
+   * Get the maximum number of edges exchanged by a move
+   *
+   * @return the maximum number of exchanged edges
+   */
+  public final int getMoveType() {
+    return this.m_moveType;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.m_candidateCount = config.getInt(LKH5Opt.PARAM_CANDIDATE_COUNT,
+        1, 1000000, this.m_candidateCount);
+    this.m_moveType = config.getInt(LKH5Opt.PARAM_MOVE_TYPE, 2,
+        LKH5Opt.MAX_MOVE_TYPE, this.m_moveType);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(LKH5Opt.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+
+    Configurable.printKey(LKH5Opt.PARAM_MOVE_TYPE, ps);
+    ps.println(this.m_moveType);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(LKH5Opt.PARAM_CANDIDATE_COUNT, ps);
+    ps.println("the number of alpha-nearness candidates per node"); //$NON-NLS-1$
+
+    Configurable.printKey(LKH5Opt.PARAM_MOVE_TYPE, ps);
+    ps.println("the maximum number of edges exchanged by a sequential move"); //$NON-NLS-1$
+  }
+}
@@ -0,0 +1,204 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.lkh;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+
+/**
+ * <p>
+ * The computation of the alpha-nearness candidates of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.lkh.LKH5Opt
+ * LKH-style 5-opt local search}. The alpha-value of an edge {@code (i,j)}
+ * is the increase of the length of a minimum spanning tree if the tree is
+ * forced to contain the edge, i.e., {@code alpha(i,j)=d(i,j)-beta(i,j)},
+ * where {@code beta(i,j)} is the length of the longest edge on the path
+ * from {@code i} to {@code j} in the tree. Edges of the tree have
+ * {@code alpha=0}. The candidates of a node are the {@code m} nodes with
+ * the smallest alpha-values, ties are broken by the distance.
+ * </p>
+ * <p>
+ * The tree is built with Prim's algorithm in {@code O(n^2)}. For each
+ * node {@code i}, the {@code beta}-values to all other nodes are then
+ * computed in {@code O(n)} by marking the path from {@code i} to the root
+ * and processing the remaining nodes in the order in which they were
+ * added to the tree, i.e., each node after its parent.
+ * </p>
+ * <p>
+ * Prim's algorithm evaluates the distance of each pair of nodes exactly
+ * once. For up to {@link #MAX_CACHED_N} nodes, these distances are kept
+ * in a triangular matrix and reused for the alpha-values, so the whole
+ * computation needs {@code n(n-1)/2} distance evaluations. For larger
+ * instances, the matrix would need too much memory and the distances are
+ * evaluated a second time, i.e., {@code n(n-1)} distance evaluations are
+ * needed.
+ * </p>
+ */
+final class _AlphaNearness {
+
+  /**
+   * the maximum number of nodes for which the distances computed by
+   * Prim's algorithm are cached: {@value}
+   */
+  static final int MAX_CACHED_N = 4096;
+
+  /** the forbidden constructor */
+  private _AlphaNearness() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Compute the alpha-nearness candidates of all nodes
+   *
+   * @param f
+   *          the objective function
+   * @param m
+   *          the number of candidates per node, {@code 0<m<n}
+   * @param candidates
+   *          the array of length {@code n*m} receiving the candidates:
+   *          the {@code m} candidates of node {@code i} are stored at
+   *          indices {@code (i-1)*m} to {@code i*m-1}, ordered by their
+   *          alpha-values
+   * @param distances
+   *          the array of length {@code n*m} receiving the distances of
+   *          the nodes to their candidates
+   */
+  static final void compute(final ObjectiveFunction f, final int m,
+      final int[] candidates, final int[] distances) {
+    final int n;
+    final int[] dad, weight, order, key, remaining, beta, mark, counts;
+    final int[] cache;
+    final long[] keys;
+    int i, j, k, u, v, d, cur, best, bestKey, count, idx;
+    long alpha;
+
+    n = f.n();
+    dad = new int[n + 1];
+    weight = new int[n + 1];
+    order = new int[n];
+    key = new int[n + 1];
+    remaining = new int[n - 1];
+    cache = ((n <= _AlphaNearness.MAX_CACHED_N) ? //
+        new int[(int) ((((long) n) * (n - 1)) >>> 1)]
+        : null);
+
+    // Prim's algorithm, rooted at node 1
+    for (i = n; i > 1; i--) {
+      remaining[i - 2] = i;
+      key[i] = Integer.MAX_VALUE;
+    }
+    cur = order[0] = 1;
+    count = (n - 1);
+    for (k = 1; k < n; k++) {
+      best = (-1);
+      bestKey = Integer.MAX_VALUE;
+      for (i = count; (--i) >= 0;) {
+        v = remaining[i];
+        d = f.distance(cur, v);
+        if (cache != null) {
+          cache[(cur > v) ? _AlphaNearness.__index(cur, v) : //
+              _AlphaNearness.__index(v, cur)] = d;
+        }
+        if (d < key[v]) {
+          key[v] = d;
+          dad[v] = cur;
+        }
+        if (key[v] <= bestKey) {
+          bestKey = key[v];
+          best = i;
+        }
+      }
+      cur = remaining[best];
+      remaining[best] = remaining[--count];
+      order[k] = cur;
+      weight[cur] = bestKey;
+    }
+
+    // the alpha-values of all edges
+    beta = key;
+    mark = new int[n + 1];
+    counts = new int[n + 1];
+    keys = new long[n * m];
+    for (i = 1; i <= n; i++) {
+      beta[i] = Integer.MIN_VALUE;
+      mark[i] = i;
+      for (u = i; (v = dad[u]) != 0; u = v) {
+        beta[v] = Math.max(beta[u], weight[u]);
+        mark[v] = i;
+      }
+      for (k = 1; k < n; k++) {
+        v = order[k];
+        if (mark[v] != i) {
+          beta[v] = Math.max(beta[dad[v]], weight[v]);
+        }
+      }
+
+      for (j = (i + 1); j <= n; j++) {
+        d = ((cache != null) ? cache[_AlphaNearness.__index(j, i)] : //
+            f.distance(i, j));
+        alpha = ((((long) (d - beta[j])) << 32) | d);
+        _AlphaNearness.__insert(keys, candidates, counts, m, i, alpha, j);
+        _AlphaNearness.__insert(keys, candidates, counts, m, j, alpha, i);
+      }
+    }
+
+    for (idx = keys.length; (--idx) >= 0;) {
+      distances[idx] = ((int) (keys[idx]));
+    }
+  }
+
+  /**
+   * Get the index of the distance between two nodes in the triangular
+   * distance cache
+   *
+   * @param i
+   *          the larger node id
+   * @param j
+   *          the smaller node id, {@code 0<j<i}
+   * @return the index
+   */
+  private static final int __index(final int i, final int j) {
+    return (((((i - 1) * (i - 2)) >>> 1) + j) - 1);
+  }
+
+  /**
+   * Insert a node into the sorted candidate list of another node if it is
+   * among the {@code m} best ones seen so far
+   *
+   * @param keys
+   *          the sort keys of the candidates
+   * @param candidates
+   *          the candidates
+   * @param counts
+   *          the numbers of candidates per node found so far
+   * @param m
+   *          the number of candidates per node
+   * @param node
+   *          the node to whose list the candidate should be added
+   * @param key
+   *          the sort key, combining alpha-value and distance
+   * @param candidate
+   *          the candidate
+   */
+  private static final void __insert(final long[] keys,
+      final int[] candidates, final int[] counts, final int m,
+      final int node, final long key, final int candidate) {
+    final int base;
+    int c, p;
+
+    base = ((node - 1) * m);
+    c = counts[node];
+    if (c >= m) {
+      if (key >= keys[(base + m) - 1]) {
+        return;
+      }
+      c = (m - 1);
+    } else {
+      counts[node] = (c + 1);
+    }
+
+    for (p = (base + c); (p > base) && (keys[p - 1] > key); p--) {
+      keys[p] = keys[p - 1];
+      candidates[p] = candidates[p - 1];
+    }
+    keys[p] = key;
+    candidates[p] = candidate;
+  }
+}
@@ -0,0 +1,6 @@
+/**
+ * A local search based on the sequential 5-opt move of the
+ * Lin-Kernighan-Helsgaun heuristic, which uses alpha-nearness candidates
+ * and position-based feasibility checks.
+ */
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.lkh;
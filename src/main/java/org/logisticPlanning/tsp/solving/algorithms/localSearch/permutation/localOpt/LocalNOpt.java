@@ -7,7 +7,7 @@ import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
 import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
-import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.ExhaustivelyEnumeratingLocal7Optimizer;
+import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.DynamicProgrammingLocalOptimizer;
 import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.LocalOptimizer;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
@@ -51,7 +51,7 @@ public class LocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
   /** instantiate */
   public LocalNOpt() {
     super("Local N-Opt");//$NON-NLS-1$
-    this.m_opt = new ExhaustivelyEnumeratingLocal7Optimizer();
+    this.m_opt = new DynamicProgrammingLocalOptimizer();
     this.m_randomOverlap = true;
   }
 
@@ -222,7 +222,7 @@ public class LocalNOpt extends TSPLocalSearchAlgorithm<int[]> {
 
     this.setLocalOptimizer(config.getInstance(LocalNOpt.PARAM_N_OPT,
         LocalOptimizer.class,
-        ExhaustivelyEnumeratingLocal7Optimizer.class, this.m_opt));
+        DynamicProgrammingLocalOptimizer.class, this.m_opt));
     this.setRandomOverlap(config.getBoolean(
         LocalNOpt.PARAM_RANDOM_OVERLAP, this.m_randomOverlap));
   }
@@ -7,6 +7,8 @@ import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
 import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 
@@ -569,9 +571,18 @@ public class MultiNeighborhoodSearch extends
   /** the move order: {@value} */
   public static final String PARAM_MOVE_ORDER = "moveOrder";//$NON-NLS-1$
 
+  /** the number of threads used for filling the move queue: {@value} */
+  public static final String PARAM_FILL_THREADS = "moveQueueFillThreads";//$NON-NLS-1$
+
   /** the default maximum number of moves: {@value} */
   private static final int DEFAULT_MAX_ALLOCATIONS = 1048576;
 
+  /**
+   * the default number of threads used for filling the move queue:
+   * {@value}
+   */
+  private static final int DEFAULT_FILL_THREADS = 1;
+
   /** the default move comparator */
   private static final EMoveComparator DEFAULT_MOVE_COMPARATOR = EMoveComparator.BEST_MOVE_FIRST;
 
@@ -590,17 +601,26 @@ public class MultiNeighborhoodSearch extends
   private EMoveComparator m_cmp;
 
   /**
-   * The distances between the nodes and their successors in the current
-   * permutations. The contract is:
-   * {@code m_distances[i]=this.m_f.dist(this.m_solution[i], this.m_solution[(i+1)%n])}
+   * the number of threads used for filling the move queue
+   *
+   * @serial serializable field
+   */
+  private int m_fillThreads;
+
+  /**
+   * the current solution together with the distances between the nodes
+   * and their successors
    */
-  private transient int[] m_distances;
+  private transient TourWithEdgeCache m_tour;
 
   /** the objective function to use */
   private transient ObjectiveFunction m_f;
 
-  /** the queue of moves */
-  private transient _Move m_queue;
+  /**
+   * the queue of moves, ordered by the move comparator and indexed by the
+   * move coordinates
+   */
+  private transient _MoveQueue m_queue;
 
   /** old swap moves that can be re-used */
   private transient _Move m_old;
@@ -608,176 +628,164 @@ public class MultiNeighborhoodSearch extends
   /** the number of allocated moves */
   private transient int m_moveAllocations;
 
+  /**
+   * the parallel move evaluator, or {@code null} if the move queue is
+   * filled sequentially
+   */
+  private transient ParallelMoveEvaluator m_evaluator;
+
+  /**
+   * was the last local search completed, i.e., is the solution it returned
+   * a local optimum?
+   */
+  private transient boolean m_complete;
+
+  /** the range of positions of the dirty nodes */
+  private transient int[] m_range;
+
   /** instantiate */
   public MultiNeighborhoodSearch() {
     super("Multiple-Neighborhood Search");//$NON-NLS-1$
     this.m_cmp = MultiNeighborhoodSearch.DEFAULT_MOVE_COMPARATOR;
     this.m_maxMoveAllocations = MultiNeighborhoodSearch.DEFAULT_MAX_ALLOCATIONS;
+    this.m_fillThreads = MultiNeighborhoodSearch.DEFAULT_FILL_THREADS;
   }
 
   /** {@inheritDoc} */
   @Override
   public void localSearch(final Individual<int[]> srcdst,
       final ObjectiveFunction f) {
+
+    // compute the distances and initialize the internal distance list
+    srcdst.tourLength = this.m_tour.init(srcdst.solution, f);
+
+    this.__localSearch(srcdst, f, 0, f.n());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If the last local search was completed, the solution was a local
+   * optimum before it was perturbed. Then, only moves which touch the
+   * range of positions of the dirty nodes can be improving and the move
+   * queue is initially filled with these moves only.
+   * </p>
+   */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f, final int[] dirty, final int dirtyCount) {
+    final int[] range;
+
+    if ((!(this.m_complete)) || (dirtyCount < 0)) {
+      this.localSearch(srcdst, f);
+      return;
+    }
+
+    srcdst.tourLength = this.m_tour.init(srcdst.solution, f);
+
+    range = this.m_range;
+    if (!(RepresentationUtils.getPathRange(srcdst.solution, dirty,
+        dirtyCount, range))) {
+      return; // nothing has changed, we are still in the local optimum
+    }
+
+    this.__localSearch(srcdst, f, range[0], range[1]);
+  }
+
+  /**
+   * Perform the local search, starting with the moves touching the given
+   * range
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   * @param start
+   *          the first index of the interesting range
+   * @param end
+   *          the last index of the interesting range
+   */
+  private final void __localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f, final int start, final int end) {
     final int n;
     final int[] dist;
-    final EMoveComparator cmp;
+    final TourWithEdgeCache tour;
+    final _MoveQueue queue;
     boolean lastWasIncomplete;
     int changed_range_i, changed_range_j;
-    _Move move, predMove, cur, pred, best, predBest, next;
+    _Move move;
 
     n = f.n();
+    this.m_complete = false;
 
     // clear the queue
     this.disposeQueue();
 
-    // compute the distances and initialize the internal distance list
-    srcdst.tourLength = MultiNeighborhoodSearch.distanceAndLengthInit(f,
-        n, srcdst.solution, this.m_distances);
-
     // initialize local variables
-    changed_range_i = 0;
-    changed_range_j = n;
-    dist = this.m_distances;
-    cmp = this.m_cmp;
+    tour = this.m_tour;
+    dist = tour.getEdgeLengths();
+    queue = this.m_queue;
 
     // fill the move queue, remember if this hit the allocation limit
-    lastWasIncomplete = this.fillMoveQueue(0, n, srcdst.solution,
-        this.m_distances);
+    lastWasIncomplete = this.fillMoveQueue(start, end, srcdst.solution,
+        dist);
 
     outer: for (;;) {
-      move = this.m_queue;// move=best and first move in queue
+      move = queue.poll();// move=best move in queue
       if (move == null) {// ok, queue is empty
         break outer;// quit
       }
-      // fillMoveQueue ensures that the first move in the queue is best
-      // move.
-      predMove = null;// so there is no move before
-      // predMove is always the last move before move or null if move is
-      // the
-      // first move in the queue
 
       // [changed_range_i,changed_range_j] hold the range that includes
-      // all
-      // changes that we made so far
+      // all changes that we made so far
       // This is useful when filling the queue after consuming all moves
-      // since
-      // new moves that do not intersect with
-      // [changed_range_i,changed_range_j]
-      // do not need to be checked:
+      // since new moves that do not intersect with
+      // [changed_range_i,changed_range_j] do not need to be checked:
       // They were checked in at least one prior local search / fill queue
-      // run
-      // and were not improving. As nothing outside
+      // run and were not improving. As nothing outside
       // [changed_range_i,changed_range_j] has changed, these moves'
-      // deltas
-      // are
-      // still the same (and therefore still >0).
+      // deltas are still the same (and therefore still >0).
       changed_range_i = Integer.MAX_VALUE;
       changed_range_j = Integer.MIN_VALUE;
 
       // In the inner loop, we process the queue: We always take the best
-      // move
-      // out of the queue and perform it. Performing a move may lead to
-      // the
-      // invalidation of other moves, which are purged from the queue.
-      // Then
-      // the
-      // next best move is taken from the queue and executed. If the queue
-      // is
-      // empty, this loop ends and the outer loop is executed again to
-      // fill
-      // the
-      // queue.
-      inner: do {
-
-        // delete the move from the queue
-        if (predMove == null) {
-          this.m_queue = move.m_next;
-        } else {
-          predMove.m_next = move.m_next;
-        }
+      // move out of the queue and perform it. Performing a move may lead
+      // to the invalidation of other moves, which are purged from the
+      // queue. Then the next best move is taken from the queue and
+      // executed. If the queue is empty, this loop ends and the outer loop
+      // is executed again to fill the queue.
+      do {
 
         // apply the move: change the solution and distance list
-        move.apply(n, srcdst.solution, dist);
+        move.apply(tour);
         srcdst.tourLength += move.m_delta; // modify the total tour
-        // length
-        // accordingly
+        // length accordingly
         // we now have a new and better candidate solution: register
         f.registerFE(srcdst.solution, srcdst.tourLength);
 
-        move.m_next = this.m_old; // dispose the move: hang it into the
-        this.m_old = move;// queue for re-use
         if (f.shouldTerminate()) {// ok, we should terminate right now
+          move.m_next = this.m_old; // dispose the move
+          this.m_old = move;
           break outer;
         }
 
         // make [changed_range_i,changed_range_j] include the area
-        // touched
-        // by
-        // the performed move: only this range is interesting when
-        // filling
-        // the
-        // queue again at the next "outer" iteration
+        // touched by the performed move: only this range is interesting
+        // when filling the queue again at the next "outer" iteration
         changed_range_i = Math.min(changed_range_i, move.m_i);
         changed_range_j = Math.max(changed_range_j, move.m_j);
 
-        cur = this.m_queue; // cur = beginning of queue
-        if (cur == null) {
-          break inner;// queue is empty: we need to fill the move list
-          // again
-        }
-
-        // The following loop has two purposes:
-        // 1. we need to delete all moves that intersect with "move" in
-        // such a
-        // way that their delta would have changed / they have been
-        // invalidated
-        // by "move"
-        // 2. find the next best move to apply (and its successor)
-        best = predBest = pred = null;
-        while (cur != null) {
-          // pred is the last non-deleted move before cur
-          // best is the best move that was not deleted
-          // predBest is the last non-deleted move before best
-          next = cur.m_next; // iterate through the move queue
-
-          // check if we need to delete the move
-          if (cur.checkDeleteMove(move, n)) {
-            // ok, the move has been invalidated and must be deleted
-            // so we remove it from the queue
-            if (pred == null) {
-              this.m_queue = next;
-            } else {
-              pred.m_next = next;
-            }
-            // pred remains the same, as it was the last non-deleted
-            // move
-
-            // dispose of cur: hang it into the re-use queue
-            cur.m_next = this.m_old;
-            this.m_old = cur;
-          } else {
-            // good, the move can be kept
-
-            if ((best == null) || (cmp.compare(cur, best) < 0)) {
-              // oh, the move is the best move found so far!
-              best = cur;
-              predBest = pred;
-            }
-
-            // the move was not deleted, so it becomes the last
-            // non-deleted
-            // move
-            pred = cur;
-          }
+        // delete all moves that intersect with "move" in such a way that
+        // their delta would have changed / they have been invalidated by
+        // "move" and amend the coordinates of the others. Only the moves
+        // near the changed range need to be checked.
+        this.m_old = queue.update(move, n, this.m_old);
 
-          cur = next;// cur becomes cur.m_next
-        }
+        move.m_next = this.m_old; // dispose the move: hang it into the
+        this.m_old = move;// queue for re-use
 
-        move = best; // the next move is the best move found in the
+        move = queue.poll(); // the next move is the best move in the
         // queue
-        predMove = predBest; // and predMove the last non-deleted move
-        // before
       } while (move != null);
 
       // ok, we have emptied the move queue. Now it is time to fill in
@@ -795,6 +803,7 @@ public class MultiNeighborhoodSearch extends
           dist);
     }
 
+    this.m_complete = (!(f.shouldTerminate()));
     this.disposeQueue(); // dispose whatever move is still in the queue
   }
 
@@ -840,36 +849,24 @@ public class MultiNeighborhoodSearch extends
   }
 
   /**
-   * compute the total length of the solution and initialize the distance
-   * array
+   * Set the number of threads used for filling the move queue. If this is
+   * larger than {@code 1}, the moves are evaluated in parallel by a
+   * {@link ParallelMoveEvaluator}.
    *
-   * @param f
-   *          the objective function
-   * @param n
-   *          the number of nodes
-   * @param sol
-   *          the solution array
-   * @param dist
-   *          the distance array
-   * @return the length of the tour
+   * @param threads
+   *          the number of threads used for filling the move queue
    */
-  private static final long distanceAndLengthInit(
-      final ObjectiveFunction f, final int n, final int[] sol,
-      final int[] dist) {
-    int curP, oldP;
-    long total;
-    int i, j;
-
-    curP = sol[0];
-    total = 0l;
-    for (i = n; (--i) >= 0;) {
-      oldP = curP;
-      curP = sol[i];
-      dist[i] = j = f.distance(curP, oldP);
-      total += j;
-    }
+  public final void setMoveQueueFillThreads(final int threads) {
+    this.m_fillThreads = Math.max(1, threads);
+  }
 
-    return total;
+  /**
+   * Get the number of threads used for filling the move queue
+   *
+   * @return the number of threads used for filling the move queue
+   */
+  public final int getMoveQueueFillThreads() {
+    return this.m_fillThreads;
   }
 
   /**
@@ -902,47 +899,8 @@ public class MultiNeighborhoodSearch extends
 
   /** dispose all moves in the move queue */
   private final void disposeQueue() {
-    _Move cur, next;
-
-    cur = this.m_queue; // cur = beginning of queue
-
-    if (cur == null) {// queue is empty, we can leave directly
-      return;
-    }
-
-    // moves are left in queue: dispose them
-    dispose: for (;;) {// find the last move in queue
-      next = cur.m_next;
-      if (next == null) {
-        break dispose;
-      }
-      cur = next;
-    }
-
-    // cur now is the last move in the move queue m_queue is the first
-    cur.m_next = this.m_old; //
-    this.m_old = this.m_queue;// put m_queue at beginning
-    this.m_queue = null; // ensure that the queue is really empty
-  }
-
-  /**
-   * enqueue a move
-   *
-   * @param move
-   *          the move to enqueue
-   */
-  private final void enqueue(final _Move move) {
-    final _Move q;
-
-    q = this.m_queue;
-    if ((q == null) || ((this.m_cmp.compare(move, q) < 0))) {
-      // move = new best: put at head of queue
-      move.m_next = q;
-      this.m_queue = move;
-    } else {// move is not best: put at 2nd place, regardless how good it
-      // is
-      move.m_next = q.m_next;
-      q.m_next = move;
+    if (this.m_queue != null) {
+      this.m_old = this.m_queue.clear(this.m_old);
     }
   }
 
@@ -955,10 +913,11 @@ public class MultiNeighborhoodSearch extends
    * </p>
    * <ol>
    * <li>The array {@code sol} contains the current candidate solution.</li>
-   * <li>The {@code i}<sup>th</sup> element of the array
-   * {@link #m_distances} contains the distance between the {@code i}
-   * <sup>th</sup> element of {@code sol} and the {@code (i+1)%n}
-   * <sup>th</sup> element. In other words, the element at index
+   * <li>The {@code i}<sup>th</sup> element of the array {@code dists}
+   * contains the distance between the {@code i}<sup>th</sup> element of
+   * {@code sol} and the {@code (i+1)%n}<sup>th</sup> element, see
+   * {@link TourWithEdgeCache}. In
+   * other words, the element at index
    * {@code n-1} holds the distance of detour from the last node back to
    * the start.</li>
    * <li>The parameters {@code lastChangeStart} and {@code lastChangeEnd}
@@ -966,14 +925,17 @@ public class MultiNeighborhoodSearch extends
    * solution took place.</li>
    * </ol>
    * <p>
-   * When filling the queue, we only consider moves that at least touch (or
-   * overlap, or are included in) the range
-   * {@code [lastChangeStart,lastChangeEnd]}. As the rest of the
-   * permutation was not changed, other moves would have already been
-   * considered before and thus do not need to tested again.
-   * </p>
-   * <p>
-   * This function will place the best move found at the head of the queue.
+   * When filling the queue, we only consider moves that have at least one
+   * of their two coordinates {@code i} and {@code j} in the (cyclic) range
+   * {@code [lastChangeStart-2,lastChangeEnd+2]}. The delta of a move only
+   * depends on the nodes next to its two coordinates, so the deltas of all
+   * other moves did not change since they were checked before. Moves which
+   * enclose the changed range without touching it are not purged from the
+   * queue when a move is applied, so the improving ones among them are
+   * still there and do not need to be tested again. This way, filling the
+   * queue after a local change costs {@code O(k*n)} instead of
+   * {@code O(n<sup>2</sup>)} distance evaluations, where {@code k} is the
+   * length of the range.
    * </p>
    * <p>
    * This function returns {@code true} if not all possible moves could be
@@ -1002,62 +964,72 @@ public class MultiNeighborhoodSearch extends
     final ObjectiveFunction f;
     final int n, nm1;
     final int begin, end;
-    int i, j, jm1, im1, delta;
+    int i, j, im1, delta, iLow, iHigh, iHigh2;
     int sol_im1, sol_i, sol_ip1, sol_jm1, sol_j, sol_jp1;
     int D_im1_i, D_i_ip1, D_jm1_j, D_j_jp1, D_im1_j, D_i_jp1, D_im1_ip1, D_i_j, D_jm1_jp1, D_ip1_j, D_i_jm1;
     _Move move;
 
+    if (this.m_evaluator != null) {
+      return this.__fillMoveQueueParallel(lastChangeStart, lastChangeEnd,
+          sol, dists);
+    }
+
     f = this.m_f;
     n = f.n();
     nm1 = (n - 1);
 
-    // Any move intersecting with the range [begin,end] is interesting.
-    // The -1/+1 stem from the fact that when changing range [2,3], also
-    // the
-    // distance of the node at index 1 (to index 2) has changed.
-    begin = (lastChangeStart - 1);
-    end = (lastChangeEnd + 1);
+    // Any move with a coordinate in the range [begin,end] is interesting.
+    // The -2/+2 stem from the fact that when changing range [2,3], also
+    // the distance of the node at index 1 (to index 2) has changed and
+    // moves at index 0 may have been purged from the queue.
+    begin = (lastChangeStart - 2);
+    end = (lastChangeEnd + 2);
 
     // iterate over all indices 0<j<n
-    j = (n - 1);
-    D_jm1_j = dists[j];
-    sol_j = sol[0];
-    sol_jm1 = sol[j];
-    for (; j > 0; j = jm1) {
-      jm1 = (j - 1); // as j>0, this can never wrap/become <0
-
+    for (j = nm1; j > 0; j--) {
       // initialize variables pi_j-1, pi_j, pi_j+1
-      sol_jp1 = sol_j;
-      sol_j = sol_jm1;
-      sol_jm1 = sol[jm1];
+      sol_jm1 = sol[j - 1];
+      sol_j = sol[j];
+      sol_jp1 = sol[(j + 1) % n];
 
       // load distances d(j-1,j), d(j,j+1)
-      D_j_jp1 = D_jm1_j;
-      D_jm1_j = dists[jm1];
-
-      // iterate over all indices 0<=i<j
-      D_im1_i = dists[j];
+      D_jm1_j = dists[j - 1];
+      D_j_jp1 = dists[j];
+
+      // If j is in the interesting range, all indices 0<=i<j must be
+      // checked. Otherwise, only the indices i in the range, which may
+      // wrap around the end of the tour.
+      if (RepresentationUtils.isInPathRange(j, begin, end, n)) {
+        iLow = 0;
+        iHigh = (j - 1);
+        iHigh2 = (-1);
+      } else {
+        iLow = Math.max(0, begin);
+        iHigh = Math.min((j - 1), end);
+        iHigh2 = Math.min((j - 1), (end - n));
+      }
 
-      sol_i = sol[j];
-      i = (j - 1);
-      sol_im1 = sol[i];
-      inner: for (; i >= 0; i--) {
+      i = iHigh;
+      inner: for (;; i--) {
+        if (i < iLow) {
+          if (iHigh2 < 0) {
+            break inner;
+          }
+          i = iHigh2;
+          iLow = 0;
+          iHigh2 = (-1);
+        }
 
         im1 = ((i + nm1) % n);
 
         // initialize variables pi_i-1, pi_i, pi_i+1
-        sol_ip1 = sol_i;
-        sol_i = sol_im1;
         sol_im1 = sol[im1];
+        sol_i = sol[i];
+        sol_ip1 = sol[i + 1];
 
         // load distances d(i-1,i), d(i,i+1)
-        D_i_ip1 = D_im1_i;
         D_im1_i = dists[im1];
-
-        // check if the interesting range is intersected
-        if ((i > end) || (j < begin)) {
-          continue inner;
-        }
+        D_i_ip1 = dists[i];
 
         // the inversion specific distance requirements
         D_im1_j = f.distance(sol_im1, sol_j);
@@ -1078,7 +1050,7 @@ public class MultiNeighborhoodSearch extends
 
           move.init_reverse(i, j, delta, D_im1_j, D_i_jp1);// init the
           // move
-          this.enqueue(move);
+          this.m_queue.add(move);
         }
 
         if (j == (i + 1)) {
@@ -1104,7 +1076,7 @@ public class MultiNeighborhoodSearch extends
           }
 
           move.init_rotate_left(i, j, delta, D_im1_ip1, D_i_j, D_i_jp1);// init
-          this.enqueue(move);
+          this.m_queue.add(move);
         }
 
         // check the rotate right move
@@ -1121,7 +1093,7 @@ public class MultiNeighborhoodSearch extends
           }
 
           move.init_rotate_right(i, j, delta, D_jm1_jp1, D_i_j, D_im1_j);// init
-          this.enqueue(move);
+          this.m_queue.add(move);
         }
 
         if (j == ((i + 2) % n)) {
@@ -1145,7 +1117,7 @@ public class MultiNeighborhoodSearch extends
           }
 
           move.init_swap(i, j, delta, D_im1_j, D_ip1_j, D_i_jm1, D_i_jp1);// init
-          this.enqueue(move);
+          this.m_queue.add(move);
         }
       }
     }
@@ -1153,6 +1125,67 @@ public class MultiNeighborhoodSearch extends
     return false;
   }
 
+  /**
+   * Fill the queue of search moves in parallel by using the
+   * {@link #m_evaluator parallel move evaluator}. This method has the same
+   * semantics as
+   * {@link #fillMoveQueue(int, int, int[], int[])}.
+   *
+   * @param lastChangeStart
+   *          the first index of the interesting range
+   * @param lastChangeEnd
+   *          the last index of the interesting range
+   * @param sol
+   *          the solution array
+   * @param dists
+   *          the distance array
+   * @return {@code true} if not all possible moves could be checked due to
+   *         the memory allocation limit {@link #m_maxMoveAllocations},
+   *         {@code false} if all possible moves were checked
+   */
+  private final boolean __fillMoveQueueParallel(final int lastChangeStart,
+      final int lastChangeEnd, final int[] sol, final int[] dists) {
+    final ParallelMoveEvaluator eval;
+    final boolean incomplete;
+    _Move move;
+
+    eval = this.m_evaluator;
+    incomplete = eval.evaluateAround(this.m_f, sol, dists,
+        lastChangeStart, lastChangeEnd, 1, this.m_maxMoveAllocations);
+
+    while (eval.next()) {
+      move = this.allocate(); // allocate the move
+      if (move == null) {
+        return true;// we hit the allocation limit, force exit
+      }
+
+      switch (eval.getType()) {
+        case ParallelMoveEvaluator.TYPE_REVERSE: {
+          move.init_reverse(eval.getI(), eval.getJ(), eval.getDelta(),
+              eval.getA(), eval.getB());
+          break;
+        }
+        case ParallelMoveEvaluator.TYPE_ROT_LEFT: {
+          move.init_rotate_left(eval.getI(), eval.getJ(), eval.getDelta(),
+              eval.getA(), eval.getB(), eval.getC());
+          break;
+        }
+        case ParallelMoveEvaluator.TYPE_ROT_RIGHT: {
+          move.init_rotate_right(eval.getI(), eval.getJ(),
+              eval.getDelta(), eval.getA(), eval.getB(), eval.getC());
+          break;
+        }
+        default: {
+          move.init_swap(eval.getI(), eval.getJ(), eval.getDelta(),
+              eval.getA(), eval.getB(), eval.getC(), eval.getD());
+        }
+      }
+      this.m_queue.add(move);
+    }
+
+    return incomplete;
+  }
+
   /** {@inheritDoc} */
   @Override
   public final MultiNeighborhoodSearch clone() {
@@ -1167,12 +1200,14 @@ public class MultiNeighborhoodSearch extends
 
   /** clear this manager */
   private final void __clear() {
-    this.m_distances = null;
+    this.m_tour = null;
     this.m_f = null;
     this.m_old = null;
     this.m_queue = null;
     this.m_moveAllocations = 0;
-
+    this.m_evaluator = null;
+    this.m_complete = false;
+    this.m_range = null;
   }
 
   /** {@inheritDoc} */
@@ -1186,6 +1221,9 @@ public class MultiNeighborhoodSearch extends
     Configurable.printKey(MultiNeighborhoodSearch.PARAM_MAX_ALLOCATIONS,
         ps);
     ps.println(this.m_maxMoveAllocations);
+
+    Configurable.printKey(MultiNeighborhoodSearch.PARAM_FILL_THREADS, ps);
+    ps.println(this.m_fillThreads);
   }
 
   /** {@inheritDoc} */
@@ -1201,6 +1239,10 @@ public class MultiNeighborhoodSearch extends
         ps);
     ps.println(//
     "the maximum move queue length (to prevent out-of-memory errors)"); //$NON-NLS-1$
+
+    Configurable.printKey(MultiNeighborhoodSearch.PARAM_FILL_THREADS, ps);
+    ps.println(//
+    "the number of threads used for filling the move queue"); //$NON-NLS-1$
   }
 
   /** {@inheritDoc} */
@@ -1215,6 +1257,10 @@ public class MultiNeighborhoodSearch extends
     this.m_maxMoveAllocations = config.getInt(
         MultiNeighborhoodSearch.PARAM_MAX_ALLOCATIONS, 1,
         Integer.MAX_VALUE, this.m_maxMoveAllocations);
+
+    this.m_fillThreads = config.getInt(
+        MultiNeighborhoodSearch.PARAM_FILL_THREADS, 1, 1024,
+        this.m_fillThreads);
   }
 
   /** {@inheritDoc} */
@@ -1226,13 +1272,22 @@ public class MultiNeighborhoodSearch extends
 
     this.m_f = f;
     n = f.n();
-    this.m_distances = new int[n];
+    this.m_tour = new TourWithEdgeCache(n);
+    this.m_queue = new _MoveQueue(n, this.m_cmp);
+    this.m_range = new int[2];
+    this.m_complete = false;
+    if (this.m_fillThreads > 1) {
+      this.m_evaluator = new ParallelMoveEvaluator(this.m_fillThreads);
+    }
   }
 
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
     try {
+      if (this.m_evaluator != null) {
+        this.m_evaluator.shutdown();
+      }
       this.__clear();
     } finally {
       super.endRun(f);
@@ -0,0 +1,407 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+
+/**
+ * <p>
+ * A helper for filling the move queues of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch
+ * MultiNeighborhoodSearch} and the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.chainedMNSLocalOpt.ChainedMNSLocalNOpt
+ * ChainedMNSLocalNOpt} in parallel. Checking all reverse, rotate, and swap
+ * moves which touch a changed range of the tour takes {@code O(n<sup>2</sup>)}
+ * distance evaluations. Here, the range of {@code j} coordinates is
+ * partitioned into chunks of roughly equal work, which are evaluated by
+ * the threads of a {@link java.util.concurrent.ForkJoinPool fork-join
+ * pool}. Each chunk stores the improving moves it finds in its own buffer
+ * of {@code int}s. Afterwards, the moves can be read chunk by chunk via
+ * {@link #next()} and turned into move records by the calling thread.
+ * </p>
+ * <p>
+ * Each chunk evaluates distances with its own
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#createCountingDistanceComputer()
+ * counting distance computer} of the objective function. The number of
+ * performed distance evaluations is
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#registerDEs(long)
+ * registered} by the calling thread once all workers have finished.
+ * </p>
+ * <p>
+ * Since the benchmarking environment already executes one run per
+ * processor, this is only useful when performing single, long runs on
+ * machines with many cores.
+ * </p>
+ */
+public final class ParallelMoveEvaluator {
+
+  /** the reverse move type */
+  public static final int TYPE_REVERSE = 0;
+  /** the rotate left move type */
+  public static final int TYPE_ROT_LEFT = 1;
+  /** the rotate right move type */
+  public static final int TYPE_ROT_RIGHT = 2;
+  /** the swap move type */
+  public static final int TYPE_SWAP = 3;
+
+  /** the number of {@code int}s per stored move */
+  static final int RECORD_LENGTH = 8;
+
+  /** the number of chunks per thread */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  /**
+   * the minimum number of index pairs per chunk: smaller ranges are not
+   * worth being split
+   */
+  private static final long MIN_CHUNK_WORK = 16384l;
+
+  /** the fork-join pool */
+  private final ForkJoinPool m_pool;
+
+  /** the tasks */
+  private final _MoveEvaluationTask[] m_tasks;
+
+  /** the counter of found moves */
+  private final AtomicInteger m_found;
+
+  /** the number of tasks used in the last evaluation */
+  private int m_used;
+
+  /** the index of the task currently read */
+  private int m_task;
+
+  /** the offset of the current move in the moves of the current task */
+  private int m_pos;
+
+  /** the moves of the current task */
+  private int[] m_moves;
+
+  /**
+   * create the parallel move evaluator
+   *
+   * @param threads
+   *          the number of threads to use
+   */
+  public ParallelMoveEvaluator(final int threads) {
+    super();
+
+    final int chunks;
+    int i;
+
+    this.m_pool = new ForkJoinPool(threads);
+    chunks = (threads * ParallelMoveEvaluator.CHUNKS_PER_THREAD);
+    this.m_tasks = new _MoveEvaluationTask[chunks];
+    for (i = chunks; (--i) >= 0;) {
+      this.m_tasks[i] = new _MoveEvaluationTask();
+    }
+    this.m_found = new AtomicInteger();
+  }
+
+  /**
+   * <p>
+   * Evaluate all moves which touch the range
+   * {@code [lastChangeStart,lastChangeEnd]}, i.e., all index pairs
+   * {@code (i,j)} with {@code i<=lastChangeEnd+1},
+   * {@code j>=lastChangeStart-1}, and {@code j-i>=minGap}. The improving
+   * moves can be read via {@link #next()} afterwards.
+   * </p>
+   * <p>
+   * This method must be called by the thread which owns the objective
+   * function {@code f}.
+   * </p>
+   *
+   * @param f
+   *          the objective function
+   * @param sol
+   *          the solution array
+   * @param dists
+   *          the distance array, where {@code dists[i]} holds the distance
+   *          from {@code sol[i]} to {@code sol[(i+1)%n]}
+   * @param lastChangeStart
+   *          the first index of the interesting range
+   * @param lastChangeEnd
+   *          the last index of the interesting range
+   * @param minGap
+   *          the minimum difference between the {@code j} and {@code i}
+   *          coordinate of a move, at least {@code 1}
+   * @param maxMoves
+   *          the maximum number of moves to collect
+   * @return {@code true} if not all moves could be evaluated because
+   *         {@code maxMoves} was reached, {@code false} if all improving
+   *         moves have been found
+   */
+  public final boolean evaluate(final ObjectiveFunction f,
+      final int[] sol, final int[] dists, final int lastChangeStart,
+      final int lastChangeEnd, final int minGap, final int maxMoves) {
+    return this.__evaluate(f, sol, dists, 0, (lastChangeEnd + 1),
+        Math.max(minGap, (lastChangeStart - 1)), minGap, false, maxMoves);
+  }
+
+  /**
+   * <p>
+   * Evaluate all moves which have at least one coordinate in the cyclic
+   * range {@code [lastChangeStart-2,lastChangeEnd+2]}, i.e., all index
+   * pairs {@code (i,j)} with {@code j-i>=minGap} where {@code i} or
+   * {@code j} lie in this range. This is the set of moves checked by the
+   * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch
+   * MultiNeighborhoodSearch} after a local change and it has only
+   * {@code O(k*n)} elements, where {@code k} is the length of the range.
+   * The improving moves can be read via {@link #next()} afterwards.
+   * </p>
+   * <p>
+   * This method must be called by the thread which owns the objective
+   * function {@code f}.
+   * </p>
+   *
+   * @param f
+   *          the objective function
+   * @param sol
+   *          the solution array
+   * @param dists
+   *          the distance array, where {@code dists[i]} holds the distance
+   *          from {@code sol[i]} to {@code sol[(i+1)%n]}
+   * @param lastChangeStart
+   *          the first index of the interesting range
+   * @param lastChangeEnd
+   *          the last index of the interesting range, may be
+   *          {@code >=n} if the range wraps around the end of the tour
+   * @param minGap
+   *          the minimum difference between the {@code j} and {@code i}
+   *          coordinate of a move, at least {@code 1}
+   * @param maxMoves
+   *          the maximum number of moves to collect
+   * @return {@code true} if not all moves could be evaluated because
+   *         {@code maxMoves} was reached, {@code false} if all improving
+   *         moves have been found
+   */
+  public final boolean evaluateAround(final ObjectiveFunction f,
+      final int[] sol, final int[] dists, final int lastChangeStart,
+      final int lastChangeEnd, final int minGap, final int maxMoves) {
+    return this.__evaluate(f, sol, dists, (lastChangeStart - 2),
+        (lastChangeEnd + 2), minGap, minGap, true, maxMoves);
+  }
+
+  /**
+   * Evaluate the moves
+   *
+   * @param f
+   *          the objective function
+   * @param sol
+   *          the solution array
+   * @param dists
+   *          the distance array
+   * @param begin
+   *          the lowest index of the interesting range (only used if
+   *          {@code around} is {@code true})
+   * @param end
+   *          the highest index of the interesting range
+   * @param jLow
+   *          the lowest j coordinate to check
+   * @param minGap
+   *          the minimum difference between the {@code j} and {@code i}
+   *          coordinate of a move
+   * @param around
+   *          {@code true} if only moves with a coordinate in
+   *          {@code [begin,end]} are checked, {@code false} if all moves
+   *          with {@code i<=end} are checked
+   * @param maxMoves
+   *          the maximum number of moves to collect
+   * @return {@code true} if not all moves could be evaluated because
+   *         {@code maxMoves} was reached, {@code false} if all improving
+   *         moves have been found
+   */
+  private final boolean __evaluate(final ObjectiveFunction f,
+      final int[] sol, final int[] dists, final int begin, final int end,
+      final int jLow, final int minGap, final boolean around,
+      final int maxMoves) {
+    final _MoveEvaluationTask[] tasks;
+    final int n;
+    final long chunkWork;
+    long total, work;
+    boolean incomplete;
+    int j, jHigh, used, i;
+
+    n = sol.length;
+    tasks = this.m_tasks;
+    this.m_found.set(0);
+    this.m_task = 0;
+    this.m_pos = (-ParallelMoveEvaluator.RECORD_LENGTH);
+    this.m_moves = null;
+
+    // compute the total work, i.e., number of index pairs to check
+    total = 0l;
+    for (j = (n - 1); j >= jLow; j--) {
+      total += _MoveEvaluationTask.work(j, n, begin, end, minGap, around);
+    }
+    chunkWork = Math.max(ParallelMoveEvaluator.MIN_CHUNK_WORK,
+        ((total + tasks.length) - 1) / tasks.length);
+
+    // partition the j coordinates into chunks of roughly equal work, the
+    // last chunk takes all remaining coordinates
+    used = 0;
+    jHigh = (n - 1);
+    work = 0l;
+    for (j = (n - 1); j >= jLow; j--) {
+      work += _MoveEvaluationTask.work(j, n, begin, end, minGap, around);
+      if ((j <= jLow) || //
+          ((work >= chunkWork) && (used < (tasks.length - 1)))) {
+        tasks[used++].setup(f.createCountingDistanceComputer(), sol, dists,
+            jHigh, j, begin, end, minGap, around, this.m_found, maxMoves);
+        jHigh = (j - 1);
+        work = 0l;
+      }
+    }
+    this.m_used = used;
+
+    if (used <= 0) {
+      return false;
+    }
+
+    // run the chunks
+    if (used == 1) {
+      tasks[0].invoke();
+    } else {
+      for (i = 1; i < used; i++) {
+        this.m_pool.execute(tasks[i]);
+      }
+      tasks[0].invoke();
+      for (i = 1; i < used; i++) {
+        tasks[i].join();
+      }
+    }
+
+    // register the distance evaluations and release the references
+    incomplete = false;
+    total = 0l;
+    for (i = 0; i < used; i++) {
+      total += tasks[i].m_des;
+      incomplete |= tasks[i].m_incomplete;
+      tasks[i].release();
+    }
+    f.registerDEs(total);
+
+    return incomplete;
+  }
+
+  /**
+   * Advance to the next move found by the last call of
+   * {@link #evaluate(ObjectiveFunction, int[], int[], int, int, int, int)}
+   * . The first call to this method selects the first move. The moves are
+   * returned in the order of decreasing {@code j} coordinates.
+   *
+   * @return {@code true} if there is a next move, {@code false} if all
+   *         moves have been read
+   */
+  public final boolean next() {
+    final _MoveEvaluationTask[] tasks;
+    int task, pos;
+
+    tasks = this.m_tasks;
+    task = this.m_task;
+    pos = (this.m_pos + ParallelMoveEvaluator.RECORD_LENGTH);
+    while (task < this.m_used) {
+      if (pos < tasks[task].m_size) {
+        this.m_task = task;
+        this.m_pos = pos;
+        this.m_moves = tasks[task].m_moves;
+        return true;
+      }
+      task++;
+      pos = 0;
+    }
+
+    this.m_task = task;
+    this.m_moves = null;
+    return false;
+  }
+
+  /**
+   * Get the type of the current move, i.e., one of {@link #TYPE_REVERSE},
+   * {@link #TYPE_ROT_LEFT}, {@link #TYPE_ROT_RIGHT}, and
+   * {@link #TYPE_SWAP}
+   *
+   * @return the type of the current move
+   */
+  public final int getType() {
+    return this.m_moves[this.m_pos];
+  }
+
+  /**
+   * Get the i coordinate of the current move
+   *
+   * @return the i coordinate of the current move
+   */
+  public final int getI() {
+    return this.m_moves[this.m_pos + 1];
+  }
+
+  /**
+   * Get the j coordinate of the current move
+   *
+   * @return the j coordinate of the current move
+   */
+  public final int getJ() {
+    return this.m_moves[this.m_pos + 2];
+  }
+
+  /**
+   * Get the change of the tour length caused by the current move
+   *
+   * @return the delta of the current move
+   */
+  public final int getDelta() {
+    return this.m_moves[this.m_pos + 3];
+  }
+
+  /**
+   * Get the first additional distance of the current move, i.e., the
+   * first distance parameter of its {@code init} method
+   *
+   * @return the first additional distance
+   */
+  public final int getA() {
+    return this.m_moves[this.m_pos + 4];
+  }
+
+  /**
+   * Get the second additional distance of the current move, i.e., the
+   * second distance parameter of its {@code init} method
+   *
+   * @return the second additional distance
+   */
+  public final int getB() {
+    return this.m_moves[this.m_pos + 5];
+  }
+
+  /**
+   * Get the third additional distance of the current move, i.e., the
+   * third distance parameter of its {@code init} method (rotate and swap
+   * moves only)
+   *
+   * @return the third additional distance
+   */
+  public final int getC() {
+    return this.m_moves[this.m_pos + 6];
+  }
+
+  /**
+   * Get the fourth additional distance of the current move, i.e., the
+   * fourth distance parameter of its {@code init} method (swap moves
+   * only)
+   *
+   * @return the fourth additional distance
+   */
+  public final int getD() {
+    return this.m_moves[this.m_pos + 7];
+  }
+
+  /**
+   * Shut down the worker threads. This evaluator cannot be used anymore
+   * afterwards.
+   */
+  public final void shutdown() {
+    this.m_pool.shutdown();
+  }
+}
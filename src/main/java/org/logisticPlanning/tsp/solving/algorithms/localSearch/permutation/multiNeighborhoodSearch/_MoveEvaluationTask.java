@@ -0,0 +1,359 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+
+/**
+ * A task of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.ParallelMoveEvaluator
+ * parallel move evaluator}: It evaluates all moves whose {@code j}
+ * coordinate lies in a given range and stores the improving ones in a
+ * thread-local buffer of {@code int}s. The loop follows the one in
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch
+ * MultiNeighborhoodSearch}'s {@code fillMoveQueue} method.
+ */
+final class _MoveEvaluationTask extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the move buffer */
+  int[] m_moves;
+
+  /** the number of {@code int}s used in the move buffer */
+  int m_size;
+
+  /** the number of distance evaluations performed */
+  long m_des;
+
+  /** were all moves evaluated? */
+  boolean m_incomplete;
+
+  /** the counting distance computer */
+  private CountingDistanceComputer m_dist;
+
+  /** the solution */
+  private int[] m_sol;
+
+  /** the distances between the nodes and their successors */
+  private int[] m_dists;
+
+  /** the highest j coordinate to check */
+  private int m_jHigh;
+
+  /** the lowest j coordinate to check */
+  private int m_jLow;
+
+  /** the lowest index of the interesting range */
+  private int m_begin;
+
+  /** the highest allowed i coordinate */
+  private int m_end;
+
+  /**
+   * {@code true} if only moves with a coordinate in the interesting range
+   * are checked
+   */
+  private boolean m_around;
+
+  /** the minimum distance between i and j */
+  private int m_minGap;
+
+  /** the shared counter of found moves */
+  private AtomicInteger m_found;
+
+  /** the maximum number of moves to find */
+  private int m_maxMoves;
+
+  /** create */
+  _MoveEvaluationTask() {
+    super();
+    this.m_moves = new int[ParallelMoveEvaluator.RECORD_LENGTH << 6];
+  }
+
+  /**
+   * Set up the task
+   *
+   * @param dist
+   *          the counting distance computer of this task
+   * @param sol
+   *          the solution
+   * @param dists
+   *          the distances between the nodes and their successors
+   * @param jHigh
+   *          the highest j coordinate to check
+   * @param jLow
+   *          the lowest j coordinate to check
+   * @param begin
+   *          the lowest index of the interesting range
+   * @param end
+   *          the highest allowed i coordinate
+   * @param minGap
+   *          the minimum distance between i and j
+   * @param around
+   *          {@code true} if only moves with a coordinate in the
+   *          interesting range are checked
+   * @param found
+   *          the shared counter of found moves
+   * @param maxMoves
+   *          the maximum number of moves to find
+   */
+  final void setup(final CountingDistanceComputer dist, final int[] sol,
+      final int[] dists, final int jHigh, final int jLow, final int begin,
+      final int end, final int minGap, final boolean around,
+      final AtomicInteger found, final int maxMoves) {
+    this.reinitialize();
+    this.m_dist = dist;
+    this.m_sol = sol;
+    this.m_dists = dists;
+    this.m_jHigh = jHigh;
+    this.m_jLow = jLow;
+    this.m_begin = begin;
+    this.m_end = end;
+    this.m_minGap = minGap;
+    this.m_around = around;
+    this.m_found = found;
+    this.m_maxMoves = maxMoves;
+    this.m_size = 0;
+    this.m_des = 0l;
+    this.m_incomplete = false;
+  }
+
+  /** release the references to the data of the last run */
+  final void release() {
+    this.m_dist = null;
+    this.m_sol = null;
+    this.m_dists = null;
+    this.m_found = null;
+  }
+
+  /**
+   * Get the number of index pairs to check for a given {@code j}
+   * coordinate
+   *
+   * @param j
+   *          the j coordinate
+   * @param n
+   *          the number of nodes
+   * @param begin
+   *          the lowest index of the interesting range
+   * @param end
+   *          the highest index of the interesting range
+   * @param minGap
+   *          the minimum distance between i and j
+   * @param around
+   *          {@code true} if only moves with a coordinate in the
+   *          interesting range are checked
+   * @return the number of index pairs
+   */
+  static final int work(final int j, final int n, final int begin,
+      final int end, final int minGap, final boolean around) {
+    final int iHigh;
+
+    iHigh = (j - minGap);
+    if (!around) {
+      return (Math.min(iHigh, end) + 1);
+    }
+    if (RepresentationUtils.isInPathRange(j, begin, end, n)) {
+      return (iHigh + 1);
+    }
+    return (Math.max(0, ((Math.min(iHigh, end) - Math.max(0, begin)) + 1)) + //
+    Math.max(0, (Math.min(iHigh, (end - n)) + 1)));
+  }
+
+  /**
+   * Store a move
+   *
+   * @param type
+   *          the move type
+   * @param i
+   *          the i coordinate
+   * @param j
+   *          the j coordinate
+   * @param delta
+   *          the delta
+   * @param a
+   *          the first additional distance
+   * @param b
+   *          the second additional distance
+   * @param c
+   *          the third additional distance
+   * @param d
+   *          the fourth additional distance
+   * @return {@code true} if the move could be stored, {@code false} if the
+   *         maximum number of moves has been reached
+   */
+  private final boolean __add(final int type, final int i, final int j,
+      final int delta, final int a, final int b, final int c, final int d) {
+    int[] moves;
+    int size;
+
+    if (this.m_found.incrementAndGet() > this.m_maxMoves) {
+      this.m_incomplete = true;
+      return false;
+    }
+
+    moves = this.m_moves;
+    size = this.m_size;
+    if ((size + ParallelMoveEvaluator.RECORD_LENGTH) > moves.length) {
+      this.m_moves = moves = Arrays.copyOf(moves, (moves.length << 1));
+    }
+    moves[size++] = type;
+    moves[size++] = i;
+    moves[size++] = j;
+    moves[size++] = delta;
+    moves[size++] = a;
+    moves[size++] = b;
+    moves[size++] = c;
+    moves[size++] = d;
+    this.m_size = size;
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final CountingDistanceComputer f;
+    final int[] sol, dists;
+    final int n, nm1, begin, end, minGap;
+    final boolean around;
+    int i, j, im1, jp1, delta, iLow, iHigh2;
+    int sol_im1, sol_i, sol_ip1, sol_jm1, sol_j, sol_jp1;
+    int D_im1_i, D_i_ip1, D_jm1_j, D_j_jp1, D_im1_j, D_i_jp1, D_im1_ip1, D_i_j, D_jm1_jp1, D_ip1_j, D_i_jm1;
+
+    f = this.m_dist;
+    sol = this.m_sol;
+    dists = this.m_dists;
+    n = sol.length;
+    nm1 = (n - 1);
+    begin = this.m_begin;
+    end = this.m_end;
+    minGap = this.m_minGap;
+    around = this.m_around;
+
+    try {
+      for (j = this.m_jHigh; j >= this.m_jLow; j--) {
+        if (this.m_found.get() >= this.m_maxMoves) {
+          this.m_incomplete = true;
+          return;
+        }
+
+        jp1 = ((j + 1) % n);
+        sol_jm1 = sol[j - 1];
+        sol_j = sol[j];
+        sol_jp1 = sol[jp1];
+        D_jm1_j = dists[j - 1];
+        D_j_jp1 = dists[j];
+
+        // If j is in the interesting range (or we check all moves
+        // intersecting with it), i runs down to 0. Otherwise, only the
+        // indices in the range, which may wrap around the end of the tour.
+        if (around) {
+          if (RepresentationUtils.isInPathRange(j, begin, end, n)) {
+            i = (j - minGap);
+            iLow = 0;
+            iHigh2 = (-1);
+          } else {
+            i = Math.min((j - minGap), end);
+            iLow = Math.max(0, begin);
+            iHigh2 = Math.min((j - minGap), (end - n));
+          }
+        } else {
+          i = Math.min((j - minGap), end);
+          iLow = 0;
+          iHigh2 = (-1);
+        }
+
+        inner: for (;; i--) {
+          if (i < iLow) {
+            if (iHigh2 < 0) {
+              break inner;
+            }
+            i = iHigh2;
+            iLow = 0;
+            iHigh2 = (-1);
+          }
+
+          if ((i <= 0) && (j >= nm1)) {
+            continue inner; // no operation works at full-range
+          }
+
+          im1 = ((i + nm1) % n);
+          sol_im1 = sol[im1];
+          sol_i = sol[i];
+          sol_ip1 = sol[i + 1];
+          D_im1_i = dists[im1];
+          D_i_ip1 = dists[i];
+
+          // check the reversal move
+          D_im1_j = f.distance(sol_im1, sol_j);
+          D_i_jp1 = f.distance(sol_i, sol_jp1);
+
+          delta = ((D_im1_j - D_im1_i) + (D_i_jp1 - D_j_jp1));
+          if (delta < 0) {
+            if (!(this.__add(ParallelMoveEvaluator.TYPE_REVERSE, i, j,
+                delta, D_im1_j, D_i_jp1, 0, 0))) {
+              return;
+            }
+          }
+
+          if (j == (i + 1)) {
+            continue inner;
+          }
+
+          // check the rotate left move
+          D_im1_ip1 = f.distance(sol_im1, sol_ip1);
+          D_i_j = f.distance(sol_i, sol_j);
+
+          delta = ((D_im1_ip1 - D_im1_i) + //
+              (D_i_j - D_i_ip1) + //
+          (D_i_jp1 - D_j_jp1));
+          if (delta < 0) {
+            if (!(this.__add(ParallelMoveEvaluator.TYPE_ROT_LEFT, i, j,
+                delta, D_im1_ip1, D_i_j, D_i_jp1, 0))) {
+              return;
+            }
+          }
+
+          // check the rotate right move
+          D_jm1_jp1 = f.distance(sol_jm1, sol_jp1);
+
+          delta = ((D_im1_j - D_im1_i) + //
+              (D_i_j - D_j_jp1) + //
+          (D_jm1_jp1 - D_jm1_j));
+          if (delta < 0) {
+            if (!(this.__add(ParallelMoveEvaluator.TYPE_ROT_RIGHT, i, j,
+                delta, D_jm1_jp1, D_i_j, D_im1_j, 0))) {
+              return;
+            }
+          }
+
+          if (j == ((i + 2) % n)) {
+            continue inner;
+          }
+
+          // check the swap move
+          D_i_jm1 = f.distance(sol_i, sol_jm1);
+          D_ip1_j = f.distance(sol_ip1, sol_j);
+
+          delta = ((D_im1_j - D_im1_i) + //
+              (D_ip1_j - D_i_ip1) + //
+              (D_i_jm1 - D_jm1_j) + //
+          (D_i_jp1 - D_j_jp1));
+          if (delta < 0) {
+            if (!(this.__add(ParallelMoveEvaluator.TYPE_SWAP, i, j, delta,
+                D_im1_j, D_ip1_j, D_i_jm1, D_i_jp1))) {
+              return;
+            }
+          }
+        }
+      }
+    } finally {
+      this.m_des = f.getCount();
+    }
+  }
+}
@@ -0,0 +1,483 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The move queue of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch
+ * MultiNeighborhoodSearch}. It combines two data structures:
+ * </p>
+ * <ol>
+ * <li>An indexed binary heap ordered by a
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.EMoveComparator
+ * move comparator}, so the best move can be found in {@code O(1)} and
+ * removed in {@code O(log q)}, where {@code q} is the number of queued
+ * moves. Each move knows its position in the heap, so it can be removed
+ * or re-positioned in {@code O(log q)} as well.</li>
+ * <li>An index of the moves by their coordinates
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch._Move#m_i
+ * i} and
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch._Move#m_j
+ * j}: For every tour index, there is one doubly-linked list of the moves
+ * starting there and one of the moves ending there.</li>
+ * </ol>
+ * <p>
+ * A move applied to the range {@code [i,j]} can only invalidate or change
+ * queued moves which have an index in {@code [i-2,j+2]}. Instead of
+ * checking the whole queue after each applied move, we hence only need to
+ * visit the index lists for this window. Since applying a move already
+ * takes {@code O(j-i)} steps, updating the queue costs
+ * {@code O(j-i+k*log q)} instead of {@code O(q)}, where {@code k} is the
+ * number of affected moves.
+ * </p>
+ */
+final class _MoveQueue {
+
+  /** the move comparator */
+  private final EMoveComparator m_cmp;
+
+  /** the moves indexed by their i coordinate */
+  private final _Move[] m_byI;
+
+  /** the moves indexed by their j coordinate */
+  private final _Move[] m_byJ;
+
+  /** the heap */
+  private _Move[] m_heap;
+
+  /** the number of moves in the heap */
+  private int m_size;
+
+  /** the moves affected by an update */
+  private _Move[] m_affected;
+
+  /** the current stamp */
+  private int m_stamp;
+
+  /**
+   * create the move queue
+   *
+   * @param n
+   *          the number of nodes
+   * @param cmp
+   *          the move comparator
+   */
+  _MoveQueue(final int n, final EMoveComparator cmp) {
+    super();
+    this.m_cmp = cmp;
+    this.m_byI = new _Move[n];
+    this.m_byJ = new _Move[n];
+    this.m_heap = new _Move[Math.max(16, n)];
+    this.m_affected = new _Move[16];
+  }
+
+  /**
+   * Is the queue empty?
+   *
+   * @return {@code true} if there are no moves in the queue, {@code false}
+   *         otherwise
+   */
+  final boolean isEmpty() {
+    return (this.m_size <= 0);
+  }
+
+  /**
+   * Add a move to the queue
+   *
+   * @param move
+   *          the move
+   */
+  final void add(final _Move move) {
+    final int size;
+
+    size = this.m_size;
+    if (size >= this.m_heap.length) {
+      this.m_heap = Arrays.copyOf(this.m_heap, (size << 1));
+    }
+    this.m_size = (size + 1);
+    this.__siftUp(move, size);
+    move.m_stamp = 0;
+
+    this.__linkI(move, move.m_i);
+    this.__linkJ(move, move.m_j);
+  }
+
+  /**
+   * Remove and return the best move from the queue
+   *
+   * @return the best move, or {@code null} if the queue is empty
+   */
+  final _Move poll() {
+    final _Move move;
+
+    if (this.m_size <= 0) {
+      return null;
+    }
+
+    move = this.m_heap[0];
+    this.__remove(move);
+    return move;
+  }
+
+  /**
+   * Remove all moves from the queue and prepend them to a list of unused
+   * moves (linked via
+   * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch._Move#m_next
+   * m_next}).
+   *
+   * @param old
+   *          the list of unused moves
+   * @return the new head of the list of unused moves
+   */
+  final _Move clear(final _Move old) {
+    final _Move[] heap;
+    _Move list, move;
+    int i;
+
+    heap = this.m_heap;
+    list = old;
+    for (i = this.m_size; (--i) >= 0;) {
+      move = heap[i];
+      heap[i] = null;
+      move.m_prevI = move.m_nextI = move.m_prevJ = move.m_nextJ = null;
+      move.m_next = list;
+      list = move;
+    }
+    this.m_size = 0;
+
+    Arrays.fill(this.m_byI, null);
+    Arrays.fill(this.m_byJ, null);
+    return list;
+  }
+
+  /**
+   * Update the queue after {@code applied} has been applied to the tour.
+   * All queued moves which are affected by the applied move are checked
+   * with
+   * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch._Move#checkDeleteMove(_Move, int)
+   * checkDeleteMove}. Moves that became invalid are removed from the queue
+   * and prepended to the list of unused moves, all other affected moves are
+   * re-indexed.
+   *
+   * @param applied
+   *          the move that was applied
+   * @param n
+   *          the number of nodes
+   * @param old
+   *          the list of unused moves
+   * @return the new head of the list of unused moves
+   */
+  final _Move update(final _Move applied, final int n, final _Move old) {
+    final int stamp;
+    final _Move[] affected;
+    _Move move, list;
+    int count, index, type;
+
+    if (this.m_size <= 0) {
+      return old;
+    }
+
+    if ((++this.m_stamp) == Integer.MAX_VALUE) {
+      for (index = this.m_size; (--index) >= 0;) {
+        this.m_heap[index].m_stamp = 0;
+      }
+      this.m_stamp = 1;
+    }
+    stamp = this.m_stamp;
+
+    // Collect all moves with an i or j coordinate in [i-2,j+2]. A swap
+    // move does not change the range between its coordinates (which may
+    // even be in reverse order), so only the indices near i and j matter.
+    if (applied.m_type == _Move.TYPE_SWAP) {
+      count = this.__collect(applied.m_i, 5, n, stamp, 0);
+      count = this.__collect(applied.m_j, 5, n, stamp, count);
+    } else {
+      count = this.__collect(applied.m_i,
+          Math.min(n, ((applied.m_j - applied.m_i) + 5)), n, stamp, 0);
+    }
+
+    // check the collected moves
+    affected = this.m_affected;
+    list = old;
+    for (; (--count) >= 0;) {
+      move = affected[count];
+      affected[count] = null;
+      type = move.m_type;
+
+      if (move.checkDeleteMove(applied, n)) {
+        this.__remove(move);
+        move.m_next = list;
+        list = move;
+        continue;
+      }
+
+      if (move.m_i != move.m_keyI) {
+        this.__unlinkI(move);
+        this.__linkI(move, move.m_i);
+      }
+      if (move.m_j != move.m_keyJ) {
+        this.__unlinkJ(move);
+        this.__linkJ(move, move.m_j);
+      }
+      if (move.m_type != type) {
+        // the order of the move may have changed
+        index = move.m_heapIndex;
+        this.__siftUp(move, index);
+        if (move.m_heapIndex == index) {
+          this.__siftDown(move, index);
+        }
+      }
+    }
+
+    return list;
+  }
+
+  /**
+   * Collect all moves whose i or j coordinate lies in the window of
+   * {@code steps} indices centered at {@code center} and which have not
+   * been collected yet.
+   *
+   * @param center
+   *          the center of the window
+   * @param steps
+   *          the window length
+   * @param n
+   *          the number of nodes
+   * @param stamp
+   *          the current stamp
+   * @param start
+   *          the number of moves collected so far
+   * @return the new number of collected moves
+   */
+  private final int __collect(final int center, final int steps,
+      final int n, final int stamp, final int start) {
+    final _Move[] byI, byJ;
+    _Move[] affected;
+    _Move move;
+    int count, index, i;
+
+    byI = this.m_byI;
+    byJ = this.m_byJ;
+    affected = this.m_affected;
+    count = start;
+    index = (center - 2);
+    while (index < 0) {
+      index += n;
+    }
+
+    for (i = steps; (--i) >= 0;) {
+      for (move = byI[index]; move != null; move = move.m_nextI) {
+        if (move.m_stamp != stamp) {
+          move.m_stamp = stamp;
+          if (count >= affected.length) {
+            this.m_affected = affected = Arrays.copyOf(affected,
+                (count << 1));
+          }
+          affected[count++] = move;
+        }
+      }
+      for (move = byJ[index]; move != null; move = move.m_nextJ) {
+        if (move.m_stamp != stamp) {
+          move.m_stamp = stamp;
+          if (count >= affected.length) {
+            this.m_affected = affected = Arrays.copyOf(affected,
+                (count << 1));
+          }
+          affected[count++] = move;
+        }
+      }
+      if ((++index) >= n) {
+        index = 0;
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Remove a move from the heap and the index
+   *
+   * @param move
+   *          the move
+   */
+  private final void __remove(final _Move move) {
+    final _Move[] heap;
+    final _Move last;
+    final int index, size;
+
+    heap = this.m_heap;
+    index = move.m_heapIndex;
+    this.m_size = size = (this.m_size - 1);
+    last = heap[size];
+    heap[size] = null;
+
+    if (last != move) {
+      this.__siftUp(last, index);
+      if (last.m_heapIndex == index) {
+        this.__siftDown(last, index);
+      }
+    }
+
+    this.__unlinkI(move);
+    this.__unlinkJ(move);
+  }
+
+  /**
+   * Move a move up in the heap, starting at the given position
+   *
+   * @param move
+   *          the move
+   * @param start
+   *          the start index
+   */
+  private final void __siftUp(final _Move move, final int start) {
+    final _Move[] heap;
+    final EMoveComparator cmp;
+    _Move parent;
+    int index, parentIndex;
+
+    heap = this.m_heap;
+    cmp = this.m_cmp;
+    index = start;
+    while (index > 0) {
+      parentIndex = ((index - 1) >>> 1);
+      parent = heap[parentIndex];
+      if (cmp.compare(move, parent) >= 0) {
+        break;
+      }
+      heap[index] = parent;
+      parent.m_heapIndex = index;
+      index = parentIndex;
+    }
+    heap[index] = move;
+    move.m_heapIndex = index;
+  }
+
+  /**
+   * Move a move down in the heap, starting at the given position
+   *
+   * @param move
+   *          the move
+   * @param start
+   *          the start index
+   */
+  private final void __siftDown(final _Move move, final int start) {
+    final _Move[] heap;
+    final EMoveComparator cmp;
+    final int size, half;
+    _Move child, right;
+    int index, childIndex;
+
+    heap = this.m_heap;
+    cmp = this.m_cmp;
+    size = this.m_size;
+    half = (size >>> 1);
+    index = start;
+    while (index < half) {
+      childIndex = ((index << 1) + 1);
+      child = heap[childIndex];
+      if ((childIndex + 1) < size) {
+        right = heap[childIndex + 1];
+        if (cmp.compare(right, child) < 0) {
+          childIndex++;
+          child = right;
+        }
+      }
+      if (cmp.compare(move, child) <= 0) {
+        break;
+      }
+      heap[index] = child;
+      child.m_heapIndex = index;
+      index = childIndex;
+    }
+    heap[index] = move;
+    move.m_heapIndex = index;
+  }
+
+  /**
+   * Link a move into the i-index
+   *
+   * @param move
+   *          the move
+   * @param key
+   *          the key
+   */
+  private final void __linkI(final _Move move, final int key) {
+    final _Move head;
+
+    head = this.m_byI[key];
+    move.m_keyI = key;
+    move.m_prevI = null;
+    move.m_nextI = head;
+    if (head != null) {
+      head.m_prevI = move;
+    }
+    this.m_byI[key] = move;
+  }
+
+  /**
+   * Remove a move from the i-index
+   *
+   * @param move
+   *          the move
+   */
+  private final void __unlinkI(final _Move move) {
+    final _Move prev, next;
+
+    prev = move.m_prevI;
+    next = move.m_nextI;
+    if (prev == null) {
+      this.m_byI[move.m_keyI] = next;
+    } else {
+      prev.m_nextI = next;
+    }
+    if (next != null) {
+      next.m_prevI = prev;
+    }
+    move.m_prevI = move.m_nextI = null;
+  }
+
+  /**
+   * Link a move into the j-index
+   *
+   * @param move
+   *          the move
+   * @param key
+   *          the key
+   */
+  private final void __linkJ(final _Move move, final int key) {
+    final _Move head;
+
+    head = this.m_byJ[key];
+    move.m_keyJ = key;
+    move.m_prevJ = null;
+    move.m_nextJ = head;
+    if (head != null) {
+      head.m_prevJ = move;
+    }
+    this.m_byJ[key] = move;
+  }
+
+  /**
+   * Remove a move from the j-index
+   *
+   * @param move
+   *          the move
+   */
+  private final void __unlinkJ(final _Move move) {
+    final _Move prev, next;
+
+    prev = move.m_prevJ;
+    next = move.m_nextJ;
+    if (prev == null) {
+      this.m_byJ[move.m_keyJ] = next;
+    } else {
+      prev.m_nextJ = next;
+    }
+    if (next != null) {
+      next.m_prevJ = prev;
+    }
+    move.m_prevJ = move.m_nextJ = null;
+  }
+}
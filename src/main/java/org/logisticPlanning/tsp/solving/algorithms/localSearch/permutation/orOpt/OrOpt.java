@@ -0,0 +1,498 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.orOpt;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.utils.DontLookBits;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * The Or-opt local search: A segment of one to
+ * {@link #PARAM_MAX_SEGMENT_LENGTH three} consecutive nodes is removed
+ * from the tour and inserted, in either orientation, between two other
+ * adjacent nodes. This is a restricted form of a 3-opt move which only
+ * needs {@code O(n)} instead of {@code O(n^3)} candidate moves per node.
+ * </p>
+ * <p>
+ * The search is driven by a
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet
+ * candidate set}: For a segment {@code S=s1..sL} with predecessor
+ * {@code p} and successor {@code q}, removing it gains
+ * {@code g=d(p,s1)+d(sL,q)-d(p,q)}. It is only inserted next to a
+ * candidate {@code c} of one of its end nodes {@code e}, such that the
+ * new edge {@code (c,e)} is one of the nearest neighbor edges of
+ * {@code e}, and only if {@code d(c,e)<g}, i.e., if the new edge is
+ * shorter than the gain of the removal. The change of the tour length of
+ * each move is computed from the six affected edges in {@code O(1)}. The
+ * segments checked are those starting or ending at the nodes taken from a
+ * {@link org.logisticPlanning.tsp.solving.utils.DontLookBits queue of
+ * active nodes}: a node is only looked at again after one of its incident
+ * edges has been changed by an improving move. For each node, the best
+ * move is applied.
+ * </p>
+ * <p>
+ * The move is carried out by reversing the segment together with the
+ * shorter one of the two blocks between the segment and its new position
+ * and then reversing the two parts again, so it costs {@code O(L+k)},
+ * where {@code k} is the length of the shorter block.
+ * </p>
+ */
+public class OrOpt extends TSPLocalSearchAlgorithm<int[]> {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the default number of candidates per node: {@value}
+   *
+   * @see #PARAM_CANDIDATE_COUNT
+   */
+  public static final int DEFAULT_CANDIDATE_COUNT = 10;
+
+  /**
+   * the parameter for the number of candidates per node: {@value}
+   *
+   * @see #DEFAULT_CANDIDATE_COUNT
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "orOptCandidateCount"; //$NON-NLS-1$
+
+  /**
+   * the default maximum segment length: {@value}
+   *
+   * @see #PARAM_MAX_SEGMENT_LENGTH
+   */
+  public static final int DEFAULT_MAX_SEGMENT_LENGTH = 3;
+
+  /**
+   * the parameter for the maximum length of the moved segments: {@value}
+   *
+   * @see #DEFAULT_MAX_SEGMENT_LENGTH
+   */
+  public static final String PARAM_MAX_SEGMENT_LENGTH = "orOptMaxSegmentLength"; //$NON-NLS-1$
+
+  /** the number of candidates per node */
+  private int m_candidateCount;
+
+  /** the maximum length of the moved segments */
+  private int m_maxSegmentLength;
+
+  /** the candidate set */
+  private transient CandidateSet m_candidates;
+
+  /** the active nodes and don't-look bits */
+  private transient DontLookBits m_active;
+
+  /** the positions of the nodes in the tour */
+  private transient int[] m_pos;
+
+  /** has the last local search been completed? */
+  private transient boolean m_complete;
+
+  /** create */
+  public OrOpt() {
+    super("Or-opt"); //$NON-NLS-1$
+    this.m_candidateCount = OrOpt.DEFAULT_CANDIDATE_COUNT;
+    this.m_maxSegmentLength = OrOpt.DEFAULT_MAX_SEGMENT_LENGTH;
+  }
+
+  /**
+   * the main routine
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public final static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        OrOpt.class, args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public TSPAlgorithm clone() {
+    final OrOpt x;
+
+    x = ((OrOpt) (super.clone()));
+    x.__clear();
+    return x;
+  }
+
+  /** clear the internal data structures */
+  private final void __clear() {
+    this.m_candidates = null;
+    this.m_active = null;
+    this.m_pos = null;
+    this.m_complete = false;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    super.beginRun(f);
+
+    this.m_candidates = CandidateSet.allocate(f, this.m_candidateCount,
+        null);
+    this.m_active = new DontLookBits();
+    this.m_pos = new int[f.n()];
+    this.m_complete = false;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      this.__clear();
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final int[] solution;
+
+    solution = srcdst.solution;
+    this.m_active.init(solution.length);
+    this.m_active.activateAll(solution);
+    this.__localSearch(srcdst, f);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If the last local search was completed, all nodes not touched by the
+   * perturbation still have their don't-look bits set, so only the dirty
+   * nodes are activated.
+   * </p>
+   */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f, final int[] dirty, final int dirtyCount) {
+    final DontLookBits active;
+    int i;
+
+    if ((!(this.m_complete)) || (dirtyCount < 0)) {
+      this.localSearch(srcdst, f);
+      return;
+    }
+
+    active = this.m_active;
+    active.init(srcdst.solution.length);
+    for (i = 0; i < dirtyCount; i++) {
+      active.activate(dirty[i]);
+    }
+    this.__localSearch(srcdst, f);
+  }
+
+  /**
+   * Perform the local search starting at the active nodes
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   */
+  private final void __localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final int[] tour, pos;
+    final DontLookBits active;
+    final CandidateSet candidates;
+    final int n, m, maxLength;
+    int i, k, a, pa, length, side, start, end, s1, sL, prev, next, e;
+    int other, c, pc, u, v, pu, pv, dce;
+    int bestStart, bestLength, bestU, bestX;
+    long removeGain, gain, bestGain;
+
+    tour = srcdst.solution;
+    n = tour.length;
+    pos = this.m_pos;
+    active = this.m_active;
+    candidates = this.m_candidates;
+    m = candidates.m();
+    this.m_complete = false;
+
+    maxLength = Math.min(this.m_maxSegmentLength, (n - 4));
+    if (maxLength <= 0) {
+      this.m_complete = true;
+      return;
+    }
+
+    for (i = n; (--i) >= 0;) {
+      pos[tour[i] - 1] = i;
+    }
+
+    mainLoop: while ((a = active.next()) > 0) {
+      if (f.shouldTerminate()) {
+        return;
+      }
+
+      bestGain = 0L;
+      bestStart = bestLength = bestU = bestX = (-1);
+      pa = pos[a - 1];
+
+      for (length = 1; length <= maxLength; length++) {
+        for (side = 0; side < 2; side++) {
+          // the segment either starts or ends at node a
+          if (side == 0) {
+            start = pa;
+          } else {
+            if (length <= 1) {
+              break;
+            }
+            start = (((pa + n) - length) + 1) % n;
+          }
+          end = (((start + length) - 1) % n);
+          s1 = tour[start];
+          sL = tour[end];
+          prev = tour[((start + n) - 1) % n];
+          next = tour[(end + 1) % n];
+          removeGain = ((((long) (f.distance(prev, s1))) + //
+          f.distance(sL, next)) - f.distance(prev, next));
+          if (removeGain <= 0L) {
+            continue;
+          }
+
+          for (i = ((length <= 1) ? 1 : 2); (--i) >= 0;) {
+            if (i == 0) {
+              e = s1;
+              other = sL;
+            } else {
+              e = sL;
+              other = s1;
+            }
+
+            for (k = 1; k <= m; k++) {
+              c = candidates.getCandidate(e, k);
+              dce = f.distance(c, e);
+              if (dce >= removeGain) {
+                continue;
+              }
+              pc = pos[c - 1];
+              if ((((pc - start) + n) % n) < length) {
+                continue; // c is in the segment
+              }
+
+              // insert between c and its successor: c e .. other v
+              pv = ((pc + 1) % n);
+              if ((((pv - start) + n) % n) >= length) {
+                v = tour[pv];
+                gain = (removeGain - ((((long) dce) + //
+                f.distance(other, v)) - f.distance(c, v)));
+                if (gain > bestGain) {
+                  bestGain = gain;
+                  bestStart = start;
+                  bestLength = length;
+                  bestU = pc;
+                  bestX = e;
+                }
+              }
+
+              // insert between the predecessor of c and c: u other .. e c
+              pu = (((pc + n) - 1) % n);
+              if ((((pu - start) + n) % n) >= length) {
+                u = tour[pu];
+                gain = (removeGain - ((((long) dce) + //
+                f.distance(u, other)) - f.distance(u, c)));
+                if (gain > bestGain) {
+                  bestGain = gain;
+                  bestStart = start;
+                  bestLength = length;
+                  bestU = pu;
+                  bestX = other;
+                }
+              }
+            }
+          }
+        }
+      }
+
+      if (bestGain <= 0L) {
+        continue mainLoop;
+      }
+
+      // activate the end nodes of all changed edges
+      active.activate(a);
+      active.activate(tour[((bestStart + n) - 1) % n]);
+      active.activate(tour[bestStart]);
+      end = (((bestStart + bestLength) - 1) % n);
+      active.activate(tour[end]);
+      active.activate(tour[(end + 1) % n]);
+      active.activate(tour[bestU]);
+      active.activate(tour[(bestU + 1) % n]);
+
+      this.__move(tour, bestStart, bestLength, bestU, bestX);
+
+      srcdst.tourLength -= bestGain;
+      f.registerFE(tour, srcdst.tourLength);
+    }
+
+    this.m_complete = true;
+  }
+
+  /**
+   * Move the segment of {@code length} nodes starting at position
+   * {@code start} between the nodes at positions {@code u} and
+   * {@code u+1}, such that node {@code x}, which is one of the end nodes
+   * of the segment, comes directly after the node at position {@code u}.
+   *
+   * @param tour
+   *          the tour
+   * @param start
+   *          the start position of the segment
+   * @param length
+   *          the length of the segment
+   * @param u
+   *          the position of the node after which the segment is inserted
+   * @param x
+   *          the end node of the segment which should be next to the node
+   *          at position {@code u}
+   */
+  private final void __move(final int[] tour, final int start,
+      final int length, final int u, final int x) {
+    final int n, forward, backward;
+    int segment;
+
+    n = tour.length;
+    forward = ((((u - start) + n) % n) - length) + 1;
+    backward = ((n - length) - forward);
+
+    if (forward <= backward) {
+      // S X -> X S: reverse both, then the block X
+      this.__reverse(tour, start, (length + forward));
+      this.__reverse(tour, start, forward);
+      segment = ((start + forward) % n);
+    } else {
+      // Y S -> S Y: reverse both, then the block Y
+      segment = ((u + 1) % n);
+      this.__reverse(tour, segment, (backward + length));
+      this.__reverse(tour, ((segment + length) % n), backward);
+    }
+
+    // the segment is now reversed, i.e., starts with its original end
+    if (tour[segment] != x) {
+      this.__reverse(tour, segment, length);
+    }
+  }
+
+  /**
+   * Reverse a (cyclic) range of the tour and update the node positions
+   *
+   * @param tour
+   *          the tour
+   * @param start
+   *          the start index
+   * @param length
+   *          the number of nodes to reverse
+   */
+  private final void __reverse(final int[] tour, final int start,
+      final int length) {
+    final int[] pos;
+    final int n;
+    int i, j, k, a, b;
+
+    pos = this.m_pos;
+    n = tour.length;
+
+    i = start;
+    j = ((start + length) - 1);
+    if (j >= n) {
+      j -= n;
+    }
+    for (k = (length >>> 1); (--k) >= 0;) {
+      a = tour[i];
+      b = tour[j];
+      tour[i] = b;
+      pos[b - 1] = i;
+      tour[j] = a;
+      pos[a - 1] = j;
+      if ((++i) >= n) {
+        i = 0;
+      }
+      if ((--j) < 0) {
+        j = (n - 1);
+      }
+    }
+  }
+
+  /**
+   * Set the number of candidates per node
+   *
+   * @param count
+   *          the number of candidates
+   */
+  public final void setCandidateCount(final int count) {
+    this.m_candidateCount = Math.max(1, count);
+  }
+
+  /**
+   * Get the number of candidates per node
+   *
+   * @return the number of candidates per node
+   */
+  public final int getCandidateCount() {
+    return this.m_candidateCount;
+  }
+
+  /**
+   * Set the maximum length of the moved segments
+   *
+   * @param length
+   *          the maximum segment length
+   */
+  public final void setMaxSegmentLength(final int length) {
+    this.m_maxSegmentLength = Math.max(1, length);
+  }
+
+  /**
+   * Get the maximum length of the moved segments
+   *
+   * @return the maximum segment length
+   */
+  public final int getMaxSegmentLength() {
+    return this.m_maxSegmentLength;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.m_candidateCount = config.getInt(OrOpt.PARAM_CANDIDATE_COUNT, 1,
+        1000000, this.m_candidateCount);
+    this.m_maxSegmentLength = config.getInt(OrOpt.PARAM_MAX_SEGMENT_LENGTH,
+        1, 1000000, this.m_maxSegmentLength);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(OrOpt.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+
+    Configurable.printKey(OrOpt.PARAM_MAX_SEGMENT_LENGTH, ps);
+    ps.println(this.m_maxSegmentLength);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(OrOpt.PARAM_CANDIDATE_COUNT, ps);
+    ps.println("the number of nearest neighbors in the candidate sets per node"); //$NON-NLS-1$
+
+    Configurable.printKey(OrOpt.PARAM_MAX_SEGMENT_LENGTH, ps);
+    ps.println("the maximum number of nodes in a moved segment"); //$NON-NLS-1$
+  }
+}
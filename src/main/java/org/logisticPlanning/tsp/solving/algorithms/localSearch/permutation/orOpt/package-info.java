@@ -0,0 +1,6 @@
+/**
+ * The Or-opt local search, which moves short segments of the tour to
+ * positions next to the nearest neighbors of their end nodes.
+ */
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.orOpt;
+
@@ -0,0 +1,609 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.DontLookBits;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A {@link SegmentOptimizer segment optimizer} which applies 2-opt and
+ * Or-opt moves to an open path with fixed end nodes until no improving
+ * move can be found anymore.
+ * </p>
+ * <p>
+ * The moves are driven by neighbor lists which only contain the
+ * {@link #PARAM_CANDIDATE_COUNT nearest neighbors} of each node within
+ * the segment. These lists are built for each segment from scratch with
+ * {@code L(L-1)/2} distance evaluations, where {@code L} is the number of
+ * nodes in the segment, so no candidate set for the whole instance is
+ * needed, which would take {@code O(n<sup>2</sup>)} steps for
+ * {@code n} nodes. Since the lists are sorted by distance, the scan of a
+ * list stops at the first neighbor which is farther away than the removed
+ * edge (2-opt) or than the gain of removing the moved segment (Or-opt).
+ * </p>
+ * <p>
+ * The nodes to investigate are taken from a
+ * {@link org.logisticPlanning.tsp.solving.utils.DontLookBits queue of
+ * active nodes}. For each node, the best 2-opt move which makes it
+ * adjacent to one of its neighbors and the best move of a segment of up
+ * to {@link #PARAM_MAX_OR_OPT_LENGTH three} nodes beginning or ending at
+ * it is applied. The end nodes of the changed edges are activated again.
+ * </p>
+ */
+public class Or2OptSegmentOptimizer extends SegmentOptimizer {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the default number of neighbors per node: {@value}
+   *
+   * @see #PARAM_CANDIDATE_COUNT
+   */
+  public static final int DEFAULT_CANDIDATE_COUNT = 8;
+
+  /**
+   * the parameter for the number of neighbors per node: {@value}
+   *
+   * @see #DEFAULT_CANDIDATE_COUNT
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "segmentCandidateCount"; //$NON-NLS-1$
+
+  /**
+   * the default maximum length of the segments moved by Or-opt: {@value}
+   *
+   * @see #PARAM_MAX_OR_OPT_LENGTH
+   */
+  public static final int DEFAULT_MAX_OR_OPT_LENGTH = 3;
+
+  /**
+   * the parameter for the maximum length of the segments moved by Or-opt,
+   * {@code 0} for pure 2-opt: {@value}
+   *
+   * @see #DEFAULT_MAX_OR_OPT_LENGTH
+   */
+  public static final String PARAM_MAX_OR_OPT_LENGTH = "segmentOrOptMaxLength"; //$NON-NLS-1$
+
+  /** the move type 2-opt */
+  private static final int TWO_OPT = 1;
+
+  /** the move type Or-opt */
+  private static final int OR_OPT = 2;
+
+  /** the number of neighbors per node */
+  private int m_candidateCount;
+
+  /** the maximum length of the segments moved by Or-opt */
+  private int m_maxOrOptLength;
+
+  /** the nodes, indexed by their local id in {@code 1..L} */
+  private transient int[] m_nodes;
+
+  /** the local ids of the nodes in the order of the path */
+  private transient int[] m_path;
+
+  /** the positions in {@link #m_path}, indexed by local id */
+  private transient int[] m_pos;
+
+  /** the neighbor lists: {@code k} entries per local id */
+  private transient int[] m_neighbors;
+
+  /** the distances to the neighbors */
+  private transient int[] m_neighborDists;
+
+  /** the number of neighbors found so far, indexed by local id */
+  private transient int[] m_neighborCounts;
+
+  /** the active nodes */
+  private transient DontLookBits m_active;
+
+  /** create */
+  public Or2OptSegmentOptimizer() {
+    super("Or-opt/2-opt Segment Optimizer"); //$NON-NLS-1$
+    this.m_candidateCount = Or2OptSegmentOptimizer.DEFAULT_CANDIDATE_COUNT;
+    this.m_maxOrOptLength = Or2OptSegmentOptimizer.DEFAULT_MAX_OR_OPT_LENGTH;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final long optimize(final int[] path, final int start,
+      final int end, final DistanceComputer dist) {
+    final int[] nodes, local, pos;
+    final DontLookBits active;
+    final int length, k;
+    long delta;
+    int p, a;
+
+    length = ((end - start) + 1);
+    if (length < 4) {
+      return 0L;
+    }
+    k = Math.min(this.m_candidateCount, (length - 1));
+    this.__allocate(length, k);
+
+    nodes = this.m_nodes;
+    local = this.m_path;
+    pos = this.m_pos;
+    for (p = length; (--p) >= 0;) {
+      a = (p + 1);
+      nodes[a] = path[start + p];
+      local[p] = a;
+      pos[a] = p;
+    }
+
+    this.__computeNeighbors(length, k, dist);
+
+    active = this.m_active;
+    active.init(length);
+    for (a = 1; a <= length; a++) {
+      active.activate(a);
+    }
+
+    delta = 0L;
+    while ((a = active.next()) > 0) {
+      delta += this.__improve(a, length, k, dist);
+    }
+
+    if (delta < 0L) {
+      for (p = length; (--p) >= 0;) {
+        path[start + p] = nodes[local[p]];
+      }
+    }
+    return delta;
+  }
+
+  /**
+   * Make sure that the internal arrays can hold a segment of the given
+   * length
+   *
+   * @param length
+   *          the number of nodes in the segment
+   * @param k
+   *          the number of neighbors per node
+   */
+  private final void __allocate(final int length, final int k) {
+    final int size;
+
+    if ((this.m_path == null) || (this.m_path.length < length)) {
+      this.m_nodes = new int[length + 1];
+      this.m_path = new int[length];
+      this.m_pos = new int[length + 1];
+      this.m_neighborCounts = new int[length + 1];
+    }
+    size = ((length + 1) * k);
+    if ((this.m_neighbors == null) || (this.m_neighbors.length < size)) {
+      this.m_neighbors = new int[size];
+      this.m_neighborDists = new int[size];
+    }
+    if (this.m_active == null) {
+      this.m_active = new DontLookBits();
+    }
+  }
+
+  /**
+   * Compute the {@code k} nearest neighbors of each node in the segment
+   *
+   * @param length
+   *          the number of nodes in the segment
+   * @param k
+   *          the number of neighbors per node
+   * @param dist
+   *          the distance computer
+   */
+  private final void __computeNeighbors(final int length, final int k,
+      final DistanceComputer dist) {
+    final int[] nodes, counts;
+    int u, v, nu, d;
+
+    nodes = this.m_nodes;
+    counts = this.m_neighborCounts;
+    for (u = length; u > 0; u--) {
+      counts[u] = 0;
+    }
+
+    for (u = 1; u < length; u++) {
+      nu = nodes[u];
+      for (v = (u + 1); v <= length; v++) {
+        d = dist.distance(nu, nodes[v]);
+        this.__addNeighbor(u, v, d, k);
+        this.__addNeighbor(v, u, d, k);
+      }
+    }
+  }
+
+  /**
+   * Insert a node into the sorted neighbor list of another node, if it is
+   * among the {@code k} nearest ones found so far.
+   *
+   * @param u
+   *          the local id of the node whose list is updated
+   * @param v
+   *          the local id of the neighbor
+   * @param d
+   *          the distance between {@code u} and {@code v}
+   * @param k
+   *          the number of neighbors per node
+   */
+  private final void __addNeighbor(final int u, final int v, final int d,
+      final int k) {
+    final int[] neighbors, dists;
+    final int base;
+    int count, i;
+
+    neighbors = this.m_neighbors;
+    dists = this.m_neighborDists;
+    base = (u * k);
+    count = this.m_neighborCounts[u];
+
+    if (count < k) {
+      this.m_neighborCounts[u] = (count + 1);
+      i = (base + count);
+    } else {
+      i = ((base + k) - 1);
+      if (d >= dists[i]) {
+        return;
+      }
+    }
+
+    for (; (i > base) && (dists[i - 1] > d); i--) {
+      neighbors[i] = neighbors[i - 1];
+      dists[i] = dists[i - 1];
+    }
+    neighbors[i] = v;
+    dists[i] = d;
+  }
+
+  /**
+   * Find and apply the best move around a given node
+   *
+   * @param a
+   *          the local id of the node
+   * @param length
+   *          the number of nodes in the segment
+   * @param k
+   *          the number of neighbors per node
+   * @param dist
+   *          the distance computer
+   * @return the change of the path length, {@code 0L} if no improving
+   *         move was found
+   */
+  private final long __improve(final int a, final int length, final int k,
+      final DistanceComputer dist) {
+    final int[] nodes, path, pos, neighbors, dists;
+    final DontLookBits active;
+    final int last, i, base, maxLength;
+    int j, c, b, e, q, s, end, len, side, endNode, other, pc, bestType;
+    int bestX, bestY, bestLength, bestNode;
+    long best, delta, removeGain;
+
+    nodes = this.m_nodes;
+    path = this.m_path;
+    pos = this.m_pos;
+    neighbors = this.m_neighbors;
+    dists = this.m_neighborDists;
+    last = (length - 1);
+    i = pos[a];
+    base = (a * k);
+
+    best = 0L;
+    bestType = 0;
+    bestX = bestY = bestLength = bestNode = (-1);
+
+    // 2-opt: replace the edge from a to its successor
+    if (i < last) {
+      b = path[i + 1];
+      removeGain = dist.distance(nodes[a], nodes[b]);
+      for (q = base; q < (base + k); q++) {
+        if (dists[q] >= removeGain) {
+          break;
+        }
+        c = neighbors[q];
+        j = pos[c];
+        if (j >= last) {
+          continue;
+        }
+        e = path[j + 1];
+        delta = ((((long) (dists[q])) + dist.distance(nodes[b], nodes[e])) - //
+        (removeGain + dist.distance(nodes[c], nodes[e])));
+        if (delta < best) {
+          best = delta;
+          bestType = Or2OptSegmentOptimizer.TWO_OPT;
+          bestX = (Math.min(i, j) + 1);
+          bestY = Math.max(i, j);
+        }
+      }
+    }
+
+    // 2-opt: replace the edge from the predecessor of a to a
+    if (i > 0) {
+      b = path[i - 1];
+      removeGain = dist.distance(nodes[b], nodes[a]);
+      for (q = base; q < (base + k); q++) {
+        if (dists[q] >= removeGain) {
+          break;
+        }
+        c = neighbors[q];
+        j = pos[c];
+        if (j <= 0) {
+          continue;
+        }
+        e = path[j - 1];
+        delta = ((((long) (dists[q])) + dist.distance(nodes[b], nodes[e])) - //
+        (removeGain + dist.distance(nodes[e], nodes[c])));
+        if (delta < best) {
+          best = delta;
+          bestType = Or2OptSegmentOptimizer.TWO_OPT;
+          bestX = Math.min(i, j);
+          bestY = (Math.max(i, j) - 1);
+        }
+      }
+    }
+
+    // Or-opt: move a segment beginning or ending at a next to a neighbor
+    // of one of its end nodes
+    maxLength = Math.min(this.m_maxOrOptLength, (length - 4));
+    for (len = 1; len <= maxLength; len++) {
+      for (side = 0; side < 2; side++) {
+        if (side == 0) {
+          s = i;
+        } else {
+          if (len <= 1) {
+            break;
+          }
+          s = ((i - len) + 1);
+        }
+        end = ((s + len) - 1);
+        if ((s < 1) || (end >= last)) {
+          continue;
+        }
+
+        removeGain = ((((long) (dist.distance(nodes[path[s - 1]],
+            nodes[path[s]]))) + //
+        dist.distance(nodes[path[end]], nodes[path[end + 1]])) - //
+        dist.distance(nodes[path[s - 1]], nodes[path[end + 1]]));
+        if (removeGain <= 0L) {
+          continue;
+        }
+
+        for (j = ((len <= 1) ? 1 : 2); (--j) >= 0;) {
+          if (j == 0) {
+            endNode = path[s];
+            other = path[end];
+          } else {
+            endNode = path[end];
+            other = path[s];
+          }
+
+          for (q = (endNode * k), e = (q + k); q < e; q++) {
+            if (dists[q] >= removeGain) {
+              break;
+            }
+            c = neighbors[q];
+            pc = pos[c];
+            if ((pc >= s) && (pc <= end)) {
+              continue;
+            }
+
+            // insert between c and its successor: c endNode .. other v
+            if ((pc < last) && ((pc + 1) != s)) {
+              b = path[pc + 1];
+              delta = (((((long) (dists[q])) + //
+              dist.distance(nodes[other], nodes[b])) - //
+              dist.distance(nodes[c], nodes[b])) - removeGain);
+              if (delta < best) {
+                best = delta;
+                bestType = Or2OptSegmentOptimizer.OR_OPT;
+                bestX = s;
+                bestLength = len;
+                bestY = pc;
+                bestNode = endNode;
+              }
+            }
+
+            // insert between the predecessor of c and c: u other .. endNode c
+            if ((pc > 0) && ((pc - 1) != end)) {
+              b = path[pc - 1];
+              delta = (((((long) (dists[q])) + //
+              dist.distance(nodes[b], nodes[other])) - //
+              dist.distance(nodes[b], nodes[c])) - removeGain);
+              if (delta < best) {
+                best = delta;
+                bestType = Or2OptSegmentOptimizer.OR_OPT;
+                bestX = s;
+                bestLength = len;
+                bestY = (pc - 1);
+                bestNode = other;
+              }
+            }
+          }
+        }
+      }
+    }
+
+    if (bestType == 0) {
+      return 0L;
+    }
+
+    // activate the end nodes of all changed edges
+    active = this.m_active;
+    active.activate(a);
+    if (bestType == Or2OptSegmentOptimizer.TWO_OPT) {
+      active.activate(path[bestX - 1]);
+      active.activate(path[bestX]);
+      active.activate(path[bestY]);
+      active.activate(path[bestY + 1]);
+      this.__reverse(bestX, bestY);
+    } else {
+      end = ((bestX + bestLength) - 1);
+      active.activate(path[bestX - 1]);
+      active.activate(path[bestX]);
+      active.activate(path[end]);
+      active.activate(path[end + 1]);
+      active.activate(path[bestY]);
+      active.activate(path[bestY + 1]);
+      this.__move(bestX, bestLength, bestY, bestNode);
+    }
+    return best;
+  }
+
+  /**
+   * Move the segment of {@code length} nodes starting at position
+   * {@code start} between the positions {@code t} and {@code t+1}, such
+   * that the node {@code x}, which is one of the end nodes of the segment,
+   * comes directly after the node at position {@code t}.
+   *
+   * @param start
+   *          the start position of the segment
+   * @param length
+   *          the length of the segment
+   * @param t
+   *          the position of the node after which the segment is inserted
+   * @param x
+   *          the end node of the segment which should be next to the node
+   *          at position {@code t}
+   */
+  private final void __move(final int start, final int length,
+      final int t, final int x) {
+    final int end;
+    int segment;
+
+    end = ((start + length) - 1);
+    if (t > end) {
+      // S X -> X S: reverse both, then the block X
+      this.__reverse(start, t);
+      segment = (start + (t - end));
+      this.__reverse(start, (segment - 1));
+    } else {
+      // Y S -> S Y: reverse both, then the block Y
+      segment = (t + 1);
+      this.__reverse(segment, end);
+      this.__reverse((segment + length), end);
+    }
+
+    // the segment is now reversed, i.e., starts with its original end
+    if (this.m_path[segment] != x) {
+      this.__reverse(segment, ((segment + length) - 1));
+    }
+  }
+
+  /**
+   * Reverse the sub-path between two positions and update the positions
+   * of the nodes
+   *
+   * @param from
+   *          the first position
+   * @param to
+   *          the last position
+   */
+  private final void __reverse(final int from, final int to) {
+    final int[] path, pos;
+    int i, j, a, b;
+
+    path = this.m_path;
+    pos = this.m_pos;
+    for (i = from, j = to; i < j; i++, j--) {
+      a = path[i];
+      b = path[j];
+      path[i] = b;
+      pos[b] = i;
+      path[j] = a;
+      pos[a] = j;
+    }
+  }
+
+  /**
+   * Set the number of neighbors per node
+   *
+   * @param count
+   *          the number of neighbors per node
+   */
+  public final void setCandidateCount(final int count) {
+    this.m_candidateCount = Math.max(1, count);
+  }
+
+  /**
+   * Get the number of neighbors per node
+   *
+   * @return the number of neighbors per node
+   */
+  public final int getCandidateCount() {
+    return this.m_candidateCount;
+  }
+
+  /**
+   * Set the maximum length of the segments moved by Or-opt
+   *
+   * @param length
+   *          the maximum segment length, {@code 0} for pure 2-opt
+   */
+  public final void setMaxOrOptLength(final int length) {
+    this.m_maxOrOptLength = Math.max(0, length);
+  }
+
+  /**
+   * Get the maximum length of the segments moved by Or-opt
+   *
+   * @return the maximum segment length
+   */
+  public final int getMaxOrOptLength() {
+    return this.m_maxOrOptLength;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Or2OptSegmentOptimizer clone() {
+    final Or2OptSegmentOptimizer res;
+
+    res = ((Or2OptSegmentOptimizer) (super.clone()));
+    res.m_nodes = null;
+    res.m_path = null;
+    res.m_pos = null;
+    res.m_neighbors = null;
+    res.m_neighborDists = null;
+    res.m_neighborCounts = null;
+    res.m_active = null;
+    return res;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.m_candidateCount = config.getInt(
+        Or2OptSegmentOptimizer.PARAM_CANDIDATE_COUNT, 1, 1000000,
+        this.m_candidateCount);
+    this.m_maxOrOptLength = config.getInt(
+        Or2OptSegmentOptimizer.PARAM_MAX_OR_OPT_LENGTH, 0, 1000000,
+        this.m_maxOrOptLength);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(Or2OptSegmentOptimizer.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+
+    Configurable.printKey(Or2OptSegmentOptimizer.PARAM_MAX_OR_OPT_LENGTH,
+        ps);
+    ps.println(this.m_maxOrOptLength);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(Or2OptSegmentOptimizer.PARAM_CANDIDATE_COUNT, ps);
+    ps.println("the number of nearest neighbors per node within a segment"); //$NON-NLS-1$
+
+    Configurable.printKey(Or2OptSegmentOptimizer.PARAM_MAX_OR_OPT_LENGTH,
+        ps);
+    ps.println("the maximum number of nodes moved by an Or-opt move, 0 for pure 2-opt"); //$NON-NLS-1$
+  }
+}
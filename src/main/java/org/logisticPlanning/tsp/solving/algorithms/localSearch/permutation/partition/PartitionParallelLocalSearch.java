@@ -0,0 +1,897 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.utils.DontLookBits;
+import org.logisticPlanning.tsp.solving.utils.FastMap;
+import org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * A partition-parallel local search for very large instances&nbsp;[<a
+ * href="#cite_K1977PAOPAFTTSPITP" style="font-weight:bold">1</a>]: The
+ * nodes are placed in the plane with the
+ * {@link org.logisticPlanning.tsp.solving.utils.FastMap FastMap}
+ * projection, which needs only {@code 5(n-1)} distance evaluations, and
+ * the plane is divided into spatial regions of at most
+ * {@link #PARAM_REGION_SIZE regionSize} nodes by recursively splitting
+ * the set of nodes at the median of its wider coordinate, as in Karp's
+ * partitioning scheme. The partition is computed once per run.
+ * </p>
+ * <p>
+ * In each round, the nodes of every region are listed in the order in
+ * which the current tour visits them. This sub-tour of a region is an
+ * open path which is improved by a pluggable
+ * {@link #PARAM_SEGMENT_OPTIMIZER segment optimizer}, by default the
+ * {@link Or2OptSegmentOptimizer Or-opt/2-opt} local search, which keeps
+ * its two end nodes fixed. The regions are independent from each other
+ * and are optimized on {@link #PARAM_THREADS several threads}. The
+ * improved paths are then stitched together in the order of the regions
+ * to form a new tour. Finally, the boundaries between the regions, where
+ * the stitched tour usually contains some long edges, are repaired by a
+ * 2-opt local search which only considers the
+ * {@link #PARAM_REPAIR_CANDIDATE_COUNT nearest neighbors} of each node
+ * and starts at the end nodes of the region paths. If the resulting tour
+ * is shorter than the current one, it replaces it and a new round
+ * begins, otherwise the local search stops.
+ * </p>
+ * <p>
+ * A region of {@code L} nodes costs the segment optimizer about
+ * {@code L<sup>2</sup>/2} distance evaluations for its neighbor lists and
+ * the neighbor lists of the repair pass are computed once per run with
+ * the {@link org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors
+ * projected grid}, so a round over all {@code n} nodes takes
+ * {@code O(nL)} instead of the {@code O(n<sup>2</sup>)} steps needed for
+ * the {@link org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet
+ * candidate set} of the whole instance, which alone would exceed the
+ * runtime budget for instances such as {@code pla33810} or
+ * {@code pla85900}.
+ * </p>
+ * <p>
+ * Each node carries a mark. A region is only optimized if it contains at
+ * least one marked node. If it has been improved, all of its nodes are
+ * marked, otherwise their marks are cleared. The nodes of the edges
+ * changed by the repair pass are marked as well. In the beginning, all
+ * nodes are marked. If the local search is applied to a tour which has
+ * been {@linkplain #localSearch(Individual, ObjectiveFunction, int[], int)
+ * perturbed}, only the dirty nodes are marked, so only the regions
+ * around them are optimized.
+ * </p>
+ * <p>
+ * The segment optimizers only work on their own regions and each worker
+ * uses its own
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#createCountingDistanceComputer()
+ * counting distance computer}. The distance evaluations are registered
+ * after each round. The result of the local search does not depend on the
+ * number of threads. Only a single thread is used unless configured
+ * otherwise: the {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner
+ * runner} already executes
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_THREADS
+ * several runs} at once on all processors, so more region threads only
+ * pay off when a single run is performed.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_K1977PAOPAFTTSPITP" />Richard M. Karp: <span
+ * style="font-weight:bold">&ldquo;Probabilistic Analysis of Partitioning
+ * Algorithms for the Traveling-Salesman Problem in the Plane,&rdquo;</span>
+ * in <span style="font-style:italic;font-family:cursive;">Mathematics of
+ * Operations Research</span> 2(3):209&ndash;224, August&nbsp;1977.
+ * doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1287/moor.2.3.209">10.1287/moor.2.3.209</a></div></li>
+ * </ol>
+ */
+public class PartitionParallelLocalSearch extends
+    TSPLocalSearchAlgorithm<int[]> {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the maximum number of nodes per region: {@value} */
+  public static final String PARAM_REGION_SIZE = "regionSize";//$NON-NLS-1$
+
+  /**
+   * the parameter for the number of neighbors per node considered by the
+   * repair pass: {@value}
+   */
+  public static final String PARAM_REPAIR_CANDIDATE_COUNT = "repairCandidateCount";//$NON-NLS-1$
+
+  /** the parameter for the number of threads: {@value} */
+  public static final String PARAM_THREADS = "threads";//$NON-NLS-1$
+
+  /** the parameter for the segment optimizer: {@value} */
+  public static final String PARAM_SEGMENT_OPTIMIZER = "segmentOptimizer";//$NON-NLS-1$
+
+  /** the default maximum number of nodes per region: {@value} */
+  public static final int DEFAULT_REGION_SIZE = 1000;
+
+  /**
+   * the default number of neighbors per node considered by the repair
+   * pass: {@value}
+   */
+  public static final int DEFAULT_REPAIR_CANDIDATE_COUNT = 8;
+
+  /** the default number of threads: {@value} */
+  public static final int DEFAULT_THREADS = 1;
+
+  /** the maximum number of nodes per region */
+  private int m_regionSize;
+
+  /** the number of neighbors per node considered by the repair pass */
+  private int m_repairCandidateCount;
+
+  /** the number of threads */
+  private int m_threads;
+
+  /** the segment optimizer */
+  private SegmentOptimizer m_optimizer;
+
+  /** the workers */
+  private transient _SegmentWorker[] m_workers;
+
+  /** the fork-join pool, or {@code null} if only one thread is used */
+  private transient ForkJoinPool m_pool;
+
+  /** the region of each node */
+  private transient int[] m_regionOf;
+
+  /**
+   * the start index of each region in {@link #m_work}, followed by
+   * {@code n}
+   */
+  private transient int[] m_regionStarts;
+
+  /** the next free index of each region while filling {@link #m_work} */
+  private transient int[] m_fill;
+
+  /** the stitched tour */
+  private transient int[] m_work;
+
+  /** the positions of the nodes in {@link #m_work} */
+  private transient int[] m_pos;
+
+  /** the neighbor lists of the repair pass */
+  private transient int[] m_neighbors;
+
+  /** the distances to the neighbors */
+  private transient int[] m_neighborDists;
+
+  /** the active nodes of the repair pass */
+  private transient DontLookBits m_active;
+
+  /** the start indices of the regions to optimize */
+  private transient int[] m_starts;
+
+  /** the end indices of the regions to optimize */
+  private transient int[] m_ends;
+
+  /** the changes of the lengths of the regions */
+  private transient long[] m_deltas;
+
+  /** the marks of the nodes */
+  private transient boolean[] m_marks;
+
+  /** the number of marked nodes */
+  private transient int m_markCount;
+
+  /** has the last local search been completed? */
+  private transient boolean m_complete;
+
+  /** instantiate */
+  public PartitionParallelLocalSearch() {
+    super("Partition-Parallel Local Search");//$NON-NLS-1$
+    this.m_regionSize = PartitionParallelLocalSearch.DEFAULT_REGION_SIZE;
+    this.m_repairCandidateCount = PartitionParallelLocalSearch.DEFAULT_REPAIR_CANDIDATE_COUNT;
+    this.m_threads = PartitionParallelLocalSearch.DEFAULT_THREADS;
+    this.m_optimizer = new Or2OptSegmentOptimizer();
+  }
+
+  /**
+   * Perform the partition-parallel local search
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public static void main(final String[] args) {
+    TSPAlgorithmRunner.benchmark(Instance.SYMMETRIC_INSTANCES,
+        PartitionParallelLocalSearch.class, args);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final boolean[] marks;
+    int i;
+
+    marks = this.m_marks;
+    for (i = marks.length; (--i) > 0;) {
+      marks[i] = true;
+    }
+    this.m_markCount = (marks.length - 1);
+    this.__localSearch(srcdst, f);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If the last local search was completed, only the dirty nodes are
+   * marked.
+   * </p>
+   */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f, final int[] dirty, final int dirtyCount) {
+    final boolean[] marks;
+    int i, count;
+
+    if ((!(this.m_complete)) || (dirtyCount < 0)) {
+      this.localSearch(srcdst, f);
+      return;
+    }
+
+    marks = this.m_marks;
+    count = 0;
+    for (i = dirtyCount; (--i) >= 0;) {
+      if (!(marks[dirty[i]])) {
+        marks[dirty[i]] = true;
+        count++;
+      }
+    }
+    this.m_markCount = count;
+    this.__localSearch(srcdst, f);
+  }
+
+  /**
+   * Optimize the regions containing marked nodes, stitch them together,
+   * and repair the boundaries until the tour cannot be improved anymore
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   */
+  private final void __localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final int[] tour, work, regionOf, fill;
+    final boolean[] marks;
+    final int n;
+    long length;
+    int i;
+
+    tour = srcdst.solution;
+    n = tour.length;
+    work = this.m_work;
+    regionOf = this.m_regionOf;
+    fill = this.m_fill;
+    marks = this.m_marks;
+    this.m_complete = false;
+
+    while (this.m_markCount > 0) {
+      if (f.shouldTerminate()) {
+        return;
+      }
+
+      // list the nodes of each region in the order of the tour
+      System.arraycopy(this.m_regionStarts, 0, fill, 0, fill.length);
+      for (i = 0; i < n; i++) {
+        work[fill[regionOf[tour[i]]]++] = tour[i];
+      }
+
+      this.__optimizeRegions(f);
+      if (f.shouldTerminate()) {
+        return;
+      }
+
+      // stitch the regions together and repair the boundaries
+      length = f.distance(work[n - 1], work[0]);
+      for (i = (n - 1); (--i) >= 0;) {
+        length += f.distance(work[i], work[i + 1]);
+      }
+      length = this.__repair(length, f);
+
+      if (length >= srcdst.tourLength) {
+        break;
+      }
+      System.arraycopy(work, 0, tour, 0, n);
+      srcdst.tourLength = length;
+      f.registerFE(tour, length);
+    }
+
+    if (f.shouldTerminate()) {
+      return;
+    }
+    for (i = marks.length; (--i) > 0;) {
+      marks[i] = false;
+    }
+    this.m_markCount = 0;
+    this.m_complete = true;
+  }
+
+  /**
+   * Apply the segment optimizer in parallel to all regions in
+   * {@link #m_work} which contain a marked node and update the marks
+   *
+   * @param f
+   *          the objective function
+   */
+  private final void __optimizeRegions(final ObjectiveFunction f) {
+    final int[] work, starts, ends, regionStarts;
+    final long[] deltas;
+    final boolean[] marks;
+    final _SegmentWorker[] workers;
+    final ForkJoinPool pool;
+    final AtomicInteger next;
+    int count, used, start, end, i, j, region;
+    long des;
+
+    work = this.m_work;
+    starts = this.m_starts;
+    ends = this.m_ends;
+    deltas = this.m_deltas;
+    marks = this.m_marks;
+    regionStarts = this.m_regionStarts;
+
+    // select the regions containing marked nodes
+    count = 0;
+    for (region = 0; region < (regionStarts.length - 1); region++) {
+      start = regionStarts[region];
+      end = (regionStarts[region + 1] - 1);
+      for (i = start; i <= end; i++) {
+        if (marks[work[i]]) {
+          starts[count] = start;
+          ends[count] = end;
+          count++;
+          break;
+        }
+      }
+    }
+    if (count <= 0) {
+      return;
+    }
+
+    // optimize the regions
+    workers = this.m_workers;
+    pool = this.m_pool;
+    next = new AtomicInteger();
+    used = Math.min(count, workers.length);
+    for (i = used; (--i) >= 0;) {
+      workers[i].setup(work, starts, ends, deltas, count, next);
+    }
+    if ((pool == null) || (used <= 1)) {
+      workers[0].invoke();
+    } else {
+      for (i = 1; i < used; i++) {
+        pool.execute(workers[i]);
+      }
+      workers[0].invoke();
+      for (i = 1; i < used; i++) {
+        workers[i].join();
+      }
+    }
+
+    des = 0L;
+    for (i = used; (--i) >= 0;) {
+      workers[i].release();
+      des += workers[i].m_dist.getCount();
+    }
+    f.registerDEs(des);
+
+    // mark the nodes of the improved regions and clear the marks of the
+    // other ones
+    for (i = count; (--i) >= 0;) {
+      for (j = ends[i]; j >= starts[i]; j--) {
+        if (marks[work[j]] != (deltas[i] < 0L)) {
+          marks[work[j]] = (deltas[i] < 0L);
+          this.m_markCount += ((deltas[i] < 0L) ? 1 : (-1));
+        }
+      }
+    }
+  }
+
+  /**
+   * Repair the boundaries of the stitched tour in {@link #m_work} with a
+   * 2-opt local search over the neighbor lists, starting at the end nodes
+   * of the regions
+   *
+   * @param length
+   *          the length of the stitched tour
+   * @param f
+   *          the objective function
+   * @return the length of the repaired tour
+   */
+  private final long __repair(final long length, final ObjectiveFunction f) {
+    final int[] work, pos, neighbors, neighborDists, regionStarts;
+    final DontLookBits active;
+    final int n, k;
+    int i, a, b, c, d, p, base, dir, dab, gain, delta;
+    long result;
+
+    work = this.m_work;
+    pos = this.m_pos;
+    neighbors = this.m_neighbors;
+    neighborDists = this.m_neighborDists;
+    regionStarts = this.m_regionStarts;
+    active = this.m_active;
+    n = work.length;
+    k = (neighbors.length / n);
+
+    for (i = n; (--i) >= 0;) {
+      pos[work[i]] = i;
+    }
+    active.init(n);
+    for (i = 0; i < (regionStarts.length - 1); i++) {
+      active.activate(work[regionStarts[i]]);
+      active.activate(work[regionStarts[i + 1] - 1]);
+    }
+
+    result = length;
+    outer: while ((a = active.next()) != 0) {
+      if (f.shouldTerminate()) {
+        break;
+      }
+      base = ((a - 1) * k);
+      for (dir = 2; (--dir) >= 0;) {
+        // dir=1: replace (a,succ(a)) and (c,succ(c)) with (a,c) and
+        // (succ(a),succ(c)); dir=0: the same with the predecessors
+        b = work[(dir > 0) ? ((pos[a] + 1) % n) : (((pos[a] + n) - 1) % n)];
+        dab = f.distance(a, b);
+        for (p = base; p < (base + k); p++) {
+          c = neighbors[p];
+          gain = (dab - neighborDists[p]);
+          if (gain <= 0) {
+            break;
+          }
+          d = work[(dir > 0) ? ((pos[c] + 1) % n)
+              : (((pos[c] + n) - 1) % n)];
+          if ((c == b) || (d == a)) {
+            continue;
+          }
+          delta = ((f.distance(b, d) - f.distance(c, d)) - gain);
+          if (delta < 0) {
+            if (dir > 0) {
+              PartitionParallelLocalSearch.__reverse(work, pos, pos[b],
+                  pos[c]);
+            } else {
+              PartitionParallelLocalSearch.__reverse(work, pos, pos[c],
+                  pos[b]);
+            }
+            result += delta;
+            this.__touch(a);
+            this.__touch(b);
+            this.__touch(c);
+            this.__touch(d);
+            continue outer;
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Activate and mark a node whose edges have been changed by the repair
+   * pass
+   *
+   * @param node
+   *          the node
+   */
+  private final void __touch(final int node) {
+    this.m_active.activate(node);
+    if (!(this.m_marks[node])) {
+      this.m_marks[node] = true;
+      this.m_markCount++;
+    }
+  }
+
+  /**
+   * Reverse the part {@code tour[i..j]} of a cyclic tour, wrapping around
+   * at the end of the array. If this part is longer than half of the
+   * tour, the rest of the tour is reversed instead, which yields the same
+   * cycle.
+   *
+   * @param tour
+   *          the tour
+   * @param pos
+   *          the positions of the nodes in the tour
+   * @param i
+   *          the index of the first node of the part
+   * @param j
+   *          the index of the last node of the part
+   */
+  private static final void __reverse(final int[] tour, final int[] pos,
+      final int i, final int j) {
+    final int n;
+    int a, b, len, t;
+
+    n = tour.length;
+    len = ((((j - i) + n) % n) + 1);
+    if ((len << 1) > n) {
+      a = ((j + 1) % n);
+      b = (((i + n) - 1) % n);
+      len = (n - len);
+    } else {
+      a = i;
+      b = j;
+    }
+
+    for (len >>>= 1; (--len) >= 0;) {
+      t = tour[a];
+      tour[a] = tour[b];
+      tour[b] = t;
+      pos[tour[a]] = a;
+      pos[t] = b;
+      if ((++a) >= n) {
+        a = 0;
+      }
+      if ((--b) < 0) {
+        b = (n - 1);
+      }
+    }
+  }
+
+  /**
+   * Divide the nodes into spatial regions: The nodes are placed in the
+   * plane with the FastMap projection and sets of more than
+   * {@link #m_regionSize} nodes are recursively split at the median of
+   * their wider coordinate.
+   *
+   * @param f
+   *          the objective function
+   * @param nodes
+   *          the array receiving the nodes, sorted by region
+   * @return the start indices of the regions in {@code nodes}, followed by
+   *         {@code n}
+   */
+  private final int[] __partition(final ObjectiveFunction f,
+      final int[] nodes) {
+    final int n;
+    final double[] x, y;
+    final int[] from, to, starts;
+    int i, count, stack, lo, hi, mid;
+    double minX, maxX, minY, maxY;
+
+    n = f.n();
+    x = new double[n + 1];
+    y = new double[n + 1];
+    FastMap.embed(f, x, y);
+    for (i = n; (--i) >= 0;) {
+      nodes[i] = (i + 1);
+    }
+
+    // split the ranges depth-first, so that the regions are found in a
+    // spatially coherent order
+    from = new int[n];
+    to = new int[n];
+    starts = new int[n + 1];
+    count = 0;
+    stack = 0;
+    from[stack] = 0;
+    to[stack++] = n;
+    while (stack > 0) {
+      lo = from[--stack];
+      hi = to[stack];
+      if ((hi - lo) <= this.m_regionSize) {
+        starts[count++] = lo;
+        continue;
+      }
+
+      minX = minY = Double.POSITIVE_INFINITY;
+      maxX = maxY = Double.NEGATIVE_INFINITY;
+      for (i = lo; i < hi; i++) {
+        minX = Math.min(minX, x[nodes[i]]);
+        maxX = Math.max(maxX, x[nodes[i]]);
+        minY = Math.min(minY, y[nodes[i]]);
+        maxY = Math.max(maxY, y[nodes[i]]);
+      }
+      mid = ((lo + hi) >>> 1);
+      PartitionParallelLocalSearch.__select(nodes, lo, (hi - 1), mid,
+          (((maxX - minX) >= (maxY - minY)) ? x : y));
+
+      // the lower half is processed first
+      from[stack] = mid;
+      to[stack++] = hi;
+      from[stack] = lo;
+      to[stack++] = mid;
+    }
+    starts[count] = n;
+
+    return Arrays.copyOf(starts, (count + 1));
+  }
+
+  /**
+   * Rearrange {@code nodes[lo..hi]} such that the node with the
+   * {@code k}<sup>th</sup> smallest coordinate is at index {@code k}, all
+   * nodes before it have smaller or equal, and all nodes after it have
+   * larger or equal coordinates
+   *
+   * @param nodes
+   *          the nodes
+   * @param lo
+   *          the first index
+   * @param hi
+   *          the last index
+   * @param k
+   *          the index to select
+   * @param coord
+   *          the coordinates of the nodes
+   */
+  private static final void __select(final int[] nodes, final int lo,
+      final int hi, final int k, final double[] coord) {
+    int l, h, i, j, t;
+    double pivot;
+
+    l = lo;
+    h = hi;
+    while (l < h) {
+      pivot = coord[nodes[(l + h) >>> 1]];
+      i = l;
+      j = h;
+      while (i <= j) {
+        while (coord[nodes[i]] < pivot) {
+          i++;
+        }
+        while (coord[nodes[j]] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          t = nodes[i];
+          nodes[i] = nodes[j];
+          nodes[j] = t;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        h = j;
+      } else {
+        if (k >= i) {
+          l = i;
+        } else {
+          return;
+        }
+      }
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final _SegmentWorker[] workers;
+    final int[] regionOf, regionStarts, nodes;
+    final int n, threads, k;
+    int i, j;
+
+    super.beginRun(f);
+    this.m_optimizer.beginRun(f);
+
+    n = f.n();
+    nodes = new int[n];
+    this.m_regionStarts = regionStarts = this.__partition(f, nodes);
+    this.m_regionOf = regionOf = new int[n + 1];
+    for (i = (regionStarts.length - 1); (--i) >= 0;) {
+      for (j = regionStarts[i]; j < regionStarts[i + 1]; j++) {
+        regionOf[nodes[j]] = i;
+      }
+    }
+    this.m_fill = new int[regionStarts.length];
+
+    k = Math.min(this.m_repairCandidateCount, (n - 1));
+    this.m_neighbors = new int[n * k];
+    this.m_neighborDists = new int[n * k];
+    if (k > 0) {
+      NearestNeighbors.compute(f, k, this.m_neighbors,
+          this.m_neighborDists);
+    }
+
+    this.m_work = new int[n];
+    this.m_pos = new int[n + 1];
+    this.m_active = new DontLookBits();
+    this.m_starts = new int[regionStarts.length];
+    this.m_ends = new int[regionStarts.length];
+    this.m_deltas = new long[regionStarts.length];
+    this.m_marks = new boolean[n + 1];
+    this.m_markCount = 0;
+    this.m_complete = false;
+
+    threads = this.m_threads;
+    this.m_workers = workers = new _SegmentWorker[threads];
+    for (i = threads; (--i) >= 0;) {
+      workers[i] = new _SegmentWorker(this.m_optimizer.clone(),
+          f.createCountingDistanceComputer());
+    }
+    if (threads > 1) {
+      this.m_pool = new ForkJoinPool(threads);
+    }
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_workers = null;
+    this.m_pool = null;
+    this.m_regionOf = null;
+    this.m_regionStarts = null;
+    this.m_fill = null;
+    this.m_work = null;
+    this.m_pos = null;
+    this.m_neighbors = null;
+    this.m_neighborDists = null;
+    this.m_active = null;
+    this.m_starts = null;
+    this.m_ends = null;
+    this.m_deltas = null;
+    this.m_marks = null;
+    this.m_markCount = 0;
+    this.m_complete = false;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      if (this.m_pool != null) {
+        this.m_pool.shutdown();
+      }
+      this.__clear();
+      this.m_optimizer.endRun(f);
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public PartitionParallelLocalSearch clone() {
+    final PartitionParallelLocalSearch res;
+
+    res = ((PartitionParallelLocalSearch) (super.clone()));
+    res.m_optimizer = res.m_optimizer.clone();
+    res.__clear();
+    return res;
+  }
+
+  /**
+   * Set the maximum number of nodes per region
+   *
+   * @param size
+   *          the maximum number of nodes per region
+   */
+  public final void setRegionSize(final int size) {
+    this.m_regionSize = Math.max(4, size);
+  }
+
+  /**
+   * Get the maximum number of nodes per region
+   *
+   * @return the maximum number of nodes per region
+   */
+  public final int getRegionSize() {
+    return this.m_regionSize;
+  }
+
+  /**
+   * Set the number of neighbors per node considered by the repair pass
+   *
+   * @param count
+   *          the number of neighbors per node considered by the repair
+   *          pass
+   */
+  public final void setRepairCandidateCount(final int count) {
+    this.m_repairCandidateCount = Math.max(1, count);
+  }
+
+  /**
+   * Get the number of neighbors per node considered by the repair pass
+   *
+   * @return the number of neighbors per node considered by the repair
+   *         pass
+   */
+  public final int getRepairCandidateCount() {
+    return this.m_repairCandidateCount;
+  }
+
+  /**
+   * Set the number of threads
+   *
+   * @param threads
+   *          the number of threads
+   */
+  public final void setThreadCount(final int threads) {
+    this.m_threads = Math.max(1, threads);
+  }
+
+  /**
+   * Get the number of threads
+   *
+   * @return the number of threads
+   */
+  public final int getThreadCount() {
+    return this.m_threads;
+  }
+
+  /**
+   * Set the segment optimizer
+   *
+   * @param optimizer
+   *          the segment optimizer
+   */
+  public final void setSegmentOptimizer(final SegmentOptimizer optimizer) {
+    this.m_optimizer = optimizer;
+  }
+
+  /**
+   * Get the segment optimizer
+   *
+   * @return the segment optimizer
+   */
+  public final SegmentOptimizer getSegmentOptimizer() {
+    return this.m_optimizer;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setRegionSize(config.getInt(
+        PartitionParallelLocalSearch.PARAM_REGION_SIZE, 4,
+        Integer.MAX_VALUE, this.m_regionSize));
+    this.setRepairCandidateCount(config.getInt(
+        PartitionParallelLocalSearch.PARAM_REPAIR_CANDIDATE_COUNT, 1,
+        Integer.MAX_VALUE, this.m_repairCandidateCount));
+    this.setThreadCount(config.getInt(
+        PartitionParallelLocalSearch.PARAM_THREADS, 1, 1024,
+        this.m_threads));
+    this.setSegmentOptimizer(config.getInstance(
+        PartitionParallelLocalSearch.PARAM_SEGMENT_OPTIMIZER,
+        SegmentOptimizer.class, Or2OptSegmentOptimizer.class,
+        this.m_optimizer));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(PartitionParallelLocalSearch.PARAM_REGION_SIZE,
+        ps);
+    ps.println(this.m_regionSize);
+    Configurable.printKey(
+        PartitionParallelLocalSearch.PARAM_REPAIR_CANDIDATE_COUNT, ps);
+    ps.println(this.m_repairCandidateCount);
+    Configurable.printKey(PartitionParallelLocalSearch.PARAM_THREADS, ps);
+    ps.println(this.m_threads);
+    Configurable.printKey(
+        PartitionParallelLocalSearch.PARAM_SEGMENT_OPTIMIZER, ps);
+    Configurable.printlnObject(this.m_optimizer, ps);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(PartitionParallelLocalSearch.PARAM_REGION_SIZE,
+        ps);
+    ps.println("The maximum number of nodes per spatial region."); //$NON-NLS-1$
+    Configurable.printKey(
+        PartitionParallelLocalSearch.PARAM_REPAIR_CANDIDATE_COUNT, ps);
+    ps.println("The number of neighbors per node considered when repairing the region boundaries."); //$NON-NLS-1$
+    Configurable.printKey(PartitionParallelLocalSearch.PARAM_THREADS, ps);
+    ps.println("The number of threads optimizing the regions in parallel."); //$NON-NLS-1$
+    Configurable.printKey(
+        PartitionParallelLocalSearch.PARAM_SEGMENT_OPTIMIZER, ps);
+    ps.println("The local search applied to the regions."); //$NON-NLS-1$
+  }
+}
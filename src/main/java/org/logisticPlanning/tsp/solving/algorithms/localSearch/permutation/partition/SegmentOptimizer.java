@@ -0,0 +1,61 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.TSPModule;
+
+/**
+ * <p>
+ * A local search for a segment of a tour, i.e., for an open path whose
+ * first and last node are fixed. It is the pluggable part of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition.PartitionParallelLocalSearch
+ * partition-parallel local search}, which applies several copies (
+ * {@link #clone() clones}) of a segment optimizer to the paths through
+ * disjoint regions in parallel.
+ * </p>
+ * <p>
+ * An implementation may only rearrange the nodes strictly between the two
+ * end nodes of the segment and must not access any other part of the
+ * path. It receives a thread-safe distance computer and must not use the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction
+ * objective function}. An instance is only used by one thread at a time.
+ * </p>
+ */
+public abstract class SegmentOptimizer extends TSPModule {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * create
+   *
+   * @param name
+   *          the name of the segment optimizer
+   */
+  protected SegmentOptimizer(final String name) {
+    super(name);
+  }
+
+  /**
+   * Improve the open path {@code path[start..end]}. The nodes
+   * {@code path[start]} and {@code path[end]} must stay where they are.
+   *
+   * @param path
+   *          the path
+   * @param start
+   *          the index of the first node of the segment
+   * @param end
+   *          the index of the last node of the segment
+   * @param dist
+   *          the distance computer
+   * @return the change of the length of the segment, i.e., {@code 0L} if
+   *         nothing was improved and a negative value otherwise
+   */
+  public abstract long optimize(final int[] path, final int start,
+      final int end, final DistanceComputer dist);
+
+  /** {@inheritDoc} */
+  @Override
+  public SegmentOptimizer clone() {
+    return ((SegmentOptimizer) (super.clone()));
+  }
+}
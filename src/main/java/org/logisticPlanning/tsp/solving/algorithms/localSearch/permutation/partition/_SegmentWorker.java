@@ -0,0 +1,125 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
+
+/**
+ * A worker of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition.PartitionParallelLocalSearch
+ * partition-parallel local search}: It repeatedly takes the next
+ * unprocessed segment and applies its own copy of the
+ * {@link SegmentOptimizer segment optimizer} to it, until all segments
+ * have been processed. Since the segments are disjoint, several workers
+ * can modify the same path in parallel.
+ */
+final class _SegmentWorker extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the segment optimizer */
+  private final SegmentOptimizer m_optimizer;
+
+  /** the counting distance computer */
+  final CountingDistanceComputer m_dist;
+
+  /** the path */
+  private int[] m_path;
+
+  /** the start indices of the segments */
+  private int[] m_starts;
+
+  /** the end indices of the segments */
+  private int[] m_ends;
+
+  /** the changes of the lengths of the segments */
+  private long[] m_deltas;
+
+  /** the number of segments */
+  private int m_count;
+
+  /** the index of the next segment to process, shared by all workers */
+  private AtomicInteger m_next;
+
+  /**
+   * create
+   *
+   * @param optimizer
+   *          the segment optimizer, which is not shared with any other
+   *          worker
+   * @param dist
+   *          the counting distance computer of the worker
+   */
+  _SegmentWorker(final SegmentOptimizer optimizer,
+      final CountingDistanceComputer dist) {
+    super();
+    this.m_optimizer = optimizer;
+    this.m_dist = dist;
+  }
+
+  /**
+   * Prepare the worker for processing a set of segments
+   *
+   * @param path
+   *          the path
+   * @param starts
+   *          the start indices of the segments
+   * @param ends
+   *          the end indices of the segments
+   * @param deltas
+   *          the array receiving the changes of the lengths of the
+   *          segments
+   * @param count
+   *          the number of segments
+   * @param next
+   *          the index of the next segment to process, shared by all
+   *          workers
+   */
+  final void setup(final int[] path, final int[] starts, final int[] ends,
+      final long[] deltas, final int count, final AtomicInteger next) {
+    this.reinitialize();
+    this.m_path = path;
+    this.m_starts = starts;
+    this.m_ends = ends;
+    this.m_deltas = deltas;
+    this.m_count = count;
+    this.m_next = next;
+    this.m_dist.resetCount();
+  }
+
+  /** release the references to the data of the run */
+  final void release() {
+    this.m_path = null;
+    this.m_starts = null;
+    this.m_ends = null;
+    this.m_deltas = null;
+    this.m_next = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final SegmentOptimizer optimizer;
+    final CountingDistanceComputer dist;
+    final AtomicInteger next;
+    final int[] path, starts, ends;
+    final long[] deltas;
+    final int count;
+    int i;
+
+    optimizer = this.m_optimizer;
+    dist = this.m_dist;
+    next = this.m_next;
+    path = this.m_path;
+    starts = this.m_starts;
+    ends = this.m_ends;
+    deltas = this.m_deltas;
+    count = this.m_count;
+
+    while ((i = next.getAndIncrement()) < count) {
+      deltas[i] = optimizer.optimize(path, starts[i], ends[i], dist);
+    }
+  }
+}
@@ -0,0 +1,6 @@
+/**
+ * A partition-parallel local search for very large instances, which
+ * divides the plane into regions and improves them on several threads with
+ * a pluggable segment optimizer.
+ */
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
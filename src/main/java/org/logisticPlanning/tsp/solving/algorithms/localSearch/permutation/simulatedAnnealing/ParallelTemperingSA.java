@@ -0,0 +1,514 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing;
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.TSPModule;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Reverse;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Left;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Right;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+/**
+ * <p>
+ * A parallel tempering (replica exchange) simulated annealing
+ * algorithm&nbsp;[<a href="#cite_SW1986REMCSOSG"
+ * style="font-weight:bold">1</a>, <a href="#cite_E2005PTTAAAFMSP"
+ * style="font-weight:bold">2</a>]. Instead of cooling down a single chain
+ * like
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing.SimulatedAnnealing}
+ * does, we run {@link #PARAM_CHAINS K} chains, i.e., simulated annealing
+ * processes at fixed temperatures which are geometrically spaced between
+ * a {@link #PARAM_MIN_TEMPERATURE minimum} and a
+ * {@link #PARAM_MAX_TEMPERATURE maximum}. After every
+ * {@link #PARAM_EXCHANGE_INTERVAL epoch} of steps, chains at neighboring
+ * temperatures may exchange their tours with the probability
+ * {@code min(1, exp((1/T1-1/T2)*(L1-L2)))}. Good tours found at high
+ * temperatures hence travel down to the cold chains, while tours stuck in
+ * local optima at low temperatures can escape via the hot chains.
+ * </p>
+ * <p>
+ * The temperatures are given relative to the average distance between a
+ * node and its {@link #PARAM_CANDIDATE_COUNT nearest neighbors}, which
+ * makes the parameters independent from the scale of the instance. Moves
+ * are restricted to these neighbors as well: In each step, a random node
+ * and one of its nearest neighbors are picked and a
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator
+ * update operation} is applied which makes them adjacent: Either the
+ * range from the successor of the node up to the neighbor is
+ * {@link #SUCCESSOR_OPERATORS modified}, or the range from the neighbor
+ * up to the predecessor of the node is {@link #PREDECESSOR_OPERATORS
+ * modified}. Unrestricted
+ * random moves almost never lead to acceptable tours on larger instances.
+ * The Metropolis acceptance probability is taken from a precomputed table
+ * instead of calling {@link java.lang.Math#exp(double)} in each step.
+ * </p>
+ * <p>
+ * The chains can be run in parallel by several {@link #PARAM_THREADS
+ * threads}. By default, only one thread is used, since the
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_THREADS
+ * algorithm runner} already performs several runs in parallel. Each chain
+ * evaluates distances with its own
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#createCountingDistanceComputer()
+ * counting distance computer}. It only locks the objective function after
+ * a fixed number of distance evaluations and at the end of each epoch,
+ * to register the distance evaluations and its best tour, if it has
+ * improved, so that the chains do not have to take turns. The local
+ * search returns the best tour after
+ * {@link #PARAM_MAX_STAGNATION a number of epochs} without improvement.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_SW1986REMCSOSG" />Robert H. Swendsen and
+ * Jian-Sheng Wang: <span style="font-weight:bold">&ldquo;Replica Monte
+ * Carlo Simulation of Spin-Glasses,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Physical Review
+ * Letters</span> 57(21):2607&ndash;2609, November&nbsp;1986. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1103/PhysRevLett.57.2607">10.1103/PhysRevLett.57.2607</a></div></li>
+ * <li><div><span id="cite_E2005PTTAAAFMSP" />David J. Earl and Michael
+ * W. Deem: <span style="font-weight:bold">&ldquo;Parallel Tempering:
+ * Theory, Applications, and New Perspectives,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Physical Chemistry
+ * Chemical Physics</span> 7(23):3910&ndash;3916, 2005. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1039/B509983H">10.1039/B509983H</a></div></li>
+ * </ol>
+ */
+public class ParallelTemperingSA extends TSPLocalSearchAlgorithm<int[]> {
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the parameter for the number of chains: {@value} */
+  public static final String PARAM_CHAINS = "chains";//$NON-NLS-1$
+
+  /** the parameter for the number of threads: {@value} */
+  public static final String PARAM_THREADS = "threads";//$NON-NLS-1$
+
+  /** the parameter for the relative minimum temperature: {@value} */
+  public static final String PARAM_MIN_TEMPERATURE = "minTemperature";//$NON-NLS-1$
+
+  /** the parameter for the relative maximum temperature: {@value} */
+  public static final String PARAM_MAX_TEMPERATURE = "maxTemperature";//$NON-NLS-1$
+
+  /** the parameter for the number of steps between exchanges: {@value} */
+  public static final String PARAM_EXCHANGE_INTERVAL = "exchangeInterval";//$NON-NLS-1$
+
+  /**
+   * the parameter for the number of epochs without improvement after
+   * which the local search returns: {@value}
+   */
+  public static final String PARAM_MAX_STAGNATION = "maxStagnation";//$NON-NLS-1$
+
+  /** the parameter for the number of neighbors per node: {@value} */
+  public static final String PARAM_CANDIDATE_COUNT = "candidateCount";//$NON-NLS-1$
+
+  /** the default number of chains: {@value} */
+  public static final int DEFAULT_CHAINS = 8;
+
+  /** the default number of threads: {@value} */
+  public static final int DEFAULT_THREADS = 1;
+
+  /** the default relative minimum temperature: {@value} */
+  public static final double DEFAULT_MIN_TEMPERATURE = 0.01d;
+
+  /** the default relative maximum temperature: {@value} */
+  public static final double DEFAULT_MAX_TEMPERATURE = 0.5d;
+
+  /** the default number of steps between exchanges: {@value} */
+  public static final int DEFAULT_EXCHANGE_INTERVAL = 10000;
+
+  /** the default maximum number of epochs without improvement: {@value} */
+  public static final int DEFAULT_MAX_STAGNATION = 100;
+
+  /** the default number of neighbors per node: {@value} */
+  public static final int DEFAULT_CANDIDATE_COUNT = 8;
+
+  /**
+   * the update operators which, when applied to the range
+   * {@code (i+1)%n..j} of a tour, make the node at index {@code j} the
+   * successor of the node at index {@code i}
+   */
+  public static final PermutationUpdateOperator[] SUCCESSOR_OPERATORS = new PermutationUpdateOperator[] {
+      PermutationUpdate_Reverse.INSTANCE,
+      PermutationUpdate_Rotate_Right.INSTANCE };
+
+  /**
+   * the update operators which, when applied to the range
+   * {@code j..(i+n-1)%n} of a tour, make the node at index {@code j} the
+   * predecessor of the node at index {@code i}
+   */
+  public static final PermutationUpdateOperator[] PREDECESSOR_OPERATORS = new PermutationUpdateOperator[] {
+      PermutationUpdate_Reverse.INSTANCE,
+      PermutationUpdate_Rotate_Left.INSTANCE };
+
+  /** the number of chains */
+  private int m_chainCount;
+
+  /** the number of threads */
+  private int m_threads;
+
+  /** the relative minimum temperature */
+  private double m_minTemp;
+
+  /** the relative maximum temperature */
+  private double m_maxTemp;
+
+  /** the number of steps between exchanges */
+  private int m_exchangeInterval;
+
+  /** the maximum number of epochs without improvement */
+  private int m_maxStagnation;
+
+  /** the number of neighbors per node */
+  private int m_candidateCount;
+
+  /** the update operations making a node the successor of another one */
+  private PermutationUpdateOperator[] m_succOps;
+
+  /** the update operations making a node the predecessor of another one */
+  private PermutationUpdateOperator[] m_predOps;
+
+  /** the chains, ordered by increasing temperature */
+  private transient _TemperingChain[] m_chains;
+
+  /** the candidate set */
+  private transient CandidateSet m_candidates;
+
+  /** the best tour */
+  private transient int[] m_best;
+
+  /** the fork-join pool, or {@code null} if only one thread is used */
+  private transient ForkJoinPool m_pool;
+
+  /** instantiate */
+  public ParallelTemperingSA() {
+    super("Parallel Tempering Simulated Annealing");//$NON-NLS-1$
+    this.m_chainCount = ParallelTemperingSA.DEFAULT_CHAINS;
+    this.m_threads = ParallelTemperingSA.DEFAULT_THREADS;
+    this.m_minTemp = ParallelTemperingSA.DEFAULT_MIN_TEMPERATURE;
+    this.m_maxTemp = ParallelTemperingSA.DEFAULT_MAX_TEMPERATURE;
+    this.m_exchangeInterval = ParallelTemperingSA.DEFAULT_EXCHANGE_INTERVAL;
+    this.m_maxStagnation = ParallelTemperingSA.DEFAULT_MAX_STAGNATION;
+    this.m_candidateCount = ParallelTemperingSA.DEFAULT_CANDIDATE_COUNT;
+    this.m_succOps = ParallelTemperingSA.SUCCESSOR_OPERATORS.clone();
+    this.m_predOps = ParallelTemperingSA.PREDECESSOR_OPERATORS.clone();
+  }
+
+  /**
+   * Perform the parallel tempering algorithm
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public static void main(final String[] args) {
+    TSPAlgorithmRunner
+        .benchmark(
+            org.logisticPlanning.tsp.benchmarking.instances.Instance.SYMMETRIC_INSTANCES,
+            ParallelTemperingSA.class, args);
+  }
+
+  /**
+   * Set the number of chains
+   *
+   * @param chains
+   *          the number of chains
+   */
+  public final void setChainCount(final int chains) {
+    this.m_chainCount = Math.max(1, chains);
+  }
+
+  /**
+   * Get the number of chains
+   *
+   * @return the number of chains
+   */
+  public final int getChainCount() {
+    return this.m_chainCount;
+  }
+
+  /**
+   * Set the number of threads
+   *
+   * @param threads
+   *          the number of threads
+   */
+  public final void setThreadCount(final int threads) {
+    this.m_threads = Math.max(1, threads);
+  }
+
+  /**
+   * Get the number of threads
+   *
+   * @return the number of threads
+   */
+  public final int getThreadCount() {
+    return this.m_threads;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final _TemperingChain[] chains;
+    final int[] best;
+    final int n, k;
+    final Randomizer r;
+    final ForkJoinPool pool;
+    _TemperingChain chain, other;
+    long bestLength;
+    int i, epoch, stagnation;
+    double temp, exponent;
+    boolean improved;
+
+    chains = this.m_chains;
+    best = this.m_best;
+    k = chains.length;
+    n = f.n();
+    r = f.getRandom();
+    pool = this.m_pool;
+
+    bestLength = srcdst.tourLength;
+    System.arraycopy(srcdst.solution, 0, best, 0, n);
+    for (i = k; (--i) >= 0;) {
+      chains[i].init(srcdst.solution, bestLength, r.nextLong());
+    }
+
+    stagnation = 0;
+    for (epoch = 0; !(f.shouldTerminate()); epoch++) {
+
+      // run the chains for one epoch
+      for (i = k; (--i) >= 0;) {
+        chains[i].setup(f, this.m_candidates, this.m_succOps,
+            this.m_predOps, this.m_exchangeInterval, bestLength);
+      }
+      if (pool == null) {
+        for (i = 0; i < k; i++) {
+          chains[i].invoke();
+        }
+      } else {
+        for (i = 1; i < k; i++) {
+          pool.execute(chains[i]);
+        }
+        chains[0].invoke();
+        for (i = 1; i < k; i++) {
+          chains[i].join();
+        }
+      }
+
+      // remember the best tour, the chains have already registered their
+      // distance evaluations and improvements
+      chain = null;
+      for (i = 0; i < k; i++) {
+        other = chains[i];
+        other.release();
+        if (other.m_hasBest && (other.m_bestLength < bestLength)) {
+          bestLength = other.m_bestLength;
+          chain = other;
+        }
+      }
+
+      improved = (chain != null);
+      if (improved) {
+        System.arraycopy(chain.m_best, 0, best, 0, n);
+        stagnation = 0;
+      } else if ((++stagnation) >= this.m_maxStagnation) {
+        break;
+      }
+
+      // try to exchange the tours of chains at neighboring temperatures,
+      // alternating between even and odd pairs
+      for (i = (epoch & 1); (i + 1) < k; i += 2) {
+        chain = chains[i];
+        other = chains[i + 1];
+        exponent = (((1d / chain.m_temperature) - (1d / other.m_temperature)) * //
+        (chain.m_length - other.m_length));
+        if ((exponent >= 0d) || (r.nextDouble() < Math.exp(exponent))) {
+          temp = chain.m_temperature;
+          chain.m_temperature = other.m_temperature;
+          other.m_temperature = temp;
+          chains[i] = other;
+          chains[i + 1] = chain;
+        }
+      }
+    }
+
+    System.arraycopy(best, 0, srcdst.solution, 0, n);
+    srcdst.tourLength = bestLength;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final _TemperingChain[] chains;
+    final CandidateSet candidates;
+    final int n, m, k;
+    double scale;
+    int i, j;
+
+    super.beginRun(f);
+    TSPModule.invokeBeginRun(f, this.m_succOps);
+    TSPModule.invokeBeginRun(f, this.m_predOps);
+
+    n = f.n();
+    this.m_candidates = candidates = CandidateSet.allocate(f,
+        this.m_candidateCount, null);
+    m = candidates.m();
+
+    // the temperatures are relative to the average distance to the
+    // nearest neighbors
+    scale = 0d;
+    for (i = n; i > 0; i--) {
+      for (j = m; j > 0; j--) {
+        scale += f.distance(i, candidates.getCandidate(i, j));
+      }
+    }
+    scale = Math.max(1d, (scale / (((double) n) * m)));
+
+    k = this.m_chainCount;
+    this.m_chains = chains = new _TemperingChain[k];
+    for (i = k; (--i) >= 0;) {
+      chains[i] = new _TemperingChain(f.createCountingDistanceComputer(), n);
+      chains[i].m_temperature = (scale * ((k <= 1) ? this.m_minTemp : //
+          (this.m_minTemp * Math.pow((this.m_maxTemp / this.m_minTemp),
+              (((double) i) / (k - 1))))));
+    }
+    this.m_best = new int[n];
+
+    if ((this.m_threads > 1) && (k > 1)) {
+      this.m_pool = new ForkJoinPool(Math.min(this.m_threads, k));
+    }
+  }
+
+  /** clear the data of the run */
+  private final void __clear() {
+    this.m_chains = null;
+    this.m_candidates = null;
+    this.m_best = null;
+    this.m_pool = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      if (this.m_pool != null) {
+        this.m_pool.shutdown();
+      }
+      this.__clear();
+      TSPModule.invokeEndRun(f, this.m_predOps);
+      TSPModule.invokeEndRun(f, this.m_succOps);
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ParallelTemperingSA clone() {
+    final ParallelTemperingSA res;
+
+    res = ((ParallelTemperingSA) (super.clone()));
+    res.m_succOps = ParallelTemperingSA.__cloneOps(res.m_succOps);
+    res.m_predOps = ParallelTemperingSA.__cloneOps(res.m_predOps);
+    res.__clear();
+    return res;
+  }
+
+  /**
+   * Clone an array of update operators
+   *
+   * @param ops
+   *          the operators
+   * @return the cloned operators
+   */
+  private static final PermutationUpdateOperator[] __cloneOps(
+      final PermutationUpdateOperator[] ops) {
+    final PermutationUpdateOperator[] res;
+    int i;
+
+    res = ops.clone();
+    for (i = res.length; (--i) >= 0;) {
+      res[i] = res[i].clone();
+    }
+    return res;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.setChainCount(config.getInt(ParallelTemperingSA.PARAM_CHAINS, 1,
+        1024, this.m_chainCount));
+    this.setThreadCount(config.getInt(ParallelTemperingSA.PARAM_THREADS,
+        1, 1024, this.m_threads));
+    this.m_minTemp = config.getDouble(
+        ParallelTemperingSA.PARAM_MIN_TEMPERATURE, Double.MIN_NORMAL,
+        1e6d, this.m_minTemp);
+    this.m_maxTemp = config.getDouble(
+        ParallelTemperingSA.PARAM_MAX_TEMPERATURE, this.m_minTemp, 1e6d,
+        Math.max(this.m_minTemp, this.m_maxTemp));
+    this.m_exchangeInterval = config.getInt(
+        ParallelTemperingSA.PARAM_EXCHANGE_INTERVAL, 1,
+        Integer.MAX_VALUE, this.m_exchangeInterval);
+    this.m_maxStagnation = config.getInt(
+        ParallelTemperingSA.PARAM_MAX_STAGNATION, 1, Integer.MAX_VALUE,
+        this.m_maxStagnation);
+    this.m_candidateCount = config.getInt(
+        ParallelTemperingSA.PARAM_CANDIDATE_COUNT, 1, Integer.MAX_VALUE,
+        this.m_candidateCount);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(ParallelTemperingSA.PARAM_CHAINS, ps);
+    ps.println(this.m_chainCount);
+    Configurable.printKey(ParallelTemperingSA.PARAM_THREADS, ps);
+    ps.println(this.m_threads);
+    Configurable.printKey(ParallelTemperingSA.PARAM_MIN_TEMPERATURE, ps);
+    ps.println(this.m_minTemp);
+    Configurable.printKey(ParallelTemperingSA.PARAM_MAX_TEMPERATURE, ps);
+    ps.println(this.m_maxTemp);
+    Configurable.printKey(ParallelTemperingSA.PARAM_EXCHANGE_INTERVAL, ps);
+    ps.println(this.m_exchangeInterval);
+    Configurable.printKey(ParallelTemperingSA.PARAM_MAX_STAGNATION, ps);
+    ps.println(this.m_maxStagnation);
+    Configurable.printKey(ParallelTemperingSA.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+    Configurable.printKey("successorOperations", ps); //$NON-NLS-1$
+    Configurable.printlnObject(this.m_succOps, ps);
+    Configurable.printKey("predecessorOperations", ps); //$NON-NLS-1$
+    Configurable.printlnObject(this.m_predOps, ps);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(ParallelTemperingSA.PARAM_CHAINS, ps);
+    ps.println("The number of chains, i.e., of different temperatures."); //$NON-NLS-1$
+    Configurable.printKey(ParallelTemperingSA.PARAM_THREADS, ps);
+    ps.println("The number of threads running the chains."); //$NON-NLS-1$
+    Configurable.printKey(ParallelTemperingSA.PARAM_MIN_TEMPERATURE, ps);
+    ps.println("The lowest temperature, relative to the average distance to the nearest neighbors."); //$NON-NLS-1$
+    Configurable.printKey(ParallelTemperingSA.PARAM_MAX_TEMPERATURE, ps);
+    ps.println("The highest temperature, relative to the average distance to the nearest neighbors."); //$NON-NLS-1$
+    Configurable.printKey(ParallelTemperingSA.PARAM_EXCHANGE_INTERVAL, ps);
+    ps.println("The number of steps of each chain between two exchange attempts."); //$NON-NLS-1$
+    Configurable.printKey(ParallelTemperingSA.PARAM_MAX_STAGNATION, ps);
+    ps.println("The number of epochs without improvement after which the local search returns."); //$NON-NLS-1$
+    Configurable.printKey(ParallelTemperingSA.PARAM_CANDIDATE_COUNT, ps);
+    ps.println("The number of nearest neighbors per node used to construct moves."); //$NON-NLS-1$
+  }
+}
@@ -0,0 +1,347 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing;
+
+import java.util.concurrent.RecursiveAction;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Reverse;
+import org.logisticPlanning.tsp.solving.utils.CountingDistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+/**
+ * One chain, i.e., one replica, of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing.ParallelTemperingSA
+ * parallel tempering}: a simulated annealing process at a fixed
+ * temperature. Each chain owns its tour, the positions of the nodes in the
+ * tour, its random number generator, and a distance computer counting the
+ * distance evaluations, so that several chains can run in parallel. The
+ * chain only locks the objective function every
+ * {@link #REGISTER_INTERVAL} distance evaluations and at the end of an
+ * epoch: It then registers the distance evaluations, registers its best
+ * tour if it has improved, and checks whether it should terminate. A
+ * check point of the computational budget may hence be overshot by at
+ * most {@link #REGISTER_INTERVAL} distance evaluations per chain.
+ */
+final class _TemperingChain extends RecursiveAction {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the number of table entries per unit of {@code delta/temperature} */
+  private static final int ACCEPTANCE_RESOLUTION = 256;
+
+  /**
+   * the largest value of {@code delta/temperature} for which a move may be
+   * accepted, the probability beyond is below
+   * <code>10<sup>-13</sup></code>
+   */
+  private static final int ACCEPTANCE_RANGE = 32;
+
+  /**
+   * the number of distance evaluations after which a chain registers them
+   * at the objective function: {@value}
+   */
+  static final int REGISTER_INTERVAL = 1024;
+
+  /**
+   * the acceptance lookup table: the Metropolis acceptance probability
+   * {@code exp(-x)} sampled at the centers of intervals of length
+   * {@code 1/}{@link #ACCEPTANCE_RESOLUTION}
+   */
+  private static final double[] ACCEPTANCE;
+
+  static {
+    final int size;
+    int i;
+
+    size = (_TemperingChain.ACCEPTANCE_RESOLUTION * _TemperingChain.ACCEPTANCE_RANGE);
+    ACCEPTANCE = new double[size];
+    for (i = size; (--i) >= 0;) {
+      _TemperingChain.ACCEPTANCE[i] = Math.exp(-((i + 0.5d) / //
+          _TemperingChain.ACCEPTANCE_RESOLUTION));
+    }
+  }
+
+  /** the tour */
+  final int[] m_tour;
+
+  /** the positions of the nodes in the tour */
+  private final int[] m_pos;
+
+  /** the best tour found during the current epoch */
+  final int[] m_best;
+
+  /** the counting distance computer */
+  final CountingDistanceComputer m_dist;
+
+  /** the random number generator */
+  private final Randomizer m_random;
+
+  /** the length of the tour */
+  long m_length;
+
+  /**
+   * the length of the best tour: Only tours shorter than the length given
+   * at the beginning of an epoch are copied to {@link #m_best}
+   */
+  long m_bestLength;
+
+  /** has a new best tour been found during the current epoch? */
+  boolean m_hasBest;
+
+  /**
+   * has the best tour been improved since it was last registered at the
+   * objective function?
+   */
+  private boolean m_unregistered;
+
+  /** the temperature */
+  double m_temperature;
+
+  /** the objective function */
+  private ObjectiveFunction m_f;
+
+  /** the candidate set */
+  private CandidateSet m_candidates;
+
+  /**
+   * the update operators which make the node at the end of the range the
+   * successor of the node before the range
+   */
+  private PermutationUpdateOperator[] m_succOps;
+
+  /**
+   * the update operators which make the node at the start of the range
+   * the predecessor of the node after the range
+   */
+  private PermutationUpdateOperator[] m_predOps;
+
+  /** the number of steps to perform in the current epoch */
+  private int m_steps;
+
+  /**
+   * create
+   *
+   * @param dist
+   *          the counting distance computer of the worker
+   * @param n
+   *          the number of nodes
+   */
+  _TemperingChain(final CountingDistanceComputer dist, final int n) {
+    super();
+    this.m_tour = new int[n];
+    this.m_pos = new int[n + 1];
+    this.m_best = new int[n];
+    this.m_dist = dist;
+    this.m_random = new Randomizer();
+  }
+
+  /**
+   * Start the chain at a given tour
+   *
+   * @param tour
+   *          the tour
+   * @param length
+   *          the length of the tour
+   * @param seed
+   *          the seed for the random number generator
+   */
+  final void init(final int[] tour, final long length, final long seed) {
+    final int[] pos;
+    int i;
+
+    System.arraycopy(tour, 0, this.m_tour, 0, tour.length);
+    pos = this.m_pos;
+    for (i = tour.length; (--i) >= 0;) {
+      pos[tour[i]] = i;
+    }
+    this.m_length = length;
+    this.m_random.setSeed(seed);
+  }
+
+  /**
+   * Prepare the next epoch
+   *
+   * @param f
+   *          the objective function
+   * @param candidates
+   *          the candidate set
+   * @param succOps
+   *          the update operators making a node the successor of another
+   *          one
+   * @param predOps
+   *          the update operators making a node the predecessor of
+   *          another one
+   * @param steps
+   *          the number of steps to perform
+   * @param bestLength
+   *          the length of the best tour found so far
+   */
+  final void setup(final ObjectiveFunction f,
+      final CandidateSet candidates,
+      final PermutationUpdateOperator[] succOps,
+      final PermutationUpdateOperator[] predOps, final int steps,
+      final long bestLength) {
+    this.reinitialize();
+    this.m_f = f;
+    this.m_candidates = candidates;
+    this.m_succOps = succOps;
+    this.m_predOps = predOps;
+    this.m_steps = steps;
+    this.m_bestLength = bestLength;
+    this.m_hasBest = false;
+    this.m_unregistered = false;
+    this.m_dist.resetCount();
+  }
+
+  /** release the references to the data of the run */
+  final void release() {
+    this.m_f = null;
+    this.m_candidates = null;
+    this.m_succOps = null;
+    this.m_predOps = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final void compute() {
+    final int[] tour, pos;
+    final int n, m;
+    final PermutationUpdateOperator[] succOps, predOps;
+    final CandidateSet candidates;
+    final Randomizer random;
+    final CountingDistanceComputer dist;
+    final double scale;
+    PermutationUpdateOperator op;
+    int step, i, j, a, b, delta, index;
+    boolean accepted;
+
+    tour = this.m_tour;
+    pos = this.m_pos;
+    n = tour.length;
+    succOps = this.m_succOps;
+    predOps = this.m_predOps;
+    candidates = this.m_candidates;
+    m = candidates.m();
+    random = this.m_random;
+    dist = this.m_dist;
+    scale = (_TemperingChain.ACCEPTANCE_RESOLUTION / this.m_temperature);
+
+    for (step = this.m_steps; (--step) >= 0;) {
+      // pick a node and one of its nearest neighbors: the move will make
+      // them adjacent
+      i = random.nextInt(n);
+      j = pos[candidates.getCandidate(tour[i], (1 + random.nextInt(m)))];
+      if (random.nextBoolean()) {// neighbor becomes successor
+        a = ((i + 1) % n);
+        b = j;
+        op = succOps[random.nextInt(succOps.length)];
+      } else {// neighbor becomes predecessor
+        a = j;
+        b = ((i + n - 1) % n);
+        op = predOps[random.nextInt(predOps.length)];
+      }
+
+      accepted = false;
+      delta = 0;
+      if (a != b) {
+        delta = op.delta(tour, dist, a, b);
+        if (delta != PermutationUpdateOperator.NO_EFFECT) {
+          if (delta > 0) {
+            index = ((int) (Math.min((delta * scale),
+                _TemperingChain.ACCEPTANCE.length)));
+            accepted = ((index < _TemperingChain.ACCEPTANCE.length) && //
+            (random.nextDouble() < _TemperingChain.ACCEPTANCE[index]));
+          } else {
+            accepted = true;
+          }
+        }
+      }
+
+      if (accepted) {
+        this.__move(op, a, b, delta);
+      }
+
+      if ((dist.getCount() >= _TemperingChain.REGISTER_INTERVAL)
+          && this.__register()) {
+        return;
+      }
+    }
+
+    this.__register();
+  }
+
+  /**
+   * Apply an accepted move and remember the tour if it is the best one
+   *
+   * @param op
+   *          the update operator
+   * @param start
+   *          the start index of the range
+   * @param end
+   *          the end index of the range
+   * @param delta
+   *          the change of the tour length
+   */
+  private final void __move(final PermutationUpdateOperator op,
+      final int start, final int end, final int delta) {
+    final int[] tour, pos;
+    final int n;
+    int i, a, b;
+
+    tour = this.m_tour;
+    pos = this.m_pos;
+    n = tour.length;
+    a = start;
+    b = end;
+
+    // A reversal of the range a..b leads to the same tour as the
+    // reversal of the remaining nodes, so we reverse the shorter range.
+    if ((op == PermutationUpdate_Reverse.INSTANCE)
+        && ((((b - a) + n) % n) > (n >>> 1))) {
+      i = a;
+      a = ((b + 1) % n);
+      b = ((i + n - 1) % n);
+    }
+    op.update(tour, a, b);
+    for (i = a;; i = ((i + 1) % n)) {
+      pos[tour[i]] = i;
+      if (i == b) {
+        break;
+      }
+    }
+
+    this.m_length += delta;
+    if (this.m_length < this.m_bestLength) {
+      this.m_bestLength = this.m_length;
+      System.arraycopy(tour, 0, this.m_best, 0, n);
+      this.m_hasBest = true;
+      this.m_unregistered = true;
+    }
+  }
+
+  /**
+   * Register the distance evaluations and, if it has been improved, the
+   * best tour at the objective function
+   *
+   * @return {@code true} if the run should terminate, {@code false}
+   *         otherwise
+   */
+  private final boolean __register() {
+    final ObjectiveFunction f;
+    final CountingDistanceComputer dist;
+
+    f = this.m_f;
+    dist = this.m_dist;
+    synchronized (f) {
+      f.registerDEs(dist.getCount());
+      dist.resetCount();
+      if (this.m_unregistered) {
+        f.registerFE(this.m_best, this.m_bestLength);
+        this.m_unregistered = false;
+      }
+      return f.shouldTerminate();
+    }
+  }
+}
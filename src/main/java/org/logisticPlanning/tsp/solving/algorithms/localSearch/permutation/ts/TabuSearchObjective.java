@@ -20,6 +20,7 @@ import org.logisticPlanning.tsp.solving.TSPModule;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperators;
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 
@@ -100,6 +101,9 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
   /** should we stop as soon as we found any improvement? */
   private boolean m_useFirstImprovement;
 
+  /** the current solution and the distances between its nodes */
+  private transient TourWithEdgeCache m_tour;
+
   /** instantiate */
   public TabuSearchObjective() {
     super("TabuSearch");//$NON-NLS-1$
@@ -123,6 +127,7 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
   @Override
   public void localSearch(final Individual<int[]> srcdst,
       final ObjectiveFunction f) {
+    final TourWithEdgeCache tour;
     final int n;
     int currentDelta, currentStart, currentEnd, bestDelta, bestStart, bestEnd;
     PermutationUpdateOperator bestOperator;
@@ -131,6 +136,8 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
     this.__addTabu(srcdst.tourLength);
 
     n = f.n();
+    tour = this.m_tour;
+    tour.init(srcdst.solution, f);
 
     while (!(f.shouldTerminate())) {
       bestOperator = null;
@@ -145,8 +152,8 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
           for (final PermutationUpdateOperator currentOperator : this.m_ops) {
 
             // how good would the result be, if we applied the operation?
-            currentDelta = currentOperator.delta(srcdst.solution, f,
-                currentStart, currentEnd);
+            currentDelta = tour.delta(currentOperator, currentStart,
+                currentEnd);
 
             // is the new solution better than the best permissible one
             // we have seen?
@@ -177,7 +184,7 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
       }
 
       // update solution with best operator found
-      bestOperator.update(srcdst.solution, bestStart, bestEnd);
+      tour.update(bestOperator, bestStart, bestEnd);
       srcdst.tourLength += bestDelta;
       this.__addTabu(srcdst.tourLength);
       f.registerFEs(1, srcdst.solution, srcdst.tourLength);
@@ -232,6 +239,7 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
     for (i = ops.length; (--i) >= 0;) {
       ops[i] = ops[i].clone();
     }
+    res.m_tour = null;
 
     this.m_tabuListLength = (-1);
     this.m_tabuList = null;
@@ -284,6 +292,7 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
   public void beginRun(final ObjectiveFunction f) {
     super.beginRun(f);
     TSPModule.invokeBeginRun(f, this.m_ops);
+    this.m_tour = new TourWithEdgeCache(f.n());
 
     this.m_tabuListLength = (this.m_absolute + (int) (this.m_rate * Math
         .sqrt(f.n())));
@@ -295,6 +304,7 @@ public class TabuSearchObjective extends TSPLocalSearchAlgorithm<int[]> {
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
+    this.m_tour = null;
 
     this.m_tabuList = null;
     this.m_tabuSize = 0;
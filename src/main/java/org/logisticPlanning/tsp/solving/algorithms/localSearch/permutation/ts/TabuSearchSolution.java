@@ -11,8 +11,6 @@
 package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.ts;
 
 import java.io.PrintStream;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
 
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
@@ -22,6 +20,8 @@ import org.logisticPlanning.tsp.solving.TSPModule;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperators;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 
@@ -39,6 +39,19 @@ import org.logisticPlanning.utils.config.Configuration;
  * style="font-weight:bold">3</a>] would yield the best improvement and
  * then applies this operator.
  * </p>
+ * <p>
+ * The tabu list does not store the solutions themselves, but only their
+ * 64 bit
+ * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#pathEdgeHash(int[])
+ * edge hashes}. The hash of a neighboring solution can be computed in
+ * {@code O(1)} via
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator#edgeHashDelta(int[], int, int)}
+ * without applying the operator, and checking whether it is tabu takes
+ * {@code O(1)} as well. The tabu list thus needs only memory linear in
+ * its length. Two different solutions may have the same hash, in which
+ * case one of them may wrongly be considered as tabu, but this is very
+ * unlikely.
+ * </p>
  *
  * @author <em>Dan Xu</em>, Email:&nbsp;<a
  *         href="mailto:dandy@mail.ustc.edu.cn">dandy@mail.ustc.edu.cn</a>,
@@ -95,12 +108,19 @@ public class TabuSearchSolution extends TSPLocalSearchAlgorithm<int[]> {
    * {@link #m_rate}
    */
   private int m_tabuListLength;
-  /** the tabu list */
-  private LinkedHashSet<PathHash> m_tabuList;
+  /**
+   * the tabu list, which stores the
+   * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#pathEdgeHash(int[])
+   * edge hashes} of the most recently visited solutions
+   */
+  private transient _TabuHashSet m_tabuList;
 
   /** should we stop as soon as we found any improvement? */
   private boolean m_useFirstImprovement;
 
+  /** the current solution and the distances between its nodes */
+  private transient TourWithEdgeCache m_tour;
+
   /** instantiate */
   public TabuSearchSolution() {
     super("TabuSearch");//$NON-NLS-1$
@@ -124,25 +144,30 @@ public class TabuSearchSolution extends TSPLocalSearchAlgorithm<int[]> {
   @Override
   public void localSearch(final Individual<int[]> srcdst,
       final ObjectiveFunction f) {
-    final PathHash solutionHash;
+    final int[] solution;
+    final TourWithEdgeCache tour;
     final int n;
-    PathHash useHash;
-    int currentDelta, currentStart, currentEnd, performedFEs, oldHash, bestDelta, bestStart, bestEnd;
-    Iterator<PathHash> iteratorToGetFirst;
+    final _TabuHashSet tabuList;
+    long solutionHash, currentHash, bestHash;
+    int currentDelta, currentStart, currentEnd, performedFEs, bestDelta, bestStart, bestEnd;
     PermutationUpdateOperator bestOperator;
 
     // create the hash for the current solution
-    solutionHash = new PathHash(srcdst.solution);
-    solutionHash.updateHashCode(); // calculate hash
-    this.m_tabuList.add(solutionHash); // make tabu
+    solution = srcdst.solution;
+    tabuList = this.m_tabuList;
+    solutionHash = RepresentationUtils.pathEdgeHash(solution);
+    tabuList.add(solutionHash); // make tabu
 
     n = f.n();
+    tour = this.m_tour;
+    tour.init(solution, f);
 
     while (!(f.shouldTerminate())) {
       performedFEs = 0;
       bestOperator = null;
       bestDelta = Integer.MAX_VALUE;
       bestStart = bestEnd = (-1);
+      bestHash = 0L;
 
       findNewSolution: {// find a new solution
 
@@ -154,78 +179,54 @@ public class TabuSearchSolution extends TSPLocalSearchAlgorithm<int[]> {
             for (final PermutationUpdateOperator currentOperator : this.m_ops) {
 
               // how good would the result be, if we applied the operation?
-              currentDelta = currentOperator.delta(solutionHash.m_data, f,
-                  currentStart, currentEnd);
+              currentDelta = tour.delta(currentOperator, currentStart,
+                  currentEnd);
 
               // is the new solution better than the best permissible one
               // we have seen?
               if (currentDelta < bestDelta) { // only then we need to
-                // apply the operation and get the hash code
-                currentOperator.update(solutionHash.m_data, currentStart,
-                    currentEnd);
+                // compute the hash of the new solution, which only takes
+                // O(1) since just a few edges change
                 performedFEs++;
-                oldHash = solutionHash.m_hash;
-                // this is a very costly operation, so avoid where possible
-                solutionHash.updateHashCode();
+                currentHash = (solutionHash ^ currentOperator
+                    .edgeHashDelta(solution, currentStart, currentEnd));
 
                 // is the new solution in the tabu list?
-                if (!(this.m_tabuList.contains(solutionHash))) {
+                if (!(tabuList.contains(currentHash))) {
                   // no - so we remember it
                   bestDelta = currentDelta;
                   bestOperator = currentOperator;
                   bestStart = currentStart;
                   bestEnd = currentEnd;
+                  bestHash = currentHash;
 
                   if (bestDelta < 0) {// at first improvement: stop
                     if (this.m_useFirstImprovement) {
-                      break findNewSolution; // don't revert, keep solution
+                      break findNewSolution;
                     }
                   }
                 }
-
-                // undo operation: we may find something better later on
-                currentOperator.revertUpdate(solutionHash.m_data,
-                    currentStart, currentEnd);
-                solutionHash.m_hash = oldHash;
               } // end currentDelta<bestDelta
             } // end for currentOperator
           } // end: for currentStart
         } // end: for currentEnd
-
-        // OK, the main loop has terminated, every possible op(start, end)
-        // has been tested.
-        if (bestOperator == null) { // there was no permissible move
-          f.registerFEs(performedFEs, solutionHash.m_data,
-              srcdst.tourLength);
-          return; // so we exit here
-        }
-
-        // update solution with best operator found
-        bestOperator.update(solutionHash.m_data, bestStart, bestEnd);
-        solutionHash.updateHashCode(); // and hash code
       } // end findNewSolution
 
-      addToTabu: {// add the new solution to the tabu list
-        if (this.m_tabuList.size() >= this.m_tabuListLength) {
-          // oh, the tabu list is full: delete first, reuse
-          iteratorToGetFirst = this.m_tabuList.iterator();
-          if (iteratorToGetFirst.hasNext()) {// should be true
-            useHash = iteratorToGetFirst.next(); // get first tabu
-            iteratorToGetFirst.remove(); // delete it
-
-            // reuse old hash object: avoid unnecessary allocation
-            System.arraycopy(solutionHash.m_data, 0, useHash.m_data, 0, n);
-            useHash.m_hash = solutionHash.m_hash;
-            this.m_tabuList.add(useHash);
-            break addToTabu;
-          }
-        }
-        this.m_tabuList.add(solutionHash.clone());
+      // OK, every possible op(start, end) has been tested or we have found
+      // the first improvement.
+      if (bestOperator == null) { // there was no permissible move
+        f.registerFEs(performedFEs, solution, srcdst.tourLength);
+        return; // so we exit here
       }
 
+      // update solution with best operator found and make it tabu
+      tour.update(bestOperator, bestStart, bestEnd);
+      solutionHash = bestHash;
+      tabuList.add(solutionHash);
+
       // update tour length and register solution to objective function
       srcdst.tourLength += bestDelta;
-      f.registerFEs(performedFEs, solutionHash.m_data, srcdst.tourLength);
+      f.registerFEs(performedFEs, solution, srcdst.tourLength);
     }
   }
 
@@ -241,6 +242,7 @@ public class TabuSearchSolution extends TSPLocalSearchAlgorithm<int[]> {
     for (i = ops.length; (--i) >= 0;) {
       ops[i] = ops[i].clone();
     }
+    res.m_tour = null;
 
     this.m_tabuListLength = (-1);
     this.m_tabuList = null;
@@ -292,15 +294,17 @@ public class TabuSearchSolution extends TSPLocalSearchAlgorithm<int[]> {
   public void beginRun(final ObjectiveFunction f) {
     super.beginRun(f);
     TSPModule.invokeBeginRun(f, this.m_ops);
+    this.m_tour = new TourWithEdgeCache(f.n());
 
     this.m_tabuListLength = (this.m_absolute + (int) (this.m_rate * Math
         .sqrt(f.n())));
-    this.m_tabuList = new LinkedHashSet<>(this.m_tabuListLength);
+    this.m_tabuList = new _TabuHashSet(this.m_tabuListLength);
   }
 
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
+    this.m_tour = null;
 
     this.m_tabuList = null;
 
@@ -0,0 +1,155 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.ts;
+
+/**
+ * A tabu list of 64 bit hash keys with a fixed capacity. The keys are
+ * kept in a ring buffer in the order in which they were added: Once the
+ * list is full, adding a new key removes the oldest one. For fast
+ * membership tests, the keys are also stored in a hash table with open
+ * addressing and linear probing, which is always at most half full. Both
+ * operations take {@code O(1)} expected time and no objects are created.
+ */
+final class _TabuHashSet {
+
+  /**
+   * the replacement for key {@code 0}, which marks empty slots in the hash
+   * table
+   */
+  private static final long ZERO_KEY = 0x9e3779b97f4a7c15L;
+
+  /** the keys in the order in which they were added */
+  private final long[] m_ring;
+
+  /** the hash table */
+  private final long[] m_table;
+
+  /** the mask for indexes into the hash table */
+  private final int m_mask;
+
+  /** the index of the oldest key in the ring buffer */
+  private int m_first;
+
+  /** the number of keys */
+  private int m_size;
+
+  /**
+   * create the tabu hash set
+   *
+   * @param capacity
+   *          the maximum number of keys to store
+   */
+  _TabuHashSet(final int capacity) {
+    super();
+
+    final int cap;
+
+    cap = Math.max(1, capacity);
+    this.m_ring = new long[cap];
+    this.m_table = new long[Integer.highestOneBit(cap) << 2];
+    this.m_mask = (this.m_table.length - 1);
+  }
+
+  /**
+   * Get the hash table index at which the search for a key begins
+   *
+   * @param key
+   *          the key
+   * @return the index
+   */
+  private final int __index(final long key) {
+    return (((int) (key ^ (key >>> 32))) & this.m_mask);
+  }
+
+  /**
+   * Check whether a key is in the list
+   *
+   * @param key
+   *          the key
+   * @return {@code true} if the key is in the list, {@code false}
+   *         otherwise
+   */
+  final boolean contains(final long key) {
+    final long[] table;
+    final long k;
+    int i;
+    long v;
+
+    k = ((key != 0L) ? key : _TabuHashSet.ZERO_KEY);
+    table = this.m_table;
+    for (i = this.__index(k); (v = table[i]) != 0L; i = ((i + 1) & this.m_mask)) {
+      if (v == k) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Add a key to the list. If the list is full, the oldest key is removed.
+   * If the key is already in the list, nothing happens.
+   *
+   * @param key
+   *          the key
+   */
+  final void add(final long key) {
+    final long[] table, ring;
+    final long k;
+    int i;
+    long v;
+
+    k = ((key != 0L) ? key : _TabuHashSet.ZERO_KEY);
+    table = this.m_table;
+    for (i = this.__index(k); (v = table[i]) != 0L; i = ((i + 1) & this.m_mask)) {
+      if (v == k) {
+        return;
+      }
+    }
+    table[i] = k;
+
+    ring = this.m_ring;
+    if (this.m_size >= ring.length) {
+      this.__remove(ring[this.m_first]);
+      ring[this.m_first] = k;
+      if ((++this.m_first) >= ring.length) {
+        this.m_first = 0;
+      }
+    } else {
+      i = (this.m_first + this.m_size);
+      if (i >= ring.length) {
+        i -= ring.length;
+      }
+      ring[i] = k;
+      this.m_size++;
+    }
+  }
+
+  /**
+   * Remove a key from the hash table, while keeping the probe sequences of
+   * the remaining keys intact
+   *
+   * @param key
+   *          the key, which must be in the table
+   */
+  private final void __remove(final long key) {
+    final long[] table;
+    final int mask;
+    int i, j, home;
+    long v;
+
+    table = this.m_table;
+    mask = this.m_mask;
+    for (i = this.__index(key); table[i] != key; i = ((i + 1) & mask)) {
+      //
+    }
+
+    // shift back the following keys of the cluster which would otherwise
+    // become unreachable
+    for (j = ((i + 1) & mask); (v = table[j]) != 0L; j = ((j + 1) & mask)) {
+      home = this.__index(v);
+      if (((j - home) & mask) >= ((j - i) & mask)) {
+        table[i] = v;
+        i = j;
+      }
+    }
+    table[i] = 0L;
+  }
+}
@@ -13,6 +13,8 @@ import org.logisticPlanning.tsp.solving.operators.permutation.update.Permutation
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Left;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Right;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Swap;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 import org.logisticPlanning.utils.math.random.Randomizer;
@@ -201,6 +203,21 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
   /** the operations to be used */
   private transient PermutationUpdateOperator[] m_useOps;
 
+  /**
+   * was the last local search completed, i.e., is the solution it returned
+   * a local optimum?
+   */
+  private transient boolean m_complete;
+
+  /** the range of positions which have changed since the last optimum */
+  private transient int[] m_range;
+
+  /** the current solution and the distances between its nodes */
+  private transient TourWithEdgeCache m_tour;
+
+  /** the indices of the move found by a scan */
+  private transient int[] m_move;
+
   /** instantiate */
   public PermutationVNS() {
     super("Variable Neighborhood Search");//$NON-NLS-1$
@@ -225,17 +242,79 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
   @Override
   public void localSearch(final Individual<int[]> srcdst,
       final ObjectiveFunction f) {
+    final int[] range;
+
+    range = this.m_range;
+    range[0] = 0;
+    range[1] = (f.n() - 1);
+    this.__localSearch(srcdst, f, range);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The delta of a move {@code (i,j)} only depends on the nodes next to
+   * the positions {@code i} and {@code j}. If the last local search was
+   * completed, no move was improving before the perturbation, so only the
+   * moves with {@code i} or {@code j} close to the range of positions
+   * changed by the perturbation (or the moves applied afterwards) need to
+   * be checked. Since all other moves cannot be improving, the result is a
+   * local optimum of the full search, too. It may still differ from the
+   * result of the full search if several moves are equally good.
+   * </p>
+   */
+  @Override
+  public void localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f, final int[] dirty, final int dirtyCount) {
+    if ((!(this.m_complete)) || (dirtyCount < 0)) {
+      this.localSearch(srcdst, f);
+      return;
+    }
+    if (RepresentationUtils.getPathRange(srcdst.solution, dirty,
+        dirtyCount, this.m_range)) {
+      this.__localSearch(srcdst, f, this.m_range);
+    }
+  }
+
+  /**
+   * Perform the local search, checking only the moves which touch the
+   * range of changed positions
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   * @param range
+   *          the range of changed positions, which is extended whenever a
+   *          move is applied
+   */
+  private final void __localSearch(final Individual<int[]> srcdst,
+      final ObjectiveFunction f, final int[] range) {
 
     final int n;
     final Randomizer r;
     final PermutationUpdateOperator[] ops;
     final EImprovementSelectionPolicy policy;
     final boolean firstImpIt;
-    int chosen, delta, bestDelta, i, j, bestI, bestJ;
+    final TourWithEdgeCache tour;
+    final int[] dists, move;
+    int chosen, bestDelta, bestI, bestJ;
+    int begin, end;
     PermutationUpdateOperator op;
 
     n = f.n();
     r = f.getRandom();
+    this.m_complete = false;
+
+    // cache the distances between the nodes and their successors
+    tour = this.m_tour;
+    tour.init(srcdst.solution, f);
+    dists = tour.getEdgeLengths();
+    move = this.m_move;
+
+    // any move with a coordinate in [begin,end] is interesting
+    begin = (range[0] - 2);
+    end = (range[1] + 2);
 
     // see which kind of improvement we are looking for
     policy = this.m_improvementSelectionPolicy.getCallPolicy(r);
@@ -263,33 +342,22 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     // be found.
     while (chosen < ops.length) {
       op = ops[chosen];
-      bestI = bestJ = bestDelta = Integer.MAX_VALUE;
 
       // Test all possible modifications that the current neighborhood can
-      // offer (or just grab the first improving move).
-      findBest: for (j = n; (--j) > 0;) {
-        for (i = j; (--i) >= 0;) {
-
-          // Check operation for indices (i,j)
-          delta = op.delta(srcdst.solution, f, i, j);
-          if (delta < bestDelta) { // Remember best possible move.
-            bestDelta = delta;
-            bestI = i;
-            bestJ = j;
-            if (firstImpIt && (delta < 0)) {
-              // if configuration says so, we can also stop as
-              // soon as we
-              // have one improving move
-              break findBest;
-            }
-          }
-        }
-      }
+      // offer (or just grab the first improving move) which touch the
+      // changed range.
+      bestDelta = op.scan(srcdst.solution, f, dists, begin, end,
+          firstImpIt, move);
 
       // Did we find an improvement, i.e., is there an application of the
       // search operator that would decrease the tour length?
       if (bestDelta < 0) {// Yes! we found one improving move!
-        op.update(srcdst.solution, bestI, bestJ);// apply this move
+        bestI = move[0];
+        bestJ = move[1];
+        tour.update(op, bestI, bestJ);// apply this move
+        RepresentationUtils.extendPathRange(range, bestI, bestJ, n);
+        begin = (range[0] - 2);
+        end = (range[1] + 2);
         srcdst.tourLength += bestDelta; // modify tour length
         f.registerFE(srcdst.solution, srcdst.tourLength); // register
         // new tour
@@ -306,6 +374,7 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     }
 
     // No further improvements are possible.
+    this.m_complete = true;
     // The new solution is an optimum with respect to all neighborhoods.
     // So we exit to the local search towards the main loop here.
     // The main loop may perturb srcdst and then enter this procedure
@@ -380,12 +449,20 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     super.beginRun(f);
     TSPModule.invokeBeginRun(f, this.m_ops);
     this.m_useOps = this.m_ops.clone();
+    this.m_range = new int[2];
+    this.m_tour = new TourWithEdgeCache(f.n());
+    this.m_move = new int[2];
+    this.m_complete = false;
   }
 
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
     this.m_useOps = null;
+    this.m_range = null;
+    this.m_tour = null;
+    this.m_move = null;
+    this.m_complete = false;
     try {
       TSPModule.invokeEndRun(f, this.m_ops);
     } finally {
@@ -402,6 +479,10 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
 
     clo = ((PermutationVNS) (super.clone()));
     clo.m_useOps = null;
+    clo.m_range = null;
+    clo.m_tour = null;
+    clo.m_move = null;
+    clo.m_complete = false;
     clo.m_ops = ops = clo.m_ops.clone();
     for (i = ops.length; (--i) >= 0;) {
       ops[i] = ops[i].clone();
@@ -46,6 +46,34 @@ public abstract class PerturbationOperator<P> extends UnaryOperator<P> {
   public abstract void pertube(final Individual<P> srcdst,
       final ObjectiveFunction f);
 
+  /**
+   * <p>
+   * Get the nodes whose edges or positions may have been changed by the
+   * last call to {@link #pertube(Individual, ObjectiveFunction)}, i.e.,
+   * the nodes which are <em>dirty</em>. A local search which has brought the
+   * solution into a local optimum before the perturbation only needs to
+   * look for improving moves around these nodes, since the rest of the
+   * tour is still locally optimal.
+   * </p>
+   * <p>
+   * By default, this method returns {@code -1}, which means that it is not
+   * known which nodes have been changed and all nodes should be considered
+   * as dirty. Operators which change only small parts of a solution should
+   * override it.
+   * </p>
+   *
+   * @param srcdst
+   *          the individual record that has been perturbed
+   * @param dest
+   *          the destination array to receive the dirty nodes, must have
+   *          at least the length {@code n}
+   * @return the number of dirty nodes stored in {@code dest}, or
+   *         {@code -1} if they are unknown
+   */
+  public int getDirtyNodes(final Individual<P> srcdst, final int[] dest) {
+    return (-1);
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void mutate(final Individual<P> dest,
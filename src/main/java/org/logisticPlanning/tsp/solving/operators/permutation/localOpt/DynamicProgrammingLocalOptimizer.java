@@ -0,0 +1,348 @@
+package org.logisticPlanning.tsp.solving.operators.permutation.localOpt;
+
+import java.util.Arrays;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+
+/**
+ * <p>
+ * An implementation of the class
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.localOpt.LocalOptimizer}
+ * which finds optimal path sub-sequences via the dynamic programming
+ * approach of Held and Karp&nbsp;[<a href="#cite_HK1962DPATSP"
+ * style="font-weight:bold">1</a>] instead of enumerating all permutations
+ * like the generated
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.localOpt.ExhaustivelyEnumeratingLocal3Optimizer
+ * exhaustively enumerating local optimizers} do.
+ * </p>
+ * <p>
+ * The node before and the node after the sub-sequence remain fixed. For
+ * each set {@code S} of nodes of the sub-sequence (encoded as bit mask)
+ * and each node {@code v} in {@code S}, we compute the length of the
+ * shortest path which starts at the fixed first node, visits exactly the
+ * nodes in {@code S}, and ends in {@code v}. This takes
+ * {@code O(2<sup>m</sup>m<sup>2</sup>)} steps for a sub-sequence of length
+ * {@code m}, compared to the {@code O(m!)} steps of exhaustive
+ * enumeration, which allows us to optimize sub-sequences of up to
+ * {@link #MAX_SUB_PATH_LENGTH} nodes. The distances between the nodes of
+ * the sub-sequence are cached in an array and all partial paths which
+ * cannot lead to a shorter sub-sequence than the current one are pruned.
+ * The optimal order is reconstructed backwards from the table of path
+ * lengths, so no predecessor table is needed.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_HK1962DPATSP" /><a
+ * href="http://en.wikipedia.org/wiki/Michael_Held">Michael Held</a> and
+ * <a href="http://en.wikipedia.org/wiki/Richard_M._Karp">Richard Manning
+ * Karp</a>: <span style="font-weight:bold">&ldquo;A Dynamic Programming
+ * Approach to Sequencing Problems,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of the Society
+ * for Industrial and Applied Mathematics</span> 10(1):196&ndash;210,
+ * March&nbsp;1962; published by Philadelphia, PA, USA: Society for
+ * Industrial and Applied Mathematics (SIAM). doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1137/0110015">10.1137/0110015</a></div></li>
+ * </ol>
+ */
+public final class DynamicProgrammingLocalOptimizer extends LocalOptimizer {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the minimum length of the sub-path: {@value} */
+  public static final int MIN_SUB_PATH_LENGTH = 3;
+
+  /**
+   * the maximum length of the sub-path: {@value} &ndash; the tables grow
+   * exponentially with the length
+   */
+  public static final int MAX_SUB_PATH_LENGTH = 12;
+
+  /**
+   * the default length of the sub-path: {@value}, i.e., the same as the
+   * default of the local optimization algorithms
+   */
+  public static final int DEFAULT_SUB_PATH_LENGTH = 7;
+
+  /** the length of the sub-path to optimize */
+  private final int m_length;
+
+  /** the nodes of the sub-path */
+  private transient int[] m_nodes;
+
+  /**
+   * the distances between the nodes of the sub-path, where
+   * {@code m_dists[i*m+j]} is the distance between {@code m_nodes[i]} and
+   * {@code m_nodes[j]}
+   */
+  private transient long[] m_dists;
+
+  /** the distances from the fixed node before the sub-path */
+  private transient long[] m_fromStart;
+
+  /** the distances to the fixed node after the sub-path */
+  private transient long[] m_toEnd;
+
+  /**
+   * the lower bounds for the cost of reaching each node, i.e., the length
+   * of its shortest edge from the start node or another node of the
+   * sub-path
+   */
+  private transient long[] m_minIn;
+
+  /**
+   * the dynamic programming table: {@code m_table[(S*m)+v]} is the length
+   * of the shortest path from the start node over exactly the nodes in
+   * {@code S} to node {@code v}
+   */
+  private transient long[] m_table;
+
+  /**
+   * the lower bounds for the remaining path length, indexed by the set of
+   * nodes already visited
+   */
+  private transient long[] m_remaining;
+
+  /**
+   * Create a dynamic programming local optimizer for sub-paths of the
+   * {@link #DEFAULT_SUB_PATH_LENGTH default length}
+   */
+  public DynamicProgrammingLocalOptimizer() {
+    this(DynamicProgrammingLocalOptimizer.DEFAULT_SUB_PATH_LENGTH);
+  }
+
+  /**
+   * Create a dynamic programming local optimizer
+   *
+   * @param length
+   *          the length of the sub-paths to optimize, must be in
+   *          {@link #MIN_SUB_PATH_LENGTH}&hellip;
+   *          {@link #MAX_SUB_PATH_LENGTH}
+   */
+  public DynamicProgrammingLocalOptimizer(final int length) {
+    super(length);
+    if ((length < DynamicProgrammingLocalOptimizer.MIN_SUB_PATH_LENGTH)
+        || (length > DynamicProgrammingLocalOptimizer.MAX_SUB_PATH_LENGTH)) {
+      throw new IllegalArgumentException(//
+          "Sub-path length must be in " + //$NON-NLS-1$
+              DynamicProgrammingLocalOptimizer.MIN_SUB_PATH_LENGTH + //
+              "..." + //$NON-NLS-1$
+              DynamicProgrammingLocalOptimizer.MAX_SUB_PATH_LENGTH + //
+              ", but is " + length); //$NON-NLS-1$
+    }
+    this.m_length = length;
+  }
+
+  /** allocate the internal arrays */
+  private final void __allocate() {
+    final int m;
+
+    m = this.m_length;
+    this.m_nodes = new int[m];
+    this.m_dists = new long[m * m];
+    this.m_fromStart = new long[m];
+    this.m_toEnd = new long[m];
+    this.m_minIn = new long[m];
+    this.m_table = new long[(1 << m) * m];
+    this.m_remaining = new long[1 << m];
+  }
+
+  /** release the internal arrays */
+  private final void __clear() {
+    this.m_nodes = null;
+    this.m_dists = null;
+    this.m_fromStart = null;
+    this.m_toEnd = null;
+    this.m_minIn = null;
+    this.m_table = null;
+    this.m_remaining = null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final long apply(final int[] path, final int beforeStart,
+      final ObjectiveFunction dist) {
+    final int n, m, full, start, end;
+    final int[] nodes;
+    final long[] dists, fromStart, toEnd, minIn, table, remaining;
+    long current, best, value, bound, next, minEnd;
+    int i, j, index, mask, row, last, nextMask, bit, rest;
+
+    n = path.length;
+    // the sub-path and its two fixed end nodes must be different nodes
+    m = Math.min(this.m_length, (n - 1));
+    if (m < 3) {
+      return 0L;
+    }
+
+    if (this.m_table == null) {
+      this.__allocate();
+    }
+    nodes = this.m_nodes;
+    dists = this.m_dists;
+    fromStart = this.m_fromStart;
+    toEnd = this.m_toEnd;
+    minIn = this.m_minIn;
+    table = this.m_table;
+    remaining = this.m_remaining;
+
+    // cache the nodes
+    start = path[beforeStart];
+    index = beforeStart;
+    for (i = 0; i < m; i++) {
+      if ((++index) >= n) {
+        index = 0;
+      }
+      nodes[i] = path[index];
+    }
+    if ((++index) >= n) {
+      index = 0;
+    }
+    end = path[index];
+
+    // cache the distances and the current length of the sub-path
+    minEnd = Long.MAX_VALUE;
+    for (i = 0; i < m; i++) {
+      fromStart[i] = minIn[i] = dist.distance(start, nodes[i]);
+      toEnd[i] = value = dist.distance(nodes[i], end);
+      if (value < minEnd) {
+        minEnd = value;
+      }
+      dists[(i * m) + i] = 0L;
+    }
+    for (i = 0; i < m; i++) {
+      for (j = i; (++j) < m;) {
+        dists[(i * m) + j] = dists[(j * m) + i] = value = //
+        dist.distance(nodes[i], nodes[j]);
+        if (value < minIn[i]) {
+          minIn[i] = value;
+        }
+        if (value < minIn[j]) {
+          minIn[j] = value;
+        }
+      }
+    }
+
+    current = (fromStart[0] + toEnd[m - 1]);
+    for (i = 1; i < m; i++) {
+      current += dists[((i - 1) * m) + i];
+    }
+
+    // compute the lower bounds for the rest of the path: each node not yet
+    // visited and the end node must still be reached via one edge
+    full = ((1 << m) - 1);
+    remaining[0] = minEnd;
+    for (i = 0; i < m; i++) {
+      remaining[0] += minIn[i];
+    }
+    for (mask = 1; mask <= full; mask++) {
+      bit = Integer.numberOfTrailingZeros(mask);
+      remaining[mask] = (remaining[mask & (mask - 1)] - minIn[bit]);
+    }
+
+    // initialize the table
+    Arrays.fill(table, 0, ((full + 1) * m), Long.MAX_VALUE);
+    for (i = 0; i < m; i++) {
+      mask = (1 << i);
+      if ((fromStart[i] + remaining[mask]) < current) {
+        table[(mask * m) + i] = fromStart[i];
+      }
+    }
+
+    // extend the partial paths set by set
+    for (mask = 1; mask < full; mask++) {
+      row = (mask * m);
+      rest = (full & (~mask));
+      for (last = 0; last < m; last++) {
+        value = table[row + last];
+        if (value == Long.MAX_VALUE) {
+          continue;
+        }
+        for (j = rest; j != 0; j &= (j - 1)) {
+          bit = Integer.numberOfTrailingZeros(j);
+          nextMask = (mask | (1 << bit));
+          next = (value + dists[(last * m) + bit]);
+          if ((next + remaining[nextMask]) >= current) {
+            continue; // prune: cannot lead to an improvement
+          }
+          index = ((nextMask * m) + bit);
+          if (next < table[index]) {
+            table[index] = next;
+          }
+        }
+      }
+    }
+
+    // find the best complete path
+    row = (full * m);
+    best = current;
+    last = (-1);
+    for (i = 0; i < m; i++) {
+      value = table[row + i];
+      if (value != Long.MAX_VALUE) {
+        value += toEnd[i];
+        if (value < best) {
+          best = value;
+          last = i;
+        }
+      }
+    }
+
+    if (last < 0) {
+      return 0L;
+    }
+
+    // reconstruct the optimal order backwards and write it into the path
+    index = beforeStart + m;
+    if (index >= n) {
+      index -= n;
+    }
+    mask = full;
+    for (;;) {
+      path[index] = nodes[last];
+      if ((--index) < 0) {
+        index = (n - 1);
+      }
+      value = table[(mask * m) + last];
+      mask &= (~(1 << last));
+      if (mask == 0) {
+        break;
+      }
+      row = (mask * m);
+      for (j = mask; j != 0; j &= (j - 1)) {
+        bit = Integer.numberOfTrailingZeros(j);
+        bound = table[row + bit];
+        if ((bound != Long.MAX_VALUE)
+            && ((bound + dists[(bit * m) + last]) == value)) {
+          break;
+        }
+      }
+      last = Integer.numberOfTrailingZeros(j);
+    }
+
+    return (best - current);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int getSubPathLength() {
+    return this.m_length;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void endRun(final ObjectiveFunction f) {
+    this.__clear();
+    super.endRun(f);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final DynamicProgrammingLocalOptimizer clone() {
+    final DynamicProgrammingLocalOptimizer res;
+
+    res = ((DynamicProgrammingLocalOptimizer) (super.clone()));
+    res.__clear();
+    return res;
+  }
+}
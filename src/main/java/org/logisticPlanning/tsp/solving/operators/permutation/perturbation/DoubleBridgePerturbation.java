@@ -0,0 +1,186 @@
+package org.logisticPlanning.tsp.solving.operators.permutation.perturbation;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+/**
+ * <p>
+ * The double-bridge kick, which is the classical perturbation operator of
+ * the Chained Lin-Kernighan algorithm: The tour is cut at four positions
+ * and the resulting four segments {@code S1 S2 S3 S4} are re-connected as
+ * {@code S1 S4 S3 S2}. This move cannot easily be undone by the
+ * sequential moves of a Lin-Kernighan or 2-opt/3-opt local search.
+ * </p>
+ * <p>
+ * If the {@link #PARAM_MAX_SEGMENT_LENGTH maximum segment length} is
+ * {@code 0}, the four cut positions are chosen uniformly at random.
+ * Otherwise, a <em>segment double-bridge</em> is performed: The segments
+ * {@code S2}, {@code S3}, and {@code S4} have random lengths between
+ * {@code 1} and the maximum segment length and follow a random position.
+ * The kick then only changes {@code O(maxSegmentLength)} positions, which
+ * keeps the damage done to a good tour local.
+ * </p>
+ *
+ * @since 0.9.8
+ */
+public class DoubleBridgePerturbation extends _KickPerturbation {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the default maximum segment length: {@value}
+   *
+   * @see #m_maxSegmentLength
+   * @see #PARAM_MAX_SEGMENT_LENGTH
+   */
+  public static final int DEFAULT_MAX_SEGMENT_LENGTH = 50;
+
+  /**
+   * the parameter for the maximum segment length, {@code 0} for choosing
+   * the cut positions uniformly at random: {@value}
+   *
+   * @see #DEFAULT_MAX_SEGMENT_LENGTH
+   * @see #m_maxSegmentLength
+   */
+  public static final String PARAM_MAX_SEGMENT_LENGTH = "KickMaxSegmentLength"; //$NON-NLS-1$
+
+  /**
+   * the maximum length of the segments moved by a kick, or {@code 0} if
+   * the cut positions are uniformly random
+   *
+   * @serial a non-negative integer
+   * @see #DEFAULT_MAX_SEGMENT_LENGTH
+   * @see #PARAM_MAX_SEGMENT_LENGTH
+   */
+  private int m_maxSegmentLength;
+
+  /** create */
+  public DoubleBridgePerturbation() {
+    this("DoubleBridgePerturbation"); //$NON-NLS-1$
+  }
+
+  /**
+   * create
+   *
+   * @param name
+   *          the operator's name
+   */
+  DoubleBridgePerturbation(final String name) {
+    super(name);
+    this.m_maxSegmentLength = DoubleBridgePerturbation.DEFAULT_MAX_SEGMENT_LENGTH;
+  }
+
+  /**
+   * Set the maximum length of the segments moved by a kick
+   *
+   * @param length
+   *          the maximum segment length, or {@code 0} for choosing the
+   *          cut positions uniformly at random
+   */
+  public final void setMaxSegmentLength(final int length) {
+    this.m_maxSegmentLength = Math.max(0, length);
+  }
+
+  /**
+   * Get the maximum length of the segments moved by a kick
+   *
+   * @return the maximum segment length, or {@code 0} if the cut positions
+   *         are chosen uniformly at random
+   */
+  public final int getMaxSegmentLength() {
+    return this.m_maxSegmentLength;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  long kick(final int[] solution, final ObjectiveFunction f,
+      final Randomizer r) {
+    final int n;
+
+    n = solution.length;
+    if (n < 8) {
+      return 0L;
+    }
+    return this.segmentDoubleBridge(solution, r.nextInt(n), f, r);
+  }
+
+  /**
+   * Perform a double-bridge whose first cut is at a given position.
+   *
+   * @param solution
+   *          the tour
+   * @param p1
+   *          the first cut position
+   * @param f
+   *          the objective function
+   * @param r
+   *          the randomizer
+   * @return the change of the tour length
+   */
+  final long segmentDoubleBridge(final int[] solution, final int p1,
+      final ObjectiveFunction f, final Randomizer r) {
+    final int n, max;
+    int p2, p3, p4;
+
+    n = solution.length;
+    max = this.m_maxSegmentLength;
+
+    if ((max <= 0) || ((3 * max) >= (n - 1))) {
+      // choose the other three cuts uniformly at random
+      do {
+        p2 = r.nextInt(n);
+      } while (p2 == p1);
+      do {
+        p3 = r.nextInt(n);
+      } while ((p3 == p1) || (p3 == p2));
+      do {
+        p4 = r.nextInt(n);
+      } while ((p4 == p1) || (p4 == p2) || (p4 == p3));
+    } else {
+      // the segments S2, S3, and S4 follow p1 and are short
+      p2 = (p1 + 1 + r.nextInt(max));
+      p3 = (p2 + 1 + r.nextInt(max));
+      p4 = ((p3 + 1 + r.nextInt(max)) % n);
+      p2 %= n;
+      p3 %= n;
+    }
+
+    return this.doubleBridgeUnsorted(solution, p1, p2, p3, p4, f);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(DoubleBridgePerturbation.PARAM_MAX_SEGMENT_LENGTH,
+        ps);
+    ps.println(this.m_maxSegmentLength);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(DoubleBridgePerturbation.PARAM_MAX_SEGMENT_LENGTH,
+        ps);
+    ps.println(//
+    "the maximum length of the segments moved by a kick, 0 for uniformly random cuts"); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.m_maxSegmentLength = config.getInt(
+        DoubleBridgePerturbation.PARAM_MAX_SEGMENT_LENGTH, 0,
+        Integer.MAX_VALUE, this.m_maxSegmentLength);
+  }
+}
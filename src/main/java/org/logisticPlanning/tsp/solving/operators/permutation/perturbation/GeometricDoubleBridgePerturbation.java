@@ -0,0 +1,230 @@
+package org.logisticPlanning.tsp.solving.operators.permutation.perturbation;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+/**
+ * <p>
+ * A {@link DoubleBridgePerturbation double-bridge kick} with geometric
+ * locality: The first cut is made after a random node {@code a}. The
+ * other three cuts are made after three of the nearest neighbors (
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet
+ * candidates}) of {@code a} which appear in the tour within the next
+ * {@link DoubleBridgePerturbation#PARAM_MAX_SEGMENT_LENGTH maximum
+ * segment length} positions. The new edges of the double-bridge thus
+ * connect nodes which are close to each other and the kick does less
+ * damage to a good tour than a random one. If less than three candidates
+ * are found in this window, a normal segment double-bridge is performed.
+ * </p>
+ * <p>
+ * Since the tour is stored in path representation, the candidates are
+ * searched in a window of positions following {@code a}, which takes
+ * {@code O(maxSegmentLength + candidateCount)} steps.
+ * </p>
+ *
+ * @since 0.9.8
+ */
+public final class GeometricDoubleBridgePerturbation extends
+    DoubleBridgePerturbation {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the default number of candidates: {@value}
+   *
+   * @see #m_candidateCount
+   * @see #PARAM_CANDIDATE_COUNT
+   */
+  public static final int DEFAULT_CANDIDATE_COUNT = 10;
+
+  /**
+   * the parameter for the number of candidates per node: {@value}
+   *
+   * @see #DEFAULT_CANDIDATE_COUNT
+   * @see #m_candidateCount
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "KickCandidateCount"; //$NON-NLS-1$
+
+  /**
+   * the number of candidates per node
+   *
+   * @serial a positive integer
+   * @see #DEFAULT_CANDIDATE_COUNT
+   * @see #PARAM_CANDIDATE_COUNT
+   */
+  private int m_candidateCount;
+
+  /** the candidate set */
+  private transient CandidateSet m_candidates;
+
+  /** the marks for the candidates of the current node */
+  private transient boolean[] m_marks;
+
+  /** the positions of the candidates found in the window */
+  private transient int[] m_found;
+
+  /** create */
+  public GeometricDoubleBridgePerturbation() {
+    super("GeometricDoubleBridgePerturbation"); //$NON-NLS-1$
+    this.m_candidateCount = GeometricDoubleBridgePerturbation.DEFAULT_CANDIDATE_COUNT;
+  }
+
+  /**
+   * Set the number of candidates per node
+   *
+   * @param count
+   *          the number of candidates per node
+   */
+  public void setCandidateCount(final int count) {
+    this.m_candidateCount = Math.max(3, count);
+  }
+
+  /**
+   * Get the number of candidates per node
+   *
+   * @return the number of candidates per node
+   */
+  public int getCandidateCount() {
+    return this.m_candidateCount;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  long kick(final int[] solution, final ObjectiveFunction f,
+      final Randomizer r) {
+    final CandidateSet candidates;
+    final boolean[] marks;
+    final int[] found;
+    final int n, p1, node, m;
+    int window, i, p, count, c;
+
+    n = solution.length;
+    if (n < 8) {
+      return 0L;
+    }
+
+    p1 = r.nextInt(n);
+    window = this.getMaxSegmentLength();
+    if ((window <= 0) || (window >= n)) {
+      window = (n - 1);
+    }
+
+    candidates = this.m_candidates;
+    marks = this.m_marks;
+    found = this.m_found;
+    node = solution[p1];
+    m = candidates.m();
+
+    for (i = m; i > 0; i--) {
+      marks[candidates.getCandidate(node, i)] = true;
+    }
+
+    // find the positions of the candidates in the window after p1
+    count = 0;
+    p = p1;
+    for (i = window; (--i) >= 0;) {
+      if ((++p) >= n) {
+        p = 0;
+      }
+      if (marks[solution[p]]) {
+        found[count++] = p;
+        if (count >= m) {
+          break;
+        }
+      }
+    }
+
+    for (i = m; i > 0; i--) {
+      marks[candidates.getCandidate(node, i)] = false;
+    }
+
+    if (count < 3) {
+      return this.segmentDoubleBridge(solution, p1, f, r);
+    }
+
+    // pick three of the found positions at random
+    for (i = 0; i < 3; i++) {
+      c = (i + r.nextInt(count - i));
+      p = found[c];
+      found[c] = found[i];
+      found[i] = p;
+    }
+
+    return this.doubleBridgeUnsorted(solution, p1, found[0], found[1],
+        found[2], f);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void beginRun(final ObjectiveFunction f) {
+    final int n;
+
+    super.beginRun(f);
+
+    n = f.n();
+    this.m_candidates = CandidateSet.allocate(f, this.m_candidateCount,
+        this.m_candidates);
+    this.m_marks = new boolean[n + 1];
+    this.m_found = new int[this.m_candidates.m()];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      this.m_candidates = null;
+      this.m_marks = null;
+      this.m_found = null;
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public GeometricDoubleBridgePerturbation clone() {
+    final GeometricDoubleBridgePerturbation res;
+
+    res = ((GeometricDoubleBridgePerturbation) (super.clone()));
+    res.m_candidates = null;
+    res.m_marks = null;
+    res.m_found = null;
+    return res;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(
+        GeometricDoubleBridgePerturbation.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(
+        GeometricDoubleBridgePerturbation.PARAM_CANDIDATE_COUNT, ps);
+    ps.println("the number of candidates per node"); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.m_candidateCount = config.getInt(
+        GeometricDoubleBridgePerturbation.PARAM_CANDIDATE_COUNT, 3,
+        Integer.MAX_VALUE, this.m_candidateCount);
+  }
+}
@@ -74,6 +74,12 @@ public class PathShufflePerturbation extends PerturbationOperator<int[]> {
    */
   private int m_minLeaveAsIs;
 
+  /** the start of the last shuffled sub-sequence */
+  private transient int m_lastStart;
+
+  /** the length of the last shuffled sub-sequence */
+  private transient int m_lastLength;
+
   /** create */
   public PathShufflePerturbation() {
     super("PathShufflePerturbation"); //$NON-NLS-1$
@@ -85,12 +91,13 @@ public class PathShufflePerturbation extends PerturbationOperator<int[]> {
   @Override
   public void pertube(final Individual<int[]> srcdst,
       final ObjectiveFunction f) {
-    final int shuffleLength, minShuffle, minLeaveAsIs;
+    final int shuffleLength, shuffleStart, minShuffle, minLeaveAsIs;
     final int[] solution;
     final Randomizer r;
 
     r = f.getRandom();
     solution = srcdst.solution;
+    this.m_lastLength = 0;
 
     minLeaveAsIs = Math.max(2, (solution.length - this.m_minShuffle));
     minShuffle = Math.min(this.m_minShuffle,
@@ -105,8 +112,10 @@ public class PathShufflePerturbation extends PerturbationOperator<int[]> {
     + minShuffle);
 
     // shuffle a sub-sequence of this length
-    r.shuffle(solution, r.nextInt((solution.length - shuffleLength) + 1),
-        shuffleLength);
+    shuffleStart = r.nextInt((solution.length - shuffleLength) + 1);
+    r.shuffle(solution, shuffleStart, shuffleLength);
+    this.m_lastStart = shuffleStart;
+    this.m_lastLength = shuffleLength;
 
     // and evaluate the shuffled solution
     srcdst.tourLength = f.evaluate(solution);
@@ -114,6 +123,34 @@ public class PathShufflePerturbation extends PerturbationOperator<int[]> {
     srcdst.producer = this;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The dirty nodes are the shuffled nodes and the two nodes next to the
+   * shuffled sub-sequence.
+   * </p>
+   */
+  @Override
+  public int getDirtyNodes(final Individual<int[]> srcdst,
+      final int[] dest) {
+    final int[] solution;
+    final int n, count;
+    int i, p;
+
+    solution = srcdst.solution;
+    n = solution.length;
+    if (this.m_lastLength <= 0) {
+      return 0;
+    }
+
+    count = Math.min(n, (this.m_lastLength + 2));
+    p = (this.m_lastStart + n - 1);
+    for (i = 0; i < count; i++) {
+      dest[i] = solution[(p++) % n];
+    }
+    return count;
+  }
+
   /** {@inheritDoc} */
   @Override
   public void printConfiguration(final PrintStream ps) {
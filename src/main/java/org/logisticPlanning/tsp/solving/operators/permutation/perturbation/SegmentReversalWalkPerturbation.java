@@ -0,0 +1,191 @@
+package org.logisticPlanning.tsp.solving.operators.permutation.perturbation;
+
+import java.io.PrintStream;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+/**
+ * <p>
+ * A kick which performs a short random walk of segment reversals, i.e.,
+ * of random 2-opt moves: Each kick restarts the walk at a random
+ * position of the tour. Then, a given number of times, a segment of at
+ * most {@link #PARAM_MAX_SEGMENT_LENGTH maximum segment length} nodes
+ * covering the current position is reversed and the walk continues at a
+ * random position inside this segment. Subsequent reversals thus overlap
+ * and the kick creates a local tangle which a local search cannot simply
+ * undo with a single move, while it only touches
+ * {@code O(steps*maxSegmentLength)} positions.
+ * </p>
+ *
+ * @since 0.9.8
+ */
+public final class SegmentReversalWalkPerturbation extends
+    _KickPerturbation {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the default number of reversals per kick: {@value}
+   *
+   * @see #m_steps
+   * @see #PARAM_STEPS
+   */
+  public static final int DEFAULT_STEPS = 3;
+
+  /**
+   * the parameter for the number of reversals per kick: {@value}
+   *
+   * @see #DEFAULT_STEPS
+   * @see #m_steps
+   */
+  public static final String PARAM_STEPS = "KickWalkSteps"; //$NON-NLS-1$
+
+  /**
+   * the default maximum segment length: {@value}
+   *
+   * @see #m_maxSegmentLength
+   * @see #PARAM_MAX_SEGMENT_LENGTH
+   */
+  public static final int DEFAULT_MAX_SEGMENT_LENGTH = 30;
+
+  /**
+   * the parameter for the maximum segment length: {@value}
+   *
+   * @see #DEFAULT_MAX_SEGMENT_LENGTH
+   * @see #m_maxSegmentLength
+   */
+  public static final String PARAM_MAX_SEGMENT_LENGTH = DoubleBridgePerturbation.PARAM_MAX_SEGMENT_LENGTH;
+
+  /**
+   * the number of reversals per kick
+   *
+   * @serial a positive integer
+   * @see #DEFAULT_STEPS
+   * @see #PARAM_STEPS
+   */
+  private int m_steps;
+
+  /**
+   * the maximum length of a reversed segment
+   *
+   * @serial an integer larger than {@code 1}
+   * @see #DEFAULT_MAX_SEGMENT_LENGTH
+   * @see #PARAM_MAX_SEGMENT_LENGTH
+   */
+  private int m_maxSegmentLength;
+
+  /** create */
+  public SegmentReversalWalkPerturbation() {
+    super("SegmentReversalWalkPerturbation"); //$NON-NLS-1$
+    this.m_steps = SegmentReversalWalkPerturbation.DEFAULT_STEPS;
+    this.m_maxSegmentLength = SegmentReversalWalkPerturbation.DEFAULT_MAX_SEGMENT_LENGTH;
+  }
+
+  /**
+   * Set the number of reversals per kick
+   *
+   * @param steps
+   *          the number of reversals per kick
+   */
+  public void setSteps(final int steps) {
+    this.m_steps = Math.max(1, steps);
+  }
+
+  /**
+   * Get the number of reversals per kick
+   *
+   * @return the number of reversals per kick
+   */
+  public int getSteps() {
+    return this.m_steps;
+  }
+
+  /**
+   * Set the maximum length of a reversed segment
+   *
+   * @param length
+   *          the maximum segment length
+   */
+  public void setMaxSegmentLength(final int length) {
+    this.m_maxSegmentLength = Math.max(2, length);
+  }
+
+  /**
+   * Get the maximum length of a reversed segment
+   *
+   * @return the maximum segment length
+   */
+  public int getMaxSegmentLength() {
+    return this.m_maxSegmentLength;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  long kick(final int[] solution, final ObjectiveFunction f,
+      final Randomizer r) {
+    final int n, max;
+    long delta;
+    int p, start, length, steps;
+
+    n = solution.length;
+    if (n < 5) {
+      return 0L;
+    }
+
+    max = Math.min(this.m_maxSegmentLength, (n - 2));
+    delta = 0L;
+    p = r.nextInt(n);
+
+    for (steps = this.m_steps; (--steps) >= 0;) {
+      length = (2 + r.nextInt(max - 1));
+      start = ((p + n) - r.nextInt(length)) % n;
+      delta += _KickPerturbation.reverseDelta(solution, start, length, f);
+      this.reverse(solution, start, length);
+      p = ((start + r.nextInt(length)) % n);
+    }
+
+    return delta;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printConfiguration(final PrintStream ps) {
+    super.printConfiguration(ps);
+
+    Configurable.printKey(SegmentReversalWalkPerturbation.PARAM_STEPS, ps);
+    ps.println(this.m_steps);
+
+    Configurable.printKey(
+        SegmentReversalWalkPerturbation.PARAM_MAX_SEGMENT_LENGTH, ps);
+    ps.println(this.m_maxSegmentLength);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(SegmentReversalWalkPerturbation.PARAM_STEPS, ps);
+    ps.println("the number of segment reversals per kick"); //$NON-NLS-1$
+
+    Configurable.printKey(
+        SegmentReversalWalkPerturbation.PARAM_MAX_SEGMENT_LENGTH, ps);
+    ps.println("the maximum length of a reversed segment"); //$NON-NLS-1$
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void configure(final Configuration config) {
+    super.configure(config);
+
+    this.m_steps = config.getInt(SegmentReversalWalkPerturbation.PARAM_STEPS,
+        1, Integer.MAX_VALUE, this.m_steps);
+    this.m_maxSegmentLength = config.getInt(
+        SegmentReversalWalkPerturbation.PARAM_MAX_SEGMENT_LENGTH, 2,
+        Integer.MAX_VALUE, this.m_maxSegmentLength);
+  }
+}
@@ -0,0 +1,408 @@
+package org.logisticPlanning.tsp.solving.operators.permutation.perturbation;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.operators.PerturbationOperator;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+/**
+ * The base class for kicks, i.e., perturbation operators which change
+ * only a few edges of a tour in path representation. Different from
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.perturbation.PathShufflePerturbation}
+ * , a kick does not evaluate the whole tour but computes the new tour
+ * length from the changed edges, so its costs only depend on the number
+ * of positions it touches. The changed positions are recorded as a
+ * (cyclic) range and reported as
+ * {@link #getDirtyNodes(Individual, int[]) dirty nodes}.
+ */
+abstract class _KickPerturbation extends PerturbationOperator<int[]> {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the range of positions changed by the last kick */
+  private transient int[] m_range;
+
+  /** has the last kick changed anything? */
+  private transient boolean m_changed;
+
+  /**
+   * Create a new kick
+   *
+   * @param name
+   *          the operator's name
+   */
+  _KickPerturbation(final String name) {
+    super(name);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void pertube(final Individual<int[]> srcdst,
+      final ObjectiveFunction f) {
+    final int[] solution;
+    final long delta;
+
+    solution = srcdst.solution;
+    this.m_changed = false;
+    if (this.m_range == null) {
+      this.m_range = new int[2];
+    }
+
+    delta = this.kick(solution, f, f.getRandom());
+    if (!(this.m_changed)) {
+      return;
+    }
+
+    srcdst.tourLength += delta;
+    f.registerFE(solution, srcdst.tourLength);
+    srcdst.f = Individual.FITNESS_NOT_SET;
+    srcdst.producer = this;
+  }
+
+  /**
+   * Perform the kick on a tour in path representation. The positions
+   * changed by the kick must be reported via {@link #reverse(int[], int, int)}
+   * or {@link #changed(int, int, int)}.
+   *
+   * @param solution
+   *          the tour to modify
+   * @param f
+   *          the objective function
+   * @param r
+   *          the randomizer
+   * @return the change of the tour length
+   */
+  abstract long kick(final int[] solution, final ObjectiveFunction f,
+      final Randomizer r);
+
+  /**
+   * Record that the positions {@code start..start+length-1} (modulo
+   * {@code n}) have been changed.
+   *
+   * @param start
+   *          the first changed position, in {@code 0..n-1}
+   * @param length
+   *          the number of changed positions
+   * @param n
+   *          the number of nodes
+   */
+  final void changed(final int start, final int length, final int n) {
+    final int[] range;
+    final int end;
+
+    if (length <= 0) {
+      return;
+    }
+
+    range = this.m_range;
+    end = ((start + length) - 1);
+    if (!(this.m_changed)) {
+      this.m_changed = true;
+      range[0] = start;
+      range[1] = Math.min(end, ((start + n) - 1));
+      return;
+    }
+
+    if (end < n) {
+      RepresentationUtils.extendPathRange(range, start, end, n);
+    } else {
+      RepresentationUtils.extendPathRange(range, start, (n - 1), n);
+      RepresentationUtils.extendPathRange(range, 0,
+          Math.min((end - n), (n - 1)), n);
+    }
+  }
+
+  /**
+   * Reverse the sub-sequence of {@code length} nodes starting at position
+   * {@code start} of a tour, where the sub-sequence may wrap around the end
+   * of the array.
+   *
+   * @param solution
+   *          the tour
+   * @param start
+   *          the first position, in {@code 0..n-1}
+   * @param length
+   *          the number of nodes to reverse
+   */
+  final void reverse(final int[] solution, final int start,
+      final int length) {
+    final int n;
+    int i, j, t, x;
+
+    n = solution.length;
+    i = start;
+    j = ((start + length) - 1);
+    if (j >= n) {
+      j -= n;
+    }
+
+    for (t = (length >>> 1); (--t) >= 0;) {
+      x = solution[i];
+      solution[i] = solution[j];
+      solution[j] = x;
+      if ((++i) >= n) {
+        i = 0;
+      }
+      if ((--j) < 0) {
+        j = (n - 1);
+      }
+    }
+
+    this.changed(start, length, n);
+  }
+
+  /**
+   * Compute the change of the tour length that reversing the sub-sequence
+   * of {@code length} nodes starting at position {@code start} would cause.
+   * The sub-sequence must contain at most {@code n-2} nodes.
+   *
+   * @param solution
+   *          the tour
+   * @param start
+   *          the first position, in {@code 0..n-1}
+   * @param length
+   *          the number of nodes to reverse
+   * @param f
+   *          the objective function
+   * @return the change of the tour length
+   */
+  static final long reverseDelta(final int[] solution, final int start,
+      final int length, final ObjectiveFunction f) {
+    final int n, before, first, last, after;
+
+    n = solution.length;
+    before = solution[((start + n) - 1) % n];
+    first = solution[start];
+    last = solution[((start + length) - 1) % n];
+    after = solution[(start + length) % n];
+
+    return ((((long) (f.distance(before, last))) + f.distance(first, after))//
+        - f.distance(before, first)) - f.distance(last, after);
+  }
+
+  /**
+   * Perform a double-bridge move: The four cut positions
+   * {@code p1<p2<p3<p4} divide the tour into the segments
+   * {@code S1=[p4+1,p1]} (wrapping around), {@code S2=[p1+1,p2]},
+   * {@code S3=[p2+1,p3]}, and {@code S4=[p3+1,p4]}, which are re-arranged
+   * to {@code S1 S4 S3 S2}. All four edges between the segments are
+   * replaced. Since the result is the same cycle no matter which segment
+   * we keep in place, the longest segment stays where it is and only the
+   * other three are moved, which takes {@code O(n-max|Si|)} steps.
+   *
+   * @param solution
+   *          the tour
+   * @param p1
+   *          the first cut position
+   * @param p2
+   *          the second cut position
+   * @param p3
+   *          the third cut position
+   * @param p4
+   *          the fourth cut position
+   * @param f
+   *          the objective function
+   * @return the change of the tour length
+   */
+  final long doubleBridge(final int[] solution, final int p1,
+      final int p2, final int p3, final int p4, final ObjectiveFunction f) {
+    final int n, a1, a2, b1, b2, c1, c2, d1, d2;
+    final long delta;
+    int l1, l2, l3, l4, fixed, longest;
+
+    n = solution.length;
+
+    // the nodes at the ends of the segments: S1=a1..a2, S2=b1..b2,
+    // S3=c1..c2, S4=d1..d2
+    a2 = solution[p1];
+    b1 = solution[(p1 + 1) % n];
+    b2 = solution[p2];
+    c1 = solution[(p2 + 1) % n];
+    c2 = solution[p3];
+    d1 = solution[(p3 + 1) % n];
+    d2 = solution[p4];
+    a1 = solution[(p4 + 1) % n];
+
+    // S1 S2 S3 S4 -> S1 S4 S3 S2
+    delta = (((((((long) (f.distance(a2, d1))) + f.distance(d2, c1)) + //
+        f.distance(c2, b1)) + f.distance(b2, a1)) - //
+        f.distance(a2, b1)) - f.distance(b2, c1)) - //
+        f.distance(c2, d1) - f.distance(d2, a1);
+
+    // find the longest segment: it stays in place
+    l2 = (p2 - p1);
+    l3 = (p3 - p2);
+    l4 = (p4 - p3);
+    l1 = (n - (l2 + l3 + l4));
+    fixed = 1;
+    longest = l1;
+    if (l2 > longest) {
+      fixed = 2;
+      longest = l2;
+    }
+    if (l3 > longest) {
+      fixed = 3;
+      longest = l3;
+    }
+    if (l4 > longest) {
+      fixed = 4;
+      longest = l4;
+    }
+
+    // Rotating the cycle, the fixed segment is X and the other three are
+    // A B C, which follow it: X A B C -> X C B A. This is done by
+    // reversing A B C and then reversing the three parts rev(C), rev(B),
+    // and rev(A) individually.
+    switch (fixed) {
+      case 1: {// A=S2, B=S3, C=S4
+        this.__reverse3(solution, ((p1 + 1) % n), l4, l3, l2);
+        break;
+      }
+      case 2: {// A=S3, B=S4, C=S1
+        this.__reverse3(solution, ((p2 + 1) % n), l1, l4, l3);
+        break;
+      }
+      case 3: {// A=S4, B=S1, C=S2
+        this.__reverse3(solution, ((p3 + 1) % n), l2, l1, l4);
+        break;
+      }
+      default: {// A=S1, B=S2, C=S3
+        this.__reverse3(solution, ((p4 + 1) % n), l3, l2, l1);
+      }
+    }
+
+    return delta;
+  }
+
+  /**
+   * Perform a {@link #doubleBridge(int[], int, int, int, int, ObjectiveFunction)
+   * double-bridge move} with four distinct cut positions given in any
+   * order.
+   *
+   * @param solution
+   *          the tour
+   * @param q1
+   *          the first cut position
+   * @param q2
+   *          the second cut position
+   * @param q3
+   *          the third cut position
+   * @param q4
+   *          the fourth cut position
+   * @param f
+   *          the objective function
+   * @return the change of the tour length
+   */
+  final long doubleBridgeUnsorted(final int[] solution, final int q1,
+      final int q2, final int q3, final int q4, final ObjectiveFunction f) {
+    final int lo1, hi1, lo2, hi2;
+
+    // a sorting network for four values
+    if (q1 < q2) {
+      lo1 = q1;
+      hi1 = q2;
+    } else {
+      lo1 = q2;
+      hi1 = q1;
+    }
+    if (q3 < q4) {
+      lo2 = q3;
+      hi2 = q4;
+    } else {
+      lo2 = q4;
+      hi2 = q3;
+    }
+
+    if (lo1 < lo2) {
+      if (hi1 < hi2) {
+        return this.doubleBridge(solution, lo1, Math.min(hi1, lo2),
+            Math.max(hi1, lo2), hi2, f);
+      }
+      return this.doubleBridge(solution, lo1, lo2, hi2, hi1, f);
+    }
+    if (hi1 < hi2) {
+      return this.doubleBridge(solution, lo2, lo1, hi1, hi2, f);
+    }
+    return this.doubleBridge(solution, lo2, Math.min(lo1, hi2),
+        Math.max(lo1, hi2), hi1, f);
+  }
+
+  /**
+   * Reverse three consecutive segments {@code A B C} as a whole and then
+   * individually, which turns them into {@code C B A}.
+   *
+   * @param solution
+   *          the tour
+   * @param start
+   *          the start of segment {@code A}
+   * @param l1
+   *          the length of segment {@code C}
+   * @param l2
+   *          the length of segment {@code B}
+   * @param l3
+   *          the length of segment {@code A}
+   */
+  private final void __reverse3(final int[] solution, final int start,
+      final int l1, final int l2, final int l3) {
+    final int n;
+
+    n = solution.length;
+    this.reverse(solution, start, (l1 + l2 + l3));
+    this.reverse(solution, start, l1);
+    this.reverse(solution, ((start + l1) % n), l2);
+    this.reverse(solution, ((start + l1 + l2) % n), l3);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The dirty nodes are the nodes at the positions changed by the last
+   * kick and the two nodes next to them.
+   * </p>
+   */
+  @Override
+  public final int getDirtyNodes(final Individual<int[]> srcdst,
+      final int[] dest) {
+    final int[] solution, range;
+    final int n, count;
+    int i, p;
+
+    if (!(this.m_changed)) {
+      return 0;
+    }
+
+    solution = srcdst.solution;
+    n = solution.length;
+    range = this.m_range;
+    count = Math.min(n, ((range[1] - range[0]) + 3));
+    p = ((range[0] + n) - 1);
+    for (i = 0; i < count; i++) {
+      dest[i] = solution[(p++) % n];
+    }
+    return count;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void endRun(final ObjectiveFunction f) {
+    try {
+      this.m_range = null;
+      this.m_changed = false;
+    } finally {
+      super.endRun(f);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public _KickPerturbation clone() {
+    final _KickPerturbation res;
+
+    res = ((_KickPerturbation) (super.clone()));
+    res.m_range = null;
+    res.m_changed = false;
+    return res;
+  }
+}
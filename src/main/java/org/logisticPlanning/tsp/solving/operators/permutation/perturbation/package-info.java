@@ -1,8 +1,17 @@
 /**
  * A set of pertubation operators for permutation/path representations for
- * TSPs.
+ * TSPs. Besides the
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.perturbation.PathShufflePerturbation
+ * path shuffle}, there are several kicks for chained local searches, which
+ * only touch a few positions of the tour and compute the new tour length
+ * from the changed edges: the
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.perturbation.DoubleBridgePerturbation
+ * double-bridge}, its variant with
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.perturbation.GeometricDoubleBridgePerturbation
+ * geometric locality}, and
+ * {@link org.logisticPlanning.tsp.solving.operators.permutation.perturbation.SegmentReversalWalkPerturbation
+ * random walks of segment reversals}.
  *
  * @since 0.9.8
  */
 package org.logisticPlanning.tsp.solving.operators.permutation.perturbation;
-
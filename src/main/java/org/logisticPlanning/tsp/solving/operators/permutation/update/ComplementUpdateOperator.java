@@ -32,6 +32,13 @@ public final class ComplementUpdateOperator extends
     return this.m_u.delta(perm, f, b, a);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final long edgeHashDelta(final int[] perm, final int a,
+      final int b) {
+    return this.m_u.edgeHashDelta(perm, b, a);
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void update(final int[] perm, final int a, final int b) {
@@ -44,4 +51,19 @@ public final class ComplementUpdateOperator extends
     this.m_u.revertUpdate(perm, b, a);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final void updateDistances(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b) {
+    this.m_u.updateDistances(perm, f, dists, b, a);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void updatePositions(final int[] perm, final int[] pos,
+      final int a, final int b) {
+    this.m_u.updatePositions(perm, pos, b, a);
+  }
+
 }
@@ -4,6 +4,7 @@ import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
 import org.logisticPlanning.tsp.solving.operators.UnaryOperator;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 import org.logisticPlanning.utils.math.random.Randomizer;
 
 /**
@@ -72,6 +73,32 @@ public class PermutationUpdateOperator extends UnaryOperator<int[]> {
     //
   }
 
+  /**
+   * Compute the change of the
+   * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#pathEdgeHash(int[])
+   * edge hash} of a permutation that {@link #update(int[], int, int)}
+   * would cause. This method must be called <em>before</em> the update is
+   * applied. The hash of the updated permutation is the exclusive-or of
+   * the hash of the original permutation and the returned value. This
+   * allows to check in {@code O(1)} whether a neighboring solution has
+   * been visited before. Throws an
+   * {@link java.lang.UnsupportedOperationException} if the operator does
+   * not support incremental edge hashing.
+   *
+   * @param perm
+   *          the permutation that may be updated
+   * @param a
+   *          the first index parameter
+   * @param b
+   *          the second index parameter
+   * @return the value to exclusive-or into the edge hash of {@code perm}
+   * @throws java.lang.UnsupportedOperationException
+   *           if the operator does not override this method
+   */
+  public long edgeHashDelta(final int[] perm, final int a, final int b) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Revert the operation from a permutation in-place
    *
@@ -86,6 +113,313 @@ public class PermutationUpdateOperator extends UnaryOperator<int[]> {
     this.update(perm, a, b);
   }
 
+  /**
+   * <p>
+   * Compute the change in distance of the move {@code (a,b)} with
+   * {@code 0<=a<b<n} if it is smaller than {@code bound}. If the change
+   * is not smaller than {@code bound}, this method may return any value
+   * {@code >=bound} instead, e.g., {@link #NO_EFFECT}. This allows for
+   * skipping the remaining distance computations as soon as the sum of
+   * the added edges shows that the move cannot beat the bound.
+   * </p>
+   * <p>
+   * If {@code dists} is not {@code null}, it holds the distances between
+   * the nodes in {@code perm} and their successors, i.e.,
+   * {@code dists[i]=f.distance(perm[i], perm[(i+1)%n])}, see
+   * {@link #initDistances(int[], DistanceComputer, int[])}. The lengths of
+   * the removed edges can then be read from this array instead of being
+   * computed, so the move can only beat the bound if the sum of the added
+   * edges is smaller than {@code bound} plus the lengths of the removed
+   * edges. Implementations add the new edges one by one and stop as soon
+   * as this limit is reached. By default, this method just calls
+   * {@link #delta(int[], DistanceComputer, int, int)}.
+   * </p>
+   *
+   * @param perm
+   *          the permutation that may be updated
+   * @param f
+   *          the distance computer
+   * @param dists
+   *          the successor distances, or {@code null}
+   * @param a
+   *          the first index parameter
+   * @param b
+   *          the second index parameter, {@code b>a}
+   * @param bound
+   *          the bound: only a change smaller than this value is of
+   *          interest
+   * @return the change in distance, or a value {@code >=bound}
+   */
+  protected int boundedDelta(final int[] perm, final DistanceComputer f,
+      final int[] dists, final int a, final int b, final int bound) {
+    return this.delta(perm, f, a, b);
+  }
+
+  /**
+   * Compute the change in distance of the move {@code (a,b)} with
+   * {@code 0<=a<b<n}, reading the lengths of the removed edges from the
+   * successor distances {@code dists} (see
+   * {@link #initDistances(int[], DistanceComputer, int[])}) instead of
+   * computing them. The result is the same as the one of
+   * {@link #delta(int[], DistanceComputer, int, int)}, including
+   * {@link #NO_EFFECT}.
+   *
+   * @param perm
+   *          the permutation that may be updated
+   * @param f
+   *          the distance computer
+   * @param dists
+   *          the successor distances
+   * @param a
+   *          the first index parameter
+   * @param b
+   *          the second index parameter, {@code b>a}
+   * @return the change in distance
+   */
+  public final int delta(final int[] perm, final DistanceComputer f,
+      final int[] dists, final int a, final int b) {
+    return this.boundedDelta(perm, f, dists, a, b,
+        PermutationUpdateOperator.NO_EFFECT);
+  }
+
+  /**
+   * <p>
+   * Find the best or first improving move {@code (i,j)} with
+   * {@code 0<=i<j<n} which has at least one index in the (cyclic) range
+   * {@code [begin,end]}, where {@code begin} may be negative and
+   * {@code end} may be {@code >=n} (see
+   * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#isInPathRange(int, int, int, int)}
+   * ). With {@code begin<=0} and {@code end>=n-1}, all moves are checked.
+   * The moves are checked in the same order as by the nested loops
+   * {@code for(j=n-1;j>0;j--) for(i=j-1;i>=0;i--)} and from several moves
+   * with the same delta, the first one is returned.
+   * </p>
+   * <p>
+   * The deltas are computed by
+   * {@link #boundedDelta(int[], DistanceComputer, int[], int, int, int)}
+   * with the best delta found so far as bound, so moves which cannot be
+   * better are skipped early.
+   * </p>
+   *
+   * @param perm
+   *          the permutation
+   * @param f
+   *          the distance computer
+   * @param dists
+   *          the successor distances (see
+   *          {@link #initDistances(int[], DistanceComputer, int[])}), or
+   *          {@code null}
+   * @param begin
+   *          the first index of the interesting range
+   * @param end
+   *          the last index of the interesting range
+   * @param firstImprovement
+   *          should we return the first improving move instead of the best
+   *          one?
+   * @param dest
+   *          an array of length at least 2 receiving the indices {@code i}
+   *          (at index {@code 0}) and {@code j} (at index {@code 1}) of the
+   *          move
+   * @return the delta of the move written to {@code dest}, or
+   *         {@link #NO_EFFECT} if no move was found
+   */
+  public int scan(final int[] perm, final DistanceComputer f,
+      final int[] dists, final int begin, final int end,
+      final boolean firstImprovement, final int[] dest) {
+    final int n;
+    int i, j, iLow, iHigh2, delta, bestDelta;
+
+    n = perm.length;
+    bestDelta = PermutationUpdateOperator.NO_EFFECT;
+
+    findBest: for (j = n; (--j) > 0;) {
+      // If j is in the range, all i<j need to be checked. Otherwise, only
+      // the i in the range, which may wrap around.
+      if (RepresentationUtils.isInPathRange(j, begin, end, n)) {
+        i = (j - 1);
+        iLow = 0;
+        iHigh2 = (-1);
+      } else {
+        i = Math.min((j - 1), end);
+        iLow = Math.max(0, begin);
+        iHigh2 = Math.min((j - 1), (end - n));
+      }
+      for (;; i--) {
+        if (i < iLow) {
+          if (iHigh2 < 0) {
+            break;
+          }
+          i = iHigh2;
+          iLow = 0;
+          iHigh2 = (-1);
+        }
+
+        delta = this.boundedDelta(perm, f, dists, i, j, bestDelta);
+        if (delta < bestDelta) {
+          bestDelta = delta;
+          dest[0] = i;
+          dest[1] = j;
+          if (firstImprovement && (delta < 0)) {
+            break findBest;
+          }
+        }
+      }
+    }
+
+    return bestDelta;
+  }
+
+  /**
+   * Find the best or first improving move among a list of index pairs,
+   * e.g., the pairs induced by a candidate set. Pair {@code k} is
+   * {@code (pairs[2*k], pairs[(2*k)+1])} and must fulfill
+   * {@code 0<=pairs[2*k]<pairs[(2*k)+1]<n}. From several moves with the
+   * same delta, the first one is returned.
+   *
+   * @param perm
+   *          the permutation
+   * @param f
+   *          the distance computer
+   * @param dists
+   *          the successor distances (see
+   *          {@link #initDistances(int[], DistanceComputer, int[])}), or
+   *          {@code null}
+   * @param pairs
+   *          the index pairs
+   * @param count
+   *          the number of pairs
+   * @param firstImprovement
+   *          should we return the first improving move instead of the best
+   *          one?
+   * @param dest
+   *          an array of length at least 2 receiving the indices of the
+   *          move
+   * @return the delta of the move written to {@code dest}, or
+   *         {@link #NO_EFFECT} if no move was found
+   */
+  public int scan(final int[] perm, final DistanceComputer f,
+      final int[] dists, final int[] pairs, final int count,
+      final boolean firstImprovement, final int[] dest) {
+    int k, i, j, delta, bestDelta;
+
+    bestDelta = PermutationUpdateOperator.NO_EFFECT;
+    for (k = 0; k < count; k++) {
+      i = pairs[k << 1];
+      j = pairs[(k << 1) + 1];
+      delta = this.boundedDelta(perm, f, dists, i, j, bestDelta);
+      if (delta < bestDelta) {
+        bestDelta = delta;
+        dest[0] = i;
+        dest[1] = j;
+        if (firstImprovement && (delta < 0)) {
+          break;
+        }
+      }
+    }
+
+    return bestDelta;
+  }
+
+  /**
+   * Compute the distances between the nodes of a permutation and their
+   * successors, i.e., {@code dists[i]=f.distance(perm[i], perm[(i+1)%n])}
+   * .
+   *
+   * @param perm
+   *          the permutation
+   * @param f
+   *          the distance computer
+   * @param dists
+   *          the destination array
+   * @return the tour length, i.e., the sum of the distances
+   */
+  public static final long initDistances(final int[] perm,
+      final DistanceComputer f, final int[] dists) {
+    final int n;
+    long sum;
+    int i, last, cur;
+
+    n = perm.length;
+    sum = 0L;
+    last = perm[0];
+    for (i = n; (--i) >= 0;) {
+      cur = perm[i];
+      sum += (dists[i] = f.distance(cur, last));
+      last = cur;
+    }
+    return sum;
+  }
+
+  /**
+   * Update the successor distances
+   * ({@link #initDistances(int[], DistanceComputer, int[])}) after the move
+   * {@code (a,b)} has been applied. The moves of this package only change
+   * the positions from {@code a} to {@code b}, wrapping around the end of
+   * the permutation if {@code a>b}. Operators changing other positions
+   * must override this method.
+   *
+   * @param perm
+   *          the permutation
+   * @param f
+   *          the distance computer
+   * @param dists
+   *          the successor distances
+   * @param a
+   *          the first index parameter of the move
+   * @param b
+   *          the second index parameter of the move
+   */
+  public void updateDistances(final int[] perm, final DistanceComputer f,
+      final int[] dists, final int a, final int b) {
+    final int n;
+    int i, steps, next, cur;
+
+    n = perm.length;
+    i = b;
+    next = perm[(b + 1) % n];
+    for (steps = (((b - a) + n) % n); steps >= 0; steps--) {
+      cur = perm[i];
+      dists[i] = f.distance(cur, next);
+      next = cur;
+      if ((--i) < 0) {
+        i = (n - 1);
+      }
+    }
+    dists[i] = f.distance(perm[i], next);
+  }
+
+  /**
+   * Update the index of the positions of the nodes, i.e.,
+   * {@code pos[perm[i]]=i}, after the move {@code (a,b)} has been applied.
+   * As in {@link #updateDistances(int[], DistanceComputer, int[], int, int)}
+   * , the positions from {@code a} to {@code b} are updated, wrapping
+   * around the end of the permutation if {@code a>b}. Operators changing
+   * other positions must override this method.
+   *
+   * @param perm
+   *          the permutation
+   * @param pos
+   *          the positions of the nodes
+   * @param a
+   *          the first index parameter of the move
+   * @param b
+   *          the second index parameter of the move
+   */
+  public void updatePositions(final int[] perm, final int[] pos,
+      final int a, final int b) {
+    final int n;
+    int i, steps;
+
+    n = perm.length;
+    i = a;
+    for (steps = (((b - a) + n) % n); steps >= 0; steps--) {
+      pos[perm[i]] = i;
+      if ((++i) >= n) {
+        i = 0;
+      }
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void mutate(final Individual<int[]> dest,
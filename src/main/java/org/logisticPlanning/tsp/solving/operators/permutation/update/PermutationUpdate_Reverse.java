@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.operators.permutation.update;
 
 import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 
 /**
  * <p>
@@ -365,6 +366,67 @@ public final class PermutationUpdate_Reverse extends
     return (BF + AE) - (AB + EF);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final long edgeHashDelta(final int[] perm, final int a,
+      final int b) {
+    final int l, m1;
+    final int A, B, E, F;
+
+    l = perm.length;
+    m1 = (l - 1);
+
+    if (((((b - a) + l) % l) == m1) || (a == b)) {
+      return 0L;
+    }
+
+    A = perm[(a + m1) % l];
+    B = perm[a];
+    E = perm[b];
+    F = perm[(b + 1) % l];
+
+    return (RepresentationUtils.edgeHash(A, B) ^ //
+        RepresentationUtils.edgeHash(E, F) ^ //
+        RepresentationUtils.edgeHash(A, E) ^ //
+        RepresentationUtils.edgeHash(B, F));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final int boundedDelta(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b, final int bound) {
+    final int l, m1, am1;
+    final int A, B, E, F, AB, EF, AE;
+    final long limit;
+
+    if (dists == null) {
+      return this.delta(perm, f, a, b);
+    }
+
+    l = perm.length;
+    m1 = (l - 1);
+    if ((b - a) == m1) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+
+    am1 = ((a + m1) % l);
+    AB = dists[am1];
+    EF = dists[b];
+    limit = (((long) bound) + AB + EF);
+
+    A = perm[am1];
+    E = perm[b];
+    AE = f.distance(A, E);
+    if (AE >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+
+    B = perm[a];
+    F = perm[(b + 1) % l];
+    return (f.distance(B, F) + AE) - (AB + EF);
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void update(final int[] perm, final int a, final int b) {
@@ -380,4 +442,39 @@ public final class PermutationUpdate_Reverse extends
       perm[y] = t;
     }
   }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The edges inside the reversed range are the same as before, just in
+   * reverse order, so only the two new edges at its ends are computed.
+   * </p>
+   */
+  @Override
+  public final void updateDistances(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b) {
+    final int l, m1, steps, am1;
+    int i, x, y, t;
+
+    l = perm.length;
+    m1 = (l - 1);
+    steps = (((b - a) + l) % l);
+
+    x = a;
+    y = ((b + m1) % l);
+    for (i = (steps >>> 1); (--i) >= 0;) {
+      t = dists[x];
+      dists[x] = dists[y];
+      dists[y] = t;
+      x = ((x + 1) % l);
+      y = ((y + m1) % l);
+    }
+
+    if (steps < m1) {// otherwise, the whole permutation was reversed
+      am1 = ((a + m1) % l);
+      dists[am1] = f.distance(perm[am1], perm[a]);
+      dists[b] = f.distance(perm[b], perm[(b + 1) % l]);
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.operators.permutation.update;
 
 import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 
 /**
  * <p>
@@ -136,6 +137,84 @@ public final class PermutationUpdate_Rotate_Left extends
     return (AC + BE + BF) - (AB + EF + BC);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final long edgeHashDelta(final int[] perm, final int a,
+      final int b) {
+    final int l, m1;
+    final int A, B, C, E, F;
+
+    l = perm.length;
+    m1 = (l - 1);
+
+    if ((((b - a) + l) % l) <= 1) {
+      return PermutationUpdate_Swap.INSTANCE.edgeHashDelta(perm, a, b);
+    }
+    if (a == ((b + 1) % l)) {
+      return 0L;
+    }
+
+    A = perm[(a + m1) % l];
+    B = perm[a];
+    C = perm[(a + 1) % l];
+    E = perm[b];
+    F = perm[(b + 1) % l];
+
+    return (RepresentationUtils.edgeHash(A, B) ^ //
+        RepresentationUtils.edgeHash(B, C) ^ //
+        RepresentationUtils.edgeHash(E, F) ^ //
+        RepresentationUtils.edgeHash(A, C) ^ //
+        RepresentationUtils.edgeHash(B, E) ^ //
+        RepresentationUtils.edgeHash(B, F));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final int boundedDelta(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b, final int bound) {
+    final int l, m1;
+    final int A, B, C, E, F, AB, BC, EF;
+    final long limit;
+    long sum;
+
+    if (dists == null) {
+      return this.delta(perm, f, a, b);
+    }
+
+    l = perm.length;
+    m1 = (l - 1);
+
+    if ((b - a) <= 1) {
+      return PermutationUpdate_Swap.INSTANCE.boundedDelta(perm, f, dists,
+          a, b, bound);
+    }
+    if (a == ((b + 1) % l)) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+
+    AB = dists[(a + m1) % l];
+    BC = dists[a];
+    EF = dists[b];
+    limit = (((long) bound) + AB + BC + EF);
+
+    A = perm[(a + m1) % l];
+    B = perm[a];
+    C = perm[(a + 1) % l];
+    E = perm[b];
+    F = perm[(b + 1) % l];
+
+    sum = f.distance(A, C);
+    if (sum >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+    sum += f.distance(E, B);
+    if (sum >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+    return (int) ((sum + f.distance(B, F)) - (AB + EF + BC));
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void update(final int[] perm, final int a, final int b) {
@@ -166,4 +245,37 @@ public final class PermutationUpdate_Rotate_Left extends
     }
     perm[i] = temp;
   }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The edges inside the rotated range are the same as before, just
+   * shifted by one position, so only the three new edges are computed.
+   * </p>
+   */
+  @Override
+  public final void updateDistances(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b) {
+    final int l, m1, am1, bm1;
+    int i, j, steps;
+
+    l = perm.length;
+    m1 = (l - 1);
+    steps = (((b - a) + l) % l);
+    if (steps <= 0) {
+      return;
+    }
+
+    for (i = a; (--steps) > 0; i = j) {
+      j = ((i + 1) % l);
+      dists[i] = dists[j];
+    }
+
+    am1 = ((a + m1) % l);
+    bm1 = ((b + m1) % l);
+    dists[am1] = f.distance(perm[am1], perm[a]);
+    dists[bm1] = f.distance(perm[bm1], perm[b]);
+    dists[b] = f.distance(perm[b], perm[(b + 1) % l]);
+  }
 }
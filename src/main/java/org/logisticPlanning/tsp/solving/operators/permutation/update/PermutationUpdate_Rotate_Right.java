@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.operators.permutation.update;
 
 import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 
 /**
  * <p>
@@ -137,6 +138,84 @@ public final class PermutationUpdate_Rotate_Right extends
     return (DF + BE + AE) - (AB + EF + DE);//
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final long edgeHashDelta(final int[] perm, final int a,
+      final int b) {
+    final int l, m1;
+    final int A, B, D, E, F;
+
+    l = perm.length;
+    m1 = (l - 1);
+
+    if ((((b - a) + l) % l) <= 1) {
+      return PermutationUpdate_Swap.INSTANCE.edgeHashDelta(perm, a, b);
+    }
+    if (a == ((b + 1) % l)) {
+      return 0L;
+    }
+
+    A = perm[(a + m1) % l];
+    B = perm[a];
+    D = perm[(b + m1) % l];
+    E = perm[b];
+    F = perm[(b + 1) % l];
+
+    return (RepresentationUtils.edgeHash(A, B) ^ //
+        RepresentationUtils.edgeHash(E, F) ^ //
+        RepresentationUtils.edgeHash(D, E) ^ //
+        RepresentationUtils.edgeHash(D, F) ^ //
+        RepresentationUtils.edgeHash(B, E) ^ //
+        RepresentationUtils.edgeHash(A, E));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final int boundedDelta(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b, final int bound) {
+    final int l, m1;
+    final int A, B, D, E, F, AB, DE, EF;
+    final long limit;
+    long sum;
+
+    if (dists == null) {
+      return this.delta(perm, f, a, b);
+    }
+
+    l = perm.length;
+    m1 = (l - 1);
+
+    if ((b - a) <= 1) {
+      return PermutationUpdate_Swap.INSTANCE.boundedDelta(perm, f, dists,
+          a, b, bound);
+    }
+    if (a == ((b + 1) % l)) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+
+    AB = dists[(a + m1) % l];
+    DE = dists[(b + m1) % l];
+    EF = dists[b];
+    limit = (((long) bound) + AB + EF + DE);
+
+    A = perm[(a + m1) % l];
+    B = perm[a];
+    D = perm[(b + m1) % l];
+    E = perm[b];
+    F = perm[(b + 1) % l];
+
+    sum = f.distance(D, F);
+    if (sum >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+    sum += f.distance(E, B);
+    if (sum >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+    return (int) ((sum + f.distance(A, E)) - (AB + EF + DE));
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void update(final int[] perm, final int a, final int b) {
@@ -168,4 +247,35 @@ public final class PermutationUpdate_Rotate_Right extends
     perm[i] = temp;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The edges inside the rotated range are the same as before, just
+   * shifted by one position, so only the three new edges are computed.
+   * </p>
+   */
+  @Override
+  public final void updateDistances(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b) {
+    final int l, m1, am1;
+    int i, j, steps;
+
+    l = perm.length;
+    m1 = (l - 1);
+    steps = (((b - a) + l) % l);
+    if (steps <= 0) {
+      return;
+    }
+
+    for (i = ((b + m1) % l); (--steps) > 0; i = j) {
+      j = ((i + m1) % l);
+      dists[i] = dists[j];
+    }
+
+    am1 = ((a + m1) % l);
+    dists[am1] = f.distance(perm[am1], perm[a]);
+    dists[a] = f.distance(perm[a], perm[(a + 1) % l]);
+    dists[b] = f.distance(perm[b], perm[(b + 1) % l]);
+  }
 }
@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.operators.permutation.update;
 
 import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 
 /**
  * <p>
@@ -178,6 +179,116 @@ public final class PermutationUpdate_Swap extends
     return (AE + CE + BD + BF) - (AB + BC + DE + EF);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final long edgeHashDelta(final int[] perm, final int a,
+      final int b) {
+    final int l, m1;
+    final int A, B, C, D, E, F;
+
+    if (a == b) {
+      return 0L;
+    }
+
+    l = perm.length;
+    m1 = (l - 1);
+
+    A = (perm[(a + m1) % l]);
+    B = perm[a];
+    C = perm[(a + 1) % l];
+    D = (perm[(b + m1) % l]);
+    E = perm[b];
+    F = perm[(b + 1) % l];
+
+    if (B == D) {
+      return (RepresentationUtils.edgeHash(A, B) ^ //
+          RepresentationUtils.edgeHash(E, F) ^ //
+          RepresentationUtils.edgeHash(A, E) ^ //
+          RepresentationUtils.edgeHash(B, F));
+    }
+
+    if (E == A) {
+      return (RepresentationUtils.edgeHash(D, E) ^ //
+          RepresentationUtils.edgeHash(B, C) ^ //
+          RepresentationUtils.edgeHash(B, D) ^ //
+          RepresentationUtils.edgeHash(C, E));
+    }
+
+    return (RepresentationUtils.edgeHash(A, B) ^ //
+        RepresentationUtils.edgeHash(B, C) ^ //
+        RepresentationUtils.edgeHash(D, E) ^ //
+        RepresentationUtils.edgeHash(E, F) ^ //
+        RepresentationUtils.edgeHash(A, E) ^ //
+        RepresentationUtils.edgeHash(C, E) ^ //
+        RepresentationUtils.edgeHash(B, D) ^ //
+        RepresentationUtils.edgeHash(B, F));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected final int boundedDelta(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b, final int bound) {
+    final int l, m1;
+    final int A, B, C, D, E, F, AB, BC, DE, EF;
+    final long limit;
+    long sum;
+
+    if (dists == null) {
+      return this.delta(perm, f, a, b);
+    }
+
+    l = perm.length;
+    m1 = (l - 1);
+
+    A = perm[(a + m1) % l];
+    B = perm[a];
+    C = perm[(a + 1) % l];
+    D = perm[(b + m1) % l];
+    E = perm[b];
+    F = perm[(b + 1) % l];
+
+    AB = dists[(a + m1) % l];
+    EF = dists[b];
+
+    // swapping neighbors replaces only two edges
+    if (B == D) {
+      limit = (((long) bound) + AB + EF);
+      sum = f.distance(A, E);
+      if (sum >= limit) {
+        return PermutationUpdateOperator.NO_EFFECT;
+      }
+      return (int) ((sum + f.distance(B, F)) - (AB + EF));
+    }
+
+    BC = dists[a];
+    DE = dists[(b + m1) % l];
+
+    if (E == A) {
+      limit = (((long) bound) + DE + BC);
+      sum = f.distance(D, B);
+      if (sum >= limit) {
+        return PermutationUpdateOperator.NO_EFFECT;
+      }
+      return (int) ((sum + f.distance(E, C)) - (DE + BC));
+    }
+
+    limit = (((long) bound) + AB + BC + DE + EF);
+    sum = f.distance(A, E);
+    if (sum >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+    sum += f.distance(E, C);
+    if (sum >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+    sum += f.distance(D, B);
+    if (sum >= limit) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+    return (int) ((sum + f.distance(B, F)) - (AB + BC + DE + EF));
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void update(final int[] perm, final int a, final int b) {
@@ -186,4 +297,38 @@ public final class PermutationUpdate_Swap extends
     perm[b] = tmp;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Only the four edges adjacent to the two swapped nodes are computed.
+   * </p>
+   */
+  @Override
+  public final void updateDistances(final int[] perm,
+      final DistanceComputer f, final int[] dists, final int a,
+      final int b) {
+    final int l, m1, am1, bm1;
+
+    if (a == b) {
+      return;
+    }
+
+    l = perm.length;
+    m1 = (l - 1);
+    am1 = ((a + m1) % l);
+    bm1 = ((b + m1) % l);
+
+    dists[am1] = f.distance(perm[am1], perm[a]);
+    dists[a] = f.distance(perm[a], perm[(a + 1) % l]);
+    dists[bm1] = f.distance(perm[bm1], perm[b]);
+    dists[b] = f.distance(perm[b], perm[(b + 1) % l]);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void updatePositions(final int[] perm, final int[] pos,
+      final int a, final int b) {
+    pos[perm[a]] = a;
+    pos[perm[b]] = b;
+  }
 }
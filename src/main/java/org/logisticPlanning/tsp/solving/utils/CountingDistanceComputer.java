@@ -0,0 +1,56 @@
+package org.logisticPlanning.tsp.solving.utils;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+
+/**
+ * A distance computer which forwards all requests to another distance
+ * computer and counts them. Algorithms which evaluate distances in
+ * parallel threads
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#createCountingDistanceComputer()
+ * obtain} an instance of this class for each thread from the objective
+ * function, which does not expose its uncounted distance computer, and
+ * later
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#registerDEs(long)
+ * register} the distance evaluations at the objective function.
+ */
+public final class CountingDistanceComputer extends DistanceComputer {
+
+  /** the distance computer to forward the requests to */
+  private final DistanceComputer m_dist;
+
+  /** the number of distance evaluations */
+  private long m_count;
+
+  /**
+   * create
+   *
+   * @param dist
+   *          the distance computer to forward the requests to
+   */
+  public CountingDistanceComputer(final DistanceComputer dist) {
+    super(dist.n());
+    this.m_dist = dist;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int distance(final int i, final int j) {
+    this.m_count++;
+    return this.m_dist.distance(i, j);
+  }
+
+  /**
+   * Get the number of distance evaluations since the last
+   * {@link #resetCount() reset}
+   *
+   * @return the number of distance evaluations
+   */
+  public final long getCount() {
+    return this.m_count;
+  }
+
+  /** Reset the number of distance evaluations to {@code 0}. */
+  public final void resetCount() {
+    this.m_count = 0L;
+  }
+}
@@ -0,0 +1,166 @@
+package org.logisticPlanning.tsp.solving.utils;
+
+/**
+ * <p>
+ * A first-in-first-out queue of &quot;active&quot; nodes combined with
+ * don't-look bits. Local searches which are driven by candidate sets
+ * usually only try to improve the tour around nodes whose neighborhood
+ * has changed recently. A node which has been tried without success gets
+ * its don't-look bit set, i.e., is not in the queue anymore, and will only
+ * be considered again if one of its incident edges changes.
+ * </p>
+ * <p>
+ * Every node can be in the queue at most once. The queue is backed by a
+ * ring buffer of {@code n} {@code int}s and a {@code boolean} array, so
+ * all operations take {@code O(1)}.
+ * </p>
+ */
+public final class DontLookBits {
+
+  /** the ring buffer with the active nodes */
+  private transient int[] m_queue;
+
+  /** the active flags, indexed by {@code node-1} */
+  private transient boolean[] m_active;
+
+  /** the index of the first node in the queue */
+  private transient int m_head;
+
+  /** the number of nodes in the queue */
+  private transient int m_size;
+
+  /** instantiate */
+  public DontLookBits() {
+    super();
+  }
+
+  /**
+   * Initialize the queue for {@code n} nodes. After this method is
+   * called, the queue will be empty, i.e., all don't-look bits are set.
+   *
+   * @param n
+   *          the number of nodes
+   */
+  public final void init(final int n) {
+    boolean[] active;
+
+    active = this.m_active;
+    if ((active == null) || (active.length != n)) {
+      this.m_active = new boolean[n];
+      this.m_queue = new int[n];
+    } else {
+      this.clear();
+    }
+    this.m_head = 0;
+    this.m_size = 0;
+  }
+
+  /** Remove all nodes from the queue, i.e., set all don't-look bits. */
+  public final void clear() {
+    final int[] queue;
+    final boolean[] active;
+    int i, j;
+
+    queue = this.m_queue;
+    active = this.m_active;
+    j = this.m_head;
+    for (i = this.m_size; (--i) >= 0;) {
+      active[queue[j] - 1] = false;
+      if ((++j) >= queue.length) {
+        j = 0;
+      }
+    }
+    this.m_head = 0;
+    this.m_size = 0;
+  }
+
+  /**
+   * Activate all nodes in the order in which they appear in the given
+   * array, e.g., a tour in path representation.
+   *
+   * @param nodes
+   *          the nodes
+   */
+  public final void activateAll(final int[] nodes) {
+    for (final int node : nodes) {
+      this.activate(node);
+    }
+  }
+
+  /**
+   * Activate a node, i.e., clear its don't-look bit and append it to the
+   * queue. If the node is already active, nothing happens.
+   *
+   * @param node
+   *          the node, in <code>1..n</code>
+   */
+  public final void activate(final int node) {
+    final int[] queue;
+    int idx;
+
+    if (this.m_active[node - 1]) {
+      return;
+    }
+    this.m_active[node - 1] = true;
+
+    queue = this.m_queue;
+    idx = (this.m_head + this.m_size);
+    if (idx >= queue.length) {
+      idx -= queue.length;
+    }
+    queue[idx] = node;
+    this.m_size++;
+  }
+
+  /**
+   * Remove and return the first node in the queue, i.e., set its
+   * don't-look bit.
+   *
+   * @return the node, or {@code 0} if the queue is empty
+   */
+  public final int next() {
+    final int node;
+
+    if (this.m_size <= 0) {
+      return 0;
+    }
+
+    node = this.m_queue[this.m_head];
+    if ((++this.m_head) >= this.m_queue.length) {
+      this.m_head = 0;
+    }
+    this.m_size--;
+    this.m_active[node - 1] = false;
+    return node;
+  }
+
+  /**
+   * Check whether a node is active, i.e., its don't-look bit is not set
+   *
+   * @param node
+   *          the node, in <code>1..n</code>
+   * @return {@code true} if the node is in the queue, {@code false}
+   *         otherwise
+   */
+  public final boolean isActive(final int node) {
+    return this.m_active[node - 1];
+  }
+
+  /**
+   * Get the number of active nodes
+   *
+   * @return the number of active nodes
+   */
+  public final int size() {
+    return this.m_size;
+  }
+
+  /**
+   * Check whether the queue is empty
+   *
+   * @return {@code true} if no node is active, {@code false} otherwise
+   */
+  public final boolean isEmpty() {
+    return (this.m_size <= 0);
+  }
+}
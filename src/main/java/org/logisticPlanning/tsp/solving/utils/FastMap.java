@@ -0,0 +1,168 @@
+package org.logisticPlanning.tsp.solving.utils;
+
+import java.util.Arrays;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+
+/**
+ * <p>
+ * The <a
+ * href="https://en.wikipedia.org/wiki/Multidimensional_scaling">FastMap
+ * </a> projection&nbsp;[<a href="#cite_FL1995FAFAFIDMAVOTAMD"
+ * style="font-weight:bold">1</a>] computes two-dimensional coordinates
+ * of the nodes from their distances: Two far-apart pivot nodes {@code a}
+ * and {@code b} are found by following the farthest node twice and each
+ * node {@code i} is projected onto the line through them by using the
+ * law of cosines, i.e., to
+ * {@code x(i)=(d(a,i)<sup>2</sup>+d(a,b)<sup>2</sup>-d(b,i)<sup>2</sup>)/(2d(a,b))}
+ * . The second coordinate is obtained in the same way from two new pivots,
+ * using the residual distances
+ * {@code d(i,j)<sup>2</sup>-(x(i)-x(j))<sup>2</sup>}.
+ * </p>
+ * <p>
+ * The projection needs only {@code 5(n-1)} distance evaluations and
+ * reproduces the original coordinates up to rotation and reflection for
+ * Euclidean instances. For other instances, the coordinates are only an
+ * approximation. Algorithms using them, e.g., for ordering the nodes or
+ * for finding candidate neighbors, must hence still work with the real
+ * distances.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_FL1995FAFAFIDMAVOTAMD" />Christos Faloutsos
+ * and&nbsp;King-Ip Lin: <span style="font-weight:bold">&ldquo;FastMap: A
+ * Fast Algorithm for Indexing, Data-Mining and Visualization of
+ * Traditional and Multimedia Datasets,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Proceedings of the 1995
+ * ACM SIGMOD International Conference on Management of Data
+ * (SIGMOD'95)</span>, pages 163&ndash;174, 1995, New York, NY, USA: ACM
+ * Press. doi:&nbsp;<a href="http://dx.doi.org/10.1145/223784.223812"
+ * >10.1145/223784.223812</a></div></li>
+ * </ol>
+ */
+public final class FastMap {
+
+  /** the forbidden constructor */
+  private FastMap() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Compute the two-dimensional coordinates of the nodes
+   *
+   * @param dist
+   *          the distance computer
+   * @param x
+   *          the array of length {@code n+1} receiving the first
+   *          coordinates, indexed by the node ids
+   * @param y
+   *          the array of length {@code n+1} receiving the second
+   *          coordinates, indexed by the node ids
+   */
+  public static final void embed(final DistanceComputer dist,
+      final double[] x, final double[] y) {
+    final int n;
+    final double[] a, b;
+    double best, d;
+    int i, p, q;
+
+    n = dist.n();
+    a = new double[n + 1];
+    b = new double[n + 1];
+
+    // the first axis: pivots far apart, found by following the farthest
+    // node twice
+    q = FastMap.__sweep(dist, 1, a, null);
+    p = FastMap.__sweep(dist, q, b, null);
+    FastMap.__sweep(dist, p, a, null);
+    FastMap.__project(a, b, a[q], x, n);
+
+    // the second axis: the first pivot is the node farthest from p in the
+    // residual space, which needs no further distance evaluations
+    best = (-1d);
+    for (i = n; i > 0; i--) {
+      d = (a[i] - (x[i] * x[i]));
+      if (d > best) {
+        best = d;
+        q = i;
+      }
+    }
+    p = FastMap.__sweep(dist, q, a, x);
+    FastMap.__sweep(dist, p, b, x);
+    FastMap.__project(a, b, a[p], y, n);
+  }
+
+  /**
+   * Compute the squared distances from a given node to all nodes, reduced
+   * by the squared differences of their coordinates on an axis, if one
+   * is given.
+   *
+   * @param dist
+   *          the distance computer
+   * @param from
+   *          the node
+   * @param dest
+   *          the destination array
+   * @param axis
+   *          the coordinates of the nodes on the axis already computed,
+   *          or {@code null}
+   * @return the node with the largest resulting distance
+   */
+  private static final int __sweep(final DistanceComputer dist,
+      final int from, final double[] dest, final double[] axis) {
+    double d, best, diff;
+    int i, res;
+
+    best = (-1d);
+    res = from;
+    for (i = dist.n(); i > 0; i--) {
+      if (i == from) {
+        dest[i] = 0d;
+        continue;
+      }
+      d = dist.distance(from, i);
+      d *= d;
+      if (axis != null) {
+        diff = (axis[from] - axis[i]);
+        d = Math.max(0d, (d - (diff * diff)));
+      }
+      dest[i] = d;
+      if (d > best) {
+        best = d;
+        res = i;
+      }
+    }
+
+    return res;
+  }
+
+  /**
+   * Project the nodes onto the line through two pivots
+   *
+   * @param a
+   *          the squared distances from the first pivot
+   * @param b
+   *          the squared distances from the second pivot
+   * @param ab
+   *          the squared distance between the pivots
+   * @param dest
+   *          the destination array
+   * @param n
+   *          the number of nodes
+   */
+  private static final void __project(final double[] a, final double[] b,
+      final double ab, final double[] dest, final int n) {
+    final double div;
+    int i;
+
+    if (ab <= 0d) {
+      Arrays.fill(dest, 0d);
+      return;
+    }
+
+    div = (2d * Math.sqrt(ab));
+    for (i = n; i > 0; i--) {
+      dest[i] = (((a[i] + ab) - b[i]) / div);
+    }
+  }
+}
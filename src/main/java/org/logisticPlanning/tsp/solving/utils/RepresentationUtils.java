@@ -922,6 +922,233 @@ public final class RepresentationUtils {
     return hash;
   }
 
+  /**
+   * <p>
+   * Compute the 64 bit key of the undirected edge between two nodes, as
+   * used by {@link #pathEdgeHash(int[])}. The key does not depend on the
+   * order of the two nodes. It is obtained by scrambling the two node ids
+   * with the finalizer of the <a
+   * href="http://xorshift.di.unimi.it/splitmix64.c">SplitMix64</a>
+   * generator, which gives the keys the properties of random numbers
+   * without the need to store a table of keys.
+   * </p>
+   *
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   * @return the edge key
+   * @see #pathEdgeHash(int[])
+   */
+  public static final long edgeHash(final int a, final int b) {
+    long z;
+
+    if (a < b) {
+      z = ((((long) a) << 32) | (b & 0xffffffffL));
+    } else {
+      z = ((((long) b) << 32) | (a & 0xffffffffL));
+    }
+    z += 0x9e3779b97f4a7c15L;
+    z = ((z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L);
+    z = ((z ^ (z >>> 27)) * 0x94d049bb133111ebL);
+    return (z ^ (z >>> 31));
+  }
+
+  /**
+   * <p>
+   * Compute a 64 bit <a
+   * href="http://en.wikipedia.org/wiki/Zobrist_hashing">Zobrist</a>-style
+   * hash of a tour, i.e., the exclusive-or of the
+   * {@link #edgeHash(int, int) keys} of all of its undirected edges. Unlike
+   * {@link #pathHashCode(int[])}, this hash is defined on the set of edges
+   * and thus is the same for all equivalent paths (regardless of their
+   * starting point and direction). More importantly, it can be updated in
+   * {@code O(1)} when only a few edges of the tour change: Removing or
+   * adding an edge both correspond to an exclusive-or with its key.
+   * </p>
+   * <p>
+   * Different tours may still have the same hash, but with 64 bits, such
+   * collisions are very rare.
+   * </p>
+   *
+   * @param path
+   *          the tour in <a href="#pathRepresentation">
+   *          <em>path representation</em></a>
+   * @return the edge hash
+   * @see #edgeHash(int, int)
+   */
+  public static final long pathEdgeHash(final int[] path) {
+    int i, last;
+    long hash;
+
+    if ((path == null) || (path.length <= 0)) {
+      return 0L;
+    }
+
+    hash = 0L;
+    last = path[path.length - 1];
+    for (i = 0; i < path.length; i++) {
+      hash ^= RepresentationUtils.edgeHash(last, path[i]);
+      last = path[i];
+    }
+    return hash;
+  }
+
+  /**
+   * <p>
+   * Find the shortest range of positions in a path that contains all of
+   * the given nodes. Since a path in <a href="#pathRepresentation">
+   * <em>path representation</em></a> is a cycle, the range may wrap
+   * around at the end of the path: The first position {@code range[0]} is
+   * always in {@code 0..n-1} and the last position {@code range[1]} is
+   * always {@code >=range[0]}, but it may be {@code >=n}, in which case
+   * the range continues at the beginning of the path. Positions in such a
+   * range should be tested with
+   * {@link #isInPathRange(int, int, int, int)}.
+   * </p>
+   * <p>
+   * This method can be used by local searches to find the part of a tour
+   * that has been changed by a
+   * {@link org.logisticPlanning.tsp.solving.operators.PerturbationOperator#getDirtyNodes(org.logisticPlanning.tsp.solving.Individual, int[])
+   * perturbation}. It takes {@code O(n)} steps.
+   * </p>
+   *
+   * @param path
+   *          the path
+   * @param nodes
+   *          the nodes
+   * @param count
+   *          the number of nodes in {@code nodes}
+   * @param range
+   *          an array of length at least {@code 2} which receives the
+   *          first and last position of the range
+   * @return {@code true} if the range could be determined, {@code false}
+   *         if {@code count<=0}
+   * @see #extendPathRange(int[], int, int, int)
+   * @see #isInPathRange(int, int, int, int)
+   */
+  public static final boolean getPathRange(final int[] path,
+      final int[] nodes, final int count, final int[] range) {
+    final boolean[] marked;
+    final int n;
+    int i, first, last, gap, bestGap, bestStart, bestEnd;
+
+    if (count <= 0) {
+      return false;
+    }
+
+    n = path.length;
+    marked = new boolean[n + 1];
+    for (i = count; (--i) >= 0;) {
+      marked[nodes[i]] = true;
+    }
+
+    // find the largest gap between two marked positions: the range is
+    // everything else
+    first = last = -1;
+    bestGap = -1;
+    bestStart = bestEnd = 0;
+    for (i = 0; i < n; i++) {
+      if (marked[path[i]]) {
+        if (first < 0) {
+          first = i;
+        } else {
+          gap = (i - last);
+          if (gap > bestGap) {
+            bestGap = gap;
+            bestStart = i;
+            bestEnd = (last + n);
+          }
+        }
+        last = i;
+      }
+    }
+
+    if (first < 0) {
+      return false;
+    }
+
+    if (((first + n) - last) >= bestGap) {
+      range[0] = first;
+      range[1] = last;
+    } else {
+      range[0] = bestStart;
+      range[1] = bestEnd;
+    }
+    return true;
+  }
+
+  /**
+   * Extend a (potentially wrapping)
+   * {@link #getPathRange(int[], int[], int, int[]) range of positions} in
+   * a path of length {@code n} to the shortest range which also includes
+   * the positions {@code i..j}.
+   *
+   * @param range
+   *          the range, will be updated
+   * @param i
+   *          the first position to include, in {@code 0..n-1}
+   * @param j
+   *          the last position to include, in {@code i..n-1}
+   * @param n
+   *          the length of the path
+   * @see #getPathRange(int[], int[], int, int[])
+   */
+  public static final void extendPathRange(final int[] range, final int i,
+      final int j, final int n) {
+    int start, end, bestStart, bestEnd, shift;
+
+    bestStart = 0;
+    bestEnd = (3 * n);
+
+    // the range [i,j] may be shifted by a full cycle against the range
+    for (shift = (-n); shift <= n; shift += n) {
+      start = Math.min(range[0], (i + shift));
+      end = Math.max(range[1], (j + shift));
+      if ((end - start) < (bestEnd - bestStart)) {
+        bestStart = start;
+        bestEnd = end;
+      }
+    }
+
+    if ((bestEnd - bestStart) >= (n - 1)) {
+      range[0] = 0;
+      range[1] = (n - 1);
+    } else {
+      if (bestStart < 0) {
+        bestStart += n;
+        bestEnd += n;
+      }
+      range[0] = bestStart;
+      range[1] = bestEnd;
+    }
+  }
+
+  /**
+   * Check whether a position lies in a (potentially wrapping) range of
+   * positions of a path of length {@code n}. The range may start before
+   * {@code 0} or end at {@code n} or later, as it happens when it is
+   * widened by a few positions.
+   *
+   * @param p
+   *          the position, in {@code 0..n-1}
+   * @param start
+   *          the first position of the range
+   * @param end
+   *          the last position of the range, less than
+   *          {@code start+n}
+   * @param n
+   *          the length of the path
+   * @return {@code true} if {@code p} is in the range, {@code false}
+   *         otherwise
+   * @see #getPathRange(int[], int[], int, int[])
+   */
+  public static final boolean isInPathRange(final int p, final int start,
+      final int end, final int n) {
+    return (((p >= start) && (p <= end)) || ((p + n) <= end) || //
+    ((p - n) >= start));
+  }
+
   /** Don't instantiate this class. Why would you do that anyway? */
   private RepresentationUtils() {
     throw new UnsupportedOperationException();
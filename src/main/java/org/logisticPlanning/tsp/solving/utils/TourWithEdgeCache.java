@@ -0,0 +1,517 @@
+package org.logisticPlanning.tsp.solving.utils;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Reverse;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Left;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Right;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Swap;
+
+/**
+ * <p>
+ * A tour in path representation together with the index of the positions
+ * of its nodes and the lengths of its edges. The contract is:
+ * </p>
+ * <ol>
+ * <li>{@code getPath()[getPosition(x)]=x} for every node {@code x} and</li>
+ * <li>
+ * {@code getEdgeLengths()[i]=dist.distance(getPath()[i], getPath()[(i+1)%n])}
+ * , i.e., the element at index {@code n-1} holds the length of the edge
+ * from the last node back to the first one.</li>
+ * </ol>
+ * <p>
+ * The lengths of the edges of the tour never need to be computed again:
+ * The deltas of swap, reverse, and rotate moves read the lengths of the
+ * removed edges from the cache, so only the added edges are computed. When
+ * a move is applied, the cached edges inside the changed range are moved
+ * along with the nodes and only the new edges are computed &ndash; or not
+ * even those, if the caller already knows their lengths from computing the
+ * delta. A k-opt move can be applied as a sequence of
+ * {@link #reverse(int, int) reversals} or, if the lengths of its new edges
+ * are known, at once via {@link #replace(int, int, int[], int[], int)}.
+ * </p>
+ * <p>
+ * The cache wraps the path array given to
+ * {@link #init(int[], DistanceComputer)}, i.e., it does not copy it. The
+ * path must only be changed via the methods of this class until the cache
+ * is initialized again.
+ * </p>
+ */
+public final class TourWithEdgeCache {
+
+  /** the path */
+  private int[] m_path;
+
+  /** the positions of the nodes in the path */
+  private final int[] m_pos;
+
+  /** the lengths of the edges from the nodes to their successors */
+  private final int[] m_edges;
+
+  /** the distance computer */
+  private DistanceComputer m_dist;
+
+  /**
+   * create
+   *
+   * @param n
+   *          the number of nodes
+   */
+  public TourWithEdgeCache(final int n) {
+    super();
+    this.m_pos = new int[n + 1];
+    this.m_edges = new int[n];
+  }
+
+  /**
+   * Initialize the cache with a path. The path array is not copied.
+   *
+   * @param path
+   *          the path, which must contain all {@code n} nodes
+   * @param dist
+   *          the distance computer
+   * @return the length of the tour
+   */
+  public final long init(final int[] path, final DistanceComputer dist) {
+    final int[] pos, edges;
+    int i, cur, old, d;
+    long total;
+
+    pos = this.m_pos;
+    edges = this.m_edges;
+    this.m_path = path;
+    this.m_dist = dist;
+
+    cur = path[0];
+    total = 0L;
+    for (i = path.length; (--i) >= 0;) {
+      old = cur;
+      cur = path[i];
+      pos[cur] = i;
+      edges[i] = d = dist.distance(cur, old);
+      total += d;
+    }
+
+    return total;
+  }
+
+  /** release the references to the path and the distance computer */
+  public final void clear() {
+    this.m_path = null;
+    this.m_dist = null;
+  }
+
+  /**
+   * Get the path, which must not be changed directly
+   *
+   * @return the path
+   */
+  public final int[] getPath() {
+    return this.m_path;
+  }
+
+  /**
+   * Get the lengths of the edges of the tour, where element {@code i}
+   * holds the length of the edge from the node at index {@code i} to the
+   * one at index {@code (i+1)%n}. The array must not be changed.
+   *
+   * @return the lengths of the edges
+   */
+  public final int[] getEdgeLengths() {
+    return this.m_edges;
+  }
+
+  /**
+   * Get the index of a node in the path
+   *
+   * @param node
+   *          the node
+   * @return its index
+   */
+  public final int getPosition(final int node) {
+    return this.m_pos[node];
+  }
+
+  /**
+   * Compute the change of the tour length that reversing the (cyclic)
+   * range of indices from {@code i} to {@code j} would cause. If
+   * {@code i>j}, the range wraps around the end of the path.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range
+   * @return the change of the tour length, or
+   *         {@link PermutationUpdateOperator#NO_EFFECT} if the reversal
+   *         would not change the path
+   */
+  public final int reverseDelta(final int i, final int j) {
+    final int[] path, edges;
+    final int n, im1, jp1;
+    final DistanceComputer dist;
+
+    path = this.m_path;
+    n = path.length;
+    if ((i == j) || ((((j - i) + n) % n) == (n - 1))) {
+      return PermutationUpdateOperator.NO_EFFECT;
+    }
+
+    edges = this.m_edges;
+    dist = this.m_dist;
+    im1 = (((i + n) - 1) % n);
+    jp1 = ((j + 1) % n);
+    return ((dist.distance(path[im1], path[j]) + dist.distance(path[i],
+        path[jp1])) - (edges[im1] + edges[j]));
+  }
+
+  /**
+   * Reverse the (cyclic) range of indices from {@code i} to {@code j}. If
+   * {@code i>j}, the range wraps around the end of the path.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range
+   */
+  public final void reverse(final int i, final int j) {
+    this.update(PermutationUpdate_Reverse.INSTANCE, i, j);
+  }
+
+  /**
+   * Reverse the range of indices from {@code i} to {@code j}, where the
+   * lengths of the two new edges are already known.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range, {@code i<j}
+   * @param d_im1_j
+   *          the length of the edge from the node at index {@code i-1} to
+   *          the node at index {@code j}
+   * @param d_i_jp1
+   *          the length of the edge from the node at index {@code i} to
+   *          the node at index {@code j+1}
+   */
+  public final void reverse(final int i, final int j, final int d_im1_j,
+      final int d_i_jp1) {
+    final int[] path, pos, edges;
+    int t, ii, jj;
+
+    path = this.m_path;
+    pos = this.m_pos;
+    edges = this.m_edges;
+
+    for (ii = i, jj = j; ii < jj; ii++, jj--) {
+      t = path[ii];
+      pos[path[ii] = path[jj]] = ii;
+      pos[path[jj] = t] = jj;
+    }
+
+    for (ii = i, jj = (j - 1); ii < jj; ii++, jj--) {
+      t = edges[ii];
+      edges[ii] = edges[jj];
+      edges[jj] = t;
+    }
+
+    edges[(((i + path.length) - 1) % path.length)] = d_im1_j;
+    edges[j] = d_i_jp1;
+  }
+
+  /**
+   * Compute the change of the tour length that swapping the nodes at
+   * indices {@code i} and {@code j} would cause.
+   *
+   * @param i
+   *          the first index
+   * @param j
+   *          the second index, {@code i<j}
+   * @return the change of the tour length, or
+   *         {@link PermutationUpdateOperator#NO_EFFECT} if the move would
+   *         not change the path
+   */
+  public final int swapDelta(final int i, final int j) {
+    return this.delta(PermutationUpdate_Swap.INSTANCE, i, j);
+  }
+
+  /**
+   * Swap the nodes at indices {@code i} and {@code j}.
+   *
+   * @param i
+   *          the first index
+   * @param j
+   *          the second index
+   */
+  public final void swap(final int i, final int j) {
+    this.update(PermutationUpdate_Swap.INSTANCE, i, j);
+  }
+
+  /**
+   * Swap the nodes at indices {@code i} and {@code j}, where the lengths
+   * of the new edges are already known. The lengths are stored in the
+   * order of the parameters, so if two of the edges are the same, the
+   * later parameter wins.
+   *
+   * @param i
+   *          the first index
+   * @param j
+   *          the second index, {@code i<j}
+   * @param d_im1_j
+   *          the length of the new edge at index {@code i-1}
+   * @param d_j_ip1
+   *          the length of the new edge at index {@code i}
+   * @param d_jm1_i
+   *          the length of the new edge at index {@code j-1}
+   * @param d_i_jp1
+   *          the length of the new edge at index {@code j}
+   */
+  public final void swap(final int i, final int j, final int d_im1_j,
+      final int d_j_ip1, final int d_jm1_i, final int d_i_jp1) {
+    final int[] path, pos, edges;
+    final int t;
+
+    path = this.m_path;
+    pos = this.m_pos;
+    edges = this.m_edges;
+
+    t = path[i];
+    pos[path[i] = path[j]] = i;
+    pos[path[j] = t] = j;
+
+    edges[(((i + path.length) - 1) % path.length)] = d_im1_j;
+    edges[i] = d_j_ip1;
+    edges[j - 1] = d_jm1_i;
+    edges[j] = d_i_jp1;
+  }
+
+  /**
+   * Compute the change of the tour length that rotating the range of
+   * indices from {@code i} to {@code j} one step to the left would cause,
+   * i.e., moving the node at index {@code i} to index {@code j}.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range, {@code i<j}
+   * @return the change of the tour length, or
+   *         {@link PermutationUpdateOperator#NO_EFFECT} if the move would
+   *         not change the path
+   */
+  public final int rotateLeftDelta(final int i, final int j) {
+    return this.delta(PermutationUpdate_Rotate_Left.INSTANCE, i, j);
+  }
+
+  /**
+   * Rotate the (cyclic) range of indices from {@code i} to {@code j} one
+   * step to the left, i.e., move the node at index {@code i} to index
+   * {@code j}.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range
+   */
+  public final void rotateLeft(final int i, final int j) {
+    this.update(PermutationUpdate_Rotate_Left.INSTANCE, i, j);
+  }
+
+  /**
+   * Rotate the range of indices from {@code i} to {@code j} one step to
+   * the left, where the lengths of the new edges are already known. The
+   * lengths are stored in the order of the parameters, so if two of the
+   * edges are the same, the later parameter wins.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range, {@code i<j}
+   * @param d_im1_ip1
+   *          the length of the new edge at index {@code i-1}
+   * @param d_j_i
+   *          the length of the new edge at index {@code j-1}
+   * @param d_i_jp1
+   *          the length of the new edge at index {@code j}
+   */
+  public final void rotateLeft(final int i, final int j,
+      final int d_im1_ip1, final int d_j_i, final int d_i_jp1) {
+    final int[] path, pos, edges;
+    final int t, m;
+    int k;
+
+    path = this.m_path;
+    pos = this.m_pos;
+    edges = this.m_edges;
+
+    t = path[i];
+    m = (j - i);
+    System.arraycopy(path, i + 1, path, i, m);
+    path[j] = t;
+    for (k = i; k <= j; k++) {
+      pos[path[k]] = k;
+    }
+
+    System.arraycopy(edges, i + 1, edges, i, m - 1);
+    edges[(((i + path.length) - 1) % path.length)] = d_im1_ip1;
+    edges[j - 1] = d_j_i;
+    edges[j] = d_i_jp1;
+  }
+
+  /**
+   * Compute the change of the tour length that rotating the range of
+   * indices from {@code i} to {@code j} one step to the right would cause,
+   * i.e., moving the node at index {@code j} to index {@code i}.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range, {@code i<j}
+   * @return the change of the tour length, or
+   *         {@link PermutationUpdateOperator#NO_EFFECT} if the move would
+   *         not change the path
+   */
+  public final int rotateRightDelta(final int i, final int j) {
+    return this.delta(PermutationUpdate_Rotate_Right.INSTANCE, i, j);
+  }
+
+  /**
+   * Rotate the (cyclic) range of indices from {@code i} to {@code j} one
+   * step to the right, i.e., move the node at index {@code j} to index
+   * {@code i}.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range
+   */
+  public final void rotateRight(final int i, final int j) {
+    this.update(PermutationUpdate_Rotate_Right.INSTANCE, i, j);
+  }
+
+  /**
+   * Rotate the range of indices from {@code i} to {@code j} one step to
+   * the right, where the lengths of the new edges are already known. The
+   * lengths are stored in the order of the parameters, so if two of the
+   * edges are the same, the later parameter wins.
+   *
+   * @param i
+   *          the first index of the range
+   * @param j
+   *          the last index of the range, {@code i<j}
+   * @param d_im1_j
+   *          the length of the new edge at index {@code i-1}
+   * @param d_j_i
+   *          the length of the new edge at index {@code i}
+   * @param d_jm1_jp1
+   *          the length of the new edge at index {@code j}
+   */
+  public final void rotateRight(final int i, final int j,
+      final int d_im1_j, final int d_j_i, final int d_jm1_jp1) {
+    final int[] path, pos, edges;
+    final int t, m;
+    int k;
+
+    path = this.m_path;
+    pos = this.m_pos;
+    edges = this.m_edges;
+
+    t = path[j];
+    m = (j - i);
+    System.arraycopy(path, i, path, i + 1, m);
+    path[i] = t;
+    for (k = i; k <= j; k++) {
+      pos[path[k]] = k;
+    }
+
+    System.arraycopy(edges, i, edges, i + 1, m - 1);
+    edges[(((i + path.length) - 1) % path.length)] = d_im1_j;
+    edges[i] = d_j_i;
+    edges[j] = d_jm1_jp1;
+  }
+
+  /**
+   * Overwrite the (cyclic) range of {@code length} indices starting at
+   * index {@code start} with a re-arrangement of the nodes in it whose
+   * edge lengths are already known. This allows applying moves which
+   * re-order several segments of the tour at once, such as general
+   * sequential k-opt moves, in {@code O(length)} without computing any
+   * distance.
+   *
+   * @param start
+   *          the first index of the range
+   * @param length
+   *          the number of indices in the range
+   * @param nodes
+   *          the new nodes of the range, a permutation of the nodes
+   *          currently in it
+   * @param lengths
+   *          {@code lengths[i]} is the length of the edge from
+   *          {@code nodes[i]} to its new successor, i.e., to
+   *          {@code nodes[i+1]} for {@code i<length-1} and to the node
+   *          after the range for {@code i=length-1}
+   * @param d_prev
+   *          the length of the edge from the node before the range to
+   *          {@code nodes[0]}
+   */
+  public final void replace(final int start, final int length,
+      final int[] nodes, final int[] lengths, final int d_prev) {
+    final int[] path, pos, edges;
+    final int n;
+    int i, j, node;
+
+    path = this.m_path;
+    pos = this.m_pos;
+    edges = this.m_edges;
+    n = path.length;
+
+    j = start;
+    for (i = 0; i < length; i++) {
+      path[j] = node = nodes[i];
+      pos[node] = j;
+      edges[j] = lengths[i];
+      if ((++j) >= n) {
+        j = 0;
+      }
+    }
+    edges[((start + n) - 1) % n] = d_prev;
+  }
+
+  /**
+   * Compute the change of the tour length that applying a permutation
+   * update operator would cause, reading the lengths of the removed edges
+   * from the cache.
+   *
+   * @param op
+   *          the operator
+   * @param a
+   *          the first index parameter
+   * @param b
+   *          the second index parameter, {@code a<b}
+   * @return the change of the tour length, or
+   *         {@link PermutationUpdateOperator#NO_EFFECT} if the move would
+   *         not change the path
+   */
+  public final int delta(final PermutationUpdateOperator op, final int a,
+      final int b) {
+    return op.delta(this.m_path, this.m_dist, this.m_edges, a, b);
+  }
+
+  /**
+   * Apply a permutation update operator and update the positions and edge
+   * lengths.
+   *
+   * @param op
+   *          the operator
+   * @param a
+   *          the first index parameter
+   * @param b
+   *          the second index parameter
+   */
+  public final void update(final PermutationUpdateOperator op,
+      final int a, final int b) {
+    final int[] path;
+
+    path = this.m_path;
+    op.update(path, a, b);
+    op.updateDistances(path, this.m_dist, this.m_edges, a, b);
+    op.updatePositions(path, this.m_pos, a, b);
+  }
+}
@@ -0,0 +1,1111 @@
+package org.logisticPlanning.tsp.solving.utils;
+
+/**
+ * <p>
+ * A two-level doubly linked list&nbsp;[<a href="#cite_FJMGO1995DSFTS"
+ * style="font-weight:bold">1</a>] for representing tours of symmetric
+ * TSPs. The tour is divided into about <code>&radic;n</code> segments.
+ * Each node stores its neighbors inside its segment and its rank within
+ * the segment, each segment stores its first and last node, its neighbors
+ * in the cycle of segments, its rank in that cycle, and a reversal bit.
+ * Additionally, there is a global reversal bit for the whole tour.
+ * </p>
+ * <p>
+ * The queries {@link #next(int)}, {@link #prev(int)},
+ * {@link #between(int, int, int)}, and {@link #sequence(int, int, int)}
+ * take {@code O(1)}. The reversal of a path, i.e., the
+ * {@link #flip(int, int, int, int) flip} or 2-opt move which is the basic
+ * step of most {@code k}-opt local searches, takes only
+ * <code>O(&radic;n)</code>: If the path lies inside a single segment, it
+ * is reversed node-by-node. Otherwise, the segments containing the two
+ * ends are split (by moving the smaller part into the neighboring segment)
+ * so that the path consists of whole segments only, whose order in the
+ * segment cycle is reversed and whose reversal bits are toggled. If the
+ * path is longer than half of the tour, its complement is reversed
+ * instead and the global reversal bit is toggled. In the path
+ * representation, the same operation would cost {@code O(n)}.
+ * </p>
+ * <p>
+ * After each reversal, the segments whose sizes have been changed by the
+ * splits are re-balanced: A segment with more than twice the initial
+ * size <code>g&asymp;&radic;n</code> is split in the middle, a segment
+ * with less than <code>g/2</code> nodes is merged into its smaller
+ * neighbor (as long as at least three segments remain). Hence, the number
+ * of segments and their sizes always stay in <code>O(&radic;n)</code>.
+ * The structure is backed by {@code int} and {@code boolean} arrays only,
+ * it allocates no objects after construction.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_FJMGO1995DSFTS" />Michael L. Fredman, <a
+ * href="https://en.wikipedia.org/wiki/David_S._Johnson">David Stifler
+ * Johnson</a>, <a
+ * href="https://www.amherst.edu/people/facstaff/lamcgeoch">Lyle A.
+ * McGeoch</a>, and&nbsp;G. Ostheimer: <span
+ * style="font-weight:bold">&ldquo;Data Structures for Traveling
+ * Salesmen,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of
+ * Algorithms</span> 18(3):432&ndash;479, May&nbsp;1995; published by
+ * Duluth, MN, USA: Academic Press, Inc. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1006/jagm.1995.1018"
+ * >10.1006/jagm.1995.1018</a>; ISSN:&nbsp;<a
+ * href="https://www.worldcat.org/issn/01966774">0196-6774</a></div></li>
+ * </ol>
+ */
+public final class TwoLevelDoublyLinkedList {
+
+  /** the successor of a node inside its segment, in stored orientation */
+  private final int[] m_next;
+
+  /** the predecessor of a node inside its segment, in stored orientation */
+  private final int[] m_prev;
+
+  /** the rank of a node inside its segment, in stored orientation */
+  private final int[] m_rank;
+
+  /** the segment of a node */
+  private final int[] m_segment;
+
+  /** the first node of a segment, in stored orientation */
+  private final int[] m_segFirst;
+
+  /** the last node of a segment, in stored orientation */
+  private final int[] m_segLast;
+
+  /** the next segment in the segment cycle */
+  private final int[] m_segNext;
+
+  /** the previous segment in the segment cycle */
+  private final int[] m_segPrev;
+
+  /** the rank of a segment in the segment cycle */
+  private final int[] m_segRank;
+
+  /** the number of nodes in a segment, {@code 0} for unused segments */
+  private final int[] m_segSize;
+
+  /** is the segment reversed? */
+  private final boolean[] m_segReversed;
+
+  /** the number of nodes */
+  private final int m_n;
+
+  /** the initial number of nodes per segment */
+  private final int m_groupSize;
+
+  /** the initial number of segments */
+  private final int m_initSegCount;
+
+  /** the unused segments */
+  private final int[] m_free;
+
+  /** the segments whose size has been changed by the current reversal */
+  private final int[] m_touched;
+
+  /** the number of segments */
+  private int m_segCount;
+
+  /** the number of unused segments */
+  private int m_freeCount;
+
+  /** the number of segments in {@link #m_touched} */
+  private int m_touchedCount;
+
+  /** is the whole tour reversed? */
+  private boolean m_reversed;
+
+  /**
+   * Create the two-level doubly linked list
+   *
+   * @param n
+   *          the number of nodes
+   */
+  public TwoLevelDoublyLinkedList(final int n) {
+    super();
+    final int maxSegCount;
+    int g, segCount;
+
+    this.m_n = n;
+    g = Math.max(1, ((int) (Math.ceil(Math.sqrt(n)))));
+    segCount = Math.max(1, (((n + g) - 1) / g));
+    if (segCount == 2) {
+      // With two segments, the complement of a path could span the
+      // whole segment cycle, so we use a single segment instead.
+      segCount = 1;
+      g = n;
+    }
+    this.m_groupSize = g;
+    this.m_initSegCount = segCount;
+    // all segments but the last one of the initial tour have at least g/2
+    // nodes
+    maxSegCount = (segCount + ((segCount > 1) ? (((2 * n) / g) + 2) : 0));
+
+    this.m_next = new int[n];
+    this.m_prev = new int[n];
+    this.m_rank = new int[n];
+    this.m_segment = new int[n];
+
+    this.m_segFirst = new int[maxSegCount];
+    this.m_segLast = new int[maxSegCount];
+    this.m_segNext = new int[maxSegCount];
+    this.m_segPrev = new int[maxSegCount];
+    this.m_segRank = new int[maxSegCount];
+    this.m_segSize = new int[maxSegCount];
+    this.m_segReversed = new boolean[maxSegCount];
+    this.m_free = new int[maxSegCount];
+    this.m_touched = new int[4];
+  }
+
+  /**
+   * Get the number of nodes
+   *
+   * @return the number of nodes
+   */
+  public final int n() {
+    return this.m_n;
+  }
+
+  /**
+   * Load a tour in path representation into this list
+   *
+   * @param path
+   *          the path
+   */
+  public final void fromPath(final int[] path) {
+    this.__load(path, null);
+  }
+
+  /**
+   * Load a tour given either in path or in adjacency representation.
+   *
+   * @param path
+   *          the path, or {@code null} if {@code adjacency} is given
+   * @param adjacency
+   *          the tour in adjacency representation, only used if
+   *          {@code path==null}
+   */
+  private final void __load(final int[] path, final int[] adjacency) {
+    final int n, g, segCount;
+    int s, i, end, node, last;
+
+    n = this.m_n;
+    g = this.m_groupSize;
+    this.m_segCount = segCount = this.m_initSegCount;
+    this.m_reversed = false;
+
+    this.m_freeCount = 0;
+    for (s = this.m_free.length; (--s) >= segCount;) {
+      this.m_segSize[s] = 0;
+      this.m_free[this.m_freeCount++] = s;
+    }
+
+    i = 0;
+    node = 0;
+    for (s = 0; s < segCount; s++) {
+      end = Math.min(n, (i + g));
+
+      this.m_segNext[s] = (((s + 1) < segCount) ? (s + 1) : 0);
+      this.m_segPrev[s] = ((s > 0) ? (s - 1) : (segCount - 1));
+      this.m_segRank[s] = s;
+      this.m_segSize[s] = (end - i);
+      this.m_segReversed[s] = false;
+
+      last = 0;
+      for (; i < end; i++) {
+        if (path != null) {
+          node = path[i];
+        } else {
+          node = ((node == 0) ? 1 : adjacency[node - 1]);
+        }
+        this.m_segment[node - 1] = s;
+        this.m_rank[node - 1] = i;
+        this.m_prev[node - 1] = last;
+        if (last == 0) {
+          this.m_segFirst[s] = node;
+        } else {
+          this.m_next[last - 1] = node;
+        }
+        last = node;
+      }
+      this.m_next[last - 1] = 0;
+      this.m_segLast[s] = last;
+    }
+  }
+
+  /**
+   * Store the tour in path representation into an array. The path starts
+   * at node {@code 1}.
+   *
+   * @param path
+   *          the destination array
+   */
+  public final void toPath(final int[] path) {
+    int i, node;
+
+    node = 1;
+    for (i = 0; i < path.length; i++) {
+      path[i] = node;
+      node = this.next(node);
+    }
+  }
+
+  /**
+   * Load a tour in adjacency representation into this list, i.e., a tour
+   * where {@code adjacency[i-1]} is the successor of node {@code i}.
+   *
+   * @param adjacency
+   *          the tour in adjacency representation
+   */
+  public final void fromAdjacency(final int[] adjacency) {
+    this.__load(null, adjacency);
+  }
+
+  /**
+   * Store the tour in adjacency representation into an array, i.e.,
+   * {@code adjacency[i-1]} will be the successor of node {@code i}.
+   *
+   * @param adjacency
+   *          the destination array
+   */
+  public final void toAdjacency(final int[] adjacency) {
+    int i;
+
+    for (i = adjacency.length; i > 0; i--) {
+      adjacency[i - 1] = this.next(i);
+    }
+  }
+
+  /**
+   * Is the given segment reversed, including the global reversal bit?
+   *
+   * @param s
+   *          the segment
+   * @return {@code true} if the segment is traversed against its stored
+   *         orientation
+   */
+  private final boolean __isReversed(final int s) {
+    return (this.m_segReversed[s] != this.m_reversed);
+  }
+
+  /**
+   * Get the segment following the given one
+   *
+   * @param s
+   *          the segment
+   * @return the following segment
+   */
+  private final int __segSucc(final int s) {
+    return (this.m_reversed ? this.m_segPrev[s] : this.m_segNext[s]);
+  }
+
+  /**
+   * Get the segment preceding the given one
+   *
+   * @param s
+   *          the segment
+   * @return the preceding segment
+   */
+  private final int __segPred(final int s) {
+    return (this.m_reversed ? this.m_segNext[s] : this.m_segPrev[s]);
+  }
+
+  /**
+   * Get the first node of a segment in tour orientation
+   *
+   * @param s
+   *          the segment
+   * @return the first node
+   */
+  private final int __first(final int s) {
+    return (this.__isReversed(s) ? this.m_segLast[s] : this.m_segFirst[s]);
+  }
+
+  /**
+   * Get the last node of a segment in tour orientation
+   *
+   * @param s
+   *          the segment
+   * @return the last node
+   */
+  private final int __last(final int s) {
+    return (this.__isReversed(s) ? this.m_segFirst[s] : this.m_segLast[s]);
+  }
+
+  /**
+   * Get the successor of a node in the tour
+   *
+   * @param node
+   *          the node
+   * @return the successor
+   */
+  public final int next(final int node) {
+    final int s;
+
+    s = this.m_segment[node - 1];
+    if (this.__isReversed(s)) {
+      if (node != this.m_segFirst[s]) {
+        return this.m_prev[node - 1];
+      }
+    } else {
+      if (node != this.m_segLast[s]) {
+        return this.m_next[node - 1];
+      }
+    }
+    return this.__first(this.__segSucc(s));
+  }
+
+  /**
+   * Get the predecessor of a node in the tour
+   *
+   * @param node
+   *          the node
+   * @return the predecessor
+   */
+  public final int prev(final int node) {
+    final int s;
+
+    s = this.m_segment[node - 1];
+    if (this.__isReversed(s)) {
+      if (node != this.m_segLast[s]) {
+        return this.m_next[node - 1];
+      }
+    } else {
+      if (node != this.m_segFirst[s]) {
+        return this.m_prev[node - 1];
+      }
+    }
+    return this.__last(this.__segPred(s));
+  }
+
+  /**
+   * Compute a key of the node which increases along the tour, except for
+   * one single wrap-around point.
+   *
+   * @param node
+   *          the node
+   * @return the key
+   */
+  private final long __key(final int node) {
+    final int s;
+    int r;
+    long key;
+
+    s = this.m_segment[node - 1];
+    r = this.m_rank[node - 1];
+    if (this.m_segReversed[s]) {
+      r = (-r);
+    }
+    key = ((((long) (this.m_segRank[s])) << 32) | //
+    ((r + 0x80000000L) & 0xFFFFFFFFL));
+    return (this.m_reversed ? (-key) : key);
+  }
+
+  /**
+   * Check whether node {@code b} lies on the path from node {@code a} to
+   * node {@code c} (both inclusive) when following the tour in forward
+   * direction.
+   *
+   * @param a
+   *          the start of the path
+   * @param b
+   *          the node to check
+   * @param c
+   *          the end of the path
+   * @return {@code true} if {@code b} is on the path from {@code a} to
+   *         {@code c}, {@code false} otherwise
+   */
+  public final boolean between(final int a, final int b, final int c) {
+    final long ka, kb, kc;
+
+    ka = this.__key(a);
+    kb = this.__key(b);
+    kc = this.__key(c);
+
+    if (ka <= kc) {
+      return ((ka <= kb) && (kb <= kc));
+    }
+    return ((kb >= ka) || (kb <= kc));
+  }
+
+  /**
+   * Check whether the three distinct nodes {@code a}, {@code b}, and
+   * {@code c} are visited in exactly this order when following the tour
+   * in forward direction starting at {@code a}.
+   *
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   * @param c
+   *          the third node
+   * @return {@code true} if the nodes are distinct and visited in the
+   *         order {@code a}, {@code b}, {@code c}, {@code false}
+   *         otherwise
+   */
+  public final boolean sequence(final int a, final int b, final int c) {
+    return ((a != b) && (b != c) && (a != c) && this.between(a, b, c));
+  }
+
+  /**
+   * Perform a 2-opt move: remove the edges {@code (a, b)} and
+   * {@code (c, d)}, where {@code b=next(a)} and {@code d=next(c)}, and
+   * add the edges {@code (a, c)} and {@code (b, d)}. This is done by
+   * reversing the path from {@code b} to {@code c}. Afterwards,
+   * {@code next(a)=c} and {@code next(b)=d}.
+   *
+   * @param a
+   *          the first node of the first removed edge
+   * @param b
+   *          the second node of the first removed edge, the successor of
+   *          {@code a}
+   * @param c
+   *          the first node of the second removed edge
+   * @param d
+   *          the second node of the second removed edge, the successor of
+   *          {@code c}
+   * @throws IllegalArgumentException
+   *           if {@code b} is not the successor of {@code a} or {@code d}
+   *           is not the successor of {@code c}
+   */
+  public final void flip(final int a, final int b, final int c,
+      final int d) {
+    if ((this.next(a) != b) || (this.next(c) != d)) {
+      throw new IllegalArgumentException(//
+          "The removed edges must be (a,next(a)) and (c,next(c))."); //$NON-NLS-1$
+    }
+    this.reverse(b, c);
+  }
+
+  /**
+   * Reverse the path from node {@code from} to node {@code to}, both
+   * inclusive, i.e., afterwards {@code prev(from)} becomes the
+   * predecessor of {@code to} and {@code next(to)} the successor of
+   * {@code from}.
+   *
+   * @param from
+   *          the first node of the path
+   * @param to
+   *          the last node of the path
+   */
+  public final void reverse(final int from, final int to) {
+    final int segCount;
+    int sa, sb, spanned;
+
+    if (from == to) {
+      return;
+    }
+
+    if (this.next(to) == from) {
+      // the path is the whole tour
+      this.m_reversed = (!(this.m_reversed));
+      return;
+    }
+
+    sa = this.m_segment[from - 1];
+    sb = this.m_segment[to - 1];
+    if ((sa == sb) && (this.__key(from) <= this.__key(to))) {
+      this.__reverseInSegment(from, to);
+      return;
+    }
+
+    // compute the number of segments touched by the path
+    segCount = this.m_segCount;
+    if (sa == sb) {
+      spanned = (segCount + 1);
+    } else {
+      spanned = (this.m_reversed ? //
+      (this.m_segRank[sa] - this.m_segRank[sb])
+          : (this.m_segRank[sb] - this.m_segRank[sa]));
+      if (spanned < 0) {
+        spanned += segCount;
+      }
+      spanned++;
+    }
+
+    this.m_touchedCount = 0;
+    if ((spanned << 1) > (segCount + 1)) {
+      // reversing the complement leads to the same tour, but in the
+      // opposite direction, which is then fixed by the global bit
+      this.__reverse(this.next(to), this.prev(from));
+      this.m_reversed = (!(this.m_reversed));
+    } else {
+      this.__reverse(from, to);
+    }
+
+    for (sa = this.m_touchedCount; (--sa) >= 0;) {
+      this.__balance(this.m_touched[sa]);
+    }
+  }
+
+  /**
+   * Remember that the size of a segment has changed during a reversal
+   *
+   * @param s
+   *          the segment
+   */
+  private final void __touch(final int s) {
+    this.m_touched[this.m_touchedCount++] = s;
+  }
+
+  /**
+   * Re-balance a segment: split it if it is too large, merge it into its
+   * smaller neighbor if it is too small.
+   *
+   * @param s
+   *          the segment
+   */
+  private final void __balance(final int s) {
+    final int size, g;
+    int u;
+
+    size = this.m_segSize[s];
+    if (size <= 0) {
+      return; // already merged into another segment
+    }
+
+    g = this.m_groupSize;
+    if (size > (g << 1)) {
+      this.__split(s);
+      return;
+    }
+
+    if ((size < (g >>> 1)) && (this.m_segCount > 3)) {
+      u = this.__merge(s);
+      if (this.m_segSize[u] > (g << 1)) {
+        this.__split(u);
+      }
+    }
+  }
+
+  /**
+   * Split a segment in the middle into two segments.
+   *
+   * @param s
+   *          the segment
+   */
+  private final void __split(final int s) {
+    final int t, half;
+    int x, y, k, u;
+
+    half = (this.m_segSize[s] >>> 1);
+    t = this.m_free[--this.m_freeCount];
+
+    // the first half (in stored orientation) stays in s, the second one
+    // goes to t and keeps its ranks
+    x = this.m_segFirst[s];
+    for (k = half; (--k) > 0;) {
+      x = this.m_next[x - 1];
+    }
+    y = this.m_next[x - 1];
+    this.m_next[x - 1] = 0;
+    this.m_prev[y - 1] = 0;
+    this.m_segFirst[t] = y;
+    this.m_segLast[t] = this.m_segLast[s];
+    this.m_segLast[s] = x;
+    for (; y != 0; y = this.m_next[y - 1]) {
+      this.m_segment[y - 1] = t;
+    }
+    this.m_segSize[t] = (this.m_segSize[s] - half);
+    this.m_segSize[s] = half;
+    this.m_segReversed[t] = this.m_segReversed[s];
+
+    // in the segment cycle, the second half follows the first one unless
+    // the segment is reversed
+    if (this.m_segReversed[s]) {
+      u = this.m_segPrev[s];
+      this.m_segPrev[s] = t;
+      this.m_segNext[t] = s;
+      this.m_segPrev[t] = u;
+      this.m_segNext[u] = t;
+    } else {
+      u = this.m_segNext[s];
+      this.m_segNext[s] = t;
+      this.m_segPrev[t] = s;
+      this.m_segNext[t] = u;
+      this.m_segPrev[u] = t;
+    }
+
+    this.m_segCount++;
+    this.__renumberSegments(s);
+  }
+
+  /**
+   * Merge a segment into its smaller neighbor.
+   *
+   * @param s
+   *          the segment
+   * @return the neighbor which now contains the nodes of {@code s}
+   */
+  private final int __merge(final int s) {
+    final int pred, succ, u, p, q;
+    int x, z, k;
+
+    pred = this.__segPred(s);
+    succ = this.__segSucc(s);
+    k = this.m_segSize[s];
+
+    if (this.m_segSize[succ] < this.m_segSize[pred]) {
+      // move the nodes to the front of the succeeding segment
+      u = succ;
+      x = this.__last(s);
+      for (;;) {
+        z = ((k > 1) ? this.prev(x) : 0);
+        this.__prepend(u, x);
+        if ((--k) <= 0) {
+          break;
+        }
+        x = z;
+      }
+    } else {
+      // move the nodes to the end of the preceding segment
+      u = pred;
+      x = this.__first(s);
+      for (;;) {
+        z = ((k > 1) ? this.next(x) : 0);
+        this.__append(u, x);
+        if ((--k) <= 0) {
+          break;
+        }
+        x = z;
+      }
+    }
+
+    p = this.m_segPrev[s];
+    q = this.m_segNext[s];
+    this.m_segNext[p] = q;
+    this.m_segPrev[q] = p;
+    this.m_segSize[s] = 0;
+    this.m_free[this.m_freeCount++] = s;
+    this.m_segCount--;
+    this.__renumberSegments(q);
+    return u;
+  }
+
+  /**
+   * Assign consecutive ranks to the segments in the segment cycle
+   *
+   * @param start
+   *          the segment to receive rank {@code 0}
+   */
+  private final void __renumberSegments(final int start) {
+    int s, r;
+
+    s = start;
+    for (r = 0; r < this.m_segCount; r++) {
+      this.m_segRank[s] = r;
+      s = this.m_segNext[s];
+    }
+  }
+
+  /**
+   * Get the size of the largest segment. Due to the re-balancing, this is
+   * never more than twice the initial segment size.
+   *
+   * @return the size of the largest segment
+   */
+  public final int getMaxSegmentSize() {
+    int s, max;
+
+    max = 0;
+    for (s = this.m_segSize.length; (--s) >= 0;) {
+      max = Math.max(max, this.m_segSize[s]);
+    }
+    return max;
+  }
+
+  /**
+   * Get the number of segments
+   *
+   * @return the number of segments
+   */
+  public final int getSegmentCount() {
+    return this.m_segCount;
+  }
+
+  /**
+   * Reverse a path which is known to not be longer than half the tour.
+   *
+   * @param from
+   *          the first node of the path
+   * @param to
+   *          the last node of the path
+   */
+  private final void __reverse(final int from, final int to) {
+    int sa, sb;
+
+    sa = this.m_segment[from - 1];
+    sb = this.m_segment[to - 1];
+    if ((sa == sb) && (this.__key(from) <= this.__key(to))) {
+      this.__reverseInSegment(from, to);
+      return;
+    }
+
+    this.__splitBefore(from);
+
+    sa = this.m_segment[from - 1];
+    if ((sa == sb) && (this.__key(from) <= this.__key(to))) {
+      this.__reverseInSegment(from, to);
+      return;
+    }
+
+    this.__splitAfter(to);
+    this.__reverseSegments(this.m_segment[from - 1],
+        this.m_segment[to - 1]);
+  }
+
+  /**
+   * Reverse a path inside a single segment node-by-node.
+   *
+   * @param from
+   *          the first node of the path, in tour orientation
+   * @param to
+   *          the last node of the path, in tour orientation
+   */
+  private final void __reverseInSegment(final int from, final int to) {
+    final int[] next, prev, rank;
+    final int s;
+    int lo, hi, p, q, i, j, k, t;
+
+    next = this.m_next;
+    prev = this.m_prev;
+    rank = this.m_rank;
+    s = this.m_segment[from - 1];
+
+    if (this.__isReversed(s)) {
+      lo = to;
+      hi = from;
+    } else {
+      lo = from;
+      hi = to;
+    }
+
+    p = ((lo == this.m_segFirst[s]) ? 0 : prev[lo - 1]);
+    q = ((hi == this.m_segLast[s]) ? 0 : next[hi - 1]);
+
+    // the nodes keep the set of ranks, but in reversed order
+    i = lo;
+    j = hi;
+    for (k = (((rank[hi - 1] - rank[lo - 1]) + 1) >>> 1); (--k) >= 0;) {
+      t = rank[i - 1];
+      rank[i - 1] = rank[j - 1];
+      rank[j - 1] = t;
+      i = next[i - 1];
+      j = prev[j - 1];
+    }
+
+    i = lo;
+    for (;;) {
+      t = next[i - 1];
+      next[i - 1] = prev[i - 1];
+      prev[i - 1] = t;
+      if (i == hi) {
+        break;
+      }
+      i = t;
+    }
+
+    prev[hi - 1] = p;
+    if (p == 0) {
+      this.m_segFirst[s] = hi;
+    } else {
+      next[p - 1] = hi;
+    }
+    next[lo - 1] = q;
+    if (q == 0) {
+      this.m_segLast[s] = lo;
+    } else {
+      prev[q - 1] = lo;
+    }
+  }
+
+  /**
+   * Reverse a sequence of whole segments, given in tour orientation.
+   *
+   * @param sa
+   *          the first segment
+   * @param sb
+   *          the last segment
+   */
+  private final void __reverseSegments(final int sa, final int sb) {
+    final int[] segNext, segPrev, segRank;
+    final int left, right, before, after, segCount;
+    int s, t, r;
+
+    segNext = this.m_segNext;
+    segPrev = this.m_segPrev;
+    segRank = this.m_segRank;
+
+    if (this.m_reversed) {
+      left = sb;
+      right = sa;
+    } else {
+      left = sa;
+      right = sb;
+    }
+
+    before = segPrev[left];
+    after = segNext[right];
+    r = segRank[left];
+
+    s = left;
+    for (;;) {
+      t = segNext[s];
+      segNext[s] = segPrev[s];
+      segPrev[s] = t;
+      this.m_segReversed[s] = (!(this.m_segReversed[s]));
+      if (s == right) {
+        break;
+      }
+      s = t;
+    }
+
+    if (after != left) {
+      segNext[before] = right;
+      segPrev[right] = before;
+      segPrev[after] = left;
+      segNext[left] = after;
+    }
+
+    segCount = this.m_segCount;
+    s = right;
+    for (;;) {
+      segRank[s] = r;
+      if (s == left) {
+        break;
+      }
+      if ((++r) >= segCount) {
+        r = 0;
+      }
+      s = segNext[s];
+    }
+  }
+
+  /**
+   * Make sure that the given node is the first node (in tour orientation)
+   * of its segment by moving the smaller part of the segment into the
+   * neighboring segment.
+   *
+   * @param node
+   *          the node
+   */
+  private final void __splitBefore(final int node) {
+    final int s, first, before, after;
+    int x, y, z;
+
+    s = this.m_segment[node - 1];
+    first = this.__first(s);
+    if (first == node) {
+      return;
+    }
+
+    before = Math.abs(this.m_rank[node - 1] - this.m_rank[first - 1]);
+    after = (this.m_segSize[s] - before);
+
+    if (before <= after) {
+      // move the nodes before "node" to the end of the previous segment
+      x = first;
+      do {
+        y = this.next(x);
+        this.__append(this.__segPred(s), x);
+        x = y;
+      } while (x != node);
+      this.m_segSize[s] -= before;
+      this.__setFirst(s, node);
+      this.__touch(this.__segPred(s));
+    } else {
+      // move "node" and the nodes after it to the next segment
+      y = this.prev(node);
+      x = this.__last(s);
+      for (;;) {
+        z = this.prev(x);
+        this.__prepend(this.__segSucc(s), x);
+        if (x == node) {
+          break;
+        }
+        x = z;
+      }
+      this.m_segSize[s] -= after;
+      this.__setLast(s, y);
+      this.__touch(this.__segSucc(s));
+    }
+    this.__touch(s);
+  }
+
+  /**
+   * Make sure that the given node is the last node (in tour orientation)
+   * of its segment by moving the smaller part of the segment into the
+   * neighboring segment.
+   *
+   * @param node
+   *          the node
+   */
+  private final void __splitAfter(final int node) {
+    final int s, last, before, after;
+    int x, y, z;
+
+    s = this.m_segment[node - 1];
+    last = this.__last(s);
+    if (last == node) {
+      return;
+    }
+
+    after = Math.abs(this.m_rank[last - 1] - this.m_rank[node - 1]);
+    before = (this.m_segSize[s] - after);
+
+    if (after <= before) {
+      // move the nodes after "node" to the front of the next segment
+      x = last;
+      do {
+        y = this.prev(x);
+        this.__prepend(this.__segSucc(s), x);
+        x = y;
+      } while (x != node);
+      this.m_segSize[s] -= after;
+      this.__setLast(s, node);
+      this.__touch(this.__segSucc(s));
+    } else {
+      // move "node" and the nodes before it to the previous segment
+      y = this.next(node);
+      x = this.__first(s);
+      for (;;) {
+        z = this.next(x);
+        this.__append(this.__segPred(s), x);
+        if (x == node) {
+          break;
+        }
+        x = z;
+      }
+      this.m_segSize[s] -= before;
+      this.__setFirst(s, y);
+      this.__touch(this.__segPred(s));
+    }
+    this.__touch(s);
+  }
+
+  /**
+   * Set the first node (in tour orientation) of a segment
+   *
+   * @param s
+   *          the segment
+   * @param node
+   *          the node
+   */
+  private final void __setFirst(final int s, final int node) {
+    if (this.__isReversed(s)) {
+      this.m_segLast[s] = node;
+      this.m_next[node - 1] = 0;
+    } else {
+      this.m_segFirst[s] = node;
+      this.m_prev[node - 1] = 0;
+    }
+  }
+
+  /**
+   * Set the last node (in tour orientation) of a segment
+   *
+   * @param s
+   *          the segment
+   * @param node
+   *          the node
+   */
+  private final void __setLast(final int s, final int node) {
+    if (this.__isReversed(s)) {
+      this.m_segFirst[s] = node;
+      this.m_prev[node - 1] = 0;
+    } else {
+      this.m_segLast[s] = node;
+      this.m_next[node - 1] = 0;
+    }
+  }
+
+  /**
+   * Append a node at the end (in tour orientation) of a segment
+   *
+   * @param s
+   *          the segment
+   * @param node
+   *          the node
+   */
+  private final void __append(final int s, final int node) {
+    final int idx;
+    int other;
+
+    idx = (node - 1);
+    if (this.__isReversed(s)) {
+      other = this.m_segFirst[s];
+      this.m_prev[other - 1] = node;
+      this.m_next[idx] = other;
+      this.m_prev[idx] = 0;
+      this.m_rank[idx] = (this.m_rank[other - 1] - 1);
+      this.m_segFirst[s] = node;
+    } else {
+      other = this.m_segLast[s];
+      this.m_next[other - 1] = node;
+      this.m_prev[idx] = other;
+      this.m_next[idx] = 0;
+      this.m_rank[idx] = (this.m_rank[other - 1] + 1);
+      this.m_segLast[s] = node;
+    }
+    this.m_segment[idx] = s;
+    this.m_segSize[s]++;
+    this.__checkRanks(s, this.m_rank[idx]);
+  }
+
+  /**
+   * Prepend a node at the start (in tour orientation) of a segment
+   *
+   * @param s
+   *          the segment
+   * @param node
+   *          the node
+   */
+  private final void __prepend(final int s, final int node) {
+    final int idx;
+    int other;
+
+    idx = (node - 1);
+    if (this.__isReversed(s)) {
+      other = this.m_segLast[s];
+      this.m_next[other - 1] = node;
+      this.m_prev[idx] = other;
+      this.m_next[idx] = 0;
+      this.m_rank[idx] = (this.m_rank[other - 1] + 1);
+      this.m_segLast[s] = node;
+    } else {
+      other = this.m_segFirst[s];
+      this.m_prev[other - 1] = node;
+      this.m_next[idx] = other;
+      this.m_prev[idx] = 0;
+      this.m_rank[idx] = (this.m_rank[other - 1] - 1);
+      this.m_segFirst[s] = node;
+    }
+    this.m_segment[idx] = s;
+    this.m_segSize[s]++;
+    this.__checkRanks(s, this.m_rank[idx]);
+  }
+
+  /**
+   * Renumber the nodes in a segment if the ranks come close to the
+   * boundaries of {@code int}.
+   *
+   * @param s
+   *          the segment
+   * @param rank
+   *          the rank of the last added node
+   */
+  private final void __checkRanks(final int s, final int rank) {
+    int node, r;
+
+    if ((rank > 0x3FFFFFFF) || (rank < -0x3FFFFFFF)) {
+      r = 0;
+      node = this.m_segFirst[s];
+      for (;;) {
+        this.m_rank[node - 1] = (r++);
+        if (node == this.m_segLast[s]) {
+          break;
+        }
+        node = this.m_next[node - 1];
+      }
+    }
+  }
+}
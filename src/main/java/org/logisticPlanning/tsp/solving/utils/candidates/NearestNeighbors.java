@@ -0,0 +1,185 @@
+package org.logisticPlanning.tsp.solving.utils.candidates;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+
+/**
+ * <p>
+ * The computation of the neighbor lists of a symmetric instance, i.e., of
+ * the {@code m} nearest other nodes of each node, ordered by their
+ * distance. In contrast to the {@link CandidateSet candidate set}, which
+ * sorts all {@code n-1} distances of each node, the distances of most
+ * pairs of nodes are never computed.
+ * </p>
+ * <p>
+ * The nodes are first placed in the plane and sorted into a
+ * {@link ProjectedGrid grid}. For each node, the {@link #PROJECTED_FACTOR
+ * k=}{@value #PROJECTED_FACTOR}{@code m} nodes nearest to it in the
+ * plane are found with the grid and only the real distances to these
+ * {@code k} nodes are computed, so about {@code 5n+kn} distance
+ * evaluations are needed. For Euclidean instances, the projection
+ * preserves the distances and the lists are the exact nearest neighbors.
+ * For other instances, they are the nearest ones among the nodes which
+ * are close in the projection. If {@code n} is so small that evaluating
+ * all {@code n(n-1)/2} distances is cheaper, the exact lists are computed
+ * from all distances instead.
+ * </p>
+ * <p>
+ * The lists are built by inserting the nodes into bounded sorted arrays
+ * of packed {@code long} keys and stored in flat arrays of length
+ * {@code n*m}: The neighbors of node {@code i} are at indices
+ * {@code (i-1)*m} to {@code i*m-1}, starting with the nearest one.
+ * </p>
+ */
+public final class NearestNeighbors {
+
+  /**
+   * the number of nodes nearest in the projection per neighbor of a node
+   * whose distance is computed: {@value}
+   */
+  public static final int PROJECTED_FACTOR = 3;
+
+  /** the forbidden constructor */
+  private NearestNeighbors() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Compute the neighbor lists of all nodes of a symmetric instance
+   *
+   * @param dist
+   *          the distance computer
+   * @param m
+   *          the number of neighbors per node, {@code 0<m<n}
+   * @param neighbors
+   *          the array of length {@code n*m} receiving the neighbors
+   * @param distances
+   *          the array of length {@code n*m} receiving the distances of
+   *          the nodes to their neighbors, or {@code null} if they are not
+   *          needed
+   */
+  public static final void compute(final DistanceComputer dist,
+      final int m, final int[] neighbors, final int[] distances) {
+    final int n, k;
+    final long[] keys;
+    int idx;
+
+    n = dist.n();
+    k = ((int) (Math.min((n - 1),
+        (((long) m) * NearestNeighbors.PROJECTED_FACTOR))));
+    keys = new long[n * m];
+
+    if (((((long) n) * (n - 1)) >>> 1) <= ((5L * n) + (((long) k) * n))) {
+      NearestNeighbors.__computeAll(dist, m, keys);
+    } else {
+      NearestNeighbors.__computeProjected(dist, m, k, keys);
+    }
+
+    for (idx = keys.length; (--idx) >= 0;) {
+      neighbors[idx] = ((int) (keys[idx]));
+      if (distances != null) {
+        distances[idx] = ((int) (keys[idx] >>> 32));
+      }
+    }
+  }
+
+  /**
+   * Compute the exact neighbor lists from the distances between all pairs
+   * of nodes
+   *
+   * @param dist
+   *          the distance computer
+   * @param m
+   *          the number of neighbors per node
+   * @param keys
+   *          the packed keys of the neighbors
+   */
+  private static final void __computeAll(final DistanceComputer dist,
+      final int m, final long[] keys) {
+    final int n;
+    final int[] counts;
+    int i, j;
+    long d;
+
+    n = dist.n();
+    counts = new int[n + 1];
+    for (i = 1; i < n; i++) {
+      for (j = (i + 1); j <= n; j++) {
+        d = (((long) (dist.distance(i, j))) << 32);
+        NearestNeighbors.__insert(keys, counts, m, i, (d | j));
+        NearestNeighbors.__insert(keys, counts, m, j, (d | i));
+      }
+    }
+  }
+
+  /**
+   * Compute the neighbor lists from the nodes nearest in the projection
+   *
+   * @param dist
+   *          the distance computer
+   * @param m
+   *          the number of neighbors per node
+   * @param k
+   *          the number of nodes nearest in the projection whose distance
+   *          is computed, {@code m<=k<n}
+   * @param keys
+   *          the packed keys of the neighbors
+   */
+  private static final void __computeProjected(final DistanceComputer dist,
+      final int m, final int k, final long[] keys) {
+    final ProjectedGrid grid;
+    final int[] counts, nearest;
+    final double[] distances;
+    int i, j, p;
+
+    grid = new ProjectedGrid(dist);
+    nearest = new int[k];
+    distances = new double[k];
+    counts = new int[dist.n() + 1];
+    for (i = dist.n(); i > 0; i--) {
+      // compute the real distances to the nodes nearest in the projection
+      for (p = grid.nearest(i, null, nearest, distances); (--p) >= 0;) {
+        j = nearest[p];
+        NearestNeighbors.__insert(keys, counts, m, i,
+            ((((long) (dist.distance(i, j))) << 32) | j));
+      }
+    }
+  }
+
+  /**
+   * Insert a node into the sorted neighbor list of another node if it is
+   * among the {@code m} nearest ones seen so far
+   *
+   * @param keys
+   *          the packed keys of the neighbors: the distance in the upper
+   *          and the neighbor in the lower 32 bits
+   * @param counts
+   *          the numbers of neighbors per node found so far
+   * @param m
+   *          the number of neighbors per node
+   * @param node
+   *          the node to whose list the neighbor should be added
+   * @param key
+   *          the packed key of the neighbor
+   */
+  private static final void __insert(final long[] keys, final int[] counts,
+      final int m, final int node, final long key) {
+    final int base;
+    int c, p;
+
+    base = ((node - 1) * m);
+    c = counts[node];
+    if (c >= m) {
+      if (key >= keys[(base + m) - 1]) {
+        return;
+      }
+      c = (m - 1);
+    } else {
+      counts[node] = (c + 1);
+    }
+
+    for (p = (base + c); (p > base) && (keys[p - 1] > key); p--) {
+      keys[p] = keys[p - 1];
+    }
+    keys[p] = key;
+  }
+}
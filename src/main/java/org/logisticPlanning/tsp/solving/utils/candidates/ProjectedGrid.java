@@ -0,0 +1,239 @@
+package org.logisticPlanning.tsp.solving.utils.candidates;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.solving.utils.FastMap;
+
+/**
+ * <p>
+ * A uniform grid over the
+ * {@link org.logisticPlanning.tsp.solving.utils.FastMap FastMap}
+ * projection of the nodes of a symmetric instance, which answers the
+ * question for the nodes nearest to a given node in the plane. The grid
+ * has square cells holding about two nodes each. Its construction needs
+ * the {@code 5(n-1)} distance evaluations of the projection and
+ * {@code O(n)} time, the queries need no distance evaluations at all.
+ * </p>
+ * <p>
+ * The nodes are sorted by their cells with a counting sort, so that the
+ * nodes of each cell lie consecutively in one flat array. A query scans
+ * the grid in rings of cells around the cell of the node until no cell
+ * outside of the scanned rings can contain a nearer node. Since the
+ * projection is only an approximation for non-Euclidean instances, the
+ * nodes found this way are candidates whose real distances must still be
+ * computed.
+ * </p>
+ */
+public final class ProjectedGrid {
+
+  /** the first coordinates of the nodes */
+  private final double[] m_x;
+
+  /** the second coordinates of the nodes */
+  private final double[] m_y;
+
+  /** the number of columns */
+  private final int m_cols;
+
+  /** the number of rows */
+  private final int m_rows;
+
+  /** the side length of a cell */
+  private final double m_cellSize;
+
+  /** the cell of each node */
+  private final int[] m_cellOf;
+
+  /**
+   * the start index of each cell in {@link #m_order}, followed by the
+   * total number of nodes
+   */
+  private final int[] m_start;
+
+  /** the nodes, sorted by their cells */
+  private final int[] m_order;
+
+  /**
+   * Project the nodes into the plane and build the grid
+   *
+   * @param dist
+   *          the distance computer
+   */
+  public ProjectedGrid(final DistanceComputer dist) {
+    super();
+
+    final int n, side;
+    final double[] x, y;
+    final int[] start, next, cellOf, order;
+    final double minX, minY, cellSize;
+    double maxX, maxY, lx, ly, span;
+    int i, c, cx, cy, cols, rows;
+
+    n = dist.n();
+    this.m_x = x = new double[n + 1];
+    this.m_y = y = new double[n + 1];
+    FastMap.embed(dist, x, y);
+
+    lx = ly = Double.POSITIVE_INFINITY;
+    maxX = maxY = Double.NEGATIVE_INFINITY;
+    for (i = n; i > 0; i--) {
+      lx = Math.min(lx, x[i]);
+      maxX = Math.max(maxX, x[i]);
+      ly = Math.min(ly, y[i]);
+      maxY = Math.max(maxY, y[i]);
+    }
+    minX = lx;
+    minY = ly;
+    side = Math.max(1, ((int) (Math.sqrt(n >>> 1))));
+    span = Math.max((maxX - minX), (maxY - minY));
+    this.m_cellSize = cellSize = ((span > 0d) ? (span / side) : 1d);
+    this.m_cols = cols = Math.min(side,
+        (1 + ((int) ((maxX - minX) / cellSize))));
+    this.m_rows = rows = Math.min(side,
+        (1 + ((int) ((maxY - minY) / cellSize))));
+
+    // sort the nodes by their cells: the nodes in cell c are
+    // order[start[c]..start[c+1]-1]
+    this.m_start = start = new int[(cols * rows) + 1];
+    this.m_cellOf = cellOf = new int[n + 1];
+    for (i = n; i > 0; i--) {
+      cx = Math.min((cols - 1), ((int) ((x[i] - minX) / cellSize)));
+      cy = Math.min((rows - 1), ((int) ((y[i] - minY) / cellSize)));
+      cellOf[i] = c = ((cy * cols) + cx);
+      start[c + 1]++;
+    }
+    for (c = 1; c < start.length; c++) {
+      start[c] += start[c - 1];
+    }
+    next = start.clone();
+    this.m_order = order = new int[n];
+    for (i = n; i > 0; i--) {
+      order[next[cellOf[i]]++] = i;
+    }
+  }
+
+  /**
+   * Find the nodes nearest to a given node in the projection, sorted by
+   * their projected distance
+   *
+   * @param node
+   *          the node
+   * @param groups
+   *          the group of each node, or {@code null}: If given, only nodes
+   *          of other groups than the group of {@code node} are
+   *          considered
+   * @param nearest
+   *          the array receiving the up to {@code nearest.length} nearest
+   *          nodes
+   * @param distances
+   *          an array of the same length as {@code nearest} receiving
+   *          their squared projected distances
+   * @return the number of nodes found, which is less than
+   *         {@code nearest.length} only if there are not enough nodes to
+   *         consider
+   */
+  public final int nearest(final int node, final int[] groups,
+      final int[] nearest, final double[] distances) {
+    final double[] x, y;
+    final int[] start, order;
+    final int cx, cy, cols, rows, k;
+    final double nx, ny;
+    double dx, dy, reach;
+    int j, c, r, p, col, row, found, fromCol, toCol, fromRow, toRow;
+
+    x = this.m_x;
+    y = this.m_y;
+    start = this.m_start;
+    order = this.m_order;
+    cols = this.m_cols;
+    rows = this.m_rows;
+    k = nearest.length;
+    nx = x[node];
+    ny = y[node];
+    cx = (this.m_cellOf[node] % cols);
+    cy = (this.m_cellOf[node] / cols);
+
+    found = 0;
+    for (r = 0;; r++) {
+      fromCol = (cx - r);
+      toCol = (cx + r);
+      fromRow = (cy - r);
+      toRow = (cy + r);
+      if ((fromCol < 0) && (fromRow < 0) && (toCol >= cols)
+          && (toRow >= rows)) {
+        return found; // the whole grid has been scanned
+      }
+
+      for (row = Math.max(0, fromRow); row <= Math.min((rows - 1),
+          toRow); row++) {
+        for (col = Math.max(0, fromCol); col <= Math.min((cols - 1),
+            toCol); col++) {
+          if ((row != fromRow) && (row != toRow) && (col != fromCol)
+              && (col != toCol)) {
+            continue; // an inner cell, which has already been scanned
+          }
+          c = ((row * cols) + col);
+          for (p = start[c]; p < start[c + 1]; p++) {
+            j = order[p];
+            if ((j != node)
+                && ((groups == null) || (groups[j] != groups[node]))) {
+              dx = (x[j] - nx);
+              dy = (y[j] - ny);
+              found = ProjectedGrid.__insert(nearest, distances, found,
+                  ((dx * dx) + (dy * dy)), j);
+            }
+          }
+        }
+      }
+
+      // all nodes outside of the scanned rings are at least r cells away
+      // from the node
+      if (found >= k) {
+        reach = (r * this.m_cellSize);
+        if (distances[k - 1] <= (reach * reach)) {
+          return found;
+        }
+      }
+    }
+  }
+
+  /**
+   * Insert a node into the sorted list of the nearest nodes, if it is
+   * among the {@code nearest.length} nearest ones seen so far
+   *
+   * @param nearest
+   *          the nodes in the list
+   * @param distances
+   *          the squared projected distances of the nodes in the list
+   * @param found
+   *          the number of nodes in the list
+   * @param d2
+   *          the squared projected distance of the node
+   * @param node
+   *          the node
+   * @return the new number of nodes in the list
+   */
+  private static final int __insert(final int[] nearest,
+      final double[] distances, final int found, final double d2,
+      final int node) {
+    int c, p, res;
+
+    c = found;
+    res = found;
+    if (c >= nearest.length) {
+      if (d2 >= distances[c - 1]) {
+        return res;
+      }
+      c--;
+    } else {
+      res++;
+    }
+
+    for (p = c; (p > 0) && (distances[p - 1] > d2); p--) {
+      distances[p] = distances[p - 1];
+      nearest[p] = nearest[p - 1];
+    }
+    distances[p] = d2;
+    nearest[p] = node;
+    return res;
+  }
+}
@@ -0,0 +1,334 @@
+package org.logisticPlanning.tsp.solving.utils.candidates;
+
+import java.util.Arrays;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+
+/**
+ * <p>
+ * The set of unvisited nodes of a tour under construction, which can
+ * answer the question for the nearest unvisited node of any node without
+ * scanning all unvisited nodes. Since only the distances but not the
+ * coordinates of the nodes are available, a spatial index such as a
+ * k-d tree cannot be built. Instead, a few pivot nodes are chosen and
+ * the distances of all nodes to them are computed once. For a metric
+ * instance, the triangle inequality yields
+ * {@code d(i,j)>=|d(p,i)-d(p,j)|} for any pivot {@code p}, i.e., a lower
+ * bound for each distance which can be computed without any distance
+ * evaluation.
+ * </p>
+ * <p>
+ * The nodes are sorted by their distance to the first pivot and the
+ * unvisited ones are kept in a doubly-linked list in this order, from
+ * which they can be removed in constant time. A search starts at the
+ * position of the query node and walks outwards in both directions,
+ * always continuing with the side closer in the order, until the bound
+ * of the first pivot alone exceeds the best distance found. A distance
+ * is only evaluated if the bounds of all pivots do not exclude a node.
+ * </p>
+ * <p>
+ * The bounds are relaxed by {@link #SLACK} to account for the rounding of
+ * the distances in the benchmark instances. For instances which violate
+ * the triangle inequality more strongly, the node returned may not be
+ * the nearest one, but it is always an unvisited node.
+ * </p>
+ * <p>
+ * The pivot distances and the order are computed by
+ * {@link #UnvisitedNodes(DistanceComputer, int)} and can be shared by
+ * several instances created with {@link #UnvisitedNodes(UnvisitedNodes)},
+ * e.g., one per thread.
+ * </p>
+ */
+public final class UnvisitedNodes {
+
+  /** the default number of pivots: {@value} */
+  public static final int DEFAULT_PIVOTS = 4;
+
+  /**
+   * the amount by which the lower bounds are relaxed to account for the
+   * rounding of distances: {@value}
+   */
+  public static final int SLACK = 2;
+
+  /** the number of nodes */
+  private final int m_n;
+
+  /** the number of pivots */
+  private final int m_pivots;
+
+  /** the nodes, sorted by their distance to the first pivot */
+  private final int[] m_order;
+
+  /** the ranks of the nodes, i.e., their index in {@link #m_order} plus 1 */
+  private final int[] m_rank;
+
+  /**
+   * the distances of the nodes to the pivots: the distances of the node
+   * of rank {@code r} are at indices {@code r*pivots} to
+   * {@code (r+1)*pivots-1}
+   */
+  private final int[] m_pivotDist;
+
+  /**
+   * the previous unvisited rank of each rank, {@code 0} is the lower
+   * sentinel
+   */
+  private final int[] m_prev;
+
+  /**
+   * the next unvisited rank of each rank, {@code n+1} is the upper
+   * sentinel
+   */
+  private final int[] m_next;
+
+  /** has the node of a rank been visited? */
+  private final boolean[] m_visited;
+
+  /** the number of unvisited nodes */
+  private int m_size;
+
+  /**
+   * Create the set of unvisited nodes. The pivots are chosen by a
+   * farthest-first traversal, which needs {@code (pivots+1)(n-1)}
+   * distance evaluations.
+   *
+   * @param dist
+   *          the distance computer
+   * @param pivots
+   *          the number of pivots
+   */
+  public UnvisitedNodes(final DistanceComputer dist, final int pivots) {
+    super();
+
+    final int n, p;
+    final int[] minDist, pd, order;
+    final long[] keys;
+    int i, j, pivot, current, d, best;
+
+    n = dist.n();
+    p = Math.max(1, Math.min(pivots, n));
+    this.m_n = n;
+    this.m_pivots = p;
+
+    // choose the pivots: the first pivot is the node farthest from node
+    // 1, each following pivot the node farthest from all pivots so far
+    minDist = new int[n + 1];
+    Arrays.fill(minDist, Integer.MAX_VALUE);
+    pivot = 1;
+    best = (-1);
+    for (i = n; i > 1; i--) {
+      d = dist.distance(1, i);
+      if (d > best) {
+        best = d;
+        pivot = i;
+      }
+    }
+
+    pd = new int[(n + 2) * p];
+    for (j = 0; j < p; j++) {
+      best = (-1);
+      current = pivot;
+      for (i = n; i > 0; i--) {
+        d = ((i == current) ? 0 : dist.distance(current, i));
+        pd[(i * p) + j] = d;
+        if (d < minDist[i]) {
+          minDist[i] = d;
+        }
+        if (minDist[i] > best) {
+          best = minDist[i];
+          pivot = i;
+        }
+      }
+    }
+
+    // sort the nodes by their distance to the first pivot
+    keys = new long[n];
+    for (i = n; i > 0; i--) {
+      keys[i - 1] = ((((long) (pd[i * p])) << 32) | i);
+    }
+    Arrays.sort(keys);
+
+    this.m_order = order = new int[n + 2];
+    this.m_rank = new int[n + 1];
+    this.m_pivotDist = new int[(n + 2) * p];
+    for (i = n; i > 0; i--) {
+      order[i] = j = ((int) (keys[i - 1]));
+      this.m_rank[j] = i;
+      System.arraycopy(pd, (j * p), this.m_pivotDist, (i * p), p);
+    }
+
+    this.m_prev = new int[n + 2];
+    this.m_next = new int[n + 2];
+    this.m_visited = new boolean[n + 2];
+    this.reset();
+  }
+
+  /**
+   * Create a set of unvisited nodes sharing the pivot distances of
+   * another one, which is not changed
+   *
+   * @param copy
+   *          the set to copy
+   */
+  public UnvisitedNodes(final UnvisitedNodes copy) {
+    super();
+
+    final int n;
+
+    this.m_n = n = copy.m_n;
+    this.m_pivots = copy.m_pivots;
+    this.m_order = copy.m_order;
+    this.m_rank = copy.m_rank;
+    this.m_pivotDist = copy.m_pivotDist;
+    this.m_prev = new int[n + 2];
+    this.m_next = new int[n + 2];
+    this.m_visited = new boolean[n + 2];
+    this.reset();
+  }
+
+  /** mark all nodes as unvisited */
+  public final void reset() {
+    final int n;
+    final int[] prev, next;
+    int i;
+
+    n = this.m_n;
+    prev = this.m_prev;
+    next = this.m_next;
+    for (i = (n + 1); (--i) >= 0;) {
+      next[i] = (i + 1);
+      prev[i + 1] = i;
+    }
+    Arrays.fill(this.m_visited, false);
+    this.m_size = n;
+  }
+
+  /**
+   * Get the number of unvisited nodes
+   *
+   * @return the number of unvisited nodes
+   */
+  public final int size() {
+    return this.m_size;
+  }
+
+  /**
+   * Has a node not been visited yet?
+   *
+   * @param node
+   *          the node
+   * @return {@code true} if the node has not been visited yet,
+   *         {@code false} otherwise
+   */
+  public final boolean contains(final int node) {
+    return (!(this.m_visited[this.m_rank[node]]));
+  }
+
+  /**
+   * Mark a node as visited
+   *
+   * @param node
+   *          the node, which must not have been visited yet
+   */
+  public final void remove(final int node) {
+    final int r, p, q;
+
+    r = this.m_rank[node];
+    this.m_visited[r] = true;
+    p = this.m_prev[r];
+    q = this.m_next[r];
+    this.m_next[p] = q;
+    this.m_prev[q] = p;
+    this.m_size--;
+  }
+
+  /**
+   * Find the unvisited node nearest to a given node, which may be visited
+   * or not
+   *
+   * @param dist
+   *          the distance computer
+   * @param node
+   *          the node
+   * @return the distance in the upper and the nearest node in the lower 32
+   *         bits, or {@code -1} if all nodes have been visited
+   */
+  public final long nearest(final DistanceComputer dist, final int node) {
+    final int n, p, r, base, top;
+    final int[] prev, next, pd, order;
+    final boolean[] visited;
+    int lo, hi, v, i, j, bestNode, diff, bound;
+    long best, dl, dh, d;
+
+    n = this.m_n;
+    p = this.m_pivots;
+    prev = this.m_prev;
+    next = this.m_next;
+    pd = this.m_pivotDist;
+    order = this.m_order;
+    visited = this.m_visited;
+    top = (n + 1);
+
+    // find the unvisited neighbors of the rank of the node: the links of a
+    // visited rank point into the right direction, but may lead to ranks
+    // visited later, so we follow them and shorten them
+    r = this.m_rank[node];
+    lo = prev[r];
+    while (visited[lo]) {
+      lo = prev[lo];
+    }
+    hi = next[r];
+    while (visited[hi]) {
+      hi = next[hi];
+    }
+    if (visited[r]) {
+      prev[r] = lo;
+      next[r] = hi;
+    }
+
+    base = (r * p);
+    best = Long.MAX_VALUE;
+    bestNode = (-1);
+    while ((lo > 0) || (hi < top)) {
+      dl = ((lo > 0) ? (pd[base] - pd[lo * p]) : Long.MAX_VALUE);
+      dh = ((hi < top) ? (pd[hi * p] - pd[base]) : Long.MAX_VALUE);
+      if (dl <= dh) {
+        if ((dl - UnvisitedNodes.SLACK) >= best) {
+          break;
+        }
+        v = lo;
+        lo = prev[lo];
+      } else {
+        if ((dh - UnvisitedNodes.SLACK) >= best) {
+          break;
+        }
+        v = hi;
+        hi = next[hi];
+      }
+
+      // check the bounds of the other pivots
+      j = (v * p);
+      for (i = 1; i < p; i++) {
+        diff = (pd[base + i] - pd[j + i]);
+        bound = (((diff < 0) ? (-diff) : diff) - UnvisitedNodes.SLACK);
+        if (bound >= best) {
+          break;
+        }
+      }
+      if (i < p) {
+        continue;
+      }
+
+      d = dist.distance(node, order[v]);
+      if (d < best) {
+        best = d;
+        bestNode = order[v];
+      }
+    }
+
+    if (bestNode < 0) {
+      return (-1L);
+    }
+    return ((best << 32) | bestNode);
+  }
+}
@@ -1,5 +1,10 @@
 /**
- * A candidate list implementation.
+ * A candidate list implementation, the computation of
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors
+ * nearest neighbor lists}, and a
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.UnvisitedNodes
+ * set of unvisited nodes} which can find the nearest unvisited node of a
+ * node.
  */
 package org.logisticPlanning.tsp.solving.utils.candidates;
 
@@ -1,7 +1,14 @@
 package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
 
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK;
+import org.logisticPlanning.utils.NamedObject;
 
+import test.junit.TempDir;
 import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
 
 /**
@@ -19,4 +26,75 @@ public class BAB_HKTest extends TSPAlgorithmSymmetricTest {
   protected BAB_HK createAlgorithm() {
     return new BAB_HK();
   }
+
+  /**
+   * Solve an instance without limit on the computational budget and check
+   * whether the optimal tour is found. The nodes taken from the queue are
+   * warm-started from the pi of their parents, which must not affect the
+   * exactness of the search.
+   *
+   * @param inst
+   *          the instance
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  private final void __testOptimum(final Instance inst) throws Throwable {
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final BAB_HK algo;
+    final int[] tour;
+    final long length;
+
+    tour = new int[inst.n()];
+    algo = this.createAlgorithm();
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = new Benchmark(tempDir.getDir(), inst);
+      bm.setMaxDEs(Long.MAX_VALUE);
+      bm.setMaxFEs(Long.MAX_VALUE);
+      bm.setMaxRuntime(Long.MAX_VALUE);
+      f = bm.createObjective();
+
+      f.beginRun(new NamedObject("optimumTest")); //$NON-NLS-1$
+      try {
+        algo.beginRun(f);
+        try {
+          algo.solve(f);
+        } finally {
+          algo.endRun(f);
+        }
+        f.getCopyOfBest(tour);
+        length = f.evaluate(tour);
+      } finally {
+        f.endRun();
+      }
+    }
+
+    Assert.assertEquals(inst.optimum(), length);
+  }
+
+  /**
+   * solve {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#GR24}
+   * to optimality
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testOptimum_GR24() throws Throwable {
+    this.__testOptimum(Instance.GR24);
+  }
+
+  /**
+   * solve {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#GR48}
+   * to optimality: here, the dive is pruned several times and nodes must
+   * be taken from the queue and warm-started from the pi of their parents
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testOptimum_GR48() throws Throwable {
+    this.__testOptimum(Instance.GR48);
+  }
 }
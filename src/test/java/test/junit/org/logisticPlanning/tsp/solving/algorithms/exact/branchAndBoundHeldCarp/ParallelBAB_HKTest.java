@@ -0,0 +1,23 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
+
+import org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.ParallelBAB_HK;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the parallel Branch-and-Bound algorithm with Held-Karp
+ * relaxation
+ */
+public class ParallelBAB_HKTest extends TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public ParallelBAB_HKTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ParallelBAB_HK createAlgorithm() {
+    return new ParallelBAB_HK();
+  }
+}
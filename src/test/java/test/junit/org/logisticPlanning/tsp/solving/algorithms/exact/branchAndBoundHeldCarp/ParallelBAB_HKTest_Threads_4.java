@@ -0,0 +1,24 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp;
+
+import org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.ParallelBAB_HK;
+
+/**
+ * the test of the parallel Branch-and-Bound algorithm with Held-Karp
+ * relaxation and four threads
+ */
+public class ParallelBAB_HKTest_Threads_4 extends ParallelBAB_HKTest {
+
+  /** create */
+  public ParallelBAB_HKTest_Threads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ParallelBAB_HK createAlgorithm() {
+    final ParallelBAB_HK bab;
+    bab = super.createAlgorithm();
+    bab.setThreadCount(4);
+    return bab;
+  }
+}
@@ -0,0 +1,132 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming.HeldKarpDP;
+import org.logisticPlanning.utils.NamedObject;
+
+import test.junit.TempDir;
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmAsymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming.HeldKarpDP
+ * Held-Karp dynamic programming} algorithm.
+ */
+public class HeldKarpDPTest extends TSPAlgorithmAsymmetricTest {
+
+  /** create */
+  public HeldKarpDPTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected HeldKarpDP createAlgorithm() {
+    return new HeldKarpDP();
+  }
+
+  /**
+   * Solve an instance without limit on the computational budget and check
+   * whether the optimal tour is found
+   *
+   * @param inst
+   *          the instance
+   * @param maxN
+   *          the maximum number of nodes for which the table is built
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  private final void __testOptimum(final Instance inst, final int maxN)
+      throws Throwable {
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final HeldKarpDP algo;
+    final int[] tour;
+    final long length;
+
+    tour = new int[inst.n()];
+    algo = this.createAlgorithm();
+    algo.setMaxN(maxN);
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = new Benchmark(tempDir.getDir(), inst);
+      bm.setMaxDEs(Long.MAX_VALUE);
+      bm.setMaxFEs(Long.MAX_VALUE);
+      bm.setMaxRuntime(Long.MAX_VALUE);
+      f = bm.createObjective();
+
+      f.beginRun(new NamedObject("optimumTest")); //$NON-NLS-1$
+      try {
+        algo.beginRun(f);
+        try {
+          algo.solve(f);
+        } finally {
+          algo.endRun(f);
+        }
+        f.getCopyOfBest(tour);
+        length = f.evaluate(tour);
+      } finally {
+        f.endRun();
+      }
+    }
+
+    Assert.assertEquals(inst.optimum(), length);
+  }
+
+  /**
+   * The table of
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#GR24}
+   * is just below the default limit and must yield the optimum.
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testOptimum_GR24() throws Throwable {
+    this.__testOptimum(Instance.GR24, HeldKarpDP.DEFAULT_MAX_N);
+  }
+
+  /**
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#BAYG29}
+   * is above the limit and must be solved to optimality by the exact
+   * fallback algorithm.
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testOptimum_BAYG29() throws Throwable {
+    this.__testOptimum(Instance.BAYG29, HeldKarpDP.MAX_MAX_N);
+  }
+
+  /**
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#FRI26}
+   * is below the largest limit, but its table needs 3.3&nbsp;GB: Unless
+   * the heap is large enough, it must be solved to optimality by the
+   * exact fallback algorithm instead of failing.
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testOptimum_FRI26_MaxN_27() throws Throwable {
+    this.__testOptimum(Instance.FRI26, HeldKarpDP.MAX_MAX_N);
+  }
+
+  /**
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#BR17}
+   * is above a small limit and must be solved to optimality by the exact
+   * fallback algorithm for asymmetric instances.
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testOptimum_BR17_Fallback() throws Throwable {
+    this.__testOptimum(Instance.BR17, 10);
+  }
+}
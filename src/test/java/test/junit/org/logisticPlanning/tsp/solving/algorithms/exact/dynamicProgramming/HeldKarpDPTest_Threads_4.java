@@ -0,0 +1,25 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming;
+
+import org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming.HeldKarpDP;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming.HeldKarpDP
+ * Held-Karp dynamic programming} algorithm with four threads.
+ */
+public class HeldKarpDPTest_Threads_4 extends HeldKarpDPTest {
+
+  /** create */
+  public HeldKarpDPTest_Threads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected HeldKarpDP createAlgorithm() {
+    final HeldKarpDP algo;
+    algo = super.createAlgorithm();
+    algo.setThreadCount(4);
+    return algo;
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Tests for the dynamic programming algorithm from package
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming}
+ * .
+ */
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.dynamicProgramming;
+
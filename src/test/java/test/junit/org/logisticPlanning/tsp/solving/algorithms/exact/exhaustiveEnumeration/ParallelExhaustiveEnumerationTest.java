@@ -0,0 +1,25 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration;
+
+import org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ParallelExhaustiveEnumeration;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmAsymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ParallelExhaustiveEnumeration
+ * parallel exhaustive enumeration} algorithm.
+ */
+public class ParallelExhaustiveEnumerationTest extends
+    TSPAlgorithmAsymmetricTest {
+
+  /** create */
+  public ParallelExhaustiveEnumerationTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ParallelExhaustiveEnumeration createAlgorithm() {
+    return new ParallelExhaustiveEnumeration();
+  }
+}
@@ -0,0 +1,27 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration;
+
+import org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ParallelExhaustiveEnumeration;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.exhaustiveEnumeration.ParallelExhaustiveEnumeration
+ * parallel exhaustive enumeration} algorithm with four threads.
+ */
+public class ParallelExhaustiveEnumerationTest_Threads_4 extends
+    ParallelExhaustiveEnumerationTest {
+
+  /** create */
+  public ParallelExhaustiveEnumerationTest_Threads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ParallelExhaustiveEnumeration createAlgorithm() {
+    final ParallelExhaustiveEnumeration algo;
+
+    algo = super.createAlgorithm();
+    algo.setThreadCount(4);
+    return algo;
+  }
+}
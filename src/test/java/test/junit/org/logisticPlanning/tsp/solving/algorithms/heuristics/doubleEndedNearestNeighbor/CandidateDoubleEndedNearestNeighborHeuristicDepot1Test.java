@@ -0,0 +1,26 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.CandidateDoubleEndedNearestNeighborHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the candidate list double-ended nearest neighbor heuristic
+ */
+public class CandidateDoubleEndedNearestNeighborHeuristicDepot1Test extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public CandidateDoubleEndedNearestNeighborHeuristicDepot1Test() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected CandidateDoubleEndedNearestNeighborHeuristic createAlgorithm() {
+    CandidateDoubleEndedNearestNeighborHeuristic h;
+    h = new CandidateDoubleEndedNearestNeighborHeuristic();
+    h.setUseRandomDepot(false);
+    return h;
+  }
+}
@@ -0,0 +1,24 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.CandidateDoubleEndedNearestNeighborHeuristic;
+
+/**
+ * the test of the candidate list double-ended nearest neighbor heuristic
+ */
+public class CandidateDoubleEndedNearestNeighborHeuristicRandomDepotTest extends
+    CandidateDoubleEndedNearestNeighborHeuristicDepot1Test {
+
+  /** create */
+  public CandidateDoubleEndedNearestNeighborHeuristicRandomDepotTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected CandidateDoubleEndedNearestNeighborHeuristic createAlgorithm() {
+    CandidateDoubleEndedNearestNeighborHeuristic h;
+    h = new CandidateDoubleEndedNearestNeighborHeuristic();
+    h.setUseRandomDepot(true);
+    return h;
+  }
+}
@@ -0,0 +1,23 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.IteratedCandidateDoubleEndedNearestNeighborHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the iterated candidate list double-ended nearest neighbor heuristic
+ */
+public class IteratedCandidateDoubleEndedNearestNeighborHeuristicTest extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public IteratedCandidateDoubleEndedNearestNeighborHeuristicTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected IteratedCandidateDoubleEndedNearestNeighborHeuristic createAlgorithm() {
+    return new IteratedCandidateDoubleEndedNearestNeighborHeuristic();
+  }
+}
@@ -0,0 +1,26 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.IteratedCandidateDoubleEndedNearestNeighborHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the iterated candidate list double-ended nearest neighbor heuristic with 4 threads
+ */
+public class IteratedCandidateDoubleEndedNearestNeighborHeuristicTest_Threads_4 extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public IteratedCandidateDoubleEndedNearestNeighborHeuristicTest_Threads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected IteratedCandidateDoubleEndedNearestNeighborHeuristic createAlgorithm() {
+    final IteratedCandidateDoubleEndedNearestNeighborHeuristic h;
+    h = new IteratedCandidateDoubleEndedNearestNeighborHeuristic();
+    h.setThreadCount(4);
+    return h;
+  }
+}
@@ -0,0 +1,25 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy.CandidateEdgeGreedyHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.edgeGreedy.CandidateEdgeGreedyHeuristic
+ * candidate edge greedy heuristic}.
+ */
+public class CandidateEdgeGreedyHeuristicTest extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public CandidateEdgeGreedyHeuristicTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected CandidateEdgeGreedyHeuristic createAlgorithm() {
+    return new CandidateEdgeGreedyHeuristic();
+  }
+}
@@ -0,0 +1,24 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.mst;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.SparseMSTHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.SparseMSTHeuristic
+ * sparse MST heuristic}.
+ */
+public class SparseMSTHeuristicTest extends TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public SparseMSTHeuristicTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected SparseMSTHeuristic createAlgorithm() {
+    return new SparseMSTHeuristic();
+  }
+}
@@ -0,0 +1,30 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.mst;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.SparseMSTHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.SparseMSTHeuristic
+ * sparse MST heuristic} on the complete graph, i.e., with Prim's
+ * algorithm.
+ */
+public class SparseMSTHeuristicTest_Neighbors_0 extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public SparseMSTHeuristicTest_Neighbors_0() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected SparseMSTHeuristic createAlgorithm() {
+    final SparseMSTHeuristic h;
+
+    h = new SparseMSTHeuristic();
+    h.setNeighborCount(0);
+    return h;
+  }
+}
@@ -0,0 +1,30 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.mst;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.SparseMSTHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.SparseMSTHeuristic
+ * sparse MST heuristic} on the graph of the {@code 2} nearest neighbors
+ * of each node.
+ */
+public class SparseMSTHeuristicTest_Neighbors_2 extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public SparseMSTHeuristicTest_Neighbors_2() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected SparseMSTHeuristic createAlgorithm() {
+    final SparseMSTHeuristic h;
+
+    h = new SparseMSTHeuristic();
+    h.setNeighborCount(2);
+    return h;
+  }
+}
@@ -0,0 +1,26 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.CandidateNearestNeighborHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the candidate list nearest neighbor heuristic
+ */
+public class CandidateNearestNeighborHeuristicDepot1Test extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public CandidateNearestNeighborHeuristicDepot1Test() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected CandidateNearestNeighborHeuristic createAlgorithm() {
+    CandidateNearestNeighborHeuristic h;
+    h = new CandidateNearestNeighborHeuristic();
+    h.setUseRandomDepot(false);
+    return h;
+  }
+}
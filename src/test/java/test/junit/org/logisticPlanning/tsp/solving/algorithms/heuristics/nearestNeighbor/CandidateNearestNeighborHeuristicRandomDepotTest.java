@@ -0,0 +1,24 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.CandidateNearestNeighborHeuristic;
+
+/**
+ * the test of the candidate list nearest neighbor heuristic
+ */
+public class CandidateNearestNeighborHeuristicRandomDepotTest extends
+    CandidateNearestNeighborHeuristicDepot1Test {
+
+  /** create */
+  public CandidateNearestNeighborHeuristicRandomDepotTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected CandidateNearestNeighborHeuristic createAlgorithm() {
+    CandidateNearestNeighborHeuristic h;
+    h = new CandidateNearestNeighborHeuristic();
+    h.setUseRandomDepot(true);
+    return h;
+  }
+}
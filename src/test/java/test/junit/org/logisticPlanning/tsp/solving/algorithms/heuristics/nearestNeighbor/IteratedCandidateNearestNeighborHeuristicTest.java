@@ -0,0 +1,23 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.IteratedCandidateNearestNeighborHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the iterated candidate list nearest neighbor heuristic
+ */
+public class IteratedCandidateNearestNeighborHeuristicTest extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public IteratedCandidateNearestNeighborHeuristicTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected IteratedCandidateNearestNeighborHeuristic createAlgorithm() {
+    return new IteratedCandidateNearestNeighborHeuristic();
+  }
+}
@@ -0,0 +1,26 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.IteratedCandidateNearestNeighborHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the iterated candidate list nearest neighbor heuristic with 4 threads
+ */
+public class IteratedCandidateNearestNeighborHeuristicTest_Threads_4 extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public IteratedCandidateNearestNeighborHeuristicTest_Threads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected IteratedCandidateNearestNeighborHeuristic createAlgorithm() {
+    final IteratedCandidateNearestNeighborHeuristic h;
+    h = new IteratedCandidateNearestNeighborHeuristic();
+    h.setThreadCount(4);
+    return h;
+  }
+}
@@ -0,0 +1,26 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.savings;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.NeighborListSavingsHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the neighbor list savings heuristic
+ */
+public class NeighborListSavingsHeuristicDepot1Test extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public NeighborListSavingsHeuristicDepot1Test() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected NeighborListSavingsHeuristic createAlgorithm() {
+    NeighborListSavingsHeuristic h;
+    h = new NeighborListSavingsHeuristic();
+    h.setUseRandomDepot(false);
+    return h;
+  }
+}
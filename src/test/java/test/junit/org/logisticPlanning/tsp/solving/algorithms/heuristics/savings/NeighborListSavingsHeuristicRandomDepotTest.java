@@ -0,0 +1,24 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.savings;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.savings.NeighborListSavingsHeuristic;
+
+/**
+ * the test of the neighbor list savings heuristic
+ */
+public class NeighborListSavingsHeuristicRandomDepotTest extends
+    NeighborListSavingsHeuristicDepot1Test {
+
+  /** create */
+  public NeighborListSavingsHeuristicRandomDepotTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected NeighborListSavingsHeuristic createAlgorithm() {
+    NeighborListSavingsHeuristic h;
+    h = new NeighborListSavingsHeuristic();
+    h.setUseRandomDepot(true);
+    return h;
+  }
+}
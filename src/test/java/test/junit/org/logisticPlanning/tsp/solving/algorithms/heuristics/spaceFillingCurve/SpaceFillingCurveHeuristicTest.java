@@ -0,0 +1,25 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve.SpaceFillingCurveHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve.SpaceFillingCurveHeuristic
+ * space-filling curve heuristic}.
+ */
+public class SpaceFillingCurveHeuristicTest extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public SpaceFillingCurveHeuristicTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected SpaceFillingCurveHeuristic createAlgorithm() {
+    return new SpaceFillingCurveHeuristic();
+  }
+}
@@ -0,0 +1,29 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve;
+
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve.SpaceFillingCurveHeuristic;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * The test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve.SpaceFillingCurveHeuristic
+ * space-filling curve heuristic} without the greedy insertion.
+ */
+public class SpaceFillingCurveHeuristicTest_Window_0 extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public SpaceFillingCurveHeuristicTest_Window_0() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected SpaceFillingCurveHeuristic createAlgorithm() {
+    final SpaceFillingCurveHeuristic h;
+
+    h = new SpaceFillingCurveHeuristic();
+    h.setInsertionWindow(0);
+    return h;
+  }
+}
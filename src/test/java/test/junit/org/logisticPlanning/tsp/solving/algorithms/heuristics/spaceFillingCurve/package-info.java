@@ -0,0 +1,6 @@
+/**
+ * Tests for the space-filling curve heuristic given in package
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve}
+ * .
+ */
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.heuristics.spaceFillingCurve;
@@ -0,0 +1,173 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.Individual;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.orOpt.OrOpt;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationRNS;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationVNS;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
+import org.logisticPlanning.tsp.solving.operators.permutation.perturbation.PathShufflePerturbation;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.TempDir;
+import test.junit.org.logisticPlanning.tsp.solving.utils.TourValidatorTestBase;
+
+/**
+ * Test the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm#localSearch(Individual, ObjectiveFunction, int[], int)
+ * local search starting at the dirty nodes} of a perturbed local optimum:
+ * It must yield a valid tour with the correct length which is not longer
+ * than the perturbed one. If the local search exhaustively scans all
+ * moves touching the dirty nodes, the local search over the whole tour
+ * must not be able to improve this tour anymore. This does not hold for
+ * local searches with don't-look bits, which only look at the nodes of
+ * changed edges again.
+ */
+public class DirtyNodesLocalSearchTest extends TourValidatorTestBase {
+
+  /** the number of perturbations to test per local search */
+  private static final int PERTURBATIONS = 20;
+
+  /** create */
+  public DirtyNodesLocalSearchTest() {
+    super();
+  }
+
+  /**
+   * Compare the local search starting at the dirty nodes with the full
+   * local search
+   *
+   * @param algo
+   *          the local search
+   * @param inst
+   *          the instance
+   * @param exhaustive
+   *          does the local search exhaustively scan all moves, i.e.,
+   *          must the local search starting at the dirty nodes yield a
+   *          local optimum of the full local search?
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  private final void __test(final TSPLocalSearchAlgorithm<int[]> algo,
+      final Instance inst, final boolean exhaustive) throws Throwable {
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final PathShufflePerturbation perturbation;
+    final Individual<int[]> optimum, dirtySearch, fullSearch;
+    final Randomizer r;
+    final int[] dirty;
+    final int n;
+    int i, dirtyCount;
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = new Benchmark(tempDir.getDir(), inst);
+      bm.setMaxDEs(Long.MAX_VALUE);
+      bm.setMaxFEs(Long.MAX_VALUE);
+      bm.setMaxRuntime(Long.MAX_VALUE);
+      f = bm.createObjective();
+
+      n = inst.n();
+      r = new Randomizer();
+      dirty = new int[n];
+      optimum = new Individual<>();
+      dirtySearch = new Individual<>();
+      fullSearch = new Individual<>();
+      perturbation = new PathShufflePerturbation();
+
+      f.beginRun(new NamedObject("dirtyNodesTest")); //$NON-NLS-1$
+      try {
+        algo.beginRun(f);
+        perturbation.beginRun(f);
+        try {
+          optimum.solution = PermutationCreateUniform.create(n, r);
+          optimum.tourLength = f.evaluate(optimum.solution);
+          algo.localSearch(optimum, f);
+
+          for (i = DirtyNodesLocalSearchTest.PERTURBATIONS; (--i) >= 0;) {
+            perturbation.pertube(optimum, f);
+            dirtyCount = perturbation.getDirtyNodes(optimum, dirty);
+            Assert.assertTrue(dirtyCount >= 0);
+
+            dirtySearch.solution = optimum.solution.clone();
+            dirtySearch.tourLength = optimum.tourLength;
+            algo.localSearch(dirtySearch, f, dirty, dirtyCount);
+            Assert.assertFalse(f.shouldTerminate());
+
+            Assert.assertEquals(this.validatePath(dirtySearch.solution, f),
+                dirtySearch.tourLength);
+            Assert.assertTrue(dirtySearch.tourLength <= optimum.tourLength);
+            if (exhaustive) {
+              // the result must be a local optimum of the full local
+              // search
+              fullSearch.solution = dirtySearch.solution.clone();
+              fullSearch.tourLength = dirtySearch.tourLength;
+              algo.localSearch(fullSearch, f);
+              Assert.assertEquals(dirtySearch.tourLength,
+                  fullSearch.tourLength);
+            }
+
+            // continue from the new local optimum
+            optimum.solution = dirtySearch.solution;
+            optimum.tourLength = dirtySearch.tourLength;
+          }
+        } finally {
+          perturbation.endRun(f);
+          algo.endRun(f);
+        }
+      } finally {
+        f.endRun();
+      }
+    }
+  }
+
+  /**
+   * test the multi-neighborhood search
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testMultiNeighborhoodSearch() throws Throwable {
+    this.__test(new MultiNeighborhoodSearch(), Instance.RD100, true);
+  }
+
+  /**
+   * test the variable neighborhood search
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testPermutationVNS() throws Throwable {
+    this.__test(new PermutationVNS(), Instance.RD100, true);
+  }
+
+  /**
+   * test the random neighborhood search
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testPermutationRNS() throws Throwable {
+    this.__test(new PermutationRNS(), Instance.RD100, true);
+  }
+
+  /**
+   * test the Or-opt local search
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testOrOpt() throws Throwable {
+    this.__test(new OrOpt(), Instance.RD100, false);
+  }
+}
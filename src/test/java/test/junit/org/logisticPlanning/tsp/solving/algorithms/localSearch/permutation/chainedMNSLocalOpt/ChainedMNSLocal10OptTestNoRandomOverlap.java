@@ -0,0 +1,26 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.chainedMNSLocalOpt;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.chainedMNSLocalOpt.ChainedMNSLocalNOpt;
+import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.DynamicProgrammingLocalOptimizer;
+
+/**
+ * the test of the local 10-opt algorithm based on dynamic programming
+ */
+public class ChainedMNSLocal10OptTestNoRandomOverlap extends
+    ChainedMNSLocalNOptTestNoRandomOverlap {
+
+  /** create */
+  public ChainedMNSLocal10OptTestNoRandomOverlap() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ChainedMNSLocalNOpt createAlgorithm() {
+    final ChainedMNSLocalNOpt algo;
+
+    algo = super.createAlgorithm();
+    algo.setLocalOptimizer(new DynamicProgrammingLocalOptimizer(10));
+    return algo;
+  }
+}
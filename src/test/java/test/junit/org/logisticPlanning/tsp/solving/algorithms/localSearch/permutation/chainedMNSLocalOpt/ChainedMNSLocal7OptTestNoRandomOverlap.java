@@ -1,7 +1,7 @@
 package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.chainedMNSLocalOpt;
 
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.chainedMNSLocalOpt.ChainedMNSLocalNOpt;
-import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.ExhaustivelyEnumeratingLocal7Optimizer;
+import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.DynamicProgrammingLocalOptimizer;
 
 /**
  * the test of the local 7-opt algorithm
@@ -20,7 +20,7 @@ public class ChainedMNSLocal7OptTestNoRandomOverlap extends
     final ChainedMNSLocalNOpt algo;
 
     algo = super.createAlgorithm();
-    algo.setLocalOptimizer(new ExhaustivelyEnumeratingLocal7Optimizer());
+    algo.setLocalOptimizer(new DynamicProgrammingLocalOptimizer(7));
     return algo;
   }
 }
@@ -0,0 +1,22 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.extremalDynamics;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.extremalDynamics.ExtremalDynamics;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the Extremal Dynamics algorithm
+ */
+public class ExtremalDynamicsTest extends TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public ExtremalDynamicsTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ExtremalDynamics createAlgorithm() {
+    return new ExtremalDynamics();
+  }
+}
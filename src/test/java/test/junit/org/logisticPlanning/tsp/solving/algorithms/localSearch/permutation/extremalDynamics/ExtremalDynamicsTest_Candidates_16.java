@@ -0,0 +1,29 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.extremalDynamics;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.extremalDynamics.ExtremalDynamics;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the Extremal Dynamics algorithm ranking only the {@code 16}
+ * nearest neighbors of the first city as candidates for the second city
+ * of a move
+ */
+public class ExtremalDynamicsTest_Candidates_16 extends
+    TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public ExtremalDynamicsTest_Candidates_16() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ExtremalDynamics createAlgorithm() {
+    final ExtremalDynamics ed;
+
+    ed = new ExtremalDynamics();
+    ed.setCandidateCount(16);
+    return ed;
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * Testing the Extremal Dynamics algorithm.
+ */
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.extremalDynamics;
@@ -0,0 +1,23 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan.LinKernighan;
+
+/**
+ * the test of the candidate-set based lin-kernighan search of permutations
+ */
+public class LinKernighanWithCandidatesTest extends LinKernighanTest {
+
+  /** create */
+  public LinKernighanWithCandidatesTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected LinKernighan createAlgorithm() {
+    LinKernighan res;
+    res = super.createAlgorithm();
+    res.setCandidateCount(8);
+    return res;
+  }
+}
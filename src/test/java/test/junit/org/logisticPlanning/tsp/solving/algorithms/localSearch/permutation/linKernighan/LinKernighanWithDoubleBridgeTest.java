@@ -0,0 +1,26 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan.LinKernighan;
+import org.logisticPlanning.tsp.solving.operators.permutation.perturbation.GeometricDoubleBridgePerturbation;
+
+/**
+ * the test of the chained lin-kernighan search of permutations with
+ * geometric double-bridge kicks
+ */
+public class LinKernighanWithDoubleBridgeTest extends LinKernighanTest {
+
+  /** create */
+  public LinKernighanWithDoubleBridgeTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected LinKernighan createAlgorithm() {
+    LinKernighan res;
+    res = super.createAlgorithm();
+    res.setCandidateCount(8);
+    res.setPerturbationOperator(new GeometricDoubleBridgePerturbation());
+    return res;
+  }
+}
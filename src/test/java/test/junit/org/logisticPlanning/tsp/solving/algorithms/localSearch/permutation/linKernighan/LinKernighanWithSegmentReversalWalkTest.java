@@ -0,0 +1,27 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan.LinKernighan;
+import org.logisticPlanning.tsp.solving.operators.permutation.perturbation.SegmentReversalWalkPerturbation;
+
+/**
+ * the test of the chained lin-kernighan search of permutations with
+ * segment-reversal walk kicks
+ */
+public class LinKernighanWithSegmentReversalWalkTest extends
+    LinKernighanTest {
+
+  /** create */
+  public LinKernighanWithSegmentReversalWalkTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected LinKernighan createAlgorithm() {
+    LinKernighan res;
+    res = super.createAlgorithm();
+    res.setCandidateCount(8);
+    res.setPerturbationOperator(new SegmentReversalWalkPerturbation());
+    return res;
+  }
+}
@@ -0,0 +1,31 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.linKernighan.LinKernighan;
+import org.logisticPlanning.tsp.solving.operators.permutation.perturbation.DoubleBridgePerturbation;
+
+/**
+ * the test of the chained lin-kernighan search of permutations with
+ * double-bridge kicks at uniformly random cut positions
+ */
+public class LinKernighanWithUniformDoubleBridgeTest extends
+    LinKernighanTest {
+
+  /** create */
+  public LinKernighanWithUniformDoubleBridgeTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected LinKernighan createAlgorithm() {
+    final DoubleBridgePerturbation kick;
+    LinKernighan res;
+
+    res = super.createAlgorithm();
+    res.setCandidateCount(8);
+    kick = new DoubleBridgePerturbation();
+    kick.setMaxSegmentLength(0);
+    res.setPerturbationOperator(kick);
+    return res;
+  }
+}
@@ -0,0 +1,22 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.lkh;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.lkh.LKH5Opt;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the LKH-style 5-opt local search
+ */
+public class LKH5OptTest extends TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public LKH5OptTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected LKH5Opt createAlgorithm() {
+    return new LKH5Opt();
+  }
+}
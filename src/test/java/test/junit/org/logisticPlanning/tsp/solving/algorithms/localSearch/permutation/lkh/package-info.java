@@ -0,0 +1,4 @@
+/**
+ * Testing the LKH-style 5-opt local search.
+ */
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.lkh;
@@ -1,7 +1,7 @@
 package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.localOpt;
 
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.localOpt.LocalNOpt;
-import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.ExhaustivelyEnumeratingLocal7Optimizer;
+import org.logisticPlanning.tsp.solving.operators.permutation.localOpt.DynamicProgrammingLocalOptimizer;
 
 /**
  * the test of the local 7-opt algorithm
@@ -19,7 +19,7 @@ public class Local7OptTestRandomOverlap extends LocalNOptTestRandomOverlap {
     final LocalNOpt algo;
 
     algo = super.createAlgorithm();
-    algo.setLocalOptimizer(new ExhaustivelyEnumeratingLocal7Optimizer());
+    algo.setLocalOptimizer(new DynamicProgrammingLocalOptimizer(7));
     return algo;
   }
 }
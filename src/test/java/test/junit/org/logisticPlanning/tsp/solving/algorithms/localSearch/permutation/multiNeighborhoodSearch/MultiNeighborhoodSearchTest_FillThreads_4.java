@@ -0,0 +1,24 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch;
+
+/**
+ * the test of the multi neighborhood search with four threads filling the move queue
+ */
+public class MultiNeighborhoodSearchTest_FillThreads_4 extends
+    MultiNeighborhoodSearchTest {
+
+  /** create */
+  public MultiNeighborhoodSearchTest_FillThreads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected MultiNeighborhoodSearch createAlgorithm() {
+    final MultiNeighborhoodSearch ms;
+    ms = super.createAlgorithm();
+    ms.setMoveQueueFillThreads(4);
+    return ms;
+  }
+}
@@ -0,0 +1,22 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.orOpt;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.orOpt.OrOpt;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * the test of the Or-opt local search
+ */
+public class OrOptTest extends TSPAlgorithmSymmetricTest {
+
+  /** create */
+  public OrOptTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected OrOpt createAlgorithm() {
+    return new OrOpt();
+  }
+}
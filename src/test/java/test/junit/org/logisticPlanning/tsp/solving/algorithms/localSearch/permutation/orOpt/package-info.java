@@ -0,0 +1,4 @@
+/**
+ * Testing the Or-opt local search.
+ */
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.orOpt;
@@ -0,0 +1,20 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition.PartitionParallelLocalSearch;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/** A test for the partition-parallel local search */
+public class PartitionParallelLocalSearchTest extends
+    TSPAlgorithmSymmetricTest {
+  /** create */
+  public PartitionParallelLocalSearchTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected PartitionParallelLocalSearch createAlgorithm() {
+    return new PartitionParallelLocalSearch();
+  }
+}
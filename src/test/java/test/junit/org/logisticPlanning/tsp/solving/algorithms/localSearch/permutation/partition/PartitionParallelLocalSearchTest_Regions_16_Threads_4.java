@@ -0,0 +1,27 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition.PartitionParallelLocalSearch;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/**
+ * A test for the partition-parallel local search with small regions and 4
+ * threads
+ */
+public class PartitionParallelLocalSearchTest_Regions_16_Threads_4 extends
+    TSPAlgorithmSymmetricTest {
+  /** create */
+  public PartitionParallelLocalSearchTest_Regions_16_Threads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected PartitionParallelLocalSearch createAlgorithm() {
+    final PartitionParallelLocalSearch ls;
+    ls = new PartitionParallelLocalSearch();
+    ls.setRegionSize(16);
+    ls.setThreadCount(4);
+    return ls;
+  }
+}
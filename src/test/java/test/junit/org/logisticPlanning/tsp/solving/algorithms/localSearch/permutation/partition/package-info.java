@@ -0,0 +1,4 @@
+/**
+ * Testing the partition-parallel local search.
+ */
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.partition;
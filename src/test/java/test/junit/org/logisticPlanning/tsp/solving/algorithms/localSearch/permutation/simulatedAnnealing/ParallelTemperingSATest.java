@@ -0,0 +1,93 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing.ParallelTemperingSA;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/** A test for the parallel tempering algorithm */
+public class ParallelTemperingSATest extends TSPAlgorithmSymmetricTest {
+  /** create */
+  public ParallelTemperingSATest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ParallelTemperingSA createAlgorithm() {
+    return new ParallelTemperingSA();
+  }
+
+  /**
+   * Check whether each move proposed by the chains makes the chosen
+   * neighbor the successor or predecessor of the chosen node.
+   */
+  @Test(timeout = 3600000)
+  public void testMovesMakeNodesAdjacent() {
+    final Randomizer r;
+    int[] tour, copy;
+    int n, i, j, a, b, node, neighbor, pos;
+
+    r = new Randomizer();
+    for (n = 3; n <= 16; n++) {
+      tour = PermutationCreateUniform.create(n, r);
+      for (i = n; (--i) >= 0;) {
+        node = tour[i];
+        for (j = n; (--j) >= 0;) {
+          if (i == j) {
+            continue;
+          }
+          neighbor = tour[j];
+
+          a = ((i + 1) % n);
+          b = j;
+          if (a != b) {
+            for (final PermutationUpdateOperator op : ParallelTemperingSA.SUCCESSOR_OPERATORS) {
+              copy = tour.clone();
+              op.update(copy, a, b);
+              pos = ParallelTemperingSATest.__indexOf(copy, node);
+              Assert.assertEquals(op.toString(), neighbor,
+                  copy[(pos + 1) % n]);
+            }
+          }
+
+          a = j;
+          b = ((i + n - 1) % n);
+          if (a != b) {
+            for (final PermutationUpdateOperator op : ParallelTemperingSA.PREDECESSOR_OPERATORS) {
+              copy = tour.clone();
+              op.update(copy, a, b);
+              pos = ParallelTemperingSATest.__indexOf(copy, node);
+              Assert.assertEquals(op.toString(), neighbor,
+                  copy[(pos + n - 1) % n]);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Find the index of a node in a tour
+   *
+   * @param tour
+   *          the tour
+   * @param node
+   *          the node
+   * @return the index
+   */
+  private static final int __indexOf(final int[] tour, final int node) {
+    int i;
+
+    for (i = tour.length; (--i) >= 0;) {
+      if (tour[i] == node) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
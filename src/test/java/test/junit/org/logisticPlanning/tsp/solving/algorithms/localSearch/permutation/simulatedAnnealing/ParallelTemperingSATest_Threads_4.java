@@ -0,0 +1,22 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.simulatedAnnealing.ParallelTemperingSA;
+
+import test.junit.org.logisticPlanning.tsp.solving.algorithms.TSPAlgorithmSymmetricTest;
+
+/** A test for the parallel tempering algorithm with 4 threads */
+public class ParallelTemperingSATest_Threads_4 extends TSPAlgorithmSymmetricTest {
+  /** create */
+  public ParallelTemperingSATest_Threads_4() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected ParallelTemperingSA createAlgorithm() {
+    final ParallelTemperingSA pt;
+    pt = new ParallelTemperingSA();
+    pt.setThreadCount(4);
+    return pt;
+  }
+}
@@ -10,6 +10,7 @@ import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 import org.logisticPlanning.utils.math.random.Randomizer;
 
 import test.junit.org.logisticPlanning.tsp.benchmarking.dist.DistanceComputerTest;
@@ -29,6 +30,15 @@ public class _PermutationUpdateOperatorTest extends
   /** a reversion */
   private static final String WRONG_REVERT = "Reversion of the operation after its application did not lead to the original permutation."; //$NON-NLS-1$
 
+  /** a wrong scan result */
+  private static final String WRONG_SCAN = "The scan did not return the same move as the exhaustive loop over all index pairs."; //$NON-NLS-1$
+
+  /** a wrong successor distance */
+  private static final String WRONG_DISTANCES = "The cached successor distances are wrong."; //$NON-NLS-1$
+
+  /** a wrong position */
+  private static final String WRONG_POSITIONS = "The positions of the nodes are wrong."; //$NON-NLS-1$
+
   /** the internal randomizer */
   private final Randomizer m_r;
 
@@ -6648,4 +6658,190 @@ public class _PermutationUpdateOperatorTest extends
     this.testUpdateSpecial(Instance.VM1748);
   }
 
+  /**
+   * Test whether the bulk scans
+   * {@code scan(int[], DistanceComputer, int[], int, int, boolean, int[])}
+   * and
+   * {@code scan(int[], DistanceComputer, int[], int[], int, boolean, int[])}
+   * , with and without cached successor distances, find exactly the same
+   * move as an exhaustive loop over
+   * {@code delta(int[], DistanceComputer, int, int)} and whether the
+   * cached distances are updated correctly when the move is applied.
+   *
+   * @param inst
+   *          the instance to test
+   * @throws IOException
+   *           if io fails
+   */
+  private final void testScan(final Instance inst) throws IOException {
+    final DistanceComputer dist;
+    final int[] perm, dists, check, move, pairs, pos;
+    final int n;
+    final PermutationUpdateOperator op;
+    final Randomizer rrr;
+    int iteration, i, j, k, begin, end, count, delta, bestDelta, bestI, bestJ;
+    boolean first;
+
+    dist = inst.load(4096);
+    Assert.assertNotNull(dist);
+    n = dist.n();
+    op = this.getOperator();
+
+    rrr = new Randomizer();
+    perm = PermutationCreateUniform.create(n, rrr);
+    dists = new int[n];
+    check = new int[n];
+    move = new int[2];
+    pairs = new int[2 * n];
+    pos = new int[n + 1];
+    for (i = n; (--i) >= 0;) {
+      pos[perm[i]] = i;
+    }
+
+    Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_DISTANCES,
+        dist.evaluate(perm),
+        PermutationUpdateOperator.initDistances(perm, dist, dists));
+
+    for (iteration = 30; (--iteration) >= 0;) {
+      first = rrr.nextBoolean();
+      if ((iteration & 3) == 0) {
+        begin = (-2);
+        end = (n + 1);
+      } else {
+        begin = (rrr.nextInt(n) - 2);
+        end = (begin + rrr.nextInt(10));
+      }
+
+      // the exhaustive loop
+      bestI = bestJ = (-1);
+      bestDelta = PermutationUpdateOperator.NO_EFFECT;
+      findBest: for (j = n; (--j) > 0;) {
+        for (i = j; (--i) >= 0;) {
+          if (!(RepresentationUtils.isInPathRange(i, begin, end, n) || //
+          RepresentationUtils.isInPathRange(j, begin, end, n))) {
+            continue;
+          }
+          delta = op.delta(perm, dist, i, j);
+          if (delta < bestDelta) {
+            bestDelta = delta;
+            bestI = i;
+            bestJ = j;
+            if (first && (delta < 0)) {
+              break findBest;
+            }
+          }
+        }
+      }
+
+      for (k = 0; k < 2; k++) {
+        move[0] = move[1] = (-1);
+        delta = op.scan(perm, dist, ((k == 0) ? dists : null), begin, end,
+            first, move);
+        Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_SCAN,
+            bestDelta, delta);
+        if (bestDelta != PermutationUpdateOperator.NO_EFFECT) {
+          Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_SCAN,
+              bestI, move[0]);
+          Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_SCAN,
+              bestJ, move[1]);
+        }
+      }
+
+      // a random list of index pairs
+      count = rrr.nextInt(n);
+      bestDelta = PermutationUpdateOperator.NO_EFFECT;
+      for (k = 0; k < count; k++) {
+        i = rrr.nextInt(n - 1);
+        j = (i + 1 + rrr.nextInt(n - i - 1));
+        pairs[k << 1] = i;
+        pairs[(k << 1) + 1] = j;
+        delta = op.delta(perm, dist, i, j);
+        Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_DISTANCES,
+            delta, op.delta(perm, dist, dists, i, j));
+        if (delta < bestDelta) {
+          bestDelta = delta;
+          bestI = i;
+          bestJ = j;
+        }
+      }
+      move[0] = move[1] = (-1);
+      delta = op.scan(perm, dist, dists, pairs, count, false, move);
+      Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_SCAN,
+          bestDelta, delta);
+      if (bestDelta != PermutationUpdateOperator.NO_EFFECT) {
+        Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_SCAN,
+            bestI, move[0]);
+        Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_SCAN,
+            bestJ, move[1]);
+      }
+
+      // apply a random move and update the distances
+      i = rrr.nextInt(n);
+      do {
+        j = rrr.nextInt(n);
+      } while (j == i);
+      op.update(perm, i, j);
+      op.updateDistances(perm, dist, dists, i, j);
+      op.updatePositions(perm, pos, i, j);
+      PermutationUpdateOperator.initDistances(perm, dist, check);
+      Assert.assertTrue(_PermutationUpdateOperatorTest.WRONG_DISTANCES,
+          Arrays.equals(check, dists));
+      for (k = n; (--k) >= 0;) {
+        Assert.assertEquals(_PermutationUpdateOperatorTest.WRONG_POSITIONS,
+            k, pos[perm[k]]);
+      }
+    }
+  }
+
+  /**
+   * Test the bulk scans on the instance
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#ULYSSES16}
+   * .
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  @Test(timeout = 3600000)
+  public final void testScan_ULYSSES16() throws IOException {
+    this.testScan(Instance.ULYSSES16);
+  }
+
+  /**
+   * Test the bulk scans on the instance
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#BERLIN52}
+   * .
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  @Test(timeout = 3600000)
+  public final void testScan_BERLIN52() throws IOException {
+    this.testScan(Instance.BERLIN52);
+  }
+
+  /**
+   * Test the bulk scans on the instance
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#KROA100}
+   * .
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  @Test(timeout = 3600000)
+  public final void testScan_KROA100() throws IOException {
+    this.testScan(Instance.KROA100);
+  }
+
+  /**
+   * Test the bulk scans on the instance
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#GR17},
+   * which has an explicit distance matrix.
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  @Test(timeout = 3600000)
+  public final void testScan_GR17() throws IOException {
+    this.testScan(Instance.GR17);
+  }
 }
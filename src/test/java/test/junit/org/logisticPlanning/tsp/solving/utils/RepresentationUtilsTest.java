@@ -4,6 +4,9 @@ import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperators;
 import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 import org.logisticPlanning.tsp.solving.utils.edge.Edge;
 import org.logisticPlanning.utils.math.random.Randomizer;
@@ -204,6 +207,9 @@ public final class RepresentationUtilsTest extends TourValidatorTestBase {
             Assert.assertEquals(//
                 RepresentationUtils.pathHashCode(perm1),//
                 RepresentationUtils.pathHashCode(perm2));
+            Assert.assertEquals(//
+                RepresentationUtils.pathEdgeHash(perm1),//
+                RepresentationUtils.pathEdgeHash(perm2));
           }
 
           Assert.assertTrue(//
@@ -221,6 +227,183 @@ public final class RepresentationUtilsTest extends TourValidatorTestBase {
 
   }
 
+  /**
+   * Test whether the edge hash of a path is correctly updated by the
+   * {@link org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator#edgeHashDelta(int[], int, int)
+   * edge hash deltas} of the update operators
+   */
+  @Test(timeout = 3600000)
+  public final void edgeHashUpdateTest() {
+    final Randomizer r;
+    int[] perm, copy;
+    int n, i, a, b;
+    long hash;
+
+    r = new Randomizer();
+    for (n = 3; n <= 12; n++) {
+      for (i = 20; (--i) >= 0;) {
+        perm = PermutationCreateUniform.create(n, r);
+        for (final PermutationUpdateOperator op : PermutationUpdateOperators.OPERATORS_AND_COMPLEMENT) {
+          for (a = n; (--a) >= 0;) {
+            for (b = n; (--b) >= 0;) {
+              copy = perm.clone();
+              hash = (RepresentationUtils.pathEdgeHash(copy) ^ //
+                  op.edgeHashDelta(copy, a, b));
+              op.update(copy, a, b);
+              Assert.assertEquals(RepresentationUtils.pathEdgeHash(copy),
+                  hash);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Test whether the edge hash of a path stays equal to a full
+   * recomputation when it is only updated incrementally via
+   * {@link org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator#edgeHashDelta(int[], int, int)}
+   * during a long sequence of random moves
+   */
+  @Test(timeout = 3600000)
+  public final void edgeHashWalkTest() {
+    final Randomizer r;
+    final PermutationUpdateOperator[] ops;
+    PermutationUpdateOperator op;
+    int[] perm;
+    int n, i, a, b;
+    long hash;
+
+    r = new Randomizer();
+    ops = PermutationUpdateOperators.OPERATORS_AND_COMPLEMENT;
+    for (n = 3; n <= 100; n++) {
+      perm = PermutationCreateUniform.create(n, r);
+      hash = RepresentationUtils.pathEdgeHash(perm);
+      for (i = 1000; (--i) >= 0;) {
+        op = ops[r.nextInt(ops.length)];
+        a = r.nextInt(n);
+        b = r.nextInt(n);
+        hash ^= op.edgeHashDelta(perm, a, b);
+        op.update(perm, a, b);
+        Assert.assertEquals(RepresentationUtils.pathEdgeHash(perm), hash);
+      }
+    }
+  }
+
+  /**
+   * Test whether an update operator which does not support incremental
+   * edge hashing refuses to compute an edge hash delta instead of
+   * silently returning a wrong one
+   */
+  @Test(timeout = 3600000, expected = UnsupportedOperationException.class)
+  public final void edgeHashUnsupportedTest() {
+    new PermutationUpdateOperator("unsupported") { //-NLS-1$
+      private static final long serialVersionUID = 1L;
+    }.edgeHashDelta(new int[] { 0, 1, 2, 3 }, 0, 2);
+  }
+
+  /**
+   * test the computation, extension, and checking of ranges of positions
+   * in paths
+   */
+  @Test(timeout = 3600000)
+  public final void pathRangeTest() {
+    final Randomizer r;
+    final int[] range;
+    boolean[] in;
+    int[] perm, nodes;
+    int n, k, count, i, j, p;
+
+    r = new Randomizer();
+    range = new int[2];
+    for (n = 3; n <= 30; n++) {
+      nodes = new int[n];
+      in = new boolean[n];
+      for (k = 200; (--k) >= 0;) {
+        perm = PermutationCreateUniform.create(n, r);
+
+        // pick some nodes and compute their range
+        count = (1 + r.nextInt(n));
+        System.arraycopy(perm, 0, nodes, 0, n);
+        r.shuffle(nodes, 0, n);
+        Assert.assertTrue(RepresentationUtils.getPathRange(perm, nodes,
+            count, range));
+        Arrays.fill(in, false);
+        for (p = n; (--p) >= 0;) {
+          for (i = count; (--i) >= 0;) {
+            if (perm[p] == nodes[i]) {
+              in[p] = true;
+            }
+          }
+        }
+        RepresentationUtilsTest.__checkRange(range, in, n);
+
+        // extend the range
+        for (p = n; (--p) >= 0;) {
+          in[p] = RepresentationUtils.isInPathRange(p, range[0], range[1],
+              n);
+        }
+        i = r.nextInt(n);
+        j = (i + r.nextInt(n - i));
+        for (p = i; p <= j; p++) {
+          in[p] = true;
+        }
+        RepresentationUtils.extendPathRange(range, i, j, n);
+        RepresentationUtilsTest.__checkRange(range, in, n);
+      }
+
+      Assert.assertFalse(RepresentationUtils.getPathRange(
+          PermutationCreateUniform.create(n, r), nodes, 0, range));
+    }
+  }
+
+  /**
+   * Check that a range contains all marked positions and is the shortest
+   * such range.
+   *
+   * @param range
+   *          the range
+   * @param in
+   *          the marked positions
+   * @param n
+   *          the number of positions
+   */
+  private static final void __checkRange(final int[] range,
+      final boolean[] in, final int n) {
+    int p, start, len, best;
+
+    Assert.assertTrue((range[0] >= 0) && (range[0] < n));
+    Assert.assertTrue(range[1] >= range[0]);
+    Assert.assertTrue(range[1] < (range[0] + n));
+
+    for (p = n; (--p) >= 0;) {
+      if (in[p]) {
+        Assert.assertTrue(RepresentationUtils.isInPathRange(p, range[0],
+            range[1], n));
+      }
+    }
+
+    // find the shortest range by brute force
+    best = n;
+    for (start = n; (--start) >= 0;) {
+      findLength: for (len = 1; len < best; len++) {
+        for (p = n; (--p) >= 0;) {
+          if (in[p] && ((((p - start) + n) % n) >= len)) {
+            continue findLength;
+          }
+        }
+        best = len;
+      }
+    }
+
+    len = ((range[1] - range[0]) + 1);
+    if (best >= (n - 1)) {
+      Assert.assertTrue(len >= best);
+    } else {
+      Assert.assertEquals(best, len);
+    }
+  }
+
   /**
    * invalidate an array of edges
    *
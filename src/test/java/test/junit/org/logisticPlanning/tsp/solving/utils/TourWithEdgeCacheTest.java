@@ -0,0 +1,275 @@
+package test.junit.org.logisticPlanning.tsp.solving.utils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Reverse;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Left;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Right;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Swap;
+import org.logisticPlanning.tsp.solving.utils.TourWithEdgeCache;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.TestBase;
+
+/**
+ * Test the tour with edge cache against a plain path which is updated by
+ * the permutation update operators.
+ */
+public class TourWithEdgeCacheTest extends TestBase {
+
+  /** create */
+  public TourWithEdgeCacheTest() {
+    super();
+  }
+
+  /**
+   * check that the cache corresponds to the path
+   *
+   * @param tour
+   *          the tour
+   * @param path
+   *          the path
+   * @param dist
+   *          the distance computer
+   */
+  private static final void __check(final TourWithEdgeCache tour,
+      final int[] path, final DistanceComputer dist) {
+    final int n;
+    final int[] edges;
+    int i;
+
+    n = path.length;
+    Assert.assertTrue(Arrays.equals(path, tour.getPath()));
+    edges = tour.getEdgeLengths();
+    for (i = 0; i < n; i++) {
+      Assert.assertEquals(i, tour.getPosition(path[i]));
+      Assert.assertEquals(dist.distance(path[i], path[(i + 1) % n]),
+          edges[i]);
+    }
+  }
+
+  /**
+   * apply random moves to a tour and compare it with a plain path
+   *
+   * @param inst
+   *          the instance
+   * @throws IOException
+   *           if io fails
+   */
+  private static final void __testMoves(final Instance inst)
+      throws IOException {
+    final DistanceComputer dist;
+    final Randomizer r;
+    final TourWithEdgeCache tour;
+    final int[] path, copy;
+    final int n;
+    PermutationUpdateOperator op;
+    int iteration, i, j, nm1, delta;
+
+    dist = inst.load(4096);
+    Assert.assertNotNull(dist);
+    n = dist.n();
+    nm1 = (n - 1);
+    r = new Randomizer();
+
+    path = PermutationCreateUniform.create(n, r);
+    copy = path.clone();
+    tour = new TourWithEdgeCache(n);
+    Assert.assertEquals(dist.evaluate(path), tour.init(copy, dist));
+    TourWithEdgeCacheTest.__check(tour, path, dist);
+
+    for (iteration = 0; iteration < 1000; iteration++) {
+      i = r.nextInt(nm1);
+      j = (i + 1 + r.nextInt(nm1 - i));
+
+      switch (r.nextInt(8)) {
+        case 0: {
+          op = PermutationUpdate_Reverse.INSTANCE;
+          Assert.assertEquals(op.delta(path, dist, i, j),
+              tour.reverseDelta(i, j));
+          tour.reverse(i, j);
+          break;
+        }
+        case 1: {
+          op = PermutationUpdate_Swap.INSTANCE;
+          Assert.assertEquals(op.delta(path, dist, i, j),
+              tour.swapDelta(i, j));
+          tour.swap(i, j);
+          break;
+        }
+        case 2: {
+          op = PermutationUpdate_Rotate_Left.INSTANCE;
+          Assert.assertEquals(op.delta(path, dist, i, j),
+              tour.rotateLeftDelta(i, j));
+          tour.rotateLeft(i, j);
+          break;
+        }
+        case 3: {
+          op = PermutationUpdate_Rotate_Right.INSTANCE;
+          Assert.assertEquals(op.delta(path, dist, i, j),
+              tour.rotateRightDelta(i, j));
+          tour.rotateRight(i, j);
+          break;
+        }
+        case 4: {// a reversal wrapping around the end of the path
+          op = PermutationUpdate_Reverse.INSTANCE;
+          delta = op.delta(path, dist, j, i);
+          Assert.assertEquals(delta, tour.reverseDelta(j, i));
+          tour.reverse(j, i);
+          op.update(path, j, i);
+          TourWithEdgeCacheTest.__check(tour, path, dist);
+          continue;
+        }
+        case 5: {// a reversal written as a re-arranged range
+          op = PermutationUpdate_Reverse.INSTANCE;
+          if ((j - i) >= nm1) {
+            continue;
+          }
+          TourWithEdgeCacheTest.__replaceReversed(tour, path, dist, i, j);
+          break;
+        }
+        default: {// apply the move with known edge lengths
+          op = TourWithEdgeCacheTest.__knownLengths(tour, path, dist,
+              r.nextInt(4), i, j);
+        }
+      }
+
+      op.update(path, i, j);
+      TourWithEdgeCacheTest.__check(tour, path, dist);
+    }
+  }
+
+  /**
+   * reverse a range of a tour by replacing it with its reversed nodes
+   *
+   * @param tour
+   *          the tour
+   * @param path
+   *          the path, which is not changed
+   * @param dist
+   *          the distance computer
+   * @param i
+   *          the first index
+   * @param j
+   *          the second index, {@code i<j}
+   */
+  private static final void __replaceReversed(final TourWithEdgeCache tour,
+      final int[] path, final DistanceComputer dist, final int i,
+      final int j) {
+    final int[] nodes, lengths;
+    final int n, length;
+    int k;
+
+    n = path.length;
+    length = ((j - i) + 1);
+    nodes = new int[length];
+    lengths = new int[length];
+    for (k = 0; k < length; k++) {
+      nodes[k] = path[j - k];
+    }
+    for (k = 0; k < (length - 1); k++) {
+      lengths[k] = dist.distance(nodes[k], nodes[k + 1]);
+    }
+    lengths[length - 1] = dist.distance(path[i], path[(j + 1) % n]);
+    tour.replace(i, length, nodes, lengths,
+        dist.distance(path[((i + n) - 1) % n], path[j]));
+  }
+
+  /**
+   * apply a move to a tour whose new edge lengths are computed before
+   *
+   * @param tour
+   *          the tour
+   * @param path
+   *          the path, which is not changed
+   * @param dist
+   *          the distance computer
+   * @param type
+   *          the type of the move
+   * @param i
+   *          the first index
+   * @param j
+   *          the second index
+   * @return the operator to apply to the path
+   */
+  private static final PermutationUpdateOperator __knownLengths(
+      final TourWithEdgeCache tour, final int[] path,
+      final DistanceComputer dist, final int type, final int i, final int j) {
+    final int[] p;
+    final int n, im1, jp1;
+    final PermutationUpdateOperator op;
+
+    n = path.length;
+    im1 = (((i + n) - 1) % n);
+    jp1 = ((j + 1) % n);
+    p = path.clone();
+
+    switch (type) {
+      case 0: {
+        op = PermutationUpdate_Reverse.INSTANCE;
+        op.update(p, i, j);
+        if ((j - i) < (n - 1)) {
+          tour.reverse(i, j, dist.distance(p[im1], p[i]),
+              dist.distance(p[j], p[jp1]));
+        } else {
+          tour.reverse(i, j);
+        }
+        break;
+      }
+      case 1: {
+        op = PermutationUpdate_Swap.INSTANCE;
+        op.update(p, i, j);
+        tour.swap(i, j, dist.distance(p[im1], p[i]),
+            dist.distance(p[i], p[i + 1]), dist.distance(p[j - 1], p[j]),
+            dist.distance(p[j], p[jp1]));
+        break;
+      }
+      case 2: {
+        op = PermutationUpdate_Rotate_Left.INSTANCE;
+        op.update(p, i, j);
+        tour.rotateLeft(i, j, dist.distance(p[im1], p[i]),
+            dist.distance(p[j - 1], p[j]), dist.distance(p[j], p[jp1]));
+        break;
+      }
+      default: {
+        op = PermutationUpdate_Rotate_Right.INSTANCE;
+        op.update(p, i, j);
+        tour.rotateRight(i, j, dist.distance(p[im1], p[i]),
+            dist.distance(p[i], p[i + 1]), dist.distance(p[j], p[jp1]));
+      }
+    }
+
+    return op;
+  }
+
+  /**
+   * test random moves on
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#ULYSSES16}
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  @Test(timeout = 3600000)
+  public void testMoves_ULYSSES16() throws IOException {
+    TourWithEdgeCacheTest.__testMoves(Instance.ULYSSES16);
+  }
+
+  /**
+   * test random moves on
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#EIL101}
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  @Test(timeout = 3600000)
+  public void testMoves_EIL101() throws IOException {
+    TourWithEdgeCacheTest.__testMoves(Instance.EIL101);
+  }
+}
@@ -0,0 +1,196 @@
+package test.junit.org.logisticPlanning.tsp.solving.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+import org.logisticPlanning.tsp.solving.utils.TwoLevelDoublyLinkedList;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.TestBase;
+
+/**
+ * Test the two-level doubly linked list against a tour in path
+ * representation.
+ */
+public class TwoLevelDoublyLinkedListTest extends TestBase {
+
+  /** create */
+  public TwoLevelDoublyLinkedListTest() {
+    super();
+  }
+
+  /**
+   * check that the list corresponds to the path
+   *
+   * @param list
+   *          the list
+   * @param path
+   *          the path
+   * @param pos
+   *          the positions of the nodes in the path
+   * @param r
+   *          the randomizer
+   */
+  private static final void __check(final TwoLevelDoublyLinkedList list,
+      final int[] path, final int[] pos, final Randomizer r) {
+    final int n;
+    int i, a, b, c, db, dc;
+
+    n = path.length;
+    for (i = 0; i < n; i++) {
+      pos[path[i] - 1] = i;
+    }
+
+    for (i = 0; i < n; i++) {
+      Assert.assertEquals(path[(i + 1) % n], list.next(path[i]));
+      Assert.assertEquals(path[((i + n) - 1) % n], list.prev(path[i]));
+    }
+
+    for (i = 100; (--i) >= 0;) {
+      a = (1 + r.nextInt(n));
+      b = (1 + r.nextInt(n));
+      c = (1 + r.nextInt(n));
+      db = (((pos[b - 1] - pos[a - 1]) + n) % n);
+      dc = (((pos[c - 1] - pos[a - 1]) + n) % n);
+      Assert.assertEquals((db <= dc), list.between(a, b, c));
+      Assert.assertEquals(((a != b) && (b != c) && (a != c) && (db <= dc)),
+          list.sequence(a, b, c));
+    }
+  }
+
+  /** test random reversals */
+  @Test(timeout = 3600000)
+  public void testReverse() {
+    final Randomizer r;
+    TwoLevelDoublyLinkedList list;
+    int[] path, pos, adj, out;
+    int i, j, k, n, from, to, len, x, y, t, g;
+
+    r = new Randomizer();
+
+    for (i = 1; i <= 200; i++) {
+      if (i < 20) {
+        n = i;
+      } else {
+        n = (2 + r.nextInt(2000));
+      }
+
+      list = new TwoLevelDoublyLinkedList(n);
+      Assert.assertEquals(n, list.n());
+      path = PermutationCreateUniform.create(n, r);
+      pos = new int[n];
+      out = new int[n];
+
+      if ((i & 1) == 0) {
+        list.fromPath(path);
+      } else {
+        adj = new int[n];
+        for (j = 0; j < n; j++) {
+          adj[path[j] - 1] = path[(j + 1) % n];
+        }
+        list.fromAdjacency(adj);
+      }
+      g = list.getMaxSegmentSize();
+
+      for (j = 0; j < 300; j++) {
+        TwoLevelDoublyLinkedListTest.__check(list, path, pos, r);
+
+        from = (1 + r.nextInt(n));
+        to = (1 + r.nextInt(n));
+        list.reverse(from, to);
+        Assert.assertTrue(list.getMaxSegmentSize() <= (g << 1));
+
+        len = ((((pos[to - 1] - pos[from - 1]) + n) % n) + 1);
+        x = pos[from - 1];
+        y = pos[to - 1];
+        for (k = (len >>> 1); (--k) >= 0;) {
+          t = path[x];
+          path[x] = path[y];
+          path[y] = t;
+          x = ((x + 1) % n);
+          y = (((y + n) - 1) % n);
+        }
+      }
+
+      TwoLevelDoublyLinkedListTest.__check(list, path, pos, r);
+      list.toPath(out);
+      Assert.assertTrue(RepresentationUtils.arePathsEquivalentSTSP(path,
+          out));
+
+      adj = new int[n];
+      list.toAdjacency(adj);
+      for (j = 0; j < n; j++) {
+        Assert.assertEquals(path[(j + 1) % n], adj[path[j] - 1]);
+      }
+    }
+  }
+
+  /** test the 2-opt flip */
+  @Test(timeout = 3600000)
+  public void testFlip() {
+    final Randomizer r;
+    TwoLevelDoublyLinkedList list;
+    int[] path;
+    int i, n, a, b, c, d;
+
+    r = new Randomizer();
+    n = 1000;
+    list = new TwoLevelDoublyLinkedList(n);
+    path = PermutationCreateUniform.create(n, r);
+    list.fromPath(path);
+
+    for (i = 10000; (--i) >= 0;) {
+      a = (1 + r.nextInt(n));
+      b = list.next(a);
+      c = (1 + r.nextInt(n));
+      d = list.next(c);
+      if ((c == a) || (c == b) || (d == a)) {
+        continue;
+      }
+      list.flip(a, b, c, d);
+      Assert.assertEquals(c, list.next(a));
+      Assert.assertEquals(d, list.next(b));
+    }
+  }
+
+  /** a flip whose edges are not tour edges is rejected */
+  @Test(timeout = 3600000, expected = IllegalArgumentException.class)
+  public void testFlipNonAdjacent() {
+    final TwoLevelDoublyLinkedList list;
+    final int a, c;
+
+    list = new TwoLevelDoublyLinkedList(100);
+    list.fromPath(PermutationCreateUniform.create(100, new Randomizer()));
+    a = 1;
+    c = list.next(list.next(list.next(a)));
+    list.flip(a, list.next(list.next(a)), c, list.next(c));
+  }
+
+  /** test that the segments stay balanced during many short reversals */
+  @Test(timeout = 3600000)
+  public void testBalance() {
+    final Randomizer r;
+    final TwoLevelDoublyLinkedList list;
+    final int n, g, segCount;
+    int i, from, to, k;
+
+    r = new Randomizer();
+    n = 10000;
+    list = new TwoLevelDoublyLinkedList(n);
+    list.fromPath(PermutationCreateUniform.create(n, r));
+    g = list.getMaxSegmentSize();
+    segCount = list.getSegmentCount();
+
+    for (i = 100000; (--i) >= 0;) {
+      from = (1 + r.nextInt(n));
+      to = from;
+      for (k = r.nextInt(3 * g); (--k) >= 0;) {
+        to = list.next(to);
+      }
+      list.reverse(from, to);
+      Assert.assertTrue(list.getMaxSegmentSize() <= (g << 1));
+      Assert.assertTrue(list.getSegmentCount() <= ((segCount << 1) + 2));
+    }
+  }
+}
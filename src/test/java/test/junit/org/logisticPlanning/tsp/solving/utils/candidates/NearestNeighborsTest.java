@@ -0,0 +1,140 @@
+package test.junit.org.logisticPlanning.tsp.solving.utils.candidates;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors;
+import org.logisticPlanning.utils.NamedObject;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.NearestNeighbors
+ * neighbor lists} computed with the projected grid against the lists
+ * obtained from all distances.
+ */
+public class NearestNeighborsTest extends TestBase {
+
+  /** the number of neighbors per node */
+  private static final int M = 10;
+
+  /** create */
+  public NearestNeighborsTest() {
+    super();
+  }
+
+  /**
+   * Compute the neighbor lists of an instance and check them
+   *
+   * @param inst
+   *          the instance
+   * @param exact
+   *          must the lists hold the exact nearest neighbors?
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  private static final void __test(final Instance inst, final boolean exact)
+      throws Throwable {
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final int n, m;
+    final int[] neighbors, distances, all;
+    int i, j, k, base;
+
+    n = inst.n();
+    m = NearestNeighborsTest.M;
+    neighbors = new int[n * m];
+    distances = new int[n * m];
+    all = new int[n - 1];
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = new Benchmark(tempDir.getDir(), inst);
+      bm.setMaxDEs(Long.MAX_VALUE);
+      bm.setMaxFEs(Long.MAX_VALUE);
+      bm.setMaxRuntime(Long.MAX_VALUE);
+      f = bm.createObjective();
+
+      f.beginRun(new NamedObject("nearestNeighborsTest")); //$NON-NLS-1$
+      try {
+        NearestNeighbors.compute(f, m, neighbors, distances);
+        // the lists need far less than all n(n-1)/2 distance evaluations
+        Assert.assertTrue(f.getCurrentLogPoint().getConsumedDEs() < //
+            ((((long) n) * (n - 1)) >>> 1));
+
+        for (i = n; i > 0; i--) {
+          base = ((i - 1) * m);
+          for (k = 0; k < m; k++) {
+            j = neighbors[base + k];
+            Assert.assertTrue((j > 0) && (j <= n) && (j != i));
+            Assert.assertEquals(f.distance(i, j), distances[base + k]);
+            if (k > 0) {
+              Assert.assertTrue(distances[base + k - 1] <= distances[base
+                  + k]);
+              for (j = k; (--j) >= 0;) {
+                Assert.assertTrue(neighbors[base + j] != neighbors[base + k]);
+              }
+            }
+          }
+
+          if (exact) {
+            k = 0;
+            for (j = n; j > 0; j--) {
+              if (j != i) {
+                all[k++] = f.distance(i, j);
+              }
+            }
+            Arrays.sort(all);
+            for (k = m; (--k) >= 0;) {
+              Assert.assertEquals(all[k], distances[base + k]);
+            }
+          }
+        }
+      } finally {
+        f.endRun();
+      }
+    }
+  }
+
+  /**
+   * test the lists of
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#KROA100}
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testKROA100() throws Throwable {
+    NearestNeighborsTest.__test(Instance.KROA100, true);
+  }
+
+  /**
+   * test the lists of
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#PCB442}
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testPCB442() throws Throwable {
+    NearestNeighborsTest.__test(Instance.PCB442, true);
+  }
+
+  /**
+   * test the lists of
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#GR202},
+   * whose geographical distances are only approximated by the projection
+   *
+   * @throws Throwable
+   *           if something goes wrong
+   */
+  @Test(timeout = 3600000)
+  public void testGR202() throws Throwable {
+    NearestNeighborsTest.__test(Instance.GR202, false);
+  }
+}